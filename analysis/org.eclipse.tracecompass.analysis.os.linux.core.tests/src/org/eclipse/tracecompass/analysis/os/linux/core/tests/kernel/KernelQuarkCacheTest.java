@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.analysis.os.linux.core.tests.kernel;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel.Attributes;
+import org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel.KernelQuarkCache;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the cache of the quarks of the kernel attributes,
+ * {@link KernelQuarkCache}
+ */
+public class KernelQuarkCacheTest {
+
+    private ITmfStateSystemBuilder fStateSystem;
+
+    /**
+     * Create an empty state system in memory
+     */
+    @Before
+    public void setUp() {
+        fStateSystem = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("test", 0));
+    }
+
+    /**
+     * Test that the cached quarks are the quarks of the attribute paths
+     */
+    @Test
+    public void testQuarks() {
+        ITmfStateSystemBuilder ss = fStateSystem;
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 500; i++) {
+                int cpu = i % 8;
+                int cpuQuark = KernelQuarkCache.getCpuQuarkAndAdd(ss, cpu);
+                int currentThread = KernelQuarkCache.getChildQuarkAndAdd(ss, cpuQuark, Attributes.CURRENT_THREAD);
+                assertEquals(ss.optQuarkAbsolute(Attributes.CPUS, String.valueOf(cpu)), cpuQuark);
+                assertEquals(ss.optQuarkAbsolute(Attributes.CPUS, String.valueOf(cpu), Attributes.CURRENT_THREAD), currentThread);
+
+                int tid = i * 1000;
+                int threadQuark = KernelQuarkCache.getThreadQuarkAndAdd(ss, tid, cpu);
+                int systemCall = KernelQuarkCache.getChildQuarkAndAdd(ss, threadQuark, Attributes.SYSTEM_CALL);
+                /* Not a cached sub-attribute */
+                int other = KernelQuarkCache.getChildQuarkAndAdd(ss, threadQuark, "other");
+                String threadName = Attributes.buildThreadAttributeName(tid, cpu);
+                assertEquals(ss.optQuarkAbsolute(Attributes.THREADS, threadName), threadQuark);
+                assertEquals(ss.optQuarkAbsolute(Attributes.THREADS, threadName, Attributes.SYSTEM_CALL), systemCall);
+                assertEquals(ss.optQuarkAbsolute(Attributes.THREADS, threadName, "other"), other);
+            }
+        }
+        /* The swapper threads are per CPU */
+        int swapper = KernelQuarkCache.getThreadQuarkAndAdd(ss, 0, 3);
+        assertEquals(ss.optQuarkAbsolute(Attributes.THREADS, "0_3"), swapper);
+        /* The children are found by value too */
+        int cpuQuark = KernelQuarkCache.getCpuQuarkAndAdd(ss, 1);
+        assertEquals(KernelQuarkCache.getChildQuarkAndAdd(ss, cpuQuark, Attributes.IRQS),
+                KernelQuarkCache.getChildQuarkAndAdd(ss, cpuQuark, new String(Attributes.IRQS)));
+    }
+
+    /**
+     * Test the queries of attributes that may not exist yet
+     */
+    @Test
+    public void testOptQuarks() {
+        ITmfStateSystemBuilder ss = fStateSystem;
+        assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE, KernelQuarkCache.optCpuQuark(ss, 2));
+        assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE, KernelQuarkCache.optThreadQuark(ss, 42));
+        assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE,
+                KernelQuarkCache.optChildQuark(ss, KernelQuarkCache.optThreadQuark(ss, 42), Attributes.EXEC_NAME));
+
+        /* The missing attributes are not cached, they can be added later */
+        int execName = ss.getQuarkAbsoluteAndAdd(Attributes.THREADS, "42", Attributes.EXEC_NAME);
+        int cpu = ss.getQuarkAbsoluteAndAdd(Attributes.CPUS, "2");
+        assertEquals(cpu, KernelQuarkCache.optCpuQuark(ss, 2));
+        assertEquals(execName, KernelQuarkCache.optChildQuark(ss, KernelQuarkCache.optThreadQuark(ss, 42), Attributes.EXEC_NAME));
+        assertEquals(cpu, KernelQuarkCache.getCpuQuarkAndAdd(ss, 2));
+
+        /* Each state system has its own cache */
+        ITmfStateSystemBuilder other = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("other", 0));
+        assertEquals(ITmfStateSystem.INVALID_ATTRIBUTE, KernelQuarkCache.optCpuQuark(other, 2));
+        assertEquals(cpu, KernelQuarkCache.optCpuQuark(ss, 2));
+    }
+}
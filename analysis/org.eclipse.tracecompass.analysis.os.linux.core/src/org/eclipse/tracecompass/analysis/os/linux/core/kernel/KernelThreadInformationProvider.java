@@ -29,6 +29,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.os.linux.core.model.ProcessStatus;
 import org.eclipse.tracecompass.common.core.NonNullUtils;
 import org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel.Attributes;
+import org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel.KernelQuarkCache;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.StateSystemUtils;
 import org.eclipse.tracecompass.statesystem.core.StateSystemUtils.QuarkIterator;
@@ -73,14 +74,17 @@ public final class KernelThreadInformationProvider {
         if (ss == null) {
             return null;
         }
+        int cpuQuark = KernelQuarkCache.optChildQuark(ss, KernelQuarkCache.optCpuQuark(ss, (int) cpuId), Attributes.CURRENT_THREAD);
+        if (cpuQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
+            return null;
+        }
         try {
-            int cpuQuark = ss.getQuarkAbsolute(Attributes.CPUS, Long.toString(cpuId), Attributes.CURRENT_THREAD);
             ITmfStateInterval interval = ss.querySingleState(ts, cpuQuark);
             ITmfStateValue val = interval.getStateValue();
             if (val.getType().equals(Type.INTEGER)) {
                 return val.unboxInt();
             }
-        } catch (AttributeNotFoundException | StateSystemDisposedException | TimeRangeException e) {
+        } catch (StateSystemDisposedException | TimeRangeException e) {
         }
         return null;
     }
@@ -289,16 +293,18 @@ public final class KernelThreadInformationProvider {
         if (ss == null) {
             return null;
         }
-        Integer ppidNode;
+        int ppidNode = KernelQuarkCache.optChildQuark(ss, KernelQuarkCache.optThreadQuark(ss, threadId), Attributes.PPID);
+        if (ppidNode == ITmfStateSystem.INVALID_ATTRIBUTE) {
+            return null;
+        }
         try {
-            ppidNode = ss.getQuarkAbsolute(Attributes.THREADS, threadId.toString(), Attributes.PPID);
             ITmfStateInterval ppidInterval = ss.querySingleState(ts, ppidNode);
             ITmfStateValue ppidValue = ppidInterval.getStateValue();
 
             if (ppidValue.getType().equals(Type.INTEGER)) {
                 return Integer.valueOf(ppidValue.unboxInt());
             }
-        } catch (AttributeNotFoundException | StateSystemDisposedException | TimeRangeException e) {
+        } catch (StateSystemDisposedException | TimeRangeException e) {
         }
         return null;
     }
@@ -471,8 +477,11 @@ public final class KernelThreadInformationProvider {
             return Collections.emptyList();
         }
 
+        int threadQuark = KernelQuarkCache.optThreadQuark(ss, threadId);
+        if (threadQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
+            return Collections.emptyList();
+        }
         try {
-            int threadQuark = ss.getQuarkAbsolute(Attributes.THREADS, threadId.toString());
             List<ITmfStateInterval> statusIntervals = StateSystemUtils.queryHistoryRange(ss, threadQuark, Math.max(start, ss.getStartTime()), Math.min(end - 1, ss.getCurrentEndTime()), resolution, monitor);
             return statusIntervals;
         } catch (AttributeNotFoundException | StateSystemDisposedException | TimeRangeException e) {
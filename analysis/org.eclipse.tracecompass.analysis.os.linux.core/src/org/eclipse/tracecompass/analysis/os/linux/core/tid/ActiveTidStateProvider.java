@@ -72,6 +72,16 @@ class ActiveTidStateProvider extends AbstractTmfStateProvider {
         return new ActiveTidStateProvider(getTrace(), fLayout);
     }
 
+    /**
+     * The active TID of a CPU is set from the sched_switch events alone, it
+     * never depends on the previous state, so the state system can be built
+     * in time slices.
+     */
+    @Override
+    public boolean isRestartable() {
+        return true;
+    }
+
     @Override
     protected void eventHandle(@NonNull ITmfEvent event) {
         if (!event.getName().equals(fSchedSwitch)) {
@@ -36,6 +36,7 @@ import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.TmfEventTypeDispatcher;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 import com.google.common.collect.ImmutableMap;
@@ -85,6 +86,7 @@ public class InputOutputStateProvider extends AbstractTmfStateProvider {
 
     private final KernelEventHandler fSysEntryHandler;
     private final KernelEventHandler fSysExitHandler;
+    private final TmfEventTypeDispatcher<KernelEventHandler> fDispatcher;
 
     /**
      * Instantiate a new state provider plugin.
@@ -100,6 +102,7 @@ public class InputOutputStateProvider extends AbstractTmfStateProvider {
         fEventNames = buildEventNames(layout);
         fSysEntryHandler = new SysEntryHandler(layout);
         fSysExitHandler = new SysExitHandler(layout);
+        fDispatcher = new TmfEventTypeDispatcher<>(this::resolveHandler);
     }
 
     private Map<String, KernelEventHandler> buildEventNames(IKernelAnalysisEventLayout layout) {
@@ -136,22 +139,13 @@ public class InputOutputStateProvider extends AbstractTmfStateProvider {
             return;
         }
 
-        final String eventName = event.getName();
-
         try {
             final ITmfStateSystemBuilder ss = NonNullUtils.checkNotNull(getStateSystemBuilder());
             /*
              * Feed event to the history system if it's known to cause a state
              * transition.
              */
-            KernelEventHandler handler = fEventNames.get(eventName);
-            if (handler == null) {
-                if (isSyscallExit(eventName)) {
-                    handler = fSysExitHandler;
-                } else if (isSyscallEntry(eventName)) {
-                    handler = fSysEntryHandler;
-                }
-            }
+            KernelEventHandler handler = fDispatcher.getHandler(event);
             if (handler != null) {
                 handler.handleEvent(ss, event);
             }
@@ -172,6 +166,21 @@ public class InputOutputStateProvider extends AbstractTmfStateProvider {
         return fDisks.computeIfAbsent(deviceId, diskId -> new DiskWriteModel(diskId, checkNotNull(getStateSystemBuilder())));
     }
 
+    /**
+     * Resolve the handler of an event name, once per event name
+     */
+    private @Nullable KernelEventHandler resolveHandler(String eventName) {
+        KernelEventHandler handler = fEventNames.get(eventName);
+        if (handler == null) {
+            if (isSyscallExit(eventName)) {
+                handler = fSysExitHandler;
+            } else if (isSyscallEntry(eventName)) {
+                handler = fSysEntryHandler;
+            }
+        }
+        return handler;
+    }
+
     private boolean isSyscallEntry(String eventName) {
         return (eventName.startsWith(fLayout.eventSyscallEntryPrefix())
                 || eventName.startsWith(fLayout.eventCompatSyscallEntryPrefix()));
@@ -0,0 +1,357 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+
+/**
+ * Cache of the quarks of the CPU and thread attributes of a kernel state
+ * system, keyed by CPU number, thread ID and parent quark. It avoids
+ * converting the numbers to strings and walking the attribute tree for every
+ * event or query.
+ *
+ * There is one cache per state system, shared by the state provider building
+ * it and the data providers querying it. The quarks of a state system never
+ * change once created, so the cache is read without locking, only the
+ * additions are synchronized.
+ *
+ * The methods named "get...AndAdd" add the missing attributes, they are for
+ * the state providers. The methods named "opt..." return
+ * {@link ITmfStateSystem#INVALID_ATTRIBUTE} if the attribute does not exist.
+ */
+public final class KernelQuarkCache {
+
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    /** The sub-attributes of the CPU and thread nodes that are cached */
+    private static final String[] CHILDREN = {
+            Attributes.CURRENT_THREAD,
+            Attributes.SOFT_IRQS,
+            Attributes.IRQS,
+            Attributes.CURRENT_FREQUENCY,
+            Attributes.MIN_FREQUENCY,
+            Attributes.MAX_FREQUENCY,
+            Attributes.CURRENT_CPU_RQ,
+            Attributes.PPID,
+            Attributes.PID,
+            Attributes.EXEC_NAME,
+            Attributes.PRIO,
+            Attributes.SYSTEM_CALL
+    };
+
+    private static final Map<ITmfStateSystem, KernelQuarkCache> CACHES = new WeakHashMap<>();
+    private static volatile @Nullable KernelQuarkCache sLast = null;
+
+    /* The state system is weakly referenced, it is the key of the caches */
+    private final WeakReference<ITmfStateSystem> fStateSystem;
+
+    private volatile int fCpusQuark = UNKNOWN;
+    private volatile int fThreadsQuark = UNKNOWN;
+    private final IntQuarkMap fCpus = new IntQuarkMap();
+    private final IntQuarkMap fThreads = new IntQuarkMap();
+    /* The "0_<cpu>" threads, by CPU */
+    private final IntQuarkMap fSwappers = new IntQuarkMap();
+    /* The children, by parent quark */
+    private final IntQuarkMap[] fChildren = new IntQuarkMap[CHILDREN.length];
+
+    private KernelQuarkCache(ITmfStateSystem ss) {
+        fStateSystem = new WeakReference<>(ss);
+        for (int i = 0; i < fChildren.length; i++) {
+            fChildren[i] = new IntQuarkMap();
+        }
+    }
+
+    private static KernelQuarkCache get(ITmfStateSystem ss) {
+        KernelQuarkCache last = sLast;
+        if (last != null && last.fStateSystem.get() == ss) {
+            return last;
+        }
+        KernelQuarkCache cache;
+        synchronized (CACHES) {
+            cache = CACHES.computeIfAbsent(ss, KernelQuarkCache::new);
+        }
+        sLast = cache;
+        return cache;
+    }
+
+    // ------------------------------------------------------------------------
+    // State providers
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the quark of a CPU, "CPUs/[cpu]", adding it if needed
+     *
+     * @param ss
+     *            The state system builder
+     * @param cpu
+     *            The CPU number
+     * @return The quark of the CPU
+     */
+    public static int getCpuQuarkAndAdd(ITmfStateSystemBuilder ss, int cpu) {
+        KernelQuarkCache cache = get(ss);
+        int quark = cache.fCpus.get(cpu);
+        if (quark == UNKNOWN) {
+            quark = ss.getQuarkRelativeAndAdd(cache.getCpusQuark(ss), String.valueOf(cpu));
+            cache.fCpus.put(cpu, quark);
+        }
+        return quark;
+    }
+
+    /**
+     * Get the quark of a thread, "Threads/[tid]", or "Threads/0_[cpu]" for the
+     * swapper threads, adding it if needed
+     *
+     * @param ss
+     *            The state system builder
+     * @param tid
+     *            The thread ID
+     * @param cpu
+     *            The CPU, for the swapper thread
+     * @return The quark of the thread
+     */
+    public static int getThreadQuarkAndAdd(ITmfStateSystemBuilder ss, int tid, int cpu) {
+        KernelQuarkCache cache = get(ss);
+        IntQuarkMap map = (tid == 0) ? cache.fSwappers : cache.fThreads;
+        int key = (tid == 0) ? cpu : tid;
+        int quark = map.get(key);
+        if (quark == UNKNOWN) {
+            String name = (tid == 0) ? Attributes.THREAD_0_PREFIX + cpu : String.valueOf(tid);
+            quark = ss.getQuarkRelativeAndAdd(cache.getThreadsQuark(ss), name);
+            map.put(key, quark);
+        }
+        return quark;
+    }
+
+    /**
+     * Get the quark of a sub-attribute of a CPU or thread node, adding it if
+     * needed
+     *
+     * @param ss
+     *            The state system builder
+     * @param parentQuark
+     *            The quark of the CPU or thread node
+     * @param child
+     *            The name of the sub-attribute, one of the {@link Attributes}
+     * @return The quark of the sub-attribute
+     */
+    public static int getChildQuarkAndAdd(ITmfStateSystemBuilder ss, int parentQuark, String child) {
+        int index = childIndex(child);
+        if (index < 0) {
+            return ss.getQuarkRelativeAndAdd(parentQuark, child);
+        }
+        IntQuarkMap map = get(ss).fChildren[index];
+        int quark = map.get(parentQuark);
+        if (quark == UNKNOWN) {
+            quark = ss.getQuarkRelativeAndAdd(parentQuark, child);
+            map.put(parentQuark, quark);
+        }
+        return quark;
+    }
+
+    // ------------------------------------------------------------------------
+    // Queries
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the quark of a CPU, "CPUs/[cpu]"
+     *
+     * @param ss
+     *            The state system
+     * @param cpu
+     *            The CPU number
+     * @return The quark of the CPU, or {@link ITmfStateSystem#INVALID_ATTRIBUTE}
+     *         if it does not exist
+     */
+    public static int optCpuQuark(ITmfStateSystem ss, int cpu) {
+        KernelQuarkCache cache = get(ss);
+        int quark = cache.fCpus.get(cpu);
+        if (quark == UNKNOWN) {
+            quark = ss.optQuarkAbsolute(Attributes.CPUS, String.valueOf(cpu));
+            putIfValid(cache.fCpus, cpu, quark);
+        }
+        return quark;
+    }
+
+    /**
+     * Get the quark of a thread, "Threads/[tid]"
+     *
+     * @param ss
+     *            The state system
+     * @param tid
+     *            The thread ID
+     * @return The quark of the thread, or
+     *         {@link ITmfStateSystem#INVALID_ATTRIBUTE} if it does not exist
+     */
+    public static int optThreadQuark(ITmfStateSystem ss, int tid) {
+        if (tid == 0) {
+            /* The swapper threads are per CPU, "0" is not cached */
+            return ss.optQuarkAbsolute(Attributes.THREADS, String.valueOf(tid));
+        }
+        KernelQuarkCache cache = get(ss);
+        int quark = cache.fThreads.get(tid);
+        if (quark == UNKNOWN) {
+            quark = ss.optQuarkAbsolute(Attributes.THREADS, String.valueOf(tid));
+            putIfValid(cache.fThreads, tid, quark);
+        }
+        return quark;
+    }
+
+    /**
+     * Get the quark of a sub-attribute of a CPU or thread node
+     *
+     * @param ss
+     *            The state system
+     * @param parentQuark
+     *            The quark of the CPU or thread node, or
+     *            {@link ITmfStateSystem#INVALID_ATTRIBUTE}
+     * @param child
+     *            The name of the sub-attribute, one of the {@link Attributes}
+     * @return The quark of the sub-attribute, or
+     *         {@link ITmfStateSystem#INVALID_ATTRIBUTE} if it does not exist
+     */
+    public static int optChildQuark(ITmfStateSystem ss, int parentQuark, String child) {
+        if (parentQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
+            return ITmfStateSystem.INVALID_ATTRIBUTE;
+        }
+        int index = childIndex(child);
+        if (index < 0) {
+            return ss.optQuarkRelative(parentQuark, child);
+        }
+        KernelQuarkCache cache = get(ss);
+        IntQuarkMap map = cache.fChildren[index];
+        int quark = map.get(parentQuark);
+        if (quark == UNKNOWN) {
+            quark = ss.optQuarkRelative(parentQuark, child);
+            putIfValid(map, parentQuark, quark);
+        }
+        return quark;
+    }
+
+    // ------------------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------------------
+
+    private int getCpusQuark(ITmfStateSystemBuilder ss) {
+        int quark = fCpusQuark;
+        if (quark == UNKNOWN) {
+            quark = ss.getQuarkAbsoluteAndAdd(Attributes.CPUS);
+            fCpusQuark = quark;
+        }
+        return quark;
+    }
+
+    private int getThreadsQuark(ITmfStateSystemBuilder ss) {
+        int quark = fThreadsQuark;
+        if (quark == UNKNOWN) {
+            quark = ss.getQuarkAbsoluteAndAdd(Attributes.THREADS);
+            fThreadsQuark = quark;
+        }
+        return quark;
+    }
+
+    /**
+     * The attributes that do not exist yet may be added while the state
+     * system is built, so they are not cached
+     */
+    private static void putIfValid(IntQuarkMap map, int key, int quark) {
+        if (quark != ITmfStateSystem.INVALID_ATTRIBUTE) {
+            map.put(key, quark);
+        }
+    }
+
+    private static int childIndex(String child) {
+        for (int i = 0; i < CHILDREN.length; i++) {
+            if (CHILDREN[i] == child) {
+                return i;
+            }
+        }
+        for (int i = 0; i < CHILDREN.length; i++) {
+            if (CHILDREN[i].equals(child)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Open addressing hash map of int keys to quarks. Each entry holds the key
+     * and the quark plus one in a long, so 0 is an empty slot.
+     *
+     * A mapping never changes once added, and an entry is written at once, so
+     * the map can be read while it is modified: a reader sees either the
+     * mapping or an empty slot, and then falls back to the state system.
+     */
+    private static final class IntQuarkMap {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private volatile AtomicLongArray fTable = new AtomicLongArray(INITIAL_CAPACITY);
+        private int fSize = 0;
+
+        public int get(int key) {
+            AtomicLongArray table = fTable;
+            int mask = table.length() - 1;
+            int slot = hash(key) & mask;
+            while (true) {
+                long entry = table.get(slot);
+                if (entry == 0) {
+                    return UNKNOWN;
+                }
+                if ((int) (entry >>> 32) == key) {
+                    return (int) entry - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        public synchronized void put(int key, int quark) {
+            if (get(key) != UNKNOWN) {
+                return;
+            }
+            AtomicLongArray table = fTable;
+            if (2 * (fSize + 1) > table.length()) {
+                AtomicLongArray bigger = new AtomicLongArray(table.length() * 2);
+                for (int i = 0; i < table.length(); i++) {
+                    long entry = table.get(i);
+                    if (entry != 0) {
+                        insert(bigger, entry);
+                    }
+                }
+                fTable = bigger;
+                table = bigger;
+            }
+            insert(table, ((long) key << 32) | ((quark + 1) & 0xFFFFFFFFL));
+            fSize++;
+        }
+
+        private static void insert(AtomicLongArray table, long entry) {
+            int mask = table.length() - 1;
+            int slot = hash((int) (entry >>> 32)) & mask;
+            while (table.get(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table.set(slot, entry);
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -45,6 +45,7 @@ import org.eclipse.tracecompass.statesystem.core.exceptions.StateValueTypeExcept
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.TmfEventTypeDispatcher;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 import com.google.common.collect.ImmutableMap;
@@ -98,6 +99,7 @@ public class KernelStateProvider extends AbstractTmfStateProvider {
 
     private final KernelEventHandler fSysEntryHandler;
     private final KernelEventHandler fSysExitHandler;
+    private final TmfEventTypeDispatcher<KernelEventHandler> fDispatcher;
 
     // ------------------------------------------------------------------------
     // Constructor
@@ -119,6 +121,7 @@ public class KernelStateProvider extends AbstractTmfStateProvider {
 
         fSysEntryHandler = new SysEntryHandler(fLayout);
         fSysExitHandler = new SysExitHandler(fLayout);
+        fDispatcher = new TmfEventTypeDispatcher<>(this::resolveHandler);
     }
 
     // ------------------------------------------------------------------------
@@ -181,22 +184,13 @@ public class KernelStateProvider extends AbstractTmfStateProvider {
             return;
         }
 
-        final String eventName = event.getName();
-
         try {
             final ITmfStateSystemBuilder ss = NonNullUtils.checkNotNull(getStateSystemBuilder());
             /*
              * Feed event to the history system if it's known to cause a state
              * transition.
              */
-            KernelEventHandler handler = fEventNames.get(eventName);
-            if (handler == null) {
-                if (isSyscallExit(eventName)) {
-                    handler = fSysExitHandler;
-                } else if (isSyscallEntry(eventName)) {
-                    handler = fSysEntryHandler;
-                }
-            }
+            KernelEventHandler handler = fDispatcher.getHandler(event);
             if (handler != null) {
                 handler.handleEvent(ss, event);
             }
@@ -225,6 +219,21 @@ public class KernelStateProvider extends AbstractTmfStateProvider {
         }
     }
 
+    /**
+     * Resolve the handler of an event name, once per event name
+     */
+    private @Nullable KernelEventHandler resolveHandler(String eventName) {
+        KernelEventHandler handler = fEventNames.get(eventName);
+        if (handler == null) {
+            if (isSyscallExit(eventName)) {
+                handler = fSysExitHandler;
+            } else if (isSyscallEntry(eventName)) {
+                handler = fSysEntryHandler;
+            }
+        }
+        return handler;
+    }
+
     private boolean isSyscallEntry(String eventName) {
         return (eventName.startsWith(fLayout.eventSyscallEntryPrefix())
                 || eventName.startsWith(fLayout.eventCompatSyscallEntryPrefix()));
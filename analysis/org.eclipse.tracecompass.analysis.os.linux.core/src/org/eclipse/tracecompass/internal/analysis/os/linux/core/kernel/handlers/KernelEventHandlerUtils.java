@@ -17,6 +17,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.analysis.os.linux.core.kernel.StateValues;
 import org.eclipse.tracecompass.analysis.os.linux.core.model.ProcessStatus;
 import org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel.Attributes;
+import org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel.KernelQuarkCache;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateValueTypeException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
@@ -61,7 +62,7 @@ public final class KernelEventHandlerUtils {
      * @return the current CPU quark -1 for not set
      */
     public static int getCurrentCPUNode(Integer cpuNumber, ITmfStateSystemBuilder ss) {
-        return ss.getQuarkRelativeAndAdd(getNodeCPUs(ss), cpuNumber.toString());
+        return KernelQuarkCache.getCpuQuarkAndAdd(ss, cpuNumber);
     }
 
     /**
@@ -91,10 +92,10 @@ public final class KernelEventHandlerUtils {
          * Shortcut for the "current thread" attribute node. It requires
          * querying the current CPU's current thread.
          */
-        int quark = ss.getQuarkRelativeAndAdd(getCurrentCPUNode(cpuNumber, ss), Attributes.CURRENT_THREAD);
+        int quark = KernelQuarkCache.getChildQuarkAndAdd(ss, getCurrentCPUNode(cpuNumber, ss), Attributes.CURRENT_THREAD);
         ITmfStateValue value = ss.queryOngoingState(quark);
         int thread = value.isNull() ? -1 : value.unboxInt();
-        return ss.getQuarkRelativeAndAdd(getNodeThreads(ss), Attributes.buildThreadAttributeName(thread, cpuNumber));
+        return KernelQuarkCache.getThreadQuarkAndAdd(ss, thread, cpuNumber);
     }
 
     /**
@@ -116,7 +117,7 @@ public final class KernelEventHandlerUtils {
      */
     public static void setProcessToRunning(long timestamp, int currentThreadNode, ITmfStateSystemBuilder ssb)
             throws TimeRangeException, StateValueTypeException {
-        int quark = ssb.getQuarkRelativeAndAdd(currentThreadNode, Attributes.SYSTEM_CALL);
+        int quark = KernelQuarkCache.getChildQuarkAndAdd(ssb, currentThreadNode, Attributes.SYSTEM_CALL);
 
         ITmfStateValue value;
         if (ssb.queryOngoingState(quark).isNull()) {
@@ -139,7 +140,7 @@ public final class KernelEventHandlerUtils {
      * @return the IRQ node quark
      */
     public static int getNodeIRQs(int cpuNumber, ITmfStateSystemBuilder ss) {
-        return ss.getQuarkAbsoluteAndAdd(Attributes.CPUS, Integer.toString(cpuNumber), Attributes.IRQS);
+        return KernelQuarkCache.getChildQuarkAndAdd(ss, KernelQuarkCache.getCpuQuarkAndAdd(ss, cpuNumber), Attributes.IRQS);
     }
 
     /**
@@ -163,7 +164,7 @@ public final class KernelEventHandlerUtils {
      * @return the Soft IRQ node quark
      */
     public static int getNodeSoftIRQs(int cpuNumber, ITmfStateSystemBuilder ss) {
-        return ss.getQuarkAbsoluteAndAdd(Attributes.CPUS, Integer.toString(cpuNumber), Attributes.SOFT_IRQS);
+        return KernelQuarkCache.getChildQuarkAndAdd(ss, KernelQuarkCache.getCpuQuarkAndAdd(ss, cpuNumber), Attributes.SOFT_IRQS);
     }
 
     /**
@@ -224,7 +225,7 @@ public final class KernelEventHandlerUtils {
     private static ITmfStateValue getCpuStatus(ITmfStateSystemBuilder ssb, int cpuQuark) {
 
         /* Check if there is a IRQ running */
-        int irqQuarks = ssb.getQuarkRelativeAndAdd(cpuQuark, Attributes.IRQS);
+        int irqQuarks = KernelQuarkCache.getChildQuarkAndAdd(ssb, cpuQuark, Attributes.IRQS);
         List<Integer> irqs = ssb.getSubAttributes(irqQuarks, false);
         for (Integer quark : irqs) {
             ITmfStateValue irqState = ssb.queryOngoingState(quark);
@@ -234,7 +235,7 @@ public final class KernelEventHandlerUtils {
         }
 
         /* Check if there is a soft IRQ running */
-        int softIrqQuarks = ssb.getQuarkRelativeAndAdd(cpuQuark, Attributes.SOFT_IRQS);
+        int softIrqQuarks = KernelQuarkCache.getChildQuarkAndAdd(ssb, cpuQuark, Attributes.SOFT_IRQS);
         List<Integer> softIrqs = ssb.getSubAttributes(softIrqQuarks, false);
         for (Integer quark : softIrqs) {
             if (isInSoftIrq(ssb, quark)) {
@@ -246,7 +247,7 @@ public final class KernelEventHandlerUtils {
          * Check if there is a thread running. If not, report IDLE. If there is,
          * report the running state of the thread (usermode or system call).
          */
-        int currentThreadQuark = ssb.getQuarkRelativeAndAdd(cpuQuark, Attributes.CURRENT_THREAD);
+        int currentThreadQuark = KernelQuarkCache.getChildQuarkAndAdd(ssb, cpuQuark, Attributes.CURRENT_THREAD);
         ITmfStateValue currentThreadState = ssb.queryOngoingState(currentThreadQuark);
         if (currentThreadState.isNull()) {
             return TmfStateValue.nullValue();
@@ -255,7 +256,8 @@ public final class KernelEventHandlerUtils {
         if (tid == 0) {
             return StateValues.CPU_STATUS_IDLE_VALUE;
         }
-        int threadSystemCallQuark = ssb.getQuarkAbsoluteAndAdd(Attributes.THREADS, Integer.toString(tid), Attributes.SYSTEM_CALL);
+        /* The CPU is only used for the swapper threads, whose tid is 0 */
+        int threadSystemCallQuark = KernelQuarkCache.getChildQuarkAndAdd(ssb, KernelQuarkCache.getThreadQuarkAndAdd(ssb, tid, -1), Attributes.SYSTEM_CALL);
         return (ssb.queryOngoingState(threadSystemCallQuark).isNull() ? StateValues.CPU_STATUS_RUN_USERMODE_VALUE : StateValues.CPU_STATUS_RUN_SYSCALL_VALUE);
     }
 
@@ -18,6 +18,7 @@ import org.eclipse.tracecompass.analysis.os.linux.core.kernel.StateValues;
 import org.eclipse.tracecompass.analysis.os.linux.core.model.ProcessStatus;
 import org.eclipse.tracecompass.analysis.os.linux.core.trace.IKernelAnalysisEventLayout;
 import org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel.Attributes;
+import org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel.KernelQuarkCache;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
 import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
@@ -60,12 +61,8 @@ public class SchedSwitchHandler extends KernelEventHandler {
         if (prevTid == null || prevState == null || nextTid == null) {
             return;
         }
-        String formerThreadAttributeName = Attributes.buildThreadAttributeName(prevTid, cpu);
-        String currenThreadAttributeName = Attributes.buildThreadAttributeName(nextTid, cpu);
-
-        int nodeThreads = KernelEventHandlerUtils.getNodeThreads(ss);
-        int formerThreadNode = ss.getQuarkRelativeAndAdd(nodeThreads, formerThreadAttributeName);
-        int newCurrentThreadNode = ss.getQuarkRelativeAndAdd(nodeThreads, currenThreadAttributeName);
+        int formerThreadNode = KernelQuarkCache.getThreadQuarkAndAdd(ss, prevTid, cpu);
+        int newCurrentThreadNode = KernelQuarkCache.getThreadQuarkAndAdd(ss, nextTid, cpu);
 
         long timestamp = KernelEventHandlerUtils.getTimestamp(event);
         /*
@@ -82,7 +79,7 @@ public class SchedSwitchHandler extends KernelEventHandler {
          * set if we've seen the previous sched_wakeup, but doesn't hurt to set
          * it here too.
          */
-        int quark = ss.getQuarkRelativeAndAdd(newCurrentThreadNode, Attributes.CURRENT_CPU_RQ);
+        int quark = KernelQuarkCache.getChildQuarkAndAdd(ss, newCurrentThreadNode, Attributes.CURRENT_CPU_RQ);
         ss.modifyAttribute(timestamp, cpu, quark);
 
         /* Set the exec name of the former process */
@@ -119,7 +116,7 @@ public class SchedSwitchHandler extends KernelEventHandler {
         ss.modifyAttribute(timestamp, value.unboxValue(), formerThreadNode);
 
         boolean staysOnRunQueue = ProcessStatus.WAIT_CPU.getStateValue().equals(value);
-        int quark = ss.getQuarkRelativeAndAdd(formerThreadNode, Attributes.CURRENT_CPU_RQ);
+        int quark = KernelQuarkCache.getChildQuarkAndAdd(ss, formerThreadNode, Attributes.CURRENT_CPU_RQ);
         if (staysOnRunQueue) {
             /*
              * Set the thread's run queue. This will often be redundant with
@@ -136,7 +133,7 @@ public class SchedSwitchHandler extends KernelEventHandler {
     private static void setCpuStatus(ITmfStateSystemBuilder ss, Integer nextTid, Integer newCurrentThreadNode, long timestamp, int currentCPUNode, int cpu) {
         if (nextTid > 0) {
             /* Check if the entering process is in kernel or user mode */
-            int quark = ss.getQuarkRelativeAndAdd(newCurrentThreadNode, Attributes.SYSTEM_CALL);
+            int quark = KernelQuarkCache.getChildQuarkAndAdd(ss, newCurrentThreadNode, Attributes.SYSTEM_CALL);
             ITmfStateValue value;
             ITmfStateValue queryOngoingState = ss.queryOngoingState(quark);
             if (queryOngoingState.isNull()) {
@@ -152,19 +149,19 @@ public class SchedSwitchHandler extends KernelEventHandler {
 
     private static void setCpuProcess(ITmfStateSystemBuilder ss, Integer nextTid, long timestamp, int currentCPUNode) {
         int quark;
-        quark = ss.getQuarkRelativeAndAdd(currentCPUNode, Attributes.CURRENT_THREAD);
+        quark = KernelQuarkCache.getChildQuarkAndAdd(ss, currentCPUNode, Attributes.CURRENT_THREAD);
         ss.modifyAttribute(timestamp, nextTid, quark);
     }
 
     private static void setProcessPrio(ITmfStateSystemBuilder ss, Integer prio, Integer threadNode, long timestamp) {
         int quark;
-        quark = ss.getQuarkRelativeAndAdd(threadNode, Attributes.PRIO);
+        quark = KernelQuarkCache.getChildQuarkAndAdd(ss, threadNode, Attributes.PRIO);
         ss.modifyAttribute(timestamp, prio, quark);
     }
 
     private static void setProcessExecName(ITmfStateSystemBuilder ss, String processName, Integer threadNode, long timestamp) {
         int quark;
-        quark = ss.getQuarkRelativeAndAdd(threadNode, Attributes.EXEC_NAME);
+        quark = KernelQuarkCache.getChildQuarkAndAdd(ss, threadNode, Attributes.EXEC_NAME);
         ss.modifyAttribute(timestamp, processName, quark);
     }
 
@@ -40,6 +40,7 @@ import org.eclipse.tracecompass.analysis.os.linux.core.model.OsStrings;
 import org.eclipse.tracecompass.analysis.os.linux.core.trace.IKernelTrace;
 import org.eclipse.tracecompass.common.core.format.DecimalUnitFormat;
 import org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel.Attributes;
+import org.eclipse.tracecompass.internal.analysis.os.linux.core.kernel.KernelQuarkCache;
 import org.eclipse.tracecompass.internal.analysis.os.linux.core.registry.LinuxStyle;
 import org.eclipse.tracecompass.internal.analysis.os.linux.core.resourcesstatus.ResourcesEntryModel.Type;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.annotations.AnnotationCategoriesModel;
@@ -436,7 +437,7 @@ public class ResourcesStatusDataProvider extends AbstractTimeGraphDataProvider<@
                                     execName = (String) execNameInterval.getValue();
                                 }
                             } else {
-                                int quark = ss.optQuarkAbsolute(Attributes.THREADS, Integer.toString(s), Attributes.EXEC_NAME);
+                                int quark = KernelQuarkCache.optChildQuark(ss, KernelQuarkCache.optThreadQuark(ss, s), Attributes.EXEC_NAME);
                                 if (quark != ITmfStateSystem.INVALID_ATTRIBUTE) {
                                     ITmfStateInterval namedInterval = ss.querySingleState(interval.getEndTime(), quark);
                                     fExecNamesCache.put(s, namedInterval);
@@ -579,7 +580,7 @@ public class ResourcesStatusDataProvider extends AbstractTimeGraphDataProvider<@
                 long duration = end - start + 1;
                 Object tid = currentThread.getValue();
                 if (tid instanceof Integer) {
-                    int execNameQuark = ss.optQuarkAbsolute(Attributes.THREADS, String.valueOf(tid), Attributes.EXEC_NAME);
+                    int execNameQuark = KernelQuarkCache.optChildQuark(ss, KernelQuarkCache.optThreadQuark(ss, (Integer) tid), Attributes.EXEC_NAME);
                     if (execNameQuark != ITmfStateSystem.INVALID_ATTRIBUTE) {
                         Object currentThreadName = ss.querySingleState(currentThread.getEndTime(), execNameQuark).getValue();
                         if (currentThreadName instanceof String) {
@@ -618,7 +619,7 @@ public class ResourcesStatusDataProvider extends AbstractTimeGraphDataProvider<@
                 long duration = end - start + 1;
                 Object tid = currentThread.getValue();
                 if (tid instanceof Integer) {
-                    int syscallQuark = ss.optQuarkAbsolute(Attributes.THREADS, String.valueOf(tid), Attributes.SYSTEM_CALL);
+                    int syscallQuark = KernelQuarkCache.optChildQuark(ss, KernelQuarkCache.optThreadQuark(ss, (Integer) tid), Attributes.SYSTEM_CALL);
                     if (syscallQuark != ITmfStateSystem.INVALID_ATTRIBUTE) {
                         Object syscallName = ss.querySingleState(start, syscallQuark).getValue();
                         if (syscallName instanceof String) {
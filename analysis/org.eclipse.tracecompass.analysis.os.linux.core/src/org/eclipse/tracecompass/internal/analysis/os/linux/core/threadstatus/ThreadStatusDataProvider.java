@@ -12,6 +12,7 @@
 package org.eclipse.tracecompass.internal.analysis.os.linux.core.threadstatus;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -54,6 +55,7 @@ import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedE
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateIntervalMatrix;
 import org.eclipse.tracecompass.tmf.core.TmfStrings;
 import org.eclipse.tracecompass.tmf.core.analysis.callsite.ITmfCallsiteResolver;
 import org.eclipse.tracecompass.tmf.core.dataprovider.DataProviderParameterUtils;
@@ -93,6 +95,8 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import com.google.common.collect.TreeMultimap;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
 
 /**
  * Thread status data provider, used by the Control Flow view for example.
@@ -454,20 +458,15 @@ public class ThreadStatusDataProvider extends AbstractTmfTraceDataProvider imple
             return new TmfModelResponse<>(null, ITmfResponse.Status.FAILED, CommonStatusMessage.ANALYSIS_INITIALIZATION_FAILED);
         }
 
-        TreeMultimap<Integer, ITmfStateInterval> intervals = TreeMultimap.create(Comparator.naturalOrder(),
-                Comparator.comparing(ITmfStateInterval::getStartTime));
         SelectionTimeQueryFilter filter = FetchParametersUtils.createSelectionTimeQuery(fetchParameters);
         Map<Long, Integer> selectedIdsToQuarks = getSelectedIdsToQuarks(filter);
         Collection<Integer> stateAndSyscallQuarks = addSyscall(selectedIdsToQuarks.values(), ss);
-        Collection<Long> times = getTimes(ss, filter);
+        long[] times = Longs.toArray(getTimes(ss, filter));
+        Arrays.sort(times);
+        TmfStateIntervalMatrix matrix;
         try {
             /* Do the actual query */
-            for (ITmfStateInterval interval : ss.query2D(stateAndSyscallQuarks, times)) {
-                if (monitor != null && monitor.isCanceled()) {
-                    return new TmfModelResponse<>(null, ITmfResponse.Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
-                }
-                intervals.put(interval.getAttribute(), interval);
-            }
+            matrix = ss.queryMatrix(Ints.toArray(stateAndSyscallQuarks), times);
         } catch (TimeRangeException | StateSystemDisposedException e) {
             return new TmfModelResponse<>(null, ITmfResponse.Status.FAILED, String.valueOf(e.getMessage()));
         }
@@ -481,18 +480,18 @@ public class ThreadStatusDataProvider extends AbstractTmfTraceDataProvider imple
         @NonNull List<@NonNull ITimeGraphRowModel> rows = new ArrayList<>();
         for (Entry<Long, Integer> entry : selectedIdsToQuarks.entrySet()) {
             int quark = entry.getValue();
-            NavigableSet<ITmfStateInterval> states = intervals.get(quark);
-            NavigableSet<ITmfStateInterval> syscalls = intervals.get(ss.optQuarkRelative(quark, Attributes.SYSTEM_CALL));
+            int row = matrix.getRow(quark);
+            int syscallRow = matrix.getRow(ss.optQuarkRelative(quark, Attributes.SYSTEM_CALL));
 
             if (monitor != null && monitor.isCanceled()) {
                 return new TmfModelResponse<>(null, ITmfResponse.Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
             }
             List<ITimeGraphState> eventList = new ArrayList<>();
-            states.forEach(i -> {
-                ITimeGraphState timegraphState = createTimeGraphState(i, syscalls);
-                Long key = Objects.requireNonNull(entry.getKey());
+            Long key = Objects.requireNonNull(entry.getKey());
+            for (int i = 0; i < matrix.getStateCount(row); i++) {
+                ITimeGraphState timegraphState = createTimeGraphState(matrix, row, i, syscallRow);
                 applyFilterAndAddState(eventList, timegraphState, key, predicates, monitor);
-            });
+            }
             rows.add(new TimeGraphRowModel(entry.getKey(), eventList));
         }
         return new TmfModelResponse<>(new TimeGraphModel(rows), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
@@ -542,21 +541,17 @@ public class ThreadStatusDataProvider extends AbstractTmfTraceDataProvider imple
         return times;
     }
 
-    private static @NonNull ITimeGraphState createTimeGraphState(ITmfStateInterval interval, NavigableSet<ITmfStateInterval> syscalls) {
-        long startTime = interval.getStartTime();
-        long duration = interval.getEndTime() - startTime + 1;
-        Object status = interval.getValue();
+    private static @NonNull ITimeGraphState createTimeGraphState(TmfStateIntervalMatrix matrix, int row, int index, int syscallRow) {
+        long startTime = matrix.getStateStartTime(row, index);
+        long duration = matrix.getStateEndTime(row, index) - startTime + 1;
+        Object status = matrix.getStateValue(row, index);
         if (status instanceof Integer) {
             int s = (int) status;
-            if (s == StateValues.PROCESS_STATUS_RUN_SYSCALL) {
-                // intervals are sorted by start time
-                ITmfStateInterval syscall = syscalls.floor(new TmfStateInterval(startTime, startTime + 1, 0, 0));
-
-                if (syscall != null) {
-                    Object value = syscall.getValue();
-                    if (value instanceof String) {
-                        return new TimeGraphState(startTime, duration, String.valueOf(value), getElementStyle(s));
-                    }
+            if (s == StateValues.PROCESS_STATUS_RUN_SYSCALL && syscallRow >= 0) {
+                // the system call at the first time of the state
+                Object value = matrix.getValue(syscallRow, matrix.getStateFirstColumn(row, index));
+                if (value instanceof String) {
+                    return new TimeGraphState(startTime, duration, String.valueOf(value), getElementStyle(s));
                 }
             }
             return new TimeGraphState(startTime, duration, null, getElementStyle(s));
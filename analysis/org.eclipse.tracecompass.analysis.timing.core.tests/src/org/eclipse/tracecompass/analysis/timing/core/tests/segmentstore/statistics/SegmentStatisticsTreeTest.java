@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.analysis.timing.core.tests.segmentstore.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.SegmentStatisticsTree;
+import org.eclipse.tracecompass.segmentstore.core.BasicSegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+import org.eclipse.tracecompass.segmentstore.core.SegmentStoreFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the pre-aggregated statistics of a segment store,
+ * {@link SegmentStatisticsTree}
+ */
+public class SegmentStatisticsTreeTest {
+
+    private static final double RELATIVE_DELTA = 1e-9;
+
+    private ISegmentStore<@NonNull ISegment> fStore;
+    private SegmentStatisticsTree fTree;
+    private long fEnd;
+
+    private static @Nullable String getType(ISegment segment) {
+        long length = segment.getLength();
+        return (length % 5 == 0) ? null : "type" + (length % 3);
+    }
+
+    /**
+     * Build a segment store with segments of various lengths, some of them
+     * longer than the leaves of the tree
+     */
+    @Before
+    public void setUp() {
+        fStore = SegmentStoreFactory.createSegmentStore();
+        Random random = new Random(42);
+        long start = 0;
+        for (int i = 0; i < 20000; i++) {
+            start += random.nextInt(100);
+            long length = (i % 500 == 0) ? random.nextInt(200000) : random.nextInt(1000);
+            fStore.add(new BasicSegment(start, start + length));
+            fEnd = Math.max(fEnd, start + length);
+        }
+        fTree = SegmentStatisticsTree.build(fStore, ISegment::getLength, SegmentStatisticsTreeTest::getType, 0, fEnd, new NullProgressMonitor());
+        assertNotNull(fTree);
+    }
+
+    private IStatistics<@NonNull ISegment> expectedTotal(long start, long end) {
+        IStatistics<@NonNull ISegment> stats = new Statistics<>(ISegment::getLength);
+        for (ISegment segment : fStore.getIntersectingElements(Long.min(start, end), Long.max(start, end))) {
+            stats.update(segment);
+        }
+        return stats;
+    }
+
+    private Map<String, IStatistics<@NonNull ISegment>> expectedPerType(long start, long end) {
+        Map<String, IStatistics<@NonNull ISegment>> map = new HashMap<>();
+        for (ISegment segment : fStore.getIntersectingElements(Long.min(start, end), Long.max(start, end))) {
+            String type = getType(segment);
+            if (type != null) {
+                map.computeIfAbsent(type, t -> new Statistics<>(ISegment::getLength)).update(segment);
+            }
+        }
+        return map;
+    }
+
+    private static void assertStatsEquals(IStatistics<@NonNull ISegment> expected, IStatistics<@NonNull ISegment> actual) {
+        assertEquals(expected.getNbElements(), actual.getNbElements());
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getTotal(), actual.getTotal(), Math.abs(expected.getTotal()) * RELATIVE_DELTA);
+        assertEquals(expected.getMean(), actual.getMean(), Math.abs(expected.getMean()) * RELATIVE_DELTA);
+        assertEquals(expected.getStdDev(), actual.getStdDev(), Math.abs(expected.getStdDev()) * RELATIVE_DELTA);
+        /* Merged sketches are the same as if the values were added to one */
+        assertEquals(expected.getPercentile(50), actual.getPercentile(50), 0.0);
+        assertEquals(expected.getPercentile(99), actual.getPercentile(99), 0.0);
+    }
+
+    private void assertRange(long start, long end) {
+        assertRange(fTree, start, end);
+    }
+
+    private void assertRange(SegmentStatisticsTree tree, long start, long end) {
+        IStatistics<@NonNull ISegment> total = tree.getStatsForRange(start, end, new NullProgressMonitor());
+        assertNotNull(total);
+        assertStatsEquals(expectedTotal(start, end), total);
+
+        Map<@NonNull String, IStatistics<@NonNull ISegment>> perType = tree.getStatsPerTypeForRange(start, end, new NullProgressMonitor());
+        assertNotNull(perType);
+        assertPerTypeEquals(expectedPerType(start, end), perType);
+    }
+
+    private static void assertPerTypeEquals(Map<String, IStatistics<@NonNull ISegment>> expected, Map<@NonNull String, IStatistics<@NonNull ISegment>> perType) {
+        assertEquals(expected.keySet(), perType.keySet());
+        for (Map.Entry<String, IStatistics<@NonNull ISegment>> entry : expected.entrySet()) {
+            assertStatsEquals(entry.getValue(), perType.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * Test the statistics of ranges, compared to the statistics of the
+     * intersecting segments
+     */
+    @Test
+    public void testRanges() {
+        long end = fEnd;
+        assertRange(0, Long.MAX_VALUE);
+        assertRange(0, end);
+        assertRange(end / 2, end / 2);
+        assertRange(end / 3, 2 * end / 3);
+        assertRange(2 * end / 3, end / 3);
+        assertRange(end - 10, Long.MAX_VALUE);
+        assertRange(Long.MIN_VALUE, 10);
+        Random random = new Random(7);
+        for (int i = 0; i < 50; i++) {
+            long t0 = (long) (random.nextDouble() * end);
+            long t1 = t0 + (long) (random.nextDouble() * (end - t0));
+            assertRange(t0, t1);
+        }
+    }
+
+    /**
+     * Test ranges without segments
+     */
+    @Test
+    public void testEmptyRanges() {
+        IStatistics<@NonNull ISegment> stats = fTree.getStatsForRange(fEnd + 1, Long.MAX_VALUE, new NullProgressMonitor());
+        assertNotNull(stats);
+        assertEquals(0, stats.getNbElements());
+        assertRange(-100, -1);
+        assertNull(SegmentStatisticsTree.build(SegmentStoreFactory.createSegmentStore(), ISegment::getLength, SegmentStatisticsTreeTest::getType, 0, fEnd, new NullProgressMonitor()));
+        assertNull(SegmentStatisticsTree.build(fStore, ISegment::getLength, SegmentStatisticsTreeTest::getType, fEnd, 0, new NullProgressMonitor()));
+        assertNull(SegmentStatisticsTree.build(fStore, ISegment::getLength, SegmentStatisticsTreeTest::getType, Long.MIN_VALUE, Long.MAX_VALUE, new NullProgressMonitor()));
+    }
+
+    /**
+     * Test the statistics of all the segments, computed while building the
+     * tree
+     */
+    @Test
+    public void testTotals() {
+        assertStatsEquals(expectedTotal(Long.MIN_VALUE, Long.MAX_VALUE), fTree.getStatsTotal());
+        assertPerTypeEquals(expectedPerType(Long.MIN_VALUE, Long.MAX_VALUE), fTree.getStatsPerType());
+    }
+
+    /**
+     * Test the statistics of ranges, when the leaves cover only a part of the
+     * segments, the others being read from the segment store
+     */
+    @Test
+    public void testPartialLeaves() {
+        long end = fEnd;
+        SegmentStatisticsTree tree = SegmentStatisticsTree.build(fStore, ISegment::getLength, SegmentStatisticsTreeTest::getType, end / 4, end / 2, new NullProgressMonitor());
+        assertNotNull(tree);
+        assertStatsEquals(expectedTotal(Long.MIN_VALUE, Long.MAX_VALUE), tree.getStatsTotal());
+        assertRange(tree, 0, Long.MAX_VALUE);
+        assertRange(tree, 0, end / 3);
+        assertRange(tree, end / 3, 3 * end / 4);
+        assertRange(tree, end / 8, 7 * end / 8);
+        assertRange(tree, end / 4, end / 2);
+        assertRange(tree, 3 * end / 4, end);
+        Random random = new Random(11);
+        for (int i = 0; i < 50; i++) {
+            long t0 = (long) (random.nextDouble() * end);
+            long t1 = t0 + (long) (random.nextDouble() * (end - t0));
+            assertRange(tree, t0, t1);
+        }
+    }
+}
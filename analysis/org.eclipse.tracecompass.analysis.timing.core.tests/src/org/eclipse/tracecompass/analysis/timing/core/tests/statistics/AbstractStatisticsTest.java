@@ -60,6 +60,8 @@ public abstract class AbstractStatisticsTest<@NonNull E> {
 
     private static final double ERROR = 0.000001;
     private static final double APPROX_ERROR = 0.0001;
+    private static final double PERCENTILE_ERROR = 0.01;
+    private static final double[] PERCENTILES = { 0, 1, 50, 90, 99, 100 };
 
     private final @Nullable Function<@NonNull E, @NonNull Long> fMapper;
 
@@ -111,6 +113,10 @@ public abstract class AbstractStatisticsTest<@NonNull E> {
         assertEquals("Min Element", expected.getMinObject(), toBeTested.getMinObject());
         assertEquals("Max Element", expected.getMaxObject(), toBeTested.getMaxObject());
         assertEquals("Standard Deviation", expected.getStdDev(), toBeTested.getStdDev(), APPROX_ERROR * expected.getStdDev());
+        for (double percentile : PERCENTILES) {
+            double expectedPercentile = expected.getPercentile(percentile);
+            assertEquals("Percentile " + percentile, expectedPercentile, toBeTested.getPercentile(percentile), PERCENTILE_ERROR * Math.abs(expectedPercentile));
+        }
     }
 
     /**
@@ -152,6 +158,7 @@ public abstract class AbstractStatisticsTest<@NonNull E> {
         assertNull(stats.getMaxObject());
         assertEquals("Nb objects", 0, stats.getNbElements());
         assertEquals("Total", 0, stats.getTotal(), ERROR);
+        assertEquals("Median", Double.NaN, stats.getPercentile(50), ERROR);
     }
 
     /**
@@ -161,6 +161,21 @@ public class OfflineStatisticsCalculator<@NonNull E> implements IStatistics<E> {
         return total;
     }
 
+    /**
+     * Get the percentile, the value at rank (n - 1) * percentile / 100 of the
+     * sorted values
+     *
+     * @return the percentile
+     */
+    @Override
+    public double getPercentile(double percentile) {
+        if (fElements.isEmpty()) {
+            return Double.NaN;
+        }
+        long[] values = fElements.stream().mapToLong(fMapper::apply).sorted().toArray();
+        return values[(int) ((values.length - 1) * (percentile / 100.0))];
+    }
+
     @Override
     public long getNbElements() {
         return fElements.size();
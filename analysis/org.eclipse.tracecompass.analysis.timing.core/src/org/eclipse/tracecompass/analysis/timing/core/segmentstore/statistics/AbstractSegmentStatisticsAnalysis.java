@@ -22,6 +22,7 @@ import org.eclipse.tracecompass.analysis.timing.core.segmentstore.ISegmentStoreP
 import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
 import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatisticsAnalysis;
 import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics.SegmentStatisticsTree;
 import org.eclipse.tracecompass.segmentstore.core.ISegment;
 import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
 import org.eclipse.tracecompass.tmf.core.analysis.IAnalysisModule;
@@ -46,6 +47,8 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
 
     private Map<String, IStatistics<ISegment>> fPerSegmentTypeStats = new HashMap<>();
 
+    private volatile @Nullable SegmentStatisticsTree fStatisticsTree;
+
     /**
      * Gets the segment mapper. This allows values to be resolved
      *
@@ -77,6 +80,30 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             return false;
         }
 
+        /*
+         * Pre-aggregate the statistics, for the queries on time ranges. The
+         * statistics of the whole segment store are computed in the same pass.
+         */
+        ISegmentStoreProvider provider = fSegmentStoreProviderModule;
+        if (provider instanceof IAnalysisModule) {
+            ((IAnalysisModule) provider).waitForCompletion();
+        }
+        ISegmentStore<@NonNull ISegment> segmentStore = provider != null ? provider.getSegmentStore() : null;
+        ITmfTrace trace = getTrace();
+        if (segmentStore != null && trace != null) {
+            SegmentStatisticsTree tree = SegmentStatisticsTree.build(segmentStore, getMapper(), this::getSegmentType,
+                    trace.getStartTime().toNanos(), trace.getEndTime().toNanos(), monitor);
+            if (monitor.isCanceled()) {
+                return false;
+            }
+            if (tree != null) {
+                fTotalStats = tree.getStatsTotal();
+                fPerSegmentTypeStats = tree.getStatsPerType();
+                fStatisticsTree = tree;
+                return true;
+            }
+        }
+
         IStatistics<ISegment> totalStats = getTotalStats(TmfTimeRange.ETERNITY.getStartTime().toNanos(), TmfTimeRange.ETERNITY.getEndTime().toNanos(), monitor);
         if (totalStats == null) {
             return false;
@@ -85,7 +112,6 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
         Map<String, IStatistics<ISegment>> perTypeStats = getPerTypeStats(TmfTimeRange.ETERNITY.getStartTime().toNanos(), TmfTimeRange.ETERNITY.getEndTime().toNanos(), monitor);
         fTotalStats = totalStats;
         fPerSegmentTypeStats = perTypeStats;
-
         return true;
     }
 
@@ -123,6 +149,10 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             waitForCompletion();
             return getStatsTotal();
         }
+        SegmentStatisticsTree tree = fStatisticsTree;
+        if (tree != null) {
+            return tree.getStatsForRange(start, end, monitor);
+        }
         return getTotalStats(start, end, monitor);
     }
 
@@ -157,6 +187,11 @@ public abstract class AbstractSegmentStatisticsAnalysis extends TmfAbstractAnaly
             waitForCompletion();
             return getStatsPerType();
         }
+        SegmentStatisticsTree tree = fStatisticsTree;
+        if (tree != null) {
+            Map<@NonNull String, IStatistics<@NonNull ISegment>> perTypeStats = tree.getStatsPerTypeForRange(start, end, monitor);
+            return perTypeStats != null ? perTypeStats : Collections.emptyMap();
+        }
         return getPerTypeStats(start, end, monitor);
     }
 
@@ -107,6 +107,21 @@ public interface IStatistics<@NonNull E> {
      */
     double getTotal();
 
+    /**
+     * Get an estimate of a percentile of the values. Implementations keeping
+     * a sketch of the distribution of the values estimate it within a small
+     * relative error.
+     *
+     * @param percentile
+     *            The percentile, between 0 and 100
+     * @return The estimated percentile, or NaN if there are no elements or
+     *         the percentiles are not supported
+     * @since 5.3
+     */
+    default double getPercentile(double percentile) {
+        return Double.NaN;
+    }
+
     /**
      * Update the statistics based on a given object
      * <p>
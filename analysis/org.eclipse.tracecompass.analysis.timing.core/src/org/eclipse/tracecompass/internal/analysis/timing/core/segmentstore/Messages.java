@@ -114,6 +114,18 @@ public class Messages extends NLS {
      * Name of the standard deviation column
      */
     public static @Nullable String SegmentStoreStatistics_StandardDeviationLabel;
+    /**
+     * Name of the median column
+     */
+    public static @Nullable String SegmentStoreStatistics_MedianLabel;
+    /**
+     * Name of the 90th percentile column
+     */
+    public static @Nullable String SegmentStoreStatistics_Percentile90Label;
+    /**
+     * Name of the 99th percentile column
+     */
+    public static @Nullable String SegmentStoreStatistics_Percentile99Label;
     /**
      * Name of the minimum start time column
      */
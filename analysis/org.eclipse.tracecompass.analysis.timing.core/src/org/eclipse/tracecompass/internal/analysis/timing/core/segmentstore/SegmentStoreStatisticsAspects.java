@@ -60,7 +60,8 @@ public final class SegmentStoreStatisticsAspects {
 
     /**
      * Set a mapper function to convert a statistics Number to String.
-     * Used for minimum, maximum, average, standard deviation and total.
+     * Used for minimum, maximum, average, standard deviation, total and
+     * percentiles.
      *
      * @param mapper
      *              function to convert a Number to String
@@ -167,11 +168,28 @@ public final class SegmentStoreStatisticsAspects {
             }
         });
 
+        aspectsBuilder.add(createPercentileAspect(Objects.requireNonNull(Messages.SegmentStoreStatistics_MedianLabel), 50));
+        aspectsBuilder.add(createPercentileAspect(Objects.requireNonNull(Messages.SegmentStoreStatistics_Percentile90Label), 90));
+        aspectsBuilder.add(createPercentileAspect(Objects.requireNonNull(Messages.SegmentStoreStatistics_Percentile99Label), 99));
+
         aspectsBuilder.addAll(userDefinedAspects);
 
         return aspectsBuilder.build();
     }
 
+    private IDataAspect<NamedStatistics> createPercentileAspect(String name, double percentile) {
+        return new IDataAspect<NamedStatistics>() {
+            @Override
+            public String getName() {
+                return name;
+            }
+            @Override
+            public @Nullable Object apply(NamedStatistics input) {
+                return fMapper.apply(input.getStatistics().getPercentile(percentile));
+            }
+        };
+    }
+
    /**
     * Wrapper of statistics name and actual statistics implementation
     */
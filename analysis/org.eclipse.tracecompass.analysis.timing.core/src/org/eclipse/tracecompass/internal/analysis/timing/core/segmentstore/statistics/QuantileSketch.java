@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable sketch of the distribution of values, to estimate their quantiles
+ * without keeping the values.
+ *
+ * The values are counted in buckets whose bounds grow exponentially, like an
+ * HDR histogram, so any quantile is estimated with a relative error of at most
+ * 1%, whatever the range of the values. Only the buckets that were hit are
+ * kept, sorted by index, so a sketch of values of similar magnitudes stays
+ * small. Sketches are merged by adding the counts of their buckets, which
+ * gives the same sketch as if all the values had been added to one.
+ */
+public final class QuantileSketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    /**
+     * Maximum number of buckets per sign, the lowest buckets are merged
+     * beyond. It covers a ratio of about e^80 between the values.
+     */
+    private static final int MAX_BUCKETS = 4096;
+
+    private final Buckets fPositive = new Buckets();
+    private final Buckets fNegative = new Buckets();
+    private long fZeroCount = 0;
+    private long fCount = 0;
+
+    /**
+     * Add a value to the sketch
+     *
+     * @param value
+     *            The value
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value > Double.MIN_NORMAL) {
+            fPositive.add(index(value), 1);
+        } else if (value < -Double.MIN_NORMAL) {
+            fNegative.add(index(-value), 1);
+        } else {
+            fZeroCount++;
+        }
+        fCount++;
+    }
+
+    /**
+     * Add the values of another sketch to this sketch
+     *
+     * @param other
+     *            The other sketch
+     */
+    public void merge(QuantileSketch other) {
+        fPositive.merge(other.fPositive);
+        fNegative.merge(other.fNegative);
+        fZeroCount += other.fZeroCount;
+        fCount += other.fCount;
+    }
+
+    /**
+     * Make this sketch a copy of another sketch
+     *
+     * @param other
+     *            The sketch to copy
+     */
+    public void copy(QuantileSketch other) {
+        fPositive.copy(other.fPositive);
+        fNegative.copy(other.fNegative);
+        fZeroCount = other.fZeroCount;
+        fCount = other.fCount;
+    }
+
+    /**
+     * Get the number of values in the sketch
+     *
+     * @return The number of values
+     */
+    public long getCount() {
+        return fCount;
+    }
+
+    /**
+     * Estimate a quantile of the values
+     *
+     * @param quantile
+     *            The quantile, between 0 and 1
+     * @return The estimated value of the quantile, or NaN if there are no
+     *         values
+     */
+    public double getQuantile(double quantile) {
+        if (fCount == 0 || Double.isNaN(quantile)) {
+            return Double.NaN;
+        }
+        double q = Math.max(0.0, Math.min(1.0, quantile));
+        long rank = (long) (q * (fCount - 1));
+
+        /* The negative values, from the lowest, are the highest indexes */
+        long seen = 0;
+        for (int i = fNegative.fSize - 1; i >= 0; i--) {
+            seen += fNegative.fCounts[i];
+            if (seen > rank) {
+                return -value(fNegative.fIndexes[i]);
+            }
+        }
+        seen += fZeroCount;
+        if (seen > rank) {
+            return 0.0;
+        }
+        for (int i = 0; i < fPositive.fSize; i++) {
+            seen += fPositive.fCounts[i];
+            if (seen > rank) {
+                return value(fPositive.fIndexes[i]);
+            }
+        }
+        return value(fPositive.fIndexes[fPositive.fSize - 1]);
+    }
+
+    private static int index(double value) {
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+
+    /**
+     * The value of a bucket, within the relative accuracy of all the values of
+     * the bucket, which are in (gamma^(index-1), gamma^index]
+     */
+    private static double value(int index) {
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    /**
+     * The counts of the buckets that were hit, sorted by index
+     */
+    private static final class Buckets {
+        private int[] fIndexes = new int[0];
+        private long[] fCounts = new long[0];
+        private int fSize = 0;
+
+        public void add(int index, long count) {
+            int pos = Arrays.binarySearch(fIndexes, 0, fSize, index);
+            if (pos >= 0) {
+                fCounts[pos] += count;
+                return;
+            }
+            pos = -pos - 1;
+            if (fSize == fIndexes.length) {
+                int capacity = Math.max(4, fSize * 2);
+                fIndexes = Arrays.copyOf(fIndexes, capacity);
+                fCounts = Arrays.copyOf(fCounts, capacity);
+            }
+            System.arraycopy(fIndexes, pos, fIndexes, pos + 1, fSize - pos);
+            System.arraycopy(fCounts, pos, fCounts, pos + 1, fSize - pos);
+            fIndexes[pos] = index;
+            fCounts[pos] = count;
+            fSize++;
+            if (fSize > MAX_BUCKETS) {
+                collapseLowest();
+            }
+        }
+
+        public void merge(Buckets other) {
+            if (other.fSize == 0) {
+                return;
+            }
+            int[] indexes = new int[fSize + other.fSize];
+            long[] counts = new long[indexes.length];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < fSize || j < other.fSize) {
+                if (j >= other.fSize || (i < fSize && fIndexes[i] < other.fIndexes[j])) {
+                    indexes[size] = fIndexes[i];
+                    counts[size++] = fCounts[i++];
+                } else if (i >= fSize || other.fIndexes[j] < fIndexes[i]) {
+                    indexes[size] = other.fIndexes[j];
+                    counts[size++] = other.fCounts[j++];
+                } else {
+                    indexes[size] = fIndexes[i];
+                    counts[size++] = fCounts[i++] + other.fCounts[j++];
+                }
+            }
+            fIndexes = indexes;
+            fCounts = counts;
+            fSize = size;
+            while (fSize > MAX_BUCKETS) {
+                collapseLowest();
+            }
+        }
+
+        public void copy(Buckets other) {
+            fIndexes = Arrays.copyOf(other.fIndexes, other.fSize);
+            fCounts = Arrays.copyOf(other.fCounts, other.fSize);
+            fSize = other.fSize;
+        }
+
+        /**
+         * Merge the two lowest buckets, the high quantiles stay accurate
+         */
+        private void collapseLowest() {
+            fCounts[1] += fCounts[0];
+            System.arraycopy(fIndexes, 1, fIndexes, 0, fSize - 1);
+            System.arraycopy(fCounts, 1, fCounts, 0, fSize - 1);
+            fSize--;
+        }
+    }
+}
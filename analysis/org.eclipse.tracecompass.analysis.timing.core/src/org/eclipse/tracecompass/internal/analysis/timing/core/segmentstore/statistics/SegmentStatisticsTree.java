@@ -0,0 +1,362 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.analysis.timing.core.segmentstore.statistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.IStatistics;
+import org.eclipse.tracecompass.analysis.timing.core.statistics.Statistics;
+import org.eclipse.tracecompass.segmentstore.core.ISegment;
+import org.eclipse.tracecompass.segmentstore.core.ISegmentStore;
+
+/**
+ * Pre-aggregated statistics of a segment store, to compute the statistics of
+ * the segments intersecting any time range without going through all of them.
+ *
+ * The segments are grouped by start time in leaves of equal duration over a
+ * given time range, usually the one of the trace, and each node of a balanced
+ * binary tree over the leaves holds the statistics, in total and per segment
+ * type, of the segments of its leaves. The statistics of a time range are then
+ * merged from O(log n) nodes for the leaves fully inside the range, while the
+ * segments starting in the leaves at the edges of the range, outside of the
+ * leaves, or before the range, are read from the segment store.
+ *
+ * The tree is built in a single pass over the segment store, which also
+ * computes the statistics of all the segments. It is built once the segment
+ * store is complete, and is not updated if segments are added afterwards.
+ */
+public class SegmentStatisticsTree {
+
+    /** Target number of segments in a leaf */
+    private static final int SEGMENTS_PER_LEAF = 1024;
+
+    /**
+     * Maximum number of leaves, each node holding statistics for every segment
+     * type of its leaves
+     */
+    private static final int MAX_LEAVES = 1024;
+
+    private final ISegmentStore<@NonNull ISegment> fStore;
+    private final Function<ISegment, @Nullable Number> fMapper;
+    private final Function<ISegment, @Nullable String> fTypeResolver;
+
+    /* The segments starting in [fLeavesStart, fLeavesEnd] are in the leaves */
+    private final long fLeavesStart;
+    private final long fLeavesEnd;
+    private final long fLeafWidth;
+    private final int fNbLeaves;
+
+    /* Heap layout, the leaves are at [fNbLeaves, 2 * fNbLeaves) */
+    private final List<@Nullable IStatistics<@NonNull ISegment>> fNodeTotals;
+    private final List<@Nullable Map<String, IStatistics<@NonNull ISegment>>> fNodePerType;
+
+    /* The statistics of all the segments, and their start times */
+    private final IStatistics<@NonNull ISegment> fStatsTotal;
+    private final Map<@NonNull String, IStatistics<@NonNull ISegment>> fStatsPerType = new HashMap<>();
+    private long fMinStart = Long.MAX_VALUE;
+    private long fMaxStart = Long.MIN_VALUE;
+
+    private SegmentStatisticsTree(ISegmentStore<@NonNull ISegment> store, Function<ISegment, @Nullable Number> mapper,
+            Function<ISegment, @Nullable String> typeResolver, long leavesStart, long leavesEnd, int nbLeaves) {
+        fStore = store;
+        fMapper = mapper;
+        fTypeResolver = typeResolver;
+        fLeavesStart = leavesStart;
+        fLeavesEnd = leavesEnd;
+        fNbLeaves = nbLeaves;
+        /* Round up, so the leaves cover [leavesStart, leavesEnd] */
+        fLeafWidth = (leavesEnd - leavesStart) / nbLeaves + 1;
+        fNodeTotals = new ArrayList<>(Collections.nCopies(2 * nbLeaves, null));
+        fNodePerType = new ArrayList<>(Collections.nCopies(2 * nbLeaves, null));
+        fStatsTotal = new Statistics<>(mapper);
+    }
+
+    /**
+     * Build the statistics tree of a complete segment store
+     *
+     * @param store
+     *            The segment store
+     * @param mapper
+     *            Maps a segment to the value of its statistics
+     * @param typeResolver
+     *            Gets the type of a segment, null if it is not counted per
+     *            type
+     * @param start
+     *            The start of the time range of the leaves, usually the start
+     *            of the trace
+     * @param end
+     *            The end of the time range of the leaves, usually the end of
+     *            the trace
+     * @param monitor
+     *            The progress monitor
+     * @return The statistics tree, or null if the store is empty, if the time
+     *         range is empty or too wide, or if the monitor was canceled
+     */
+    public static @Nullable SegmentStatisticsTree build(ISegmentStore<@NonNull ISegment> store, Function<ISegment, @Nullable Number> mapper,
+            Function<ISegment, @Nullable String> typeResolver, long start, long end, IProgressMonitor monitor) {
+        int count = store.size();
+        /* The difference overflows if the range is too wide */
+        if (count == 0 || end - start < 0 || monitor.isCanceled()) {
+            return null;
+        }
+        int nbLeaves = Integer.highestOneBit(Math.min(MAX_LEAVES, Math.max(1, count / SEGMENTS_PER_LEAF)));
+        SegmentStatisticsTree tree = new SegmentStatisticsTree(store, mapper, typeResolver, start, end, nbLeaves);
+
+        /* Fill the leaves and the statistics of all the segments */
+        for (ISegment segment : store) {
+            if (monitor.isCanceled()) {
+                return null;
+            }
+            tree.add(segment);
+        }
+
+        /* Merge the children of each node */
+        for (int node = nbLeaves - 1; node > 0; node--) {
+            if (monitor.isCanceled()) {
+                return null;
+            }
+            tree.fNodeTotals.set(node, tree.mergeTotals(tree.fNodeTotals.get(2 * node), tree.fNodeTotals.get(2 * node + 1)));
+            tree.fNodePerType.set(node, tree.mergePerType(tree.fNodePerType.get(2 * node), tree.fNodePerType.get(2 * node + 1)));
+        }
+        return tree;
+    }
+
+    private void add(ISegment segment) {
+        long start = segment.getStart();
+        fMinStart = Math.min(fMinStart, start);
+        fMaxStart = Math.max(fMaxStart, start);
+        fStatsTotal.update(segment);
+        String type = fTypeResolver.apply(segment);
+        if (type != null) {
+            fStatsPerType.computeIfAbsent(type, t -> new Statistics<>(fMapper)).update(segment);
+        }
+        if (start < fLeavesStart || start > fLeavesEnd) {
+            return;
+        }
+
+        int node = fNbLeaves + (int) ((start - fLeavesStart) / fLeafWidth);
+        IStatistics<@NonNull ISegment> total = fNodeTotals.get(node);
+        if (total == null) {
+            total = new Statistics<>(fMapper);
+            fNodeTotals.set(node, total);
+        }
+        total.update(segment);
+        if (type != null) {
+            Map<String, IStatistics<@NonNull ISegment>> perType = fNodePerType.get(node);
+            if (perType == null) {
+                perType = new HashMap<>();
+                fNodePerType.set(node, perType);
+            }
+            perType.computeIfAbsent(type, t -> new Statistics<>(fMapper)).update(segment);
+        }
+    }
+
+    /**
+     * Get the statistics of all the segments
+     *
+     * @return The statistics
+     */
+    public IStatistics<@NonNull ISegment> getStatsTotal() {
+        return fStatsTotal;
+    }
+
+    /**
+     * Get the statistics per segment type of all the segments
+     *
+     * @return The statistics per segment type
+     */
+    public Map<@NonNull String, IStatistics<@NonNull ISegment>> getStatsPerType() {
+        return fStatsPerType;
+    }
+
+    private @Nullable IStatistics<@NonNull ISegment> mergeTotals(@Nullable IStatistics<@NonNull ISegment> left, @Nullable IStatistics<@NonNull ISegment> right) {
+        if (left == null && right == null) {
+            return null;
+        }
+        IStatistics<@NonNull ISegment> merged = new Statistics<>(fMapper);
+        if (left != null) {
+            merged.merge(left);
+        }
+        if (right != null) {
+            merged.merge(right);
+        }
+        return merged;
+    }
+
+    private @Nullable Map<String, IStatistics<@NonNull ISegment>> mergePerType(@Nullable Map<String, IStatistics<@NonNull ISegment>> left,
+            @Nullable Map<String, IStatistics<@NonNull ISegment>> right) {
+        if (left == null && right == null) {
+            return null;
+        }
+        Map<String, IStatistics<@NonNull ISegment>> merged = new HashMap<>();
+        mergeInto(merged, left);
+        mergeInto(merged, right);
+        return merged;
+    }
+
+    private void mergeInto(Map<String, IStatistics<@NonNull ISegment>> target, @Nullable Map<String, IStatistics<@NonNull ISegment>> source) {
+        if (source == null) {
+            return;
+        }
+        for (Map.Entry<String, IStatistics<@NonNull ISegment>> entry : source.entrySet()) {
+            target.computeIfAbsent(entry.getKey(), t -> new Statistics<>(fMapper)).merge(entry.getValue());
+        }
+    }
+
+    /**
+     * Get the statistics of the segments intersecting a time range
+     *
+     * @param start
+     *            The start of the time range
+     * @param end
+     *            The end of the time range
+     * @param monitor
+     *            The progress monitor
+     * @return The statistics, or null if the monitor was canceled
+     */
+    public @Nullable IStatistics<@NonNull ISegment> getStatsForRange(long start, long end, IProgressMonitor monitor) {
+        Accumulator accumulator = new Accumulator(false);
+        return query(start, end, accumulator, monitor) ? accumulator.fTotal : null;
+    }
+
+    /**
+     * Get the statistics per segment type of the segments intersecting a time
+     * range
+     *
+     * @param start
+     *            The start of the time range
+     * @param end
+     *            The end of the time range
+     * @param monitor
+     *            The progress monitor
+     * @return The statistics per segment type, or null if the monitor was
+     *         canceled
+     */
+    public @Nullable Map<@NonNull String, IStatistics<@NonNull ISegment>> getStatsPerTypeForRange(long start, long end, IProgressMonitor monitor) {
+        Accumulator accumulator = new Accumulator(true);
+        return query(start, end, accumulator, monitor) ? accumulator.fPerType : null;
+    }
+
+    private boolean query(long start, long end, Accumulator accumulator, IProgressMonitor monitor) {
+        long t0 = Long.min(start, end);
+        long t1 = Long.max(start, end);
+
+        /* The segments starting before the range and ending in it, or after */
+        if (t0 > fMinStart) {
+            for (ISegment segment : fStore.getIntersectingElements(t0)) {
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                if (segment.getStart() < t0) {
+                    accumulator.update(segment);
+                }
+            }
+        }
+
+        /* The segments starting in the range */
+        long t0c = Long.max(t0, fMinStart);
+        long t1c = Long.min(t1, fMaxStart);
+        if (t0c > t1c) {
+            return true;
+        }
+        /* The part of the range in the leaves, the rest is scanned */
+        long low0 = Long.max(t0c, fLeavesStart);
+        long high1 = Long.min(t1c, fLeavesEnd);
+        if (low0 > high1) {
+            return scan(t0c, t1c, accumulator, monitor);
+        }
+        int first = (int) ((low0 - fLeavesStart + fLeafWidth - 1) / fLeafWidth);
+        int last = (high1 == fLeavesEnd) ? fNbLeaves - 1 : (int) ((high1 - fLeavesStart + 1) / fLeafWidth) - 1;
+        if (first > last) {
+            return scan(t0c, t1c, accumulator, monitor);
+        }
+        long firstStart = fLeavesStart + first * fLeafWidth;
+        long lastEnd = Long.min(fLeavesStart + (last + 1) * fLeafWidth - 1, fLeavesEnd);
+        if (t0c < firstStart && !scan(t0c, firstStart - 1, accumulator, monitor)) {
+            return false;
+        }
+        if (t1c > lastEnd && !scan(lastEnd + 1, t1c, accumulator, monitor)) {
+            return false;
+        }
+
+        /* Merge the nodes covering the leaves [first, last] */
+        int low = first + fNbLeaves;
+        int high = last + fNbLeaves + 1;
+        while (low < high) {
+            if ((low & 1) == 1) {
+                accumulator.merge(low++);
+            }
+            if ((high & 1) == 1) {
+                accumulator.merge(--high);
+            }
+            low >>= 1;
+            high >>= 1;
+        }
+        return true;
+    }
+
+    /**
+     * Update the statistics with the segments starting in a time range
+     */
+    private boolean scan(long start, long end, Accumulator accumulator, IProgressMonitor monitor) {
+        for (ISegment segment : fStore.getIntersectingElements(start, end)) {
+            if (monitor.isCanceled()) {
+                return false;
+            }
+            long segmentStart = segment.getStart();
+            if (segmentStart >= start && segmentStart <= end) {
+                accumulator.update(segment);
+            }
+        }
+        return true;
+    }
+
+    private final class Accumulator {
+        private final boolean fWithTypes;
+        private final IStatistics<@NonNull ISegment> fTotal = new Statistics<>(fMapper);
+        private final Map<@NonNull String, IStatistics<@NonNull ISegment>> fPerType = new HashMap<>();
+
+        public Accumulator(boolean withTypes) {
+            fWithTypes = withTypes;
+        }
+
+        public void update(ISegment segment) {
+            if (!fWithTypes) {
+                fTotal.update(segment);
+                return;
+            }
+            String type = fTypeResolver.apply(segment);
+            if (type != null) {
+                fPerType.computeIfAbsent(type, t -> new Statistics<>(fMapper)).update(segment);
+            }
+        }
+
+        public void merge(int node) {
+            if (!fWithTypes) {
+                IStatistics<@NonNull ISegment> total = fNodeTotals.get(node);
+                if (total != null) {
+                    fTotal.merge(total);
+                }
+                return;
+            }
+            mergeInto(fPerType, fNodePerType.get(node));
+        }
+    }
+}
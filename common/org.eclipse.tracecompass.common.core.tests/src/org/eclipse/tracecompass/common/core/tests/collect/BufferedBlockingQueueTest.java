@@ -21,6 +21,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -328,6 +329,61 @@ public class BufferedBlockingQueueTest {
         assertEquals(testString, sb.toString());
     }
 
+    /**
+     * Read with a producer and a consumer using
+     * {@link BufferedBlockingQueue#takeChunk()}, mixed with
+     * {@link BufferedBlockingQueue#take()}.
+     *
+     * @throws InterruptedException
+     *             The test was interrupted
+     */
+    @Test
+    public void testTakeChunk() throws InterruptedException {
+        /* A character not found in the test string */
+        final Character lastElement = '%';
+
+        final StringBuilder sb = new StringBuilder();
+
+        Thread consumer = new Thread() {
+            @Override
+            public void run() {
+                boolean isFinished = false;
+                boolean chunk = true;
+                while (!isFinished) {
+                    List<Character> elements = chunk ? charQueue.takeChunk() : Collections.singletonList(charQueue.take());
+                    assertFalse(elements.isEmpty());
+                    assertTrue(elements.size() <= 15);
+                    for (Character s : elements) {
+                        isFinished = s.equals(lastElement);
+                        if (!isFinished) {
+                            sb.append(s);
+                        }
+                    }
+                    chunk = !chunk;
+                }
+            }
+        };
+        consumer.start();
+
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                for (char c : testString.toCharArray()) {
+                    charQueue.put(c);
+                }
+                charQueue.put(lastElement);
+                charQueue.flushInputBuffer();
+            }
+        };
+        producer.start();
+
+        producer.join();
+        consumer.join();
+
+        assertEquals(testString, sb.toString());
+        assertTrue(charQueue.isEmpty());
+    }
+
     /**
      * Test the contents returned by {@link BufferedBlockingQueue#iterator()}.
      *
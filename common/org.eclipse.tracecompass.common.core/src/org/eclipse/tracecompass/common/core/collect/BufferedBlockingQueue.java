@@ -17,8 +17,10 @@ package org.eclipse.tracecompass.common.core.collect;
 
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.BlockingQueue;
@@ -178,21 +180,7 @@ public class BufferedBlockingQueue<T> implements Iterable<T> {
     public T take() {
         fOutputLock.lock();
         try {
-            if (fOutputBuffer.isEmpty()) {
-                /*
-                 * Our read buffer is empty, remove it from the queue and peek
-                 * the next buffer in the queue. The loop will block if the
-                 * inner queue is empty, releasing the lock while it waits.
-                 */
-                Deque<T> value = fInnerQueue.remove();
-                if (!value.isEmpty()) {
-                    Activator.instance().logError("Queue chunk not empty " + value); //$NON-NLS-1$
-                }
-                while (fInnerQueue.isEmpty()) {
-                    fInnerQueueNotEmpty.await();
-                }
-                fOutputBuffer = checkNotNull(fInnerQueue.peek());
-            }
+            awaitOutputBuffer();
             /* Our implementation guarantees this output buffer is not empty. */
             T element = checkNotNull(fOutputBuffer.remove());
             fSize.decrementAndGet();
@@ -220,21 +208,7 @@ public class BufferedBlockingQueue<T> implements Iterable<T> {
     public T blockingPeek() {
         fOutputLock.lock();
         try {
-            if (fOutputBuffer.isEmpty()) {
-                /*
-                 * Our read buffer is empty, remove it from the queue and peek
-                 * the next buffer in the queue. The loop will block if the
-                 * inner queue is empty, releasing the lock while it waits.
-                 */
-                Deque<T> value = fInnerQueue.remove();
-                if (!value.isEmpty()) {
-                    Activator.instance().logError("Queue chunk not empty " + value); //$NON-NLS-1$
-                }
-                while (fInnerQueue.isEmpty()) {
-                    fInnerQueueNotEmpty.await();
-                }
-                fOutputBuffer = checkNotNull(fInnerQueue.peek());
-            }
+            awaitOutputBuffer();
             /* Our implementation guarantees this output buffer is not empty. */
             return checkNotNull(fOutputBuffer.peek());
         } catch (InterruptedException e) {
@@ -247,6 +221,62 @@ public class BufferedBlockingQueue<T> implements Iterable<T> {
         }
     }
 
+    /**
+     * Retrieve all the elements of the head chunk of the queue.
+     * <p>
+     * If the output buffer is empty, this call will block until an element is
+     * inserted and fills the input buffer, or until the not-empty input buffer
+     * is otherwise manually flushed. The elements of the chunk are then
+     * removed at once, so the consumer can handle the elements by chunks,
+     * with one synchronization per chunk instead of one per element.
+     *
+     * @return The retrieved elements, in order, there is at least one. They
+     *         are removed from the queue.
+     * @since 5.1
+     */
+    public List<T> takeChunk() {
+        fOutputLock.lock();
+        try {
+            awaitOutputBuffer();
+            List<T> elements = new ArrayList<>(fChunkSize);
+            T element = fOutputBuffer.poll();
+            while (element != null) {
+                elements.add(element);
+                element = fOutputBuffer.poll();
+            }
+            fSize.addAndGet(-elements.size());
+            return elements;
+        } catch (InterruptedException e) {
+            Activator.instance().logError(BUFFERED_QUEUE_INTERRUPTED, e);
+            Thread.currentThread().interrupt();
+            // won't happen
+            throw new IllegalStateException(e);
+        } finally {
+            fOutputLock.unlock();
+        }
+    }
+
+    /**
+     * Make sure the output buffer is not empty, the output lock must be held.
+     */
+    private void awaitOutputBuffer() throws InterruptedException {
+        if (fOutputBuffer.isEmpty()) {
+            /*
+             * Our read buffer is empty, remove it from the queue and peek the
+             * next buffer in the queue. The loop will block if the inner queue
+             * is empty, releasing the lock while it waits.
+             */
+            Deque<T> value = fInnerQueue.remove();
+            if (!value.isEmpty()) {
+                Activator.instance().logError("Queue chunk not empty " + value); //$NON-NLS-1$
+            }
+            while (fInnerQueue.isEmpty()) {
+                fInnerQueueNotEmpty.await();
+            }
+            fOutputBuffer = checkNotNull(fInnerQueue.peek());
+        }
+    }
+
     /**
      * Returns true if the queue size is 0.
      *
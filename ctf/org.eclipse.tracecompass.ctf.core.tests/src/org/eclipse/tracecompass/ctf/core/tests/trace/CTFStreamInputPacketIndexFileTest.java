@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.tests.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Test the saved packet indexes, {@link StreamInputPacketIndexFile}
+ */
+public class CTFStreamInputPacketIndexFileTest {
+
+    private static final int PACKET_SIZE_BITS = 4096 * 8;
+
+    private File fDirectory;
+    private File fStreamFile;
+    private File fIndexFile;
+
+    /**
+     * Create a stream file
+     *
+     * @throws IOException
+     *             If the file could not be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDirectory = Files.createTempDirectory("packet-index").toFile();
+        fStreamFile = new File(fDirectory, "channel_0");
+        fIndexFile = new File(new File(fDirectory, "index"), "channel_0.idx");
+        Files.write(fStreamFile.toPath(), new byte[4096 * 4]);
+    }
+
+    /**
+     * Delete the files
+     *
+     * @throws IOException
+     *             If the files could not be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(fDirectory);
+    }
+
+    private static ICTFPacketDescriptor createEntry(int packet) {
+        @NonNull Map<String, Object> attributes = ImmutableMap.of(
+                "timestamp_begin", (long) packet * 100,
+                "events_discarded", (long) packet,
+                "ratio", packet / 2.0,
+                "mode", new AbstractMap.SimpleImmutableEntry<>("overwrite", 1L),
+                "name", "cpu" + packet);
+        return new StreamInputPacketIndexEntry((long) packet * PACKET_SIZE_BITS, PACKET_SIZE_BITS, PACKET_SIZE_BITS - 8,
+                packet * 100L, packet * 100L + 99, packet % 2, (packet == 0 ? null : "cpu" + packet), packet, attributes, 256, () -> null);
+    }
+
+    private static void assertEntryEquals(ICTFPacketDescriptor expected, ICTFPacketDescriptor actual) {
+        assertEquals(expected.getOffsetBits(), actual.getOffsetBits());
+        assertEquals(expected.getOffsetBytes(), actual.getOffsetBytes());
+        assertEquals(expected.getPacketSizeBits(), actual.getPacketSizeBits());
+        assertEquals(expected.getContentSizeBits(), actual.getContentSizeBits());
+        assertEquals(expected.getTimestampBegin(), actual.getTimestampBegin());
+        assertEquals(expected.getTimestampEnd(), actual.getTimestampEnd());
+        assertEquals(expected.getLostEvents(), actual.getLostEvents());
+        assertEquals(expected.getTarget(), actual.getTarget());
+        assertEquals(expected.getTargetId(), actual.getTargetId());
+        assertEquals(expected.getPayloadStartBits(), actual.getPayloadStartBits());
+        assertEquals(expected.getAttributes(), actual.getAttributes());
+    }
+
+    private static StreamInputPacketIndex createIndex(int nbPackets) {
+        StreamInputPacketIndex index = new StreamInputPacketIndex();
+        for (int i = 0; i < nbPackets; i++) {
+            assertTrue(index.append(createEntry(i)));
+        }
+        return index;
+    }
+
+    /**
+     * Test saving and loading an index
+     */
+    @Test
+    public void testSaveLoad() {
+        StreamInputPacketIndex index = createIndex(4);
+        StreamInputPacketIndexFile file = new StreamInputPacketIndexFile(fIndexFile, fStreamFile);
+        assertTrue(file.load(offset -> null).isEmpty());
+        file.save(index);
+        assertEquals(4, file.getSavedCount());
+
+        StreamInputPacketIndexFile loaded = new StreamInputPacketIndexFile(fIndexFile, fStreamFile);
+        List<ICTFPacketDescriptor> entries = loaded.load(offset -> null);
+        assertEquals(4, entries.size());
+        assertEquals(4, loaded.getSavedCount());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEntryEquals(index.getElement(i), entries.get(i));
+        }
+        /* The packet context is read from the trace when it is needed */
+        assertNull(((StreamInputPacketIndexEntry) entries.get(0)).getStreamPacketContextDef());
+    }
+
+    /**
+     * Test that the entries of a growing stream are appended to the index
+     *
+     * @throws IOException
+     *             If the stream file could not be written
+     */
+    @Test
+    public void testGrowingStream() throws IOException {
+        StreamInputPacketIndexFile file = new StreamInputPacketIndexFile(fIndexFile, fStreamFile);
+        file.save(createIndex(2));
+        Files.write(fStreamFile.toPath(), new byte[4096 * 4], StandardOpenOption.APPEND);
+
+        StreamInputPacketIndexFile grown = new StreamInputPacketIndexFile(fIndexFile, fStreamFile);
+        List<ICTFPacketDescriptor> entries = grown.load(offset -> null);
+        assertEquals(2, entries.size());
+        StreamInputPacketIndex index = createIndex(8);
+        grown.save(index);
+        assertEquals(8, grown.getSavedCount());
+
+        entries = new StreamInputPacketIndexFile(fIndexFile, fStreamFile).load(offset -> null);
+        assertEquals(8, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEntryEquals(index.getElement(i), entries.get(i));
+        }
+    }
+
+    /**
+     * Test that the index is not used if the stream file was rewritten
+     *
+     * @throws IOException
+     *             If the stream file could not be written
+     */
+    @Test
+    public void testChangedStream() throws IOException {
+        StreamInputPacketIndexFile file = new StreamInputPacketIndexFile(fIndexFile, fStreamFile);
+        file.save(createIndex(4));
+
+        /* Shorter stream */
+        Files.write(fStreamFile.toPath(), new byte[4096 * 2]);
+        StreamInputPacketIndexFile loaded = new StreamInputPacketIndexFile(fIndexFile, fStreamFile);
+        assertTrue(loaded.load(offset -> null).isEmpty());
+        assertEquals(0, loaded.getSavedCount());
+
+        /* Rebuilt index, then the stream is modified with the same size */
+        loaded.save(createIndex(2));
+        assertEquals(2, new StreamInputPacketIndexFile(fIndexFile, fStreamFile).load(offset -> null).size());
+        assertTrue(fStreamFile.setLastModified(fStreamFile.lastModified() + 10000));
+        assertTrue(new StreamInputPacketIndexFile(fIndexFile, fStreamFile).load(offset -> null).isEmpty());
+    }
+}
@@ -300,6 +300,44 @@ public class CTFTraceReaderTest {
         assertTrue(result);
     }
 
+    /**
+     * Test that reading with packet prefetching returns the same events, in
+     * the same order, as reading on the calling thread, including after a
+     * seek.
+     *
+     * @throws CTFException
+     *             error
+     */
+    @Test
+    public void testPrefetch() throws CTFException {
+        CTFTrace trace = CtfTestTraceUtils.getTrace(testTrace);
+        try (CTFTraceReader reference = new CTFTraceReader(trace);
+                CTFTraceReader prefetched = new CTFTraceReader(trace);) {
+            prefetched.setPrefetchDepth(4);
+            assertEquals(4, prefetched.getPrefetchDepth());
+            assertSameEvents(reference, prefetched, 10000);
+
+            long seekTime = reference.getCurrentEventDef().getTimestamp();
+            reference.seek(seekTime / 2);
+            prefetched.seek(seekTime / 2);
+            assertSameEvents(reference, prefetched, 10000);
+        }
+    }
+
+    private static void assertSameEvents(CTFTraceReader expected, CTFTraceReader actual, int count) throws CTFException {
+        for (int i = 0; i < count && expected.hasMoreEvents(); i++) {
+            IEventDefinition expectedEvent = expected.getCurrentEventDef();
+            IEventDefinition actualEvent = actual.getCurrentEventDef();
+            assertNotNull(actualEvent);
+            assertEquals(expectedEvent.getTimestamp(), actualEvent.getTimestamp());
+            assertEquals(expectedEvent.getDeclaration().getName(), actualEvent.getDeclaration().getName());
+            assertEquals(expectedEvent.getCPU(), actualEvent.getCPU());
+            expected.advance();
+            actual.advance();
+        }
+        assertEquals(expected.hasMoreEvents(), actual.hasMoreEvents());
+    }
+
     /**
      * @return
      */
@@ -33,6 +33,7 @@ import org.eclipse.tracecompass.ctf.core.event.types.StringDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructFieldAccessor;
 import org.eclipse.tracecompass.ctf.core.event.types.VariantDeclaration;
 import org.eclipse.tracecompass.ctf.core.event.types.VariantDefinition;
 import org.eclipse.tracecompass.ctf.core.tests.io.Util;
@@ -225,6 +226,33 @@ public class StructDefinitionTest {
         assertNotNull(result);
     }
 
+    /**
+     * Test the field accessors created from the struct declaration
+     */
+    @Test
+    public void testFieldAccessor() {
+        StructDeclaration declaration = fixture.getDeclaration();
+        assertEquals(0, declaration.getFieldIndex(INT_ID));
+        assertEquals(-1, declaration.getFieldIndex("nothing"));
+        assertEquals(fixture.getDefinition(STRING_ID), fixture.getDefinition(declaration.getFieldIndex(STRING_ID)));
+
+        StructFieldAccessor accessor = declaration.createFieldAccessor(INT_ID);
+        assertEquals(fixture.getDefinition(INT_ID), accessor.get(fixture));
+        assertNull(accessor.get(null));
+        assertNull(accessor.get(emptyStruct));
+        /* Another declaration with the same field */
+        assertEquals(simpleStruct.getDefinition(INT_ID), accessor.get(simpleStruct));
+
+        assertNull(declaration.createFieldAccessor("nothing").get(fixture));
+        assertNull(declaration.createFieldAccessor(INT_ID, "nothing").get(fixture));
+
+        VariantDefinition variant = fixture.lookupVariant(VAR_FIELD_NAME);
+        assertNotNull(variant);
+        accessor = declaration.createFieldAccessor(VAR_FIELD_NAME, variant.getCurrentFieldName());
+        assertEquals(variant.getCurrentField(), accessor.get(fixture));
+        assertNull(declaration.createFieldAccessor(VAR_FIELD_NAME, "nothing").get(fixture));
+    }
+
     /**
      * Run the String toString() method test.
      */
@@ -117,6 +117,34 @@ public class StructDeclaration extends Declaration {
         return fFields[indexOf];
     }
 
+    /**
+     * Get the index of a field in this struct. Definitions created from this
+     * declaration hold their fields at the same index, see
+     * {@link StructDefinition#getDefinition(int)}.
+     *
+     * @param fieldName
+     *            The field name
+     * @return The index of the field, or -1 if there is no such field.
+     * @since 4.2
+     */
+    public int getFieldIndex(String fieldName) {
+        return Arrays.asList(fFieldNames).indexOf(fieldName);
+    }
+
+    /**
+     * Create an accessor for a field of the definitions of this declaration.
+     * The path is resolved once here, so reading the field of a definition
+     * does not need to look up the field names.
+     *
+     * @param path
+     *            The names of the fields to follow, starting from this struct
+     * @return The field accessor
+     * @since 4.2
+     */
+    public @NonNull StructFieldAccessor createFieldAccessor(@NonNull String... path) {
+        return new StructFieldAccessor(this, path);
+    }
+
     /**
      * Gets the field list.
      *
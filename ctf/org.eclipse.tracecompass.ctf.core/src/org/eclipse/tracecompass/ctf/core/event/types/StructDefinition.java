@@ -133,6 +133,22 @@ public final class StructDefinition extends ScopedDefinition implements IComposi
         return fDefinitionsMap.get(fieldName);
     }
 
+    /**
+     * Get the definition of a field by its index in the declaration, see
+     * {@link StructDeclaration#getFieldIndex(String)}. This avoids looking up
+     * the field by name.
+     *
+     * @param index
+     *            The index of the field
+     * @return The definition of the field, or null if it is not read yet
+     * @throws IndexOutOfBoundsException
+     *             if there is no field at this index
+     * @since 4.2
+     */
+    public Definition getDefinition(int index) {
+        return fDefinitions[index];
+    }
+
     @Override
     public @NonNull List<@NonNull String> getFieldNames() {
         return fFieldNames;
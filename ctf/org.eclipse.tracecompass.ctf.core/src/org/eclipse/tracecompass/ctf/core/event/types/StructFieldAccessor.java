@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.ctf.core.event.types;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Accessor for a field of the definitions of a {@link StructDeclaration},
+ * created by {@link StructDeclaration#createFieldAccessor(String...)}.
+ *
+ * The path is resolved against the declaration when the accessor is created:
+ * the steps going through nested structs are turned into field indexes, so
+ * reading the field of a definition is a few array accesses instead of a name
+ * lookup per step. Steps going through variants, whose field is only known
+ * once read, are still looked up by name.
+ *
+ * Definitions of another declaration are looked up by name, so the accessor
+ * always returns the same result as following the path with
+ * {@link ICompositeDefinition#getDefinition(String)}.
+ *
+ * @since 4.2
+ */
+@NonNullByDefault
+public final class StructFieldAccessor {
+
+    private final StructDeclaration fDeclaration;
+    private final String[] fPath;
+    private final int[] fIndexes;
+    private final boolean fMissing;
+
+    StructFieldAccessor(StructDeclaration declaration, String[] path) {
+        fDeclaration = declaration;
+        fPath = Arrays.copyOf(path, path.length);
+        int[] indexes = new int[path.length];
+        int resolved = 0;
+        boolean missing = false;
+        IDeclaration current = declaration;
+        while (resolved < path.length && current instanceof StructDeclaration) {
+            StructDeclaration struct = (StructDeclaration) current;
+            int index = struct.getFieldIndex(path[resolved]);
+            if (index < 0) {
+                missing = true;
+                break;
+            }
+            indexes[resolved] = index;
+            current = struct.getField(path[resolved]);
+            resolved++;
+        }
+        fIndexes = Arrays.copyOf(indexes, resolved);
+        fMissing = missing;
+    }
+
+    /**
+     * Get the declaration this accessor was created for
+     *
+     * @return the struct declaration
+     */
+    public StructDeclaration getDeclaration() {
+        return fDeclaration;
+    }
+
+    /**
+     * Get the field of a definition
+     *
+     * @param definition
+     *            the struct definition, typically of the declaration of this
+     *            accessor
+     * @return the definition of the field, or null if there is no such field
+     */
+    public @Nullable IDefinition get(@Nullable StructDefinition definition) {
+        if (definition == null) {
+            return null;
+        }
+        if (definition.getDeclaration() != fDeclaration) {
+            return follow(definition, 0);
+        }
+        if (fMissing) {
+            return null;
+        }
+        IDefinition current = definition;
+        for (int index : fIndexes) {
+            if (!(current instanceof StructDefinition)) {
+                return null;
+            }
+            current = ((StructDefinition) current).getDefinition(index);
+        }
+        return follow(current, fIndexes.length);
+    }
+
+    private @Nullable IDefinition follow(@Nullable IDefinition definition, int start) {
+        IDefinition current = definition;
+        for (int i = start; i < fPath.length && current != null; i++) {
+            String name = fPath[i];
+            if (current instanceof ICompositeDefinition) {
+                current = ((ICompositeDefinition) current).getDefinition(name);
+            } else if (current instanceof VariantDefinition) {
+                VariantDefinition variant = (VariantDefinition) current;
+                current = name.equals(variant.getCurrentFieldName()) ? variant.getCurrentField() : null;
+            } else {
+                return null;
+            }
+        }
+        return current;
+    }
+}
@@ -20,6 +20,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.UUID;
 
 import org.eclipse.core.runtime.IStatus;
@@ -39,6 +40,7 @@ import org.eclipse.tracecompass.internal.ctf.core.Activator;
 import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
 import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexEntry;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndexFile;
 import org.eclipse.tracecompass.internal.ctf.core.utils.Utils;
 
 /**
@@ -55,6 +57,8 @@ public class CTFStreamInput implements IDefinitionScope {
 
     private static final int MAP_SIZE = 4096;
 
+    private static final String INDEX_FILE_SUFFIX = ".idx"; //$NON-NLS-1$
+
     /**
      * The associated Stream
      */
@@ -94,6 +98,13 @@ public class CTFStreamInput implements IDefinitionScope {
 
     private boolean fUUIDMismatchWarning = false;
 
+    /**
+     * The saved packet index, null if the index is not saved
+     */
+    private @Nullable StreamInputPacketIndexFile fIndexFile = null;
+
+    private volatile boolean fIndexLoaded = false;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -150,9 +161,40 @@ public class CTFStreamInput implements IDefinitionScope {
      * @return the stream input Index
      */
     StreamInputPacketIndex getIndex() {
+        loadIndex();
         return fIndex;
     }
 
+    /**
+     * Load the saved packet index, if there is one, the first time the index
+     * is used
+     */
+    private void loadIndex() {
+        if (fIndexLoaded) {
+            return;
+        }
+        synchronized (fIndex) {
+            if (fIndexLoaded) {
+                return;
+            }
+            File directory = getStream().getTrace().getPacketIndexDirectory();
+            if (directory != null && fIndex.isEmpty()) {
+                StreamInputPacketIndexFile indexFile = new StreamInputPacketIndexFile(new File(directory, fFileName + INDEX_FILE_SUFFIX), fFile);
+                List<ICTFPacketDescriptor> entries = indexFile.load(this::readPacketContext);
+                fIndex.appendAll(entries);
+                if (!entries.isEmpty()) {
+                    /* Restore the state the indexing would have left */
+                    for (ICTFPacketDescriptor entry : entries) {
+                        fLostSoFar += entry.getLostEvents();
+                    }
+                    setTimestampEnd(entries.get(entries.size() - 1).getTimestampEnd());
+                }
+                fIndexFile = indexFile;
+            }
+            fIndexLoaded = true;
+        }
+    }
+
     /**
      * Gets the filename of the streamInput file.
      *
@@ -225,6 +267,7 @@ public class CTFStreamInput implements IDefinitionScope {
      *             If there was a problem reading the packed header
      */
     public boolean addPacketHeaderIndex() throws CTFException {
+        loadIndex();
         long currentPosBits = 0L;
         if (!fIndex.isEmpty()) {
             ICTFPacketDescriptor pos = fIndex.lastElement();
@@ -236,6 +279,11 @@ public class CTFStreamInput implements IDefinitionScope {
         if (currentPosBits < getStreamSizeBits()) {
             return fIndex.append(createPacketIndexEntry(currentPosBits));
         }
+        /* The whole stream is indexed, save the new entries */
+        StreamInputPacketIndexFile indexFile = fIndexFile;
+        if (indexFile != null && fIndex.size() > indexFile.getSavedCount()) {
+            indexFile.save(fIndex);
+        }
         return false;
     }
 
@@ -278,6 +326,21 @@ public class CTFStreamInput implements IDefinitionScope {
         }
     }
 
+    /**
+     * Read the packet context of the packet at an offset, for the entries of a
+     * saved index.
+     */
+    private @Nullable StructDefinition readPacketContext(long dataOffsetBits) {
+        try (FileChannel fc = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
+            BitBuffer bitBuffer = createBitBufferForPacketHeader(fc, dataOffsetBits);
+            parseTracePacketHeader(bitBuffer);
+            return fStreamPacketContextDecl.createDefinition(this, ILexicalScope.STREAM_PACKET_CONTEXT, bitBuffer);
+        } catch (IOException | CTFException e) {
+            Activator.log(IStatus.WARNING, "Cannot read the packet context at bit " + dataOffsetBits + " of " + fFile + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            return null;
+        }
+    }
+
     private BitBuffer createBitBufferForPacketHeader(FileChannel fc, long dataOffsetbits) throws CTFException, IOException {
         /*
          * create a packet bit buffer to read the packet header
@@ -35,6 +35,8 @@ import org.eclipse.tracecompass.internal.ctf.core.Activator;
 import org.eclipse.tracecompass.internal.ctf.core.SafeMappedByteBuffer;
 import org.eclipse.tracecompass.internal.ctf.core.trace.CTFPacketReader;
 import org.eclipse.tracecompass.internal.ctf.core.trace.NullPacketReader;
+import org.eclipse.tracecompass.internal.ctf.core.trace.PacketPrefetcher;
+import org.eclipse.tracecompass.internal.ctf.core.trace.StreamInputPacketIndex;
 
 /**
  * A CTF trace event reader. Reads the events of a trace file.
@@ -84,6 +86,11 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     private boolean fLive = false;
 
+    /**
+     * Decodes the next packets on worker threads, null if disabled
+     */
+    private @Nullable PacketPrefetcher fPrefetcher = null;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -132,19 +139,46 @@ public class CTFStreamInputReader implements AutoCloseable {
     }
 
     private IPacketReader getCurrentPacketReader(@Nullable ICTFPacketDescriptor packet) throws CTFException {
-        IPacketReader ctfPacketReader = NullPacketReader.INSTANCE;
-        if (packet != null) {
-            long size = packet.getContentSizeBits();
-            if (size < 0) {
-                throw new CTFIOException("Cannot have negative sized buffers."); //$NON-NLS-1$
+        if (packet == null) {
+            return NullPacketReader.INSTANCE;
+        }
+        PacketPrefetcher prefetcher = fPrefetcher;
+        if (prefetcher == null) {
+            return createPacketReader(packet);
+        }
+        IPacketReader packetReader = prefetcher.take(fPacketIndex, packet);
+        prefetchNextPackets(prefetcher);
+        return packetReader;
+    }
+
+    private CTFPacketReader createPacketReader(ICTFPacketDescriptor packet) throws CTFException {
+        long size = packet.getContentSizeBits();
+        if (size < 0) {
+            throw new CTFIOException("Cannot have negative sized buffers."); //$NON-NLS-1$
+        }
+        BitBuffer bitBuffer = new BitBuffer(getByteBufferAt(packet.getOffsetBits(), size));
+        bitBuffer.position(packet.getPayloadStartBits());
+        IDeclaration eventHeaderDeclaration = getStreamInput().getStream().getEventHeaderDeclaration();
+        CTFTrace trace = getStreamInput().getStream().getTrace();
+        return new CTFPacketReader(bitBuffer, packet, getEventDeclarations(), eventHeaderDeclaration, getStreamEventContextDecl(), trace.getPacketHeaderDef(), trace);
+    }
+
+    /**
+     * Schedule the decoding of the packets following the current one, indexing
+     * them if needed.
+     */
+    private void prefetchNextPackets(PacketPrefetcher prefetcher) throws CTFException {
+        StreamInputPacketIndex index = fStreamInput.getIndex();
+        int last = fPacketIndex + prefetcher.getDepth();
+        while (index.size() <= last) {
+            if (!fStreamInput.addPacketHeaderIndex()) {
+                break;
             }
-            BitBuffer bitBuffer = new BitBuffer(getByteBufferAt(packet.getOffsetBits(), size));
-            bitBuffer.position(packet.getPayloadStartBits());
-            IDeclaration eventHeaderDeclaration = getStreamInput().getStream().getEventHeaderDeclaration();
-            CTFTrace trace = getStreamInput().getStream().getTrace();
-            ctfPacketReader = new CTFPacketReader(bitBuffer, packet, getEventDeclarations(), eventHeaderDeclaration, getStreamEventContextDecl(), trace.getPacketHeaderDef(), trace);
         }
-        return ctfPacketReader;
+        last = Math.min(last, index.size() - 1);
+        for (int i = fPacketIndex + 1; i <= last; i++) {
+            prefetcher.prefetch(i, index.getElement(i));
+        }
     }
 
     /**
@@ -177,6 +211,11 @@ public class CTFStreamInputReader implements AutoCloseable {
      */
     @Override
     public void close() throws IOException {
+        PacketPrefetcher prefetcher = fPrefetcher;
+        if (prefetcher != null) {
+            prefetcher.close();
+            fPrefetcher = null;
+        }
         if (fFileChannel != null) {
             fFileChannel.close();
         }
@@ -272,6 +311,39 @@ public class CTFStreamInputReader implements AutoCloseable {
         return fLive;
     }
 
+    /**
+     * Set the number of packets to decode ahead of the current one on worker
+     * threads. Events are still returned in the same order, but the cost of
+     * decoding is moved off the reading thread. Prefetching is disabled by
+     * default.
+     *
+     * @param depth
+     *            the number of packets to decode ahead, 0 to disable
+     *            prefetching
+     * @since 4.2
+     */
+    public void setPrefetchDepth(int depth) {
+        PacketPrefetcher prefetcher = fPrefetcher;
+        if (prefetcher != null) {
+            if (prefetcher.getDepth() == depth) {
+                return;
+            }
+            prefetcher.close();
+        }
+        fPrefetcher = depth > 0 ? new PacketPrefetcher(this::createPacketReader, depth) : null;
+    }
+
+    /**
+     * Get the number of packets decoded ahead of the current one
+     *
+     * @return the prefetch depth, 0 if prefetching is disabled
+     * @since 4.2
+     */
+    public int getPrefetchDepth() {
+        PacketPrefetcher prefetcher = fPrefetcher;
+        return prefetcher == null ? 0 : prefetcher.getDepth();
+    }
+
     /**
      * Get the event context of the stream
      *
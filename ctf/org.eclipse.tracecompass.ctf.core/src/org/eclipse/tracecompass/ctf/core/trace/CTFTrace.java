@@ -150,6 +150,12 @@ public class CTFTrace implements IDefinitionScope {
 
     private boolean fUUIDMismatchWarning = false;
 
+    /**
+     * Directory where the packet indexes of the stream inputs are saved, null
+     * if they are not saved
+     */
+    private volatile @Nullable File fPacketIndexDirectory = null;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -904,6 +910,32 @@ public class CTFTrace implements IDefinitionScope {
     public void setEnvironment(@NonNull Map<String, String> parseEnvironment) {
         fEnvironment = ImmutableMap.copyOf(parseEnvironment);
     }
+
+    /**
+     * Sets the directory where the packet indexes of the stream inputs are
+     * saved, so they do not have to be built again the next time the trace is
+     * opened. It must be set before the trace is read, the indexes are not
+     * saved if it is not set.
+     *
+     * @param directory
+     *            The directory of the packet indexes, or null to not save them
+     * @since 4.2
+     */
+    public void setPacketIndexDirectory(@Nullable File directory) {
+        fPacketIndexDirectory = directory;
+    }
+
+    /**
+     * Gets the directory where the packet indexes of the stream inputs are
+     * saved
+     *
+     * @return The directory of the packet indexes, or null if they are not
+     *         saved
+     * @since 4.2
+     */
+    public @Nullable File getPacketIndexDirectory() {
+        return fPacketIndexDirectory;
+    }
 }
 
 class MetadataFileFilter implements FileFilter {
@@ -84,6 +84,11 @@ public class CTFTraceReader implements AutoCloseable {
      */
     private boolean fClosed = false;
 
+    /**
+     * Number of packets decoded ahead per stream, 0 if disabled
+     */
+    private int fPrefetchDepth = 0;
+
     // ------------------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------------------
@@ -132,6 +137,7 @@ public class CTFTraceReader implements AutoCloseable {
         CTFTraceReader newReader = null;
 
         newReader = new CTFTraceReader(fTrace);
+        newReader.setPrefetchDepth(fPrefetchDepth);
         newReader.fStartTime = fStartTime;
         newReader.fEndTime = fEndTime;
         return newReader;
@@ -191,6 +197,39 @@ public class CTFTraceReader implements AutoCloseable {
         return fPrio;
     }
 
+    /**
+     * Set the number of packets each stream decodes ahead of the current one.
+     * When enabled, the packets of every stream are decoded by a shared pool of
+     * worker threads while the events are still merged by timestamp on the
+     * calling thread, so reading scales with the number of streams.
+     *
+     * @param depth
+     *            the number of packets to decode ahead per stream, 0 to
+     *            disable prefetching
+     * @since 4.2
+     */
+    public void setPrefetchDepth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Prefetch depth cannot be negative"); //$NON-NLS-1$
+        }
+        fPrefetchDepth = depth;
+        synchronized (fStreamInputReaders) {
+            for (CTFStreamInputReader reader : fStreamInputReaders) {
+                reader.setPrefetchDepth(depth);
+            }
+        }
+    }
+
+    /**
+     * Get the number of packets each stream decodes ahead of the current one
+     *
+     * @return the prefetch depth, 0 if prefetching is disabled
+     * @since 4.2
+     */
+    public int getPrefetchDepth() {
+        return fPrefetchDepth;
+    }
+
     // ------------------------------------------------------------------------
     // Operations
     // ------------------------------------------------------------------------
@@ -254,6 +293,7 @@ public class CTFTraceReader implements AutoCloseable {
                 try (CTFStreamInputReader streamInputReader = new CTFStreamInputReader(checkNotNull(streamInput))) {
                     if (!fStreamInputReaders.contains(streamInputReader)) {
                         CTFStreamInputReader streamInputReaderToAdd = new CTFStreamInputReader(checkNotNull(streamInput));
+                        streamInputReaderToAdd.setPrefetchDepth(fPrefetchDepth);
                         streamInputReaderToAdd.readNextEvent();
                         fStreamInputReaders.add(streamInputReaderToAdd);
                         readers.add(streamInputReaderToAdd);
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.CTFIOException;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.ctf.core.trace.IPacketReader;
+
+/**
+ * Packet reader over a packet that was already fully decoded, typically by a
+ * {@link PacketPrefetcher} worker thread. Events are returned in the same
+ * order as the {@link CTFPacketReader} that decoded them. If decoding failed
+ * part way through the packet, the events read before the failure are
+ * returned first, then the error is thrown.
+ */
+@NonNullByDefault
+public final class DecodedPacketReader implements IPacketReader {
+
+    private final ICTFPacketDescriptor fPacket;
+    private final int fCpu;
+    private final List<IEventDefinition> fEvents;
+    private final List<@Nullable ICompositeDefinition> fEventHeaders;
+    private final @Nullable CTFException fError;
+
+    private int fPosition = 0;
+    private @Nullable ICompositeDefinition fEventHeader = null;
+
+    private DecodedPacketReader(ICTFPacketDescriptor packet, int cpu, List<IEventDefinition> events, List<@Nullable ICompositeDefinition> eventHeaders, @Nullable CTFException error) {
+        fPacket = packet;
+        fCpu = cpu;
+        fEvents = events;
+        fEventHeaders = eventHeaders;
+        fError = error;
+    }
+
+    /**
+     * Decode all the events of a packet
+     *
+     * @param reader
+     *            the packet reader, positioned at the start of the packet
+     * @return a packet reader returning the decoded events
+     */
+    public static DecodedPacketReader decode(CTFPacketReader reader) {
+        List<IEventDefinition> events = new ArrayList<>();
+        List<@Nullable ICompositeDefinition> eventHeaders = new ArrayList<>();
+        CTFException error = null;
+        try {
+            while (reader.hasMoreEvents()) {
+                events.add(reader.readNextEvent());
+                eventHeaders.add(reader.getCurrentPacketEventHeader());
+            }
+        } catch (CTFException e) {
+            error = e;
+        }
+        return new DecodedPacketReader(reader.getCurrentPacket(), reader.getCPU(), events, eventHeaders, error);
+    }
+
+    @Override
+    public int getCPU() {
+        return fCpu;
+    }
+
+    @Override
+    public boolean hasMoreEvents() {
+        return fPosition < fEvents.size() || (fPosition == fEvents.size() && fError != null);
+    }
+
+    @Override
+    public IEventDefinition readNextEvent() throws CTFException {
+        if (fPosition < fEvents.size()) {
+            fEventHeader = fEventHeaders.get(fPosition);
+            return fEvents.get(fPosition++);
+        }
+        CTFException error = fError;
+        if (fPosition == fEvents.size() && error != null) {
+            fPosition++;
+            throw error;
+        }
+        throw new CTFIOException("No more events in packet"); //$NON-NLS-1$
+    }
+
+    @Override
+    public ICTFPacketDescriptor getCurrentPacket() {
+        return fPacket;
+    }
+
+    @Override
+    public @Nullable ICompositeDefinition getCurrentPacketEventHeader() {
+        return fEventHeader;
+    }
+
+    /**
+     * Get the number of events decoded in this packet
+     *
+     * @return the number of events
+     */
+    public int size() {
+        return fEvents.size();
+    }
+}
@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.tracecompass.ctf.core.CTFException;
+import org.eclipse.tracecompass.ctf.core.trace.CTFIOException;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.ctf.core.trace.IPacketReader;
+
+/**
+ * Decodes the packets of a stream input ahead of consumption. Decoding is done
+ * by a worker pool shared by all the prefetchers, which is sized to the number
+ * of available processors. Each prefetcher keeps at most a fixed number of
+ * packets in flight, so memory use is bounded per stream and the timestamp
+ * merge of the trace reader stays on the consumer thread.
+ *
+ * This class is not thread safe, it is meant to be used by the thread reading
+ * the stream input.
+ */
+@NonNullByDefault
+public final class PacketPrefetcher implements AutoCloseable {
+
+    /**
+     * Creates the reader of a packet. For prefetched packets, it is called
+     * from a decoder thread.
+     */
+    @FunctionalInterface
+    public interface IPacketReaderFactory {
+        /**
+         * Create a packet reader
+         *
+         * @param packet
+         *            the packet to read
+         * @return the packet reader, positioned at the start of the packet
+         * @throws CTFException
+         *             if the packet cannot be mapped
+         */
+        CTFPacketReader create(ICTFPacketDescriptor packet) throws CTFException;
+    }
+
+    private static final ExecutorService DECODER_POOL = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new DecoderThreadFactory());
+
+    private final IPacketReaderFactory fFactory;
+    private final int fDepth;
+    private final TreeMap<Integer, PendingPacket> fPending = new TreeMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param factory
+     *            the packet reader factory
+     * @param depth
+     *            the maximum number of packets to decode ahead of the current
+     *            one, must be positive
+     */
+    public PacketPrefetcher(IPacketReaderFactory factory, int depth) {
+        if (depth <= 0) {
+            throw new IllegalArgumentException("Prefetch depth must be positive"); //$NON-NLS-1$
+        }
+        fFactory = factory;
+        fDepth = depth;
+    }
+
+    /**
+     * Get the reader for a packet. If the packet was prefetched, the decoded
+     * packet is returned, waiting for its decoding to complete if needed,
+     * otherwise a regular packet reader is created so that a miss costs no
+     * more than reading without prefetching.
+     *
+     * @param index
+     *            the index of the packet in the stream input packet index
+     * @param packet
+     *            the packet to read
+     * @return the packet reader
+     * @throws CTFException
+     *             if the packet cannot be read
+     */
+    public IPacketReader take(int index, ICTFPacketDescriptor packet) throws CTFException {
+        /* Drop what is no longer in the window, after a seek for example */
+        Iterator<Entry<Integer, PendingPacket>> it = fPending.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry<Integer, PendingPacket> entry = it.next();
+            int key = entry.getKey();
+            if (key < index || key > index + fDepth) {
+                entry.getValue().fFuture.cancel(false);
+                it.remove();
+            }
+        }
+        PendingPacket pending = fPending.remove(index);
+        if (pending == null || !pending.fPacket.equals(packet)) {
+            if (pending != null) {
+                pending.fFuture.cancel(false);
+            }
+            return fFactory.create(packet);
+        }
+        try {
+            return pending.fFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CTFIOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CTFException) {
+                throw (CTFException) cause;
+            }
+            throw new CTFIOException(e);
+        }
+    }
+
+    /**
+     * Schedule the decoding of a packet if it is not already pending
+     *
+     * @param index
+     *            the index of the packet in the stream input packet index
+     * @param packet
+     *            the packet to decode
+     */
+    public void prefetch(int index, ICTFPacketDescriptor packet) {
+        if (fPending.containsKey(index) || fPending.size() >= fDepth) {
+            return;
+        }
+        Future<DecodedPacketReader> future = DECODER_POOL.submit(() -> DecodedPacketReader.decode(fFactory.create(packet)));
+        fPending.put(index, new PendingPacket(packet, future));
+    }
+
+    /**
+     * Get the maximum number of packets decoded ahead
+     *
+     * @return the prefetch depth
+     */
+    public int getDepth() {
+        return fDepth;
+    }
+
+    /**
+     * Cancel all pending decodes
+     */
+    @Override
+    public void close() {
+        for (PendingPacket pending : fPending.values()) {
+            pending.fFuture.cancel(false);
+        }
+        fPending.clear();
+    }
+
+    private static final class PendingPacket {
+        private final ICTFPacketDescriptor fPacket;
+        private final Future<DecodedPacketReader> fFuture;
+
+        public PendingPacket(ICTFPacketDescriptor packet, Future<DecodedPacketReader> future) {
+            fPacket = packet;
+            fFuture = future;
+        }
+    }
+
+    private static final class DecoderThreadFactory implements ThreadFactory {
+        private final AtomicInteger fCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "CTF Packet Decoder " + fCount.incrementAndGet()); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.eclipse.tracecompass.internal.ctf.core.trace;
 import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -97,7 +98,9 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
 
     private final long fEndPacketHeaderBits;
 
-    private final StructDefinition fStreamPacketContextDef;
+    private volatile StructDefinition fStreamPacketContextDef;
+
+    private final Supplier<StructDefinition> fStreamPacketContextReader;
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -127,6 +130,7 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
         fTimestampEnd = Long.MAX_VALUE;
         fEndPacketHeaderBits = dataOffsetBits;
         fStreamPacketContextDef = null;
+        fStreamPacketContextReader = null;
     }
 
     private static long bitsToBytes(long value) {
@@ -167,6 +171,7 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
      */
     public StreamInputPacketIndexEntry(long dataOffsetBits, StructDefinition streamPacketContextDef, long fileSizeBytes, long lostSoFar, long endPacketHeaderBits) {
         fStreamPacketContextDef = streamPacketContextDef;
+        fStreamPacketContextReader = null;
         fEndPacketHeaderBits = endPacketHeaderBits;
         fAttributes = computeAttributeMap(streamPacketContextDef);
         fContentSizeBits = computeContentSize(fileSizeBytes);
@@ -197,6 +202,7 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
         } else {
             fStreamPacketContextDef = null;
         }
+        fStreamPacketContextReader = null;
 
         fEndPacketHeaderBits = entryToAdd.getPayloadStartBits();
         fAttributes = entryToAdd.getAttributes();
@@ -213,6 +219,52 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
         fLostEvents = entryToAdd.getLostEvents();
     }
 
+    /**
+     * Constructor of an entry that was read from a saved index, see
+     * {@link StreamInputPacketIndexFile}. The packet context is only read from
+     * the trace if it is needed.
+     *
+     * @param dataOffsetBits
+     *            offset in the file for the start of data in bits
+     * @param packetSizeBits
+     *            the packet size in bits
+     * @param contentSizeBits
+     *            the content size in bits
+     * @param timestampBegin
+     *            the begin timestamp
+     * @param timestampEnd
+     *            the end timestamp
+     * @param lostEvents
+     *            the number of events lost in this packet
+     * @param target
+     *            the target of the packet, may be null
+     * @param targetId
+     *            the target id
+     * @param attributes
+     *            the attributes of the packet context
+     * @param endPacketHeaderBits
+     *            end of packet headers
+     * @param streamPacketContextReader
+     *            reads the packet context from the trace when it is needed
+     */
+    public StreamInputPacketIndexEntry(long dataOffsetBits, long packetSizeBits, long contentSizeBits,
+            long timestampBegin, long timestampEnd, long lostEvents, String target, long targetId,
+            @NonNull Map<String, Object> attributes, long endPacketHeaderBits, Supplier<StructDefinition> streamPacketContextReader) {
+        fStreamPacketContextDef = null;
+        fStreamPacketContextReader = streamPacketContextReader;
+        fEndPacketHeaderBits = endPacketHeaderBits;
+        fAttributes = attributes;
+        fContentSizeBits = contentSizeBits;
+        fPacketSizeBits = packetSizeBits;
+        fTimestampBegin = timestampBegin;
+        fTimestampEnd = timestampEnd;
+        fOffsetBits = dataOffsetBits;
+        fOffsetBytes = bitsToBytes(dataOffsetBits);
+        fTarget = target;
+        fTargetID = targetId;
+        fLostEvents = lostEvents;
+    }
+
     private static @NonNull Map<String, Object> computeAttributeMap(StructDefinition streamPacketContextDef) {
         Builder<String, Object> attributeBuilder = ImmutableMap.<String, Object> builder();
         for (String field : streamPacketContextDef.getDeclaration().getFieldsList()) {
@@ -420,6 +472,12 @@ public class StreamInputPacketIndexEntry implements ICTFPacketDescriptor {
      */
     @Override
     public StructDefinition getStreamPacketContextDef() {
-        return fStreamPacketContextDef;
+        StructDefinition streamPacketContextDef = fStreamPacketContextDef;
+        Supplier<StructDefinition> reader = fStreamPacketContextReader;
+        if (streamPacketContextDef == null && reader != null) {
+            streamPacketContextDef = reader.get();
+            fStreamPacketContextDef = streamPacketContextDef;
+        }
+        return streamPacketContextDef;
     }
 }
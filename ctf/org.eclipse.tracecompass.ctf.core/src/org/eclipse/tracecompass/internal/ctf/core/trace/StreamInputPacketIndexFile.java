@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.ctf.core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFPacketDescriptor;
+import org.eclipse.tracecompass.internal.ctf.core.Activator;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Saved packet index of a stream input, so the packet headers and contexts do
+ * not have to be read again each time the trace is opened.
+ *
+ * The file starts with a header holding the length and modification time of
+ * the stream file when the index was saved, the number of entries and the end
+ * of the last entry, followed by the entries. The saved entries are valid as
+ * long as the stream file did not change, or only grew, like the stream files
+ * of live traces: the entries of the new packets are then appended to the
+ * file.
+ */
+public final class StreamInputPacketIndexFile {
+
+    private static final int MAGIC = 0x43544649; /* "CTFI" */
+    private static final int VERSION = 1;
+
+    /* magic, version, stream length, stream modification time, count, data end */
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private static final byte TYPE_LONG = 0;
+    private static final byte TYPE_DOUBLE = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final byte TYPE_ENUM = 3;
+
+    private final File fFile;
+    private final File fStreamFile;
+
+    private int fSavedCount = 0;
+    private long fDataEnd = HEADER_SIZE;
+
+    /**
+     * Constructor
+     *
+     * @param file
+     *            The index file
+     * @param streamFile
+     *            The stream file that is indexed
+     */
+    public StreamInputPacketIndexFile(File file, File streamFile) {
+        fFile = file;
+        fStreamFile = streamFile;
+    }
+
+    /**
+     * Read the saved entries, if they are still valid for the stream file.
+     *
+     * @param contextReader
+     *            Reads the packet context of a packet at a given offset in
+     *            bits, when the context of an entry is needed
+     * @return The saved entries, empty if there are none or they are not
+     *         valid anymore
+     */
+    public synchronized List<ICTFPacketDescriptor> load(LongFunction<StructDefinition> contextReader) {
+        fSavedCount = 0;
+        fDataEnd = HEADER_SIZE;
+        if (!fFile.isFile()) {
+            return Collections.emptyList();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fFile.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return Collections.emptyList();
+            }
+            long streamLength = in.readLong();
+            long streamModified = in.readLong();
+            int count = in.readInt();
+            long dataEnd = in.readLong();
+            long currentLength = fStreamFile.length();
+            boolean unchanged = (currentLength == streamLength && fStreamFile.lastModified() == streamModified);
+            boolean grown = (currentLength > streamLength);
+            if (!unchanged && !grown) {
+                return Collections.emptyList();
+            }
+            List<ICTFPacketDescriptor> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(readEntry(in, contextReader));
+            }
+            fSavedCount = count;
+            fDataEnd = dataEnd;
+            return entries;
+        } catch (IOException e) {
+            Activator.log(IStatus.WARNING, "Cannot read the packet index file " + fFile + ", the index will be rebuilt: " + e); //$NON-NLS-1$ //$NON-NLS-2$
+            fSavedCount = 0;
+            fDataEnd = HEADER_SIZE;
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Get the number of entries in the file
+     *
+     * @return The number of saved entries
+     */
+    public synchronized int getSavedCount() {
+        return fSavedCount;
+    }
+
+    /**
+     * Save the entries of an index that are not saved yet, appending them to
+     * the file.
+     *
+     * @param index
+     *            The index of the stream, complete up to the end of the stream
+     *            file
+     */
+    public synchronized void save(StreamInputPacketIndex index) {
+        int size = index.size();
+        if (size <= fSavedCount) {
+            return;
+        }
+        /* Read before writing the entries, in case the stream grows meanwhile */
+        long streamLength = fStreamFile.length();
+        long streamModified = fStreamFile.lastModified();
+        File parent = fFile.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(fFile, "rw")) { //$NON-NLS-1$
+            /* Drop anything that was written after the last complete save */
+            raf.setLength(fDataEnd);
+            raf.seek(fDataEnd);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(raf.getChannel())));
+            for (int i = fSavedCount; i < size; i++) {
+                writeEntry(out, index.getElement(i));
+            }
+            out.flush();
+            long dataEnd = raf.getFilePointer();
+
+            /* The header is written last, it validates the new entries */
+            raf.seek(0);
+            raf.writeInt(MAGIC);
+            raf.writeInt(VERSION);
+            raf.writeLong(streamLength);
+            raf.writeLong(streamModified);
+            raf.writeInt(size);
+            raf.writeLong(dataEnd);
+            fSavedCount = size;
+            fDataEnd = dataEnd;
+        } catch (IOException e) {
+            Activator.log(IStatus.WARNING, "Cannot write the packet index file " + fFile + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, ICTFPacketDescriptor entry) throws IOException {
+        out.writeLong(entry.getOffsetBits());
+        out.writeLong(entry.getPacketSizeBits());
+        out.writeLong(entry.getContentSizeBits());
+        out.writeLong(entry.getTimestampBegin());
+        out.writeLong(entry.getTimestampEnd());
+        out.writeLong(entry.getLostEvents());
+        out.writeLong(entry.getPayloadStartBits());
+        String target = entry.getTarget();
+        out.writeBoolean(target != null);
+        if (target != null) {
+            out.writeUTF(target);
+        }
+        out.writeLong(entry.getTargetId());
+
+        Map<String, Object> attributes = entry.getAttributes();
+        out.writeInt(attributes.size());
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            out.writeUTF(attribute.getKey());
+            Object value = attribute.getValue();
+            if (value instanceof Long) {
+                out.writeByte(TYPE_LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                out.writeByte(TYPE_DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Map.Entry) {
+                /* Enumerations, their label and their value */
+                Map.Entry<?, ?> enumValue = (Map.Entry<?, ?>) value;
+                out.writeByte(TYPE_ENUM);
+                out.writeUTF(String.valueOf(enumValue.getKey()));
+                out.writeLong(((Number) enumValue.getValue()).longValue());
+            } else {
+                out.writeByte(TYPE_STRING);
+                out.writeUTF(String.valueOf(value));
+            }
+        }
+    }
+
+    private static ICTFPacketDescriptor readEntry(DataInputStream in, LongFunction<StructDefinition> contextReader) throws IOException {
+        long offsetBits = in.readLong();
+        long packetSizeBits = in.readLong();
+        long contentSizeBits = in.readLong();
+        long timestampBegin = in.readLong();
+        long timestampEnd = in.readLong();
+        long lostEvents = in.readLong();
+        long payloadStartBits = in.readLong();
+        String target = in.readBoolean() ? in.readUTF() : null;
+        long targetId = in.readLong();
+
+        int nbAttributes = in.readInt();
+        ImmutableMap.Builder<String, Object> attributes = ImmutableMap.builder();
+        for (int i = 0; i < nbAttributes; i++) {
+            String name = in.readUTF();
+            byte type = in.readByte();
+            switch (type) {
+            case TYPE_LONG:
+                attributes.put(name, in.readLong());
+                break;
+            case TYPE_DOUBLE:
+                attributes.put(name, in.readDouble());
+                break;
+            case TYPE_ENUM:
+                attributes.put(name, new AbstractMap.SimpleImmutableEntry<>(in.readUTF(), in.readLong()));
+                break;
+            case TYPE_STRING:
+                attributes.put(name, in.readUTF());
+                break;
+            default:
+                throw new IOException("Unknown attribute type " + type); //$NON-NLS-1$
+            }
+        }
+        @NonNull Map<String, Object> attributeMap = attributes.build();
+        return new StreamInputPacketIndexEntry(offsetBits, packetSizeBits, contentSizeBits, timestampBegin, timestampEnd,
+                lostEvents, target, targetId, attributeMap, payloadStartBits, () -> readContext(contextReader, offsetBits));
+    }
+
+    private static @Nullable StructDefinition readContext(LongFunction<StructDefinition> contextReader, long offsetBits) {
+        return contextReader.apply(offsetBits);
+    }
+}
@@ -17,13 +17,23 @@
 package org.eclipse.tracecompass.tmf.ctf.core.tests.context;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.ctf.core.context.CtfTmfContext;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEvent;
 import org.eclipse.tracecompass.tmf.ctf.core.tests.shared.CtfTmfTestTraceUtils;
 import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
 import org.junit.AfterClass;
@@ -87,6 +97,73 @@ public class CtfTmfContextTest {
         assertTrue(count > 0);
     }
 
+    /**
+     * Test that a context with event reuse enabled decodes all the events into
+     * the same object, with the same values as a regular context.
+     */
+    @Test
+    public void testEventReuse() {
+        CtfTmfContext context = new CtfTmfContext(trace);
+        context.seek(0);
+        CtfTmfContext reuseContext = new CtfTmfContext(trace);
+        reuseContext.seek(0);
+        reuseContext.setEventReuse(true);
+        assertTrue(reuseContext.isEventReuse());
+
+        CtfTmfEvent first = trace.getNext(reuseContext);
+        assertNotNull(first);
+        assertEquals(trace.getNext(context).getTimestamp(), first.getTimestamp());
+        for (int i = 0; i < 1000; i++) {
+            CtfTmfEvent expected = trace.getNext(context);
+            CtfTmfEvent event = trace.getNext(reuseContext);
+            assertSame(first, event);
+            assertEquals(expected.getTimestamp(), event.getTimestamp());
+            assertEquals(expected.getName(), event.getName());
+            assertEquals(expected.getCPU(), event.getCPU());
+            assertEquals(expected.getContent(), event.getContent());
+        }
+
+        /* Events read without reuse are never recycled */
+        reuseContext.setEventReuse(false);
+        CtfTmfEvent event = trace.getNext(reuseContext);
+        assertNotSame(first, event);
+        assertNotSame(event, trace.getNext(reuseContext));
+    }
+
+    /**
+     * Test that a context that prefetches the packets reads the same events as
+     * a regular context, and that the contexts of the event requests prefetch
+     * the packets.
+     */
+    @Test
+    public void testPrefetch() {
+        ITmfContext requestContext = trace.armRequest(new TmfEventRequest(ITmfEvent.class, 0, ITmfEventRequest.ALL_DATA, ExecutionType.FOREGROUND) {
+        });
+        assertTrue(requestContext instanceof CtfTmfContext);
+        assertEquals(trace.getPrefetchDepth(), ((CtfTmfContext) requestContext).getPrefetchDepth());
+        requestContext.dispose();
+
+        CtfTmfContext context = new CtfTmfContext(trace);
+        context.seek(0);
+        CtfTmfContext prefetchContext = new CtfTmfContext(trace);
+        prefetchContext.setPrefetchDepth(4);
+        assertEquals(4, prefetchContext.getPrefetchDepth());
+        prefetchContext.seek(0);
+
+        CtfTmfEvent expected = trace.getNext(context);
+        while (expected != null) {
+            CtfTmfEvent event = trace.getNext(prefetchContext);
+            assertNotNull(event);
+            assertEquals(expected.getTimestamp(), event.getTimestamp());
+            assertEquals(expected.getName(), event.getName());
+            assertEquals(expected.getContent(), event.getContent());
+            expected = trace.getNext(context);
+        }
+        assertNull(trace.getNext(prefetchContext));
+        context.dispose();
+        prefetchContext.dispose();
+    }
+
     /**
      * Context fuzzer. Use an amount of contexts greater than the size of the
      * iterator cache and have them access the trace in parallel.
@@ -19,8 +19,12 @@ package org.eclipse.tracecompass.tmf.ctf.core.tests.event;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNull;
@@ -29,8 +33,11 @@ import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventType;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.ctf.core.CtfConstants;
 import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEvent;
 import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEventFactory;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEventFieldAccessor;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEventType;
 import org.eclipse.tracecompass.tmf.ctf.core.tests.shared.CtfTmfTestTraceUtils;
 import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
 import org.junit.BeforeClass;
@@ -158,6 +165,59 @@ public class CtfTmfEventTest {
         /* TODO Missing case of embedded field, need event for it */
     }
 
+    /**
+     * Test reading fields with a field accessor
+     */
+    @Test
+    public void testFieldAccessor() {
+        CtfTmfEventFieldAccessor accessor = CtfTmfEventType.createFieldAccessor(VALID_FIELD);
+        ITmfEventField field = fixture.getContent().getField(VALID_FIELD);
+        assertNotNull(field);
+        assertEquals(field.getValue(), accessor.getValue(fixture));
+        /* Again, with the path already compiled */
+        assertEquals(field.getValue(), accessor.getValue(fixture));
+        assertNull(accessor.getValue(nullEvent));
+
+        assertNull(CtfTmfEventType.createFieldAccessor(VALID_FIELD, "abcd").getValue(fixture));
+        assertNull(CtfTmfEventType.createFieldAccessor("abcd").getValue(fixture));
+
+        for (ITmfEventField contextField : fixture.getContent().getFields()) {
+            String name = contextField.getName();
+            if (name.startsWith(CtfConstants.CONTEXT_FIELD_PREFIX)) {
+                assertEquals(name, contextField.getValue(), CtfTmfEventType.createFieldAccessor(name).getValue(fixture));
+            }
+        }
+    }
+
+    /**
+     * Test reading fields shared by many event types with the same field
+     * accessors
+     */
+    @Test
+    public void testFieldAccessorManyTypes() {
+        Map<String, CtfTmfEventFieldAccessor> accessors = new HashMap<>();
+        Set<String> eventNames = new HashSet<>();
+        CtfTmfTrace trace = CtfTmfTestTraceUtils.getTrace(testTrace);
+        try (CtfIterator tr = (CtfIterator) trace.createIterator();) {
+            for (int i = 0; i < 10000 && tr.advance(); i++) {
+                CtfTmfEvent event = tr.getCurrentEvent();
+                assertNotNull(event);
+                eventNames.add(event.getName());
+                for (ITmfEventField field : event.getContent().getFields()) {
+                    String name = field.getName();
+                    Object value = field.getValue();
+                    /* Compound values are new objects at each read */
+                    if (value instanceof Number || value instanceof String) {
+                        CtfTmfEventFieldAccessor accessor = accessors.computeIfAbsent(name, CtfTmfEventType::createFieldAccessor);
+                        assertEquals(name, value, accessor.getValue(event));
+                    }
+                }
+            }
+        }
+        trace.dispose();
+        assertTrue(eventNames.size() > 1);
+    }
+
     /**
      * Run the long getTimestamp() method test.
      */
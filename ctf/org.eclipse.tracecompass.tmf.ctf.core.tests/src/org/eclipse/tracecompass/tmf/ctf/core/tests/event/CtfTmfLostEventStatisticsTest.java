@@ -45,6 +45,7 @@ import org.junit.rules.Timeout;
  *
  * @author Alexandre Montplaisir
  */
+@SuppressWarnings("deprecation")
 public class CtfTmfLostEventStatisticsTest {
 
     /** Time-out tests after 1 minute */
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.ctf.core.tests.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.internal.tmf.ctf.core.trace.iterator.CtfIterator;
+import org.eclipse.tracecompass.internal.tmf.ctf.core.trace.iterator.CtfIteratorManager;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.tmf.ctf.core.context.CtfTmfContext;
+import org.eclipse.tracecompass.tmf.ctf.core.tests.shared.CtfTmfTestTraceUtils;
+import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the eviction policy of the {@link CtfIteratorManager}
+ */
+public class CtfIteratorManagerTest {
+
+    private static final @NonNull CtfTestTrace testTrace = CtfTestTrace.KERNEL;
+
+    private CtfTmfTrace fTrace;
+    private CtfIteratorManager fManager;
+
+    /**
+     * Perform pre-test initialization.
+     */
+    @Before
+    public void setUp() {
+        fTrace = CtfTmfTestTraceUtils.getTrace(testTrace);
+        fManager = new CtfIteratorManager(fTrace);
+    }
+
+    /**
+     * Perform post-test clean-up.
+     */
+    @After
+    public void tearDown() {
+        if (fManager != null) {
+            fManager.dispose();
+        }
+        if (fTrace != null) {
+            fTrace.dispose();
+        }
+    }
+
+    private List<CtfTmfContext> fillManager() {
+        List<CtfTmfContext> contexts = new ArrayList<>();
+        CtfTmfContext first = new CtfTmfContext(fTrace);
+        assertNotNull(fManager.getIterator(first));
+        contexts.add(first);
+        int maxSize = fManager.getMaxSize();
+        assertTrue(maxSize > 0);
+        while (contexts.size() < maxSize) {
+            CtfTmfContext context = new CtfTmfContext(fTrace);
+            assertNotNull(fManager.getIterator(context));
+            contexts.add(context);
+        }
+        assertEquals(maxSize, fManager.getSize());
+        assertEquals(0, fManager.getEvictionCount());
+        return contexts;
+    }
+
+    /**
+     * Test that the least recently used iterator is evicted
+     */
+    @Test
+    public void testLeastRecentlyUsed() {
+        List<CtfTmfContext> contexts = fillManager();
+        CtfIterator iterator = fManager.getIterator(contexts.get(0));
+
+        /* The second context is now the least recently used */
+        CtfTmfContext context = new CtfTmfContext(fTrace);
+        assertNotNull(fManager.getIterator(context));
+        assertEquals(1, fManager.getEvictionCount());
+        assertEquals(fManager.getMaxSize(), fManager.getSize());
+
+        long misses = fManager.getMissCount();
+        assertSame(iterator, fManager.getIterator(contexts.get(0)));
+        assertEquals(misses, fManager.getMissCount());
+        assertNotNull(fManager.getIterator(contexts.get(1)));
+        assertEquals(misses + 1, fManager.getMissCount());
+    }
+
+    /**
+     * Test that pinned iterators are not evicted, and that the manager goes
+     * back to its maximum size once they are released
+     */
+    @Test
+    public void testPinned() {
+        List<CtfTmfContext> contexts = fillManager();
+        for (CtfTmfContext context : contexts) {
+            assertNotNull(fManager.acquireIterator(context));
+        }
+
+        /* All the iterators are pinned, a new one is opened */
+        CtfTmfContext context = new CtfTmfContext(fTrace);
+        assertNotNull(fManager.getIterator(context));
+        assertEquals(0, fManager.getEvictionCount());
+        assertEquals(fManager.getMaxSize() + 1, fManager.getSize());
+
+        long misses = fManager.getMissCount();
+        for (CtfTmfContext pinned : contexts) {
+            assertNotNull(fManager.getIterator(pinned));
+        }
+        assertEquals(misses, fManager.getMissCount());
+
+        for (CtfTmfContext pinned : contexts) {
+            fManager.releaseIterator(pinned);
+        }
+        assertEquals(fManager.getMaxSize(), fManager.getSize());
+        assertEquals(1, fManager.getEvictionCount());
+    }
+}
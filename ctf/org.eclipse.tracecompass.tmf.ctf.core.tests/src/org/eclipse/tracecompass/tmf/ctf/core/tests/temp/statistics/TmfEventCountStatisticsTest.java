@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.ctf.core.tests.temp.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.common.core.NonNullUtils;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.model.filters.TimeQueryFilter;
+import org.eclipse.tracecompass.tmf.core.statistics.ITmfStatistics;
+import org.eclipse.tracecompass.tmf.core.statistics.TmfStatisticsModule;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+import org.eclipse.tracecompass.tmf.ctf.core.tests.shared.CtfTmfTestTraceUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Unit tests for the event counts of the {@link TmfStatisticsModule}, whose
+ * counts inside the time buckets are read from the trace for the ranges, and
+ * interpolated for the histograms
+ */
+public class TmfEventCountStatisticsTest extends TmfStatisticsTest {
+
+    private static ITmfTrace fTrace;
+
+    private static TmfStatisticsModule fModule;
+
+    /**
+     * Test setup
+     */
+    @BeforeClass
+    public static void setUp() {
+        ITmfTrace trace = CtfTmfTestTraceUtils.getTrace(testTrace);
+        fTrace = trace;
+
+        fModule = new TmfStatisticsModule();
+        try {
+            fModule.setTrace(trace);
+        } catch (TmfAnalysisException e) {
+            fail(e.getMessage());
+        }
+
+        fModule.schedule();
+        assertTrue(fModule.waitForCompletion());
+
+        ITmfStatistics statistics = fModule.getStatistics();
+        assertNotNull(statistics);
+        backend = statistics;
+    }
+
+    /**
+     * The histograms are interpolated inside the time buckets, only their sum
+     * is exact
+     */
+    @Override
+    @Test
+    public void testHistogramQuerySmall() {
+        long start = fTrace.getStartTime().toNanos();
+        assertHistogram(start + 50000000L, start + 50003300L);
+    }
+
+    /**
+     * The histograms are interpolated inside the time buckets, only their sum
+     * is exact
+     */
+    @Override
+    @Test
+    public void testHistogramQueryFull() {
+        assertHistogram(fTrace.getStartTime().toNanos(), fTrace.getEndTime().toNanos());
+    }
+
+    private static void assertHistogram(long start, long end) {
+        final int NB_REQ = 10;
+        TimeQueryFilter histogramFilter = new TimeQueryFilter(start, end, NB_REQ);
+        List<@NonNull Long> results = backend.histogramQuery(histogramFilter.getTimesRequested());
+        assertEquals(NB_REQ, results.size());
+        long count = 0;
+        for (long val : results) {
+            assertTrue(val >= 0);
+            count += val;
+        }
+        long[] times = histogramFilter.getTimesRequested();
+        assertEquals(backend.getEventsInRange(times[0], times[times.length - 1]), count);
+    }
+
+    /**
+     * Test cleanup
+     */
+    @AfterClass
+    public static void tearDown() {
+        fModule.dispose();
+        fTrace.dispose();
+        TmfTraceManager.deleteSupplementaryFiles(NonNullUtils.checkNotNull(fTrace));
+    }
+}
@@ -35,6 +35,7 @@ import org.junit.BeforeClass;
  *
  * @author Alexandre Montplaisir
  */
+@SuppressWarnings("deprecation")
 public class TmfStateStatisticsTest extends TmfStatisticsTest {
 
     private static ITmfTrace fTrace;
@@ -55,6 +55,7 @@ public class CtfIterator extends CTFTraceReader
 
     private CtfLocation fPreviousLocation;
     private CtfTmfEvent fPreviousEvent;
+    private boolean fPreviousEventReused;
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -147,11 +148,29 @@ public class CtfIterator extends CTFTraceReader
      * @return CtfTmfEvent The current event
      */
     public synchronized CtfTmfEvent getCurrentEvent() {
+        return getCurrentEvent(false);
+    }
+
+    /**
+     * Return the current event pointed to by the iterator.
+     *
+     * @param reuse
+     *            If true, the event may be decoded into the event object
+     *            returned by the previous call, so it is only valid until the
+     *            iterator moves
+     * @return CtfTmfEvent The current event
+     */
+    public synchronized CtfTmfEvent getCurrentEvent(boolean reuse) {
         final CTFStreamInputReader top = super.getPrio().peek();
         if (top != null) {
-            if (!fCurLocation.equals(fPreviousLocation)) {
+            /* A recycled event must not leak to a caller that keeps events */
+            if (!fCurLocation.equals(fPreviousLocation) || (fPreviousEventReused && !reuse)) {
                 fPreviousLocation = fCurLocation;
-                fPreviousEvent = fTrace.getEventFactory().createEvent(fTrace, checkNotNull(top.getCurrentEvent()), top.getFilename());
+                IEventDefinition eventDef = checkNotNull(top.getCurrentEvent());
+                fPreviousEvent = reuse ?
+                        fTrace.getEventFactory().createEvent(fTrace, eventDef, top.getFilename(), fPreviousEvent) :
+                        fTrace.getEventFactory().createEvent(fTrace, eventDef, top.getFilename());
+                fPreviousEventReused = reuse;
             }
             return fPreviousEvent;
         }
@@ -16,16 +16,16 @@ package org.eclipse.tracecompass.internal.tmf.ctf.core.trace.iterator;
 
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
-import java.security.SecureRandom;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.Map.Entry;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.trace.CTFTrace;
+import org.eclipse.tracecompass.ctf.core.trace.ICTFStream;
 import org.eclipse.tracecompass.internal.tmf.ctf.core.Activator;
 import org.eclipse.tracecompass.tmf.ctf.core.context.CtfLocationInfo;
 import org.eclipse.tracecompass.tmf.ctf.core.context.CtfTmfContext;
@@ -41,26 +41,48 @@ import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
  * @author Matthew Khouzam
  */
 public class CtfIteratorManager {
+
+    /**
+     * Property to set the number of file handles the iterators of a trace can
+     * keep open. Each iterator opens one file handle per stream input, the
+     * number of iterators is bounded accordingly.
+     */
+    private static final String FILE_HANDLES_PROPERTY = "org.eclipse.tracecompass.tmf.ctf.core.iteratorFileHandles"; //$NON-NLS-1$
+
     /*
-     * Cache size. Under 1023 on linux32 systems. Number of file handles
-     * created.
+     * Default number of file handles per trace. Under 1023 on linux32
+     * systems.
      */
+    private static final int DEFAULT_FILE_HANDLES = 1000;
+
+    /* Bounds on the number of iterators, whatever the number of streams */
+    private static final int MIN_SIZE = 8;
     private static final int MAX_SIZE = 100;
 
-    /** The map of the cache */
-    private final Map<CtfTmfContext, CtfIterator> fMap;
+    /** The iterator of a context, with the number of its users */
+    private static final class CachedIterator {
+        private CtfIterator fIterator;
+        private int fPins = 0;
 
-    /** An array pointing to the same cache. this allows fast "random" accesses */
-    private final List<CtfTmfContext> fRandomAccess;
+        public CachedIterator(CtfIterator iterator) {
+            fIterator = iterator;
+        }
+    }
 
-    /** Lock for when we access the two previous data structures */
+    /** The iterators, from the least to the most recently used */
+    private final Map<CtfTmfContext, CachedIterator> fMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Lock for when we access the map and the counters */
     private final Lock fAccessLock = new ReentrantLock();
 
     /** The parent trace */
     private final CtfTmfTrace fTrace;
 
-    /** Random number generator */
-    private final Random fRnd;
+    /** The maximum number of iterators, computed with the first iterator */
+    private int fMaxSize = 0;
+
+    private long fMissCount = 0;
+    private long fEvictionCount = 0;
 
     /**
      * Constructor
@@ -69,9 +91,6 @@ public class CtfIteratorManager {
      *            The trace whose iterators this manager will manage
      */
     public CtfIteratorManager(CtfTmfTrace trace) {
-        fMap = new HashMap<>();
-        fRandomAccess = new ArrayList<>();
-        fRnd = new SecureRandom();
         fTrace = trace;
     }
 
@@ -81,51 +100,155 @@ public class CtfIteratorManager {
      * failed since there is a limit to how many file handles we can have opened
      * simultaneously. Then a round-robin scheme was implemented, this lead up to a
      * two competing contexts syncing up and using the same file handler, causing
-     * horrible slowdowns. Now a random replacement algorithm is selected. This is
-     * the same as used by arm processors, and it works quite well when many cores
-     * so this looks promising for very multi-threaded systems.
+     * horrible slowdowns. Then a random replacement algorithm was used, but with
+     * many contexts reading in parallel, it often took the iterator of a context
+     * that was being read, which then had to seek back to where it was. Now the
+     * least recently used iterator is replaced, skipping the ones that are pinned
+     * by their context while it reads, see {@link #acquireIterator}.
      *
      * @param context
      *            the context to look up
      * @return the iterator referring to the context or null in the case of an error
      */
     public @Nullable CtfIterator getIterator(final CtfTmfContext context) {
+        fAccessLock.lock();
+        try {
+            CachedIterator cached = getCachedIterator(context);
+            return (cached == null ? null : cached.fIterator);
+        } finally {
+            fAccessLock.unlock();
+        }
+    }
+
+    /**
+     * Get the iterator of a context, like {@link #getIterator}, and pin it:
+     * it will not be given to another context until it is released with
+     * {@link #releaseIterator}. If all the iterators are pinned, new ones are
+     * opened, over the maximum number of iterators, until they are released.
+     *
+     * @param context
+     *            the context to look up
+     * @return the iterator referring to the context or null in the case of an
+     *         error
+     */
+    public @Nullable CtfIterator acquireIterator(final CtfTmfContext context) {
+        fAccessLock.lock();
+        try {
+            CachedIterator cached = getCachedIterator(context);
+            if (cached == null) {
+                return null;
+            }
+            cached.fPins++;
+            return cached.fIterator;
+        } finally {
+            fAccessLock.unlock();
+        }
+    }
+
+    /**
+     * Release the iterator of a context that was acquired with
+     * {@link #acquireIterator}
+     *
+     * @param context
+     *            the context of the iterator
+     */
+    public void releaseIterator(final CtfTmfContext context) {
+        fAccessLock.lock();
+        try {
+            CachedIterator cached = fMap.get(context);
+            if (cached != null && cached.fPins > 0) {
+                cached.fPins--;
+                if (cached.fPins == 0 && fMap.size() > fMaxSize) {
+                    /* Iterators were added over the bound while all were pinned */
+                    CtfIterator evicted = evict();
+                    if (evicted != null) {
+                        evicted.dispose();
+                    }
+                }
+            }
+        } finally {
+            fAccessLock.unlock();
+        }
+    }
+
+    private @Nullable CachedIterator getCachedIterator(final CtfTmfContext context) {
+        /* Should only be called with the access lock taken */
+
         /*
          * if the element is in the map, we don't need to do anything else.
          */
-        CtfIterator iter = fMap.get(context);
+        CachedIterator cached = fMap.get(context);
+        if (cached != null) {
+            return cached;
+        }
+        fMissCount++;
+
+        /*
+         * Assign an iterator to a context, the one of the least recently used
+         * context if we're full.
+         */
+        CtfIterator iter = null;
+        if (fMaxSize > 0 && fMap.size() >= fMaxSize) {
+            iter = evict();
+        }
         if (iter == null) {
+            iter = (CtfIterator) fTrace.createIterator();
+            if (iter == null) {
+                return null;
+            }
+            if (fMaxSize == 0) {
+                fMaxSize = computeMaxSize(iter.getTrace());
+            }
+        }
+        cached = new CachedIterator(iter);
+        fMap.put(context, cached);
+        if (context.getLocation() != null) {
+            final CtfLocationInfo location = (CtfLocationInfo) context.getLocation().getLocationInfo();
+            iter.seek(location);
+        }
+        return cached;
+    }
 
-            fAccessLock.lock();
-            try {
+    /**
+     * Remove the least recently used iterator that is not pinned.
+     *
+     * @return the iterator, to be reused or disposed, or null if all iterators
+     *         are pinned
+     */
+    private @Nullable CtfIterator evict() {
+        Iterator<Entry<CtfTmfContext, CachedIterator>> it = fMap.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry<CtfTmfContext, CachedIterator> entry = it.next();
+            if (entry.getValue().fPins > 0) {
+                continue;
+            }
+            it.remove();
+            fEvictionCount++;
+            CtfIterator elem = entry.getValue().fIterator;
+            if (elem.isClosed()) {
                 /*
-                 * Assign an iterator to a context.
+                 * In case the iterator streams have been closed, we need to
+                 * replace it by a fresh new one to access the trace. We also
+                 * report that as an error as it should not happen.
                  */
-                if (fRandomAccess.size() < MAX_SIZE) {
-                    /*
-                     * if we're not full yet, just add an element.
-                     */
-                    iter = (CtfIterator) fTrace.createIterator();
-                    if (iter == null) {
-                        return null;
-                    }
-                    addElement(context, iter);
+                Activator.getDefault().logError("Found closed iterator in iterator manager for trace " + entry.getKey().getTrace()); //$NON-NLS-1$
 
-                } else {
-                    /*
-                     * if we're full, randomly replace an element
-                     */
-                    iter = replaceRandomElement(context);
-                }
-                if (context.getLocation() != null) {
-                    final CtfLocationInfo location = (CtfLocationInfo) context.getLocation().getLocationInfo();
-                    iter.seek(location);
-                }
-            } finally {
-                fAccessLock.unlock();
+                elem.dispose();
+                return null;
             }
+            return elem;
         }
-        return iter;
+        return null;
+    }
+
+    private static int computeMaxSize(CTFTrace trace) {
+        int fileHandles = Integer.getInteger(FILE_HANDLES_PROPERTY, DEFAULT_FILE_HANDLES);
+        int streamInputs = 0;
+        for (ICTFStream stream : trace.getStreams()) {
+            streamInputs += stream.getStreamInputs().size();
+        }
+        int size = fileHandles / Math.max(1, streamInputs);
+        return Math.max(MIN_SIZE, Math.min(MAX_SIZE, size));
     }
 
     /**
@@ -137,74 +260,69 @@ public class CtfIteratorManager {
     public void removeIterator(CtfTmfContext context) {
         fAccessLock.lock();
         try {
-            /* The try below is only to auto-call CtfIterator.close() */
-            try (CtfIterator removed = fMap.remove(context)) {
-                // try with resource
+            CachedIterator removed = fMap.remove(context);
+            if (removed != null) {
+                removed.fIterator.close();
             }
-            fRandomAccess.remove(context);
-
         } finally {
             fAccessLock.unlock();
         }
     }
 
     /**
-     * Add a pair of context and element to the hashmap and the arraylist.
+     * Get the maximum number of iterators kept open, it depends on the number
+     * of streams of the trace. It is 0 until the first iterator is opened.
      *
-     * @param context
-     *            the context
-     * @param elem
-     *            the iterator
+     * @return the maximum number of iterators
      */
-    private void addElement(final CtfTmfContext context,
-            final CtfIterator elem) {
+    public int getMaxSize() {
         fAccessLock.lock();
         try {
-            fMap.put(context, elem);
-            fRandomAccess.add(context);
-
+            return fMaxSize;
         } finally {
             fAccessLock.unlock();
         }
     }
 
     /**
-     * Replace a random element
+     * Get the number of iterators currently open
      *
-     * @param context
-     *            the context to swap in
-     * @return the iterator of the removed elements.
+     * @return the number of iterators
      */
-    private CtfIterator replaceRandomElement(final CtfTmfContext context) {
-        /*
-         * This needs some explanation too: We need to select a random victim
-         * and remove it. The order of the elements is not important, so instead
-         * of just calling arraylist.remove(element) which has an O(n)
-         * complexity, we pick an random number. The element is swapped out of
-         * the array and removed and replaced in the hashmap.
-         */
-        fAccessLock.lock(); // just in case, should only be called when already locked
+    public int getSize() {
+        fAccessLock.lock();
         try {
-            final int size = fRandomAccess.size();
-            final int pos = fRnd.nextInt(size);
-            final CtfTmfContext victim = fRandomAccess.get(pos);
-            fRandomAccess.set(pos, context);
-            CtfIterator elem = checkNotNull(fMap.remove(victim));
-            if (elem.isClosed()) {
-                /*
-                 * In case the iterator streams have been closed, we need to
-                 * replace it by a fresh new one to access the trace. We also
-                 * report that as an error as it should not happen.
-                 */
-                Activator.getDefault().logError("Found closed iterator in iterator manager for trace " + victim.getTrace()); //$NON-NLS-1$
+            return fMap.size();
+        } finally {
+            fAccessLock.unlock();
+        }
+    }
 
-                elem.dispose();
-                elem = (CtfIterator) fTrace.createIterator();
-            }
-            fMap.put(context, elem);
-            victim.dispose();
-            return elem;
+    /**
+     * Get the number of times a context did not have an iterator, the first
+     * time it was used or after its iterator was evicted
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        fAccessLock.lock();
+        try {
+            return fMissCount;
+        } finally {
+            fAccessLock.unlock();
+        }
+    }
 
+    /**
+     * Get the number of iterators taken from their context to be given to
+     * another one
+     *
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        fAccessLock.lock();
+        try {
+            return fEvictionCount;
         } finally {
             fAccessLock.unlock();
         }
@@ -217,14 +335,13 @@ public class CtfIteratorManager {
     public void dispose() {
         fAccessLock.lock();
         try {
-            for (CtfIterator iterator : fMap.values()) {
-                iterator.dispose();
+            for (CachedIterator cached : fMap.values()) {
+                cached.fIterator.dispose();
             }
             fMap.clear();
-            fRandomAccess.clear();
 
         } finally {
             fAccessLock.unlock();
         }
     }
-}
\ No newline at end of file
+}
@@ -39,6 +39,9 @@ public class CtfTmfContext implements ITmfContext {
 
     private final CtfTmfTrace fTrace;
 
+    private boolean fEventReuse = false;
+    private int fPrefetchDepth = 0;
+
     // -------------------------------------------
     // Constructor
     // -------------------------------------------
@@ -80,12 +83,16 @@ public class CtfTmfContext implements ITmfContext {
             if (location.getLocationInfo().equals(CtfLocation.INVALID_LOCATION)) {
                 fCurLocation = ctfLocation;
             } else {
-                CtfIterator iterator = getIterator();
+                CtfIterator iterator = acquireIterator();
                 if(iterator == null) {
                     return;
                 }
-                iterator.seek(ctfLocation.getLocationInfo());
-                fCurLocation = iterator.getLocation();
+                try {
+                    iterator.seek(ctfLocation.getLocationInfo());
+                    fCurLocation = iterator.getLocation();
+                } finally {
+                    releaseIterator();
+                }
             }
         } else {
             fCurLocation = null;
@@ -124,8 +131,68 @@ public class CtfTmfContext implements ITmfContext {
      * @return The event or null
      */
     public synchronized CtfTmfEvent getCurrentEvent() {
-        CtfIterator iterator = getIterator();
-        return iterator == null ? null : iterator.getCurrentEvent();
+        CtfIterator iterator = acquireIterator();
+        if (iterator == null) {
+            return null;
+        }
+        try {
+            return iterator.getCurrentEvent(fEventReuse);
+        } finally {
+            releaseIterator();
+        }
+    }
+
+    /**
+     * Set whether the events read with this context may be decoded into the
+     * same event object. This should only be enabled when the consumer of the
+     * events does not keep references to them.
+     *
+     * @param eventReuse
+     *            true to recycle the event objects
+     * @since 4.4
+     */
+    public synchronized void setEventReuse(boolean eventReuse) {
+        fEventReuse = eventReuse;
+    }
+
+    /**
+     * Get whether the events read with this context may be decoded into the
+     * same event object.
+     *
+     * @return true if the event objects are recycled
+     * @since 4.4
+     */
+    public synchronized boolean isEventReuse() {
+        return fEventReuse;
+    }
+
+    /**
+     * Set the number of packets each stream of the trace decodes ahead of the
+     * current one while this context reads, see
+     * {@link org.eclipse.tracecompass.ctf.core.trace.CTFTraceReader#setPrefetchDepth(int)}.
+     * This is worth it for contexts that read many events in sequence.
+     *
+     * @param depth
+     *            the number of packets to decode ahead per stream, 0 to
+     *            disable prefetching
+     * @since 4.4
+     */
+    public synchronized void setPrefetchDepth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Prefetch depth cannot be negative"); //$NON-NLS-1$
+        }
+        fPrefetchDepth = depth;
+    }
+
+    /**
+     * Get the number of packets each stream of the trace decodes ahead of the
+     * current one while this context reads
+     *
+     * @return the prefetch depth, 0 if prefetching is disabled
+     * @since 4.4
+     */
+    public synchronized int getPrefetchDepth() {
+        return fPrefetchDepth;
     }
 
     /**
@@ -135,25 +202,29 @@ public class CtfTmfContext implements ITmfContext {
      */
     public synchronized boolean advance() {
         final CtfLocationInfo curLocationData = fCurLocation.getLocationInfo();
-        CtfIterator iterator = getIterator();
+        CtfIterator iterator = acquireIterator();
         if( iterator == null) {
             return false;
         }
-        boolean retVal = iterator.advance();
-        CtfTmfEvent currentEvent = iterator.getCurrentEvent();
+        try {
+            boolean retVal = iterator.advance();
+            CtfTmfEvent currentEvent = iterator.getCurrentEvent();
 
-        if (currentEvent != null) {
-            final long timestampValue = iterator.getCurrentTimestamp();
-            if (curLocationData.getTimestamp() == timestampValue) {
-                fCurLocation = new CtfLocation(timestampValue, curLocationData.getIndex() + 1);
+            if (currentEvent != null) {
+                final long timestampValue = iterator.getCurrentTimestamp();
+                if (curLocationData.getTimestamp() == timestampValue) {
+                    fCurLocation = new CtfLocation(timestampValue, curLocationData.getIndex() + 1);
+                } else {
+                    fCurLocation = new CtfLocation(timestampValue, 0L);
+                }
             } else {
-                fCurLocation = new CtfLocation(timestampValue, 0L);
+                fCurLocation = new CtfLocation(CtfLocation.INVALID_LOCATION);
             }
-        } else {
-            fCurLocation = new CtfLocation(CtfLocation.INVALID_LOCATION);
-        }
 
-        return retVal;
+            return retVal;
+        } finally {
+            releaseIterator();
+        }
     }
 
     @Override
@@ -169,13 +240,17 @@ public class CtfTmfContext implements ITmfContext {
      * @return success or not
      */
     public synchronized boolean seek(final long timestamp) {
-        CtfIterator iterator = getIterator();
+        CtfIterator iterator = acquireIterator();
         if( iterator == null) {
             return false;
         }
-        boolean ret = iterator.seek(timestamp);
-        fCurLocation = iterator.getLocation();
-        return ret;
+        try {
+            boolean ret = iterator.seek(timestamp);
+            fCurLocation = iterator.getLocation();
+            return ret;
+        } finally {
+            releaseIterator();
+        }
     }
 
     /**
@@ -187,8 +262,15 @@ public class CtfTmfContext implements ITmfContext {
      */
     public synchronized boolean seek(final CtfLocationInfo location) {
         fCurLocation = new CtfLocation(location);
-        CtfIterator iterator = getIterator();
-        return iterator == null ? false : iterator.seek(location);
+        CtfIterator iterator = acquireIterator();
+        if (iterator == null) {
+            return false;
+        }
+        try {
+            return iterator.seek(location);
+        } finally {
+            releaseIterator();
+        }
     }
 
     // -------------------------------------------
@@ -197,11 +279,21 @@ public class CtfTmfContext implements ITmfContext {
 
     /**
      * Get iterator, called every time to get an iterator, no local copy is
-     * stored so that there is no need to "update"
+     * stored so that there is no need to "update". The iterator is pinned to
+     * this context until it is released with {@link #releaseIterator()}.
      *
      * @return an iterator
      */
-    private @Nullable CtfIterator getIterator() {
-        return (CtfIterator) fTrace.createIteratorFromContext(this);
+    private @Nullable CtfIterator acquireIterator() {
+        CtfIterator iterator = (CtfIterator) fTrace.acquireIteratorOfContext(this);
+        /* The iterator may have been created again since the last read */
+        if (iterator != null && iterator.getPrefetchDepth() != fPrefetchDepth) {
+            iterator.setPrefetchDepth(fPrefetchDepth);
+        }
+        return iterator;
+    }
+
+    private void releaseIterator() {
+        fTrace.releaseIteratorOfContext(this);
     }
 }
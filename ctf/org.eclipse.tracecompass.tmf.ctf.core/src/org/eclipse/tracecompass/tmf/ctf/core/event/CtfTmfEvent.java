@@ -70,21 +70,21 @@ public class CtfTmfEvent extends TmfEvent
     // fields.
     // ------------------------------------------------------------------------
 
-    private final @Nullable IEventDeclaration fEventDeclaration;
-    private final IEventDefinition fEvent;
+    private @Nullable IEventDeclaration fEventDeclaration;
+    private IEventDefinition fEvent;
 
     // ------------------------------------------------------------------------
     // Attributes
     // ------------------------------------------------------------------------
 
     /* Fields that are introduced by and part of this event's definition. */
-    private final int fSourceCpu;
-    private final String fChannel;
+    private int fSourceCpu;
+    private String fChannel;
 
     /**
      * Field to override {@link TmfEvent#getName()}, to bypass the type-getting
      */
-    private final String fEventName;
+    private String fEventName;
 
     /** Lazy-loaded field containing the event's payload */
     private transient @Nullable ITmfEventField fContent;
@@ -92,8 +92,8 @@ public class CtfTmfEvent extends TmfEvent
     /** Lazy-loaded field for the type, overriding TmfEvent's field */
     private transient @Nullable CtfTmfEventType fEventType;
 
-    private final @Nullable ICTFStream fStream;
-    private final Map<String, Object> fPacketAttributes;
+    private @Nullable ICTFStream fStream;
+    private Map<String, Object> fPacketAttributes;
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -197,6 +197,31 @@ public class CtfTmfEvent extends TmfEvent
         fPacketAttributes = Collections.emptyMap();
     }
 
+    /**
+     * Point this event to another event definition, used to recycle event
+     * objects. The lazy-loaded content and type are discarded.
+     *
+     * @param channel
+     *            The CTF channel of this event
+     * @param cpu
+     *            The event's CPU
+     * @param declaration
+     *            The event declaration
+     * @param eventDefinition
+     *            The event definition
+     */
+    synchronized void reset(String channel, int cpu, IEventDeclaration declaration, IEventDefinition eventDefinition) {
+        fEventDeclaration = declaration;
+        fSourceCpu = cpu;
+        fEventName = checkNotNull(declaration.getName());
+        fEvent = eventDefinition;
+        fChannel = channel;
+        fStream = eventDefinition.getDeclaration().getStream();
+        fPacketAttributes = eventDefinition.getPacketAttributes();
+        fContent = null;
+        fEventType = null;
+    }
+
     // ------------------------------------------------------------------------
     // Getters/Setters/Predicates
     // ------------------------------------------------------------------------
@@ -245,6 +270,15 @@ public class CtfTmfEvent extends TmfEvent
         return fEvent.getTimestamp();
     }
 
+    /**
+     * Get the CTF event definition of this event
+     *
+     * @return the event definition
+     */
+    synchronized IEventDefinition getEventDefinition() {
+        return fEvent;
+    }
+
     // ------------------------------------------------------------------------
     // TmfEvent
     // ------------------------------------------------------------------------
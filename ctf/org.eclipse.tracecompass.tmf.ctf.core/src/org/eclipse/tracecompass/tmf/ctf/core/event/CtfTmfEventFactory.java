@@ -104,6 +104,43 @@ public class CtfTmfEventFactory {
                 eventDef);
     }
 
+    /**
+     * Factory method to decode CTF events into a recycled event object. If the
+     * recycled event was created by this method, it is updated with the new
+     * event definition and returned, otherwise a new event is created. The
+     * returned event is only valid until the next call with the same recycled
+     * event, so this should only be used for consumers that do not keep
+     * references to the events they read.
+     *
+     * Lost events are never recycled, and factories of other event types
+     * always create new events.
+     *
+     * @param trace
+     *            The trace to which the new event will belong
+     * @param eventDef
+     *            CTF EventDefinition object corresponding to this trace event
+     * @param fileName
+     *            The path to the trace file
+     * @param recycled
+     *            The event previously returned by this method, or null
+     * @return The recycled or newly-built CtfTmfEvent
+     * @since 4.4
+     */
+    public CtfTmfEvent createEvent(CtfTmfTrace trace, IEventDefinition eventDef, @Nullable String fileName, @Nullable CtfTmfEvent recycled) {
+        final IEventDeclaration eventDecl = eventDef.getDeclaration();
+        if (getClass() != CtfTmfEventFactory.class || eventDecl.getName().equals(CTFStrings.LOST_EVENT_NAME)) {
+            /* Subclasses create their own event types */
+            return createEvent(trace, eventDef, fileName);
+        }
+        final ITmfTimestamp timestamp = trace.createTimestamp(trace.timestampCyclesToNanos(eventDef.getTimestamp()));
+        String reference = (fileName == null ? NO_STREAM : fileName);
+        if (recycled instanceof CtfTmfReusableEvent && recycled.getTrace() == trace) {
+            ((CtfTmfReusableEvent) recycled).reset(timestamp, reference, eventDef.getCPU(), eventDecl, eventDef);
+            return recycled;
+        }
+        return new CtfTmfReusableEvent(trace, timestamp, reference, eventDef.getCPU(), eventDecl, eventDef);
+    }
+
     /**
      * Create a new CTF lost event.
      *
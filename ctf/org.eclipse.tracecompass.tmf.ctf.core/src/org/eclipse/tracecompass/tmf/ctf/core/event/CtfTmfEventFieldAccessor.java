@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.ctf.core.event;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.ICompositeDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.IDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.IntegerDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StringDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.types.StructDefinition;
+import org.eclipse.tracecompass.ctf.core.event.types.StructFieldAccessor;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.ctf.core.CtfConstants;
+
+/**
+ * Reads a field of CTF events without building the event content, see
+ * {@link CtfTmfEventType#createFieldAccessor(String...)}.
+ *
+ * The path is the same as the one given to
+ * {@link ITmfEventField#getField(String...)} on the event content, including
+ * the {@link CtfConstants#CONTEXT_FIELD_PREFIX} for context fields, and the
+ * values are the same as the values of the content fields. The path is
+ * compiled once per event declaration and kept for the following events of
+ * that declaration, so the same accessor can read a field shared by many event
+ * types, like the <code>ptr</code> field of the memory allocation events. The
+ * compiled paths are kept as long as the accessor, which is typically owned by
+ * an analysis of a single trace.
+ *
+ * Events that are not CTF events are read through their content.
+ *
+ * This class is thread safe.
+ *
+ * @since 4.4
+ */
+@NonNullByDefault
+public final class CtfTmfEventFieldAccessor {
+
+    private final String[] fPath;
+    private final String[] fStructPath;
+    private final boolean fContext;
+    /*
+     * The compiled paths by declaration, copied on write: there are few
+     * declarations and reading them must not lock
+     */
+    private volatile Map<StructDeclaration, StructFieldAccessor> fAccessors = new IdentityHashMap<>();
+
+    CtfTmfEventFieldAccessor(String... path) {
+        if (path.length == 0) {
+            throw new IllegalArgumentException("Field path cannot be empty"); //$NON-NLS-1$
+        }
+        fPath = Arrays.copyOf(path, path.length);
+        fContext = path[0].startsWith(CtfConstants.CONTEXT_FIELD_PREFIX);
+        fStructPath = Arrays.copyOf(path, path.length);
+        if (fContext) {
+            fStructPath[0] = path[0].substring(CtfConstants.CONTEXT_FIELD_PREFIX.length());
+        }
+    }
+
+    /**
+     * Get the value of the field for an event
+     *
+     * @param event
+     *            the event to read
+     * @return the value of the field, as returned by
+     *         {@link ITmfEventField#getValue()}, or null if the event does
+     *         not have this field
+     */
+    public @Nullable Object getValue(ITmfEvent event) {
+        if (!(event instanceof CtfTmfEvent)) {
+            ITmfEventField field = event.getContent().getField(fPath);
+            return field == null ? null : field.getValue();
+        }
+        IEventDefinition eventDef = ((CtfTmfEvent) event).getEventDefinition();
+        ICompositeDefinition root = fContext ? eventDef.getContext() : eventDef.getFields();
+        if (!(root instanceof StructDefinition)) {
+            ITmfEventField field = event.getContent().getField(fPath);
+            return field == null ? null : field.getValue();
+        }
+        IDefinition definition = getAccessor(((StructDefinition) root).getDeclaration()).get((StructDefinition) root);
+        if (definition == null) {
+            return null;
+        }
+        /* Shortcuts for the most common types, same values as the fields */
+        if (definition instanceof IntegerDefinition) {
+            return ((IntegerDefinition) definition).getValue();
+        }
+        if (definition instanceof StringDefinition) {
+            return ((StringDefinition) definition).getValue();
+        }
+        return CtfTmfEventField.parseField(definition, fPath[fPath.length - 1]).getValue();
+    }
+
+    private StructFieldAccessor getAccessor(StructDeclaration declaration) {
+        StructFieldAccessor accessor = fAccessors.get(declaration);
+        if (accessor != null) {
+            return accessor;
+        }
+        synchronized (this) {
+            accessor = fAccessors.get(declaration);
+            if (accessor == null) {
+                accessor = declaration.createFieldAccessor(toDeclarationPath(declaration));
+                Map<StructDeclaration, StructFieldAccessor> accessors = new IdentityHashMap<>(fAccessors);
+                accessors.put(declaration, accessor);
+                fAccessors = accessors;
+            }
+            return accessor;
+        }
+    }
+
+    /**
+     * The fields of the event content have the leading underscore of their
+     * CTF name stripped, put it back where the declaration has it. Context
+     * fields keep their name after the prefix.
+     */
+    private String[] toDeclarationPath(StructDeclaration declaration) {
+        String[] path = Arrays.copyOf(fStructPath, fStructPath.length);
+        IDeclaration current = declaration;
+        for (int i = 0; i < path.length && current instanceof StructDeclaration; i++) {
+            StructDeclaration struct = (StructDeclaration) current;
+            if (!(fContext && i == 0) && !struct.hasField(path[i]) && struct.hasField('_' + path[i])) {
+                path[i] = '_' + path[i];
+            }
+            current = struct.getField(path[i]);
+        }
+        return path;
+    }
+}
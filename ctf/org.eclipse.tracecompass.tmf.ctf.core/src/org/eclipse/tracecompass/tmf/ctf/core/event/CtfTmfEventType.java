@@ -36,6 +36,23 @@ public class CtfTmfEventType extends TmfEventType {
         super(eventName, content);
     }
 
+    /**
+     * Create an accessor reading a field of CTF events directly from their
+     * definition, without building the event content. The accessor can be
+     * kept and reused for every event, it compiles the path to field indexes
+     * of the event declaration.
+     *
+     * @param path
+     *            The path of the field, as given to
+     *            {@link ITmfEventField#getField(String...)} on the event
+     *            content
+     * @return The field accessor
+     * @since 4.4
+     */
+    public static @NonNull CtfTmfEventFieldAccessor createFieldAccessor(@NonNull String @NonNull... path) {
+        return new CtfTmfEventFieldAccessor(path);
+    }
+
     /**
      * Method toString.
      *
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.ctf.core.event;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.tracecompass.ctf.core.event.IEventDeclaration;
+import org.eclipse.tracecompass.ctf.core.event.IEventDefinition;
+import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.ctf.core.trace.CtfTmfTrace;
+
+/**
+ * A CTF event whose instance is recycled for every event read by a context, see
+ * {@link CtfTmfEventFactory#createEvent(CtfTmfTrace, IEventDefinition, String, CtfTmfEvent)}.
+ * It is only valid until the next event is read. The timestamp and the content
+ * returned by an instance are not recycled, so they can be kept.
+ */
+@NonNullByDefault
+final class CtfTmfReusableEvent extends CtfTmfEvent {
+
+    private ITmfTimestamp fTimestamp;
+
+    CtfTmfReusableEvent(CtfTmfTrace trace,
+            ITmfTimestamp timestamp,
+            String channel,
+            int cpu,
+            IEventDeclaration declaration,
+            IEventDefinition eventDefinition) {
+        super(trace, ITmfContext.UNKNOWN_RANK, timestamp, channel, cpu, declaration, eventDefinition);
+        fTimestamp = timestamp;
+    }
+
+    /**
+     * Point this event to the next event definition
+     *
+     * @param timestamp
+     *            The timestamp
+     * @param channel
+     *            The CTF channel of this event
+     * @param cpu
+     *            The event's CPU
+     * @param declaration
+     *            The event declaration
+     * @param eventDefinition
+     *            The event definition
+     */
+    synchronized void reset(ITmfTimestamp timestamp, String channel, int cpu, IEventDeclaration declaration, IEventDefinition eventDefinition) {
+        fTimestamp = timestamp;
+        reset(channel, cpu, declaration, eventDefinition);
+    }
+
+    @Override
+    public synchronized ITmfTimestamp getTimestamp() {
+        return fTimestamp;
+    }
+}
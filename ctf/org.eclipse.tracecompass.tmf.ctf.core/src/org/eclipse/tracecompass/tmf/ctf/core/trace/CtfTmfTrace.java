@@ -18,6 +18,7 @@ package org.eclipse.tracecompass.tmf.ctf.core.trace;
 
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
+import java.io.File;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
@@ -65,14 +66,17 @@ import org.eclipse.tracecompass.tmf.core.event.aspect.ITmfEventAspect;
 import org.eclipse.tracecompass.tmf.core.event.aspect.TmfBaseAspects;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.project.model.ITmfPropertiesProvider;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
 import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ICyclesConverter;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfConcurrentlyReadable;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceKnownSize;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceWithPreDefinedEvents;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.core.trace.TraceValidationStatus;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfPersistentlyIndexable;
 import org.eclipse.tracecompass.tmf.core.trace.indexer.ITmfTraceIndexer;
@@ -103,7 +107,8 @@ import com.google.common.collect.ImmutableSet;
  */
 public class CtfTmfTrace extends TmfTrace
         implements ITmfPropertiesProvider, ITmfPersistentlyIndexable,
-        ITmfTraceWithPreDefinedEvents, ITmfTraceKnownSize, ICyclesConverter, ITmfTrimmableTrace {
+        ITmfTraceWithPreDefinedEvents, ITmfTraceKnownSize, ICyclesConverter, ITmfTrimmableTrace,
+        ITmfConcurrentlyReadable {
 
     // -------------------------------------------
     // Constants
@@ -121,6 +126,14 @@ public class CtfTmfTrace extends TmfTrace
      */
     protected static final int DEFAULT_CACHE_SIZE = 50000;
 
+    /**
+     * Property to set the number of packets each stream decodes ahead of the
+     * current one when reading the trace for an event request, in a pool of
+     * worker threads. Set it to 0 to decode the packets on the reading thread.
+     */
+    private static final String PREFETCH_DEPTH_PROPERTY = "org.eclipse.tracecompass.tmf.ctf.core.prefetchDepth"; //$NON-NLS-1$
+    private static final int PREFETCH_DEPTH = Math.max(0, Integer.getInteger(PREFETCH_DEPTH_PROPERTY, 2));
+
     /**
      * Event aspects available for all CTF traces
      *
@@ -149,6 +162,12 @@ public class CtfTmfTrace extends TmfTrace
      */
     private static final long REDUCTION_FACTOR = 4096;
 
+    /**
+     * Sub-directory of the supplementary files where the packet indexes of the
+     * stream files are saved.
+     */
+    private static final String PACKET_INDEX_DIRECTORY = "ctf-packet-index"; //$NON-NLS-1$
+
     /**
      * Average CTF event size, used to estimate the trace size. (Inspired by
      * empirical observations with LTTng kernel traces, to avoid hanging at 100% for
@@ -225,6 +244,8 @@ public class CtfTmfTrace extends TmfTrace
 
         try {
             this.fTrace = new CTFTrace(path);
+            /* Save the packet indexes with the other supplementary files */
+            fTrace.setPacketIndexDirectory(new File(TmfTraceManager.getSupplementaryFileDir(this), PACKET_INDEX_DIRECTORY));
             CtfTmfContext ctx;
             /* Set the start and (current) end times for this trace */
             ctx = (CtfTmfContext) seekEvent(0L);
@@ -439,6 +460,31 @@ public class CtfTmfTrace extends TmfTrace
         return context;
     }
 
+    @Override
+    public synchronized ITmfContext armRequest(ITmfEventRequest request) {
+        ITmfContext context = super.armRequest(request);
+        if (context instanceof CtfTmfContext) {
+            /* Recycle the event objects if the request does not keep them */
+            ((CtfTmfContext) context).setEventReuse(request.isEventReuseAllowed());
+            /* Requests read in sequence, decode the next packets in advance */
+            ((CtfTmfContext) context).setPrefetchDepth(getPrefetchDepth());
+        }
+        return context;
+    }
+
+    /**
+     * Get the number of packets each stream decodes ahead of the current one
+     * for the contexts of the event requests. It is set with the
+     * <code>org.eclipse.tracecompass.tmf.ctf.core.prefetchDepth</code> system
+     * property, 2 by default.
+     *
+     * @return the prefetch depth, 0 if prefetching is disabled
+     * @since 4.4
+     */
+    public int getPrefetchDepth() {
+        return PREFETCH_DEPTH;
+    }
+
     /**
      * Method readNextEvent.
      *
@@ -470,6 +516,32 @@ public class CtfTmfTrace extends TmfTrace
         return event;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The contexts only lock themselves while they read, the trace is not
+     * locked.
+     *
+     * @since 4.4
+     */
+    @Override
+    public @Nullable CtfTmfEvent readNext(ITmfContext context) {
+        if (fTrace == null || !(context instanceof CtfTmfContext)) {
+            return null;
+        }
+        ITmfLocation location = context.getLocation();
+        if (location == null || CtfLocation.INVALID_LOCATION.equals(location.getLocationInfo())) {
+            return null;
+        }
+        CtfTmfContext ctfContext = (CtfTmfContext) context;
+        CtfTmfEvent event = ctfContext.getCurrentEvent();
+        if (event != null) {
+            ctfContext.advance();
+            ctfContext.increaseRank();
+        }
+        return event;
+    }
+
     /**
      * Ctf traces have a clock with a unique uuid that will be used to identify the
      * host. Traces with the same clock uuid will be known to have been made on the
@@ -739,6 +811,34 @@ public class CtfTmfTrace extends TmfTrace
         return fIteratorManager.getIterator(context);
     }
 
+    /**
+     * Get the iterator of a context, like {@link #createIteratorFromContext},
+     * and pin it: it will not be given to another context until it is released
+     * with {@link #releaseIteratorOfContext}. The contexts pin their iterator
+     * while they read, so the iterators of the contexts being read are not
+     * replaced when many contexts read the trace.
+     *
+     * @param context
+     *            The iterator will initially be pointing to this context
+     * @return The iterator of the context
+     * @since 4.4
+     */
+    public ITmfContext acquireIteratorOfContext(CtfTmfContext context) {
+        return fIteratorManager.acquireIterator(context);
+    }
+
+    /**
+     * Release the iterator of a context that was acquired with
+     * {@link #acquireIteratorOfContext}.
+     *
+     * @param context
+     *            The context of the iterator
+     * @since 4.4
+     */
+    public void releaseIteratorOfContext(CtfTmfContext context) {
+        fIteratorManager.releaseIterator(context);
+    }
+
     /**
      * Dispose an iterator that was create with {@link #createIteratorFromContext}
      *
@@ -36,6 +36,8 @@ import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEventFieldAccessor;
+import org.eclipse.tracecompass.tmf.ctf.core.event.CtfTmfEventType;
 
 import com.google.common.collect.ImmutableMap;
 
@@ -76,6 +78,13 @@ public class UstMemoryStateProvider extends AbstractTmfStateProvider {
     private final @NonNull Map<String, Integer> fEventNames;
     private final @Nullable UstMemoryAnalysisModule fAnalysis;
 
+    /* Accessors of the fields shared by the memory events */
+    private final @NonNull CtfTmfEventFieldAccessor fPtr;
+    private final @NonNull CtfTmfEventFieldAccessor fSize;
+    private final @NonNull CtfTmfEventFieldAccessor fNmemb;
+    private final @NonNull CtfTmfEventFieldAccessor fInPtr;
+    private final @NonNull CtfTmfEventFieldAccessor fOutPtr;
+
     /**
      * Describe a memory allocation in details: timestamp, tid, and size
      */
@@ -146,6 +155,11 @@ public class UstMemoryStateProvider extends AbstractTmfStateProvider {
         }
         fEventNames = buildEventNames(fLayout);
         fAnalysis = baseAnalysis;
+        fPtr = CtfTmfEventType.createFieldAccessor(fLayout.fieldPtr());
+        fSize = CtfTmfEventType.createFieldAccessor(fLayout.fieldSize());
+        fNmemb = CtfTmfEventType.createFieldAccessor(fLayout.fieldNmemb());
+        fInPtr = CtfTmfEventType.createFieldAccessor(fLayout.fieldInPtr());
+        fOutPtr = CtfTmfEventType.createFieldAccessor(fLayout.fieldOutPtr());
     }
 
     private static @NonNull Map<String, Integer> buildEventNames(ILttngUstEventLayout layout) {
@@ -167,58 +181,61 @@ public class UstMemoryStateProvider extends AbstractTmfStateProvider {
 
         switch (intIndex) {
         case MALLOC_INDEX: {
-            Long ptr = (Long) event.getContent().getField(fLayout.fieldPtr()).getValue();
-            if (ZERO.equals(ptr)) {
+            Long ptr = (Long) fPtr.getValue(event);
+            if (ptr == null || ZERO.equals(ptr)) {
                 return;
             }
-            Long size = (Long) event.getContent().getField(fLayout.fieldSize()).getValue();
+            Long size = (Long) fSize.getValue(event);
             setMem(event, ptr, size);
         }
             break;
         case FREE_INDEX: {
-            Long ptr = (Long) event.getContent().getField(fLayout.fieldPtr()).getValue();
-            if (ZERO.equals(ptr)) {
+            Long ptr = (Long) fPtr.getValue(event);
+            if (ptr == null || ZERO.equals(ptr)) {
                 return;
             }
             setMem(event, ptr, ZERO);
         }
             break;
         case CALLOC_INDEX: {
-            Long ptr = (Long) event.getContent().getField(fLayout.fieldPtr()).getValue();
-            if (ZERO.equals(ptr)) {
+            Long ptr = (Long) fPtr.getValue(event);
+            if (ptr == null || ZERO.equals(ptr)) {
+                return;
+            }
+            Long nmemb = (Long) fNmemb.getValue(event);
+            Long size = (Long) fSize.getValue(event);
+            if (nmemb == null || size == null) {
                 return;
             }
-            Long nmemb = (Long) event.getContent().getField(fLayout.fieldNmemb()).getValue();
-            Long size = (Long) event.getContent().getField(fLayout.fieldSize()).getValue();
             setMem(event, ptr, size * nmemb);
         }
             break;
         case REALLOC_INDEX: {
-            Long ptr = (Long) event.getContent().getField(fLayout.fieldPtr()).getValue();
-            if (ZERO.equals(ptr)) {
+            Long ptr = (Long) fPtr.getValue(event);
+            if (ptr == null || ZERO.equals(ptr)) {
                 return;
             }
-            Long inPtr = (Long) event.getContent().getField(fLayout.fieldInPtr()).getValue();
-            Long size = (Long) event.getContent().getField(fLayout.fieldSize()).getValue();
+            Long inPtr = (Long) fInPtr.getValue(event);
+            Long size = (Long) fSize.getValue(event);
             setMem(event, inPtr, ZERO);
             setMem(event, ptr, size);
         }
             break;
         case MEMALIGN_INDEX: {
-            Long ptr = (Long) event.getContent().getField(fLayout.fieldPtr()).getValue();
-            if (ZERO.equals(ptr)) {
+            Long ptr = (Long) fPtr.getValue(event);
+            if (ptr == null || ZERO.equals(ptr)) {
                 return;
             }
-            Long size = (Long) event.getContent().getField(fLayout.fieldSize()).getValue();
+            Long size = (Long) fSize.getValue(event);
             setMem(event, ptr, size);
         }
             break;
         case POSIX_MEMALIGN_INDEX: {
-            Long ptr = (Long) event.getContent().getField(fLayout.fieldOutPtr()).getValue();
-            if (ZERO.equals(ptr)) {
+            Long ptr = (Long) fOutPtr.getValue(event);
+            if (ptr == null || ZERO.equals(ptr)) {
                 return;
             }
-            Long size = (Long) event.getContent().getField(fLayout.fieldSize()).getValue();
+            Long size = (Long) fSize.getValue(event);
             setMem(event, ptr, size);
         }
             break;
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.pcap.core.tests.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.tracecompass.internal.pcap.core.packet.BadPacketException;
+import org.eclipse.tracecompass.internal.pcap.core.protocol.pcap.PcapPacket;
+import org.eclipse.tracecompass.internal.pcap.core.trace.BadPcapFileException;
+import org.eclipse.tracecompass.internal.pcap.core.trace.PcapFile;
+import org.eclipse.tracecompass.internal.pcap.core.trace.PcapFileIndex;
+import org.eclipse.tracecompass.internal.pcap.core.trace.PcapFileValues;
+import org.eclipse.tracecompass.internal.pcap.core.trace.PcapOldFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit Class that tests the sparse index of the packet positions,
+ * {@link PcapFileIndex}
+ */
+public class PcapFileIndexTest {
+
+    private static final int NB_PACKETS = 3 * PcapFileIndex.DEFAULT_INTERVAL + 17;
+
+    private Path fDir;
+    private Path fPcapPath;
+    private Path fIndexPath;
+
+    /**
+     * Write a pcap file whose Ethernet packets have different sizes, and whose
+     * timestamps are their ranks
+     *
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDir = Files.createTempDirectory("pcap-index");
+        fPcapPath = fDir.resolve("test.pcap");
+        fIndexPath = fDir.resolve("pcap-index.idx");
+
+        ByteBuffer buffer = ByteBuffer.allocate(PcapFileValues.GLOBAL_HEADER_SIZE + NB_PACKETS * (PcapFileValues.PACKET_HEADER_SIZE + 36));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(PcapFileValues.MAGIC_BIG_ENDIAN_MICRO);
+        buffer.putShort((short) 2);
+        buffer.putShort((short) 4);
+        buffer.putInt(0);
+        buffer.putInt(0);
+        buffer.putInt(65535);
+        buffer.putInt(1);
+        for (int rank = 0; rank < NB_PACKETS; rank++) {
+            int length = 20 + rank % 16;
+            buffer.putInt(0);
+            buffer.putInt(rank);
+            buffer.putInt(length);
+            buffer.putInt(length);
+            buffer.put(new byte[length]);
+        }
+        buffer.flip();
+        byte[] bytes = new byte[buffer.limit()];
+        buffer.get(bytes);
+        Files.write(fPcapPath, bytes);
+    }
+
+    /**
+     * Delete the files
+     *
+     * @throws IOException
+     *             If the files cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(fIndexPath);
+        Files.deleteIfExists(fPcapPath);
+        Files.deleteIfExists(fDir);
+    }
+
+    private static void assertPacket(PcapFile file, long rank) throws IOException, BadPcapFileException, BadPacketException {
+        file.seekPacket(rank);
+        assertEquals(rank, file.getCurrentRank());
+        PcapPacket packet = file.parseNextPacket();
+        assertNotNull(packet);
+        assertEquals(rank, packet.getIndex());
+        assertEquals(rank, packet.getTimestamp());
+    }
+
+    /**
+     * Test the samples of the index
+     */
+    @Test
+    public void testSamples() {
+        PcapFileIndex index = new PcapFileIndex(10);
+        assertEquals(-1, index.floorRank(5));
+        for (long rank = 0; rank < 35; rank++) {
+            index.put(rank, rank * 100);
+        }
+        assertEquals(4, index.size());
+        assertEquals(20, index.floorRank(25));
+        assertEquals(2000, index.getPosition(20));
+        /* The last packet recorded is known too */
+        assertEquals(34, index.floorRank(40));
+        assertEquals(3400, index.getPosition(34));
+        assertEquals(30, index.floorRank(33));
+
+        /* A sample out of order is not kept */
+        index.put(50, 5000);
+        assertEquals(4, index.size());
+        assertEquals(30, index.floorRank(45));
+        assertEquals(50, index.floorRank(60));
+    }
+
+    /**
+     * Test seeking the packets, from the samples of the index
+     *
+     * @throws BadPcapFileException
+     *             Thrown when the file is erroneous. Fails the test.
+     * @throws IOException
+     *             Thrown when an IO error occurs. Fails the test.
+     * @throws BadPacketException
+     *             Thrown when a packet is erroneous. Fails the test.
+     */
+    @Test
+    public void testSeek() throws IOException, BadPcapFileException, BadPacketException {
+        try (PcapFile file = new PcapOldFile(fPcapPath)) {
+            assertEquals(NB_PACKETS, file.getTotalNbPackets());
+            assertEquals(4, file.getFileIndex().size());
+            for (long rank = NB_PACKETS - 1; rank >= 0; rank -= 97) {
+                assertPacket(file, rank);
+            }
+            /* Sequential reading */
+            for (long rank = 0; rank < NB_PACKETS; rank++) {
+                assertPacket(file, rank);
+            }
+        }
+    }
+
+    /**
+     * Test that the index is saved and loaded back
+     *
+     * @throws BadPcapFileException
+     *             Thrown when the file is erroneous. Fails the test.
+     * @throws IOException
+     *             Thrown when an IO error occurs. Fails the test.
+     * @throws BadPacketException
+     *             Thrown when a packet is erroneous. Fails the test.
+     */
+    @Test
+    public void testSaveLoad() throws IOException, BadPcapFileException, BadPacketException {
+        try (PcapFile file = new PcapOldFile(fPcapPath)) {
+            file.setIndexFile(fIndexPath);
+            assertPacket(file, 2 * PcapFileIndex.DEFAULT_INTERVAL + 5);
+        }
+        assertTrue(Files.exists(fIndexPath));
+
+        try (PcapFile file = new PcapOldFile(fPcapPath)) {
+            file.setIndexFile(fIndexPath);
+            assertEquals(3, file.getFileIndex().size());
+            assertPacket(file, 2 * PcapFileIndex.DEFAULT_INTERVAL + 3);
+            assertPacket(file, NB_PACKETS - 1);
+        }
+
+        /* The index of another file is not loaded */
+        PcapFileIndex index = new PcapFileIndex();
+        assertFalse(index.load(fIndexPath, Files.size(fPcapPath) + 1));
+        assertTrue(index.load(fIndexPath, Files.size(fPcapPath)));
+        assertEquals(4, index.size());
+    }
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.pcap.core.tests.packet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.tracecompass.internal.pcap.core.packet.BadPacketException;
+import org.eclipse.tracecompass.internal.pcap.core.packet.Packet;
+import org.eclipse.tracecompass.internal.pcap.core.protocol.PcapProtocol;
+import org.eclipse.tracecompass.internal.pcap.core.protocol.pcap.PcapPacket;
+import org.eclipse.tracecompass.internal.pcap.core.trace.BadPcapFileException;
+import org.eclipse.tracecompass.internal.pcap.core.trace.PcapFile;
+import org.eclipse.tracecompass.internal.pcap.core.trace.PcapFileValues;
+import org.eclipse.tracecompass.internal.pcap.core.trace.PcapOldFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit Class that tests that the layers of the packets are decoded when they
+ * are needed, from the data of the file
+ */
+public class LazyDecodingTest {
+
+    /* Ethernet header, then a payload that is too short for an IPv4 header */
+    private static final byte[] TRUNCATED_IPV4 = {
+            0x34, 0x67, 0x0C, (byte) 0xD2, (byte) 0x91, 0x51,
+            0x10, (byte) 0xF8, 0x7B, 0x6B, 0x2D, 0x32,
+            0x08, 0x00,
+            0x45, 0x00, 0x00, 0x20, 0x00, 0x00
+    };
+
+    /* Ethernet header with an unsupported ether type, then a payload */
+    private static final byte[] UNKNOWN_TYPE = {
+            0x34, 0x67, 0x0C, (byte) 0xD2, (byte) 0x91, 0x51,
+            0x10, (byte) 0xF8, 0x7B, 0x6B, 0x2D, 0x32,
+            0x12, 0x34,
+            0x01, 0x02, 0x03, 0x04
+    };
+
+    private Path fDir;
+    private Path fPcapPath;
+
+    /**
+     * Write a pcap file with an Ethernet packet of each kind
+     *
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDir = Files.createTempDirectory("pcap-lazy");
+        fPcapPath = fDir.resolve("test.pcap");
+
+        ByteBuffer buffer = ByteBuffer.allocate(PcapFileValues.GLOBAL_HEADER_SIZE + 2 * PcapFileValues.PACKET_HEADER_SIZE + TRUNCATED_IPV4.length + UNKNOWN_TYPE.length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(PcapFileValues.MAGIC_BIG_ENDIAN_MICRO);
+        buffer.putShort((short) 2);
+        buffer.putShort((short) 4);
+        buffer.putInt(0);
+        buffer.putInt(0);
+        buffer.putInt(65535);
+        buffer.putInt(1);
+        for (byte[] data : new byte[][] { TRUNCATED_IPV4, UNKNOWN_TYPE }) {
+            buffer.putInt(0);
+            buffer.putInt(0);
+            buffer.putInt(data.length);
+            buffer.putInt(data.length);
+            buffer.put(data);
+        }
+        Files.write(fPcapPath, buffer.array());
+    }
+
+    /**
+     * Delete the files
+     *
+     * @throws IOException
+     *             If the files cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(fPcapPath);
+        Files.deleteIfExists(fDir);
+    }
+
+    private static Packet getChild(Packet packet) {
+        Packet child = packet.getChildPacket();
+        assertNotNull(child);
+        return child;
+    }
+
+    /**
+     * Test that an erroneous inner layer is kept as an unknown packet, without
+     * dropping the outer layers
+     *
+     * @throws BadPcapFileException
+     *             Thrown when the file is erroneous. Fails the test.
+     * @throws IOException
+     *             Thrown when an IO error occurs. Fails the test.
+     * @throws BadPacketException
+     *             Thrown when a packet is erroneous. Fails the test.
+     */
+    @Test
+    public void testErroneousLayer() throws IOException, BadPcapFileException, BadPacketException {
+        try (PcapFile file = new PcapOldFile(fPcapPath)) {
+            PcapPacket packet = file.parseNextPacket();
+            assertNotNull(packet);
+            Packet ethernet = getChild(packet);
+            assertEquals(PcapProtocol.ETHERNET_II, ethernet.getProtocol());
+
+            Packet unknown = getChild(ethernet);
+            assertEquals(PcapProtocol.UNKNOWN, unknown.getProtocol());
+            /* The layer is decoded once */
+            assertSame(unknown, ethernet.getChildPacket());
+            ByteBuffer payload = unknown.getPayload();
+            assertNotNull(payload);
+            assertEquals(TRUNCATED_IPV4.length - 14, payload.limit());
+            assertNull(unknown.getChildPacket());
+        }
+    }
+
+    /**
+     * Test that the packets read again from the file are equal, and that
+     * decoding a layer does not modify the data of the outer layers
+     *
+     * @throws BadPcapFileException
+     *             Thrown when the file is erroneous. Fails the test.
+     * @throws IOException
+     *             Thrown when an IO error occurs. Fails the test.
+     * @throws BadPacketException
+     *             Thrown when a packet is erroneous. Fails the test.
+     */
+    @Test
+    public void testEquality() throws IOException, BadPcapFileException, BadPacketException {
+        try (PcapFile file = new PcapOldFile(fPcapPath)) {
+            file.seekPacket(1);
+            PcapPacket packet = file.parseNextPacket();
+            assertNotNull(packet);
+            ByteBuffer payload = packet.getPayload();
+            assertNotNull(payload);
+            assertEquals(0, payload.position());
+            Packet unknown = getChild(getChild(packet));
+            assertEquals(PcapProtocol.UNKNOWN, unknown.getProtocol());
+            assertEquals(0, payload.position());
+            assertEquals(UNKNOWN_TYPE.length, payload.limit());
+
+            file.seekPacket(1);
+            PcapPacket other = file.parseNextPacket();
+            assertNotNull(other);
+            assertTrue(packet.equals(other));
+            assertEquals(packet.hashCode(), other.hashCode());
+            assertTrue(unknown.equals(getChild(getChild(other))));
+        }
+    }
+}
@@ -14,6 +14,7 @@
 
 package org.eclipse.tracecompass.internal.pcap.core.packet;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.util.Map;
 
@@ -47,6 +48,10 @@ public abstract class Packet {
     /** The protocol that this packet uses */
     private final PcapProtocol fProtocol;
 
+    /** The child packet of this packet, decoded on first access */
+    private @Nullable Packet fChildPacket;
+    private boolean fChildPacketDecoded = false;
+
     /**
      * Constructor of the Packet Class.
      *
@@ -88,9 +93,26 @@ public abstract class Packet {
      * method returns null if the packet is at the lowest level of
      * encapsulation.
      *
+     * The child packet is only decoded the first time it is needed, so the
+     * consumers that only need the outer layers do not decode the whole
+     * packet. If the child packet is erroneous or truncated, its data is kept as an
+     * {@link UnknownPacket}.
+     *
      * @return The child packet.
      */
-    public abstract @Nullable Packet getChildPacket();
+    public synchronized @Nullable Packet getChildPacket() {
+        if (!fChildPacketDecoded) {
+            try {
+                fChildPacket = findChildPacket();
+            } catch (BadPacketException | BufferUnderflowException e) {
+                /* An erroneous or truncated header */
+                ByteBuffer payload = getPayload();
+                fChildPacket = (payload == null) ? null : new UnknownPacket(fPcapFile, this, payload.duplicate());
+            }
+            fChildPacketDecoded = true;
+        }
+        return fChildPacket;
+    }
 
     /**
      * Getter method for the protocol of the packet.
@@ -204,7 +226,9 @@ public abstract class Packet {
 
     /**
      * Internal method that is used to find the child packet. This is protocol
-     * dependent and must be implemented by each packet class.
+     * dependent and must be implemented by each packet class. It is called
+     * the first time the child packet is needed, and should decode it from a
+     * duplicate of the payload, so the payload is not modified.
      *
      * @return The child packet.
      * @throws BadPacketException
@@ -292,7 +316,7 @@ public abstract class Packet {
         if (payload == null) {
             return 0;
         }
-        return ByteBuffer.wrap(payload.array(), payload.arrayOffset(), payload.limit()).hashCode();
+        return wholeBuffer(payload).hashCode();
     }
 
     /**
@@ -312,9 +336,32 @@ public abstract class Packet {
         if (otherPayload == null) {
             return false;
         }
-        ByteBuffer buffer = ByteBuffer.wrap(payload.array(), payload.arrayOffset(), payload.limit());
-        ByteBuffer otherBuffer = ByteBuffer.wrap(otherPayload.array(), otherPayload.arrayOffset(), otherPayload.limit());
-        return buffer.equals(otherBuffer);
+        return wholeBuffer(payload).equals(wholeBuffer(otherPayload));
+    }
+
+    /**
+     * Get a view of the whole content of a buffer, up to its limit, without
+     * copying it. The payloads may be slices of the mapped file, which have no
+     * backing array.
+     */
+    private static ByteBuffer wholeBuffer(ByteBuffer payload) {
+        ByteBuffer buffer = payload.duplicate();
+        buffer.position(0);
+        return buffer;
+    }
+
+    /**
+     * Get a copy of the whole content of a buffer, up to its limit.
+     *
+     * @param payload
+     *            The payload to copy
+     * @return The content of the payload
+     */
+    protected static byte[] toByteArray(ByteBuffer payload) {
+        ByteBuffer buffer = wholeBuffer(payload);
+        byte[] array = new byte[buffer.remaining()];
+        buffer.get(array);
+        return array;
     }
 
     /**
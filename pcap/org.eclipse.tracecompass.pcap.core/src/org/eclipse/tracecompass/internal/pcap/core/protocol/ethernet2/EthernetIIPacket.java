@@ -43,7 +43,6 @@ import com.google.common.collect.ImmutableMap;
  */
 public class EthernetIIPacket extends Packet {
 
-    private final @Nullable Packet fChildPacket;
     private final @Nullable ByteBuffer fPayload;
 
     /* We store MAC addresses as byte arrays since
@@ -101,15 +100,6 @@ public class EthernetIIPacket extends Packet {
         } else {
             fPayload = null;
         }
-
-        // Find child
-        fChildPacket = findChildPacket();
-
-    }
-
-    @Override
-    public @Nullable Packet getChildPacket() {
-        return fChildPacket;
     }
 
     @Override
@@ -154,7 +144,7 @@ public class EthernetIIPacket extends Packet {
         }
         switch (fType) {
         case EthertypeHelper.ETHERTYPE_IPV4:
-            return new IPv4Packet(getPcapFile(), this, payload);
+            return new IPv4Packet(getPcapFile(), this, payload.duplicate());
         default:
             return new UnknownPacket(getPcapFile(), this, payload);
         }
@@ -165,7 +155,7 @@ public class EthernetIIPacket extends Packet {
         String string = getProtocol().getName() + ", Source: " + ConversionHelper.toMacAddress(fSourceMacAddress) + //$NON-NLS-1$
                 ", Destination: " + ConversionHelper.toMacAddress(fDestinationMacAddress) + ", Type: " + //$NON-NLS-1$ //$NON-NLS-2$
                 EthertypeHelper.toEtherType(fType) + "\n"; //$NON-NLS-1$
-        final Packet child = fChildPacket;
+        final Packet child = getChildPacket();
         if (child != null) {
             return string + child.toString();
         }
@@ -230,7 +220,7 @@ public class EthernetIIPacket extends Packet {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        final Packet child = fChildPacket;
+        final Packet child = getChildPacket();
         if (child != null) {
             result = prime * result + child.hashCode();
         } else {
@@ -257,13 +247,13 @@ public class EthernetIIPacket extends Packet {
             return false;
         }
         EthernetIIPacket other = (EthernetIIPacket) obj;
-        if(!Objects.equals(fChildPacket, other.fChildPacket)) {
+        if(!Objects.equals(getChildPacket(), other.getChildPacket())) {
             return false;
         }
         if (!Arrays.equals(fDestinationMacAddress, other.fDestinationMacAddress)) {
             return false;
         }
-        if (fChildPacket == null && !payloadEquals(fPayload, other.fPayload)) {
+        if (getChildPacket() == null && !payloadEquals(fPayload, other.fPayload)) {
             return false;
         }
         if (!Arrays.equals(fSourceMacAddress, other.fSourceMacAddress)) {
@@ -49,7 +49,6 @@ import com.google.common.collect.ImmutableMap.Builder;
  */
 public class IPv4Packet extends Packet {
 
-    private final @Nullable Packet fChildPacket;
     private final @Nullable ByteBuffer fPayload;
 
     private final int fVersion;
@@ -153,15 +152,6 @@ public class IPv4Packet extends Packet {
         } else {
             fPayload = null;
         }
-
-        // Find child
-        fChildPacket = findChildPacket();
-
-    }
-
-    @Override
-    public @Nullable Packet getChildPacket() {
-        return fChildPacket;
     }
 
     @Override
@@ -184,9 +174,9 @@ public class IPv4Packet extends Packet {
 
         switch (fIpDatagramProtocol) {
         case IPProtocolNumberHelper.PROTOCOL_NUMBER_TCP:
-            return new TCPPacket(getPcapFile(), this, payload);
+            return new TCPPacket(getPcapFile(), this, payload.duplicate());
         case IPProtocolNumberHelper.PROTOCOL_NUMBER_UDP:
-            return new UDPPacket(getPcapFile(), this, payload);
+            return new UDPPacket(getPcapFile(), this, payload.duplicate());
         default:
             return new UnknownPacket(getPcapFile(), this, payload);
         }
@@ -229,7 +219,7 @@ public class IPv4Packet extends Packet {
                 + "\n" + flagString + "\nTime to live: " + fTimeToLive + //$NON-NLS-1$ //$NON-NLS-2$
                 "\nProtocol: " + fIpDatagramProtocol + "\n" //$NON-NLS-1$ //$NON-NLS-2$
                 + checksumString + "\n"; //$NON-NLS-1$
-        final Packet child = fChildPacket;
+        final Packet child = getChildPacket();
         if (child != null) {
             return string + child.toString();
         }
@@ -522,7 +512,7 @@ public class IPv4Packet extends Packet {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        final Packet child = fChildPacket;
+        final Packet child = getChildPacket();
         if (child != null) {
             result = prime * result + child.hashCode();
         } else {
@@ -562,7 +552,7 @@ public class IPv4Packet extends Packet {
             return false;
         }
         IPv4Packet other = (IPv4Packet) obj;
-        if (!Objects.equals(fChildPacket, other.fChildPacket)) {
+        if (!Objects.equals(getChildPacket(), other.getChildPacket())) {
             return false;
         }
         if (fDSCP != other.fDSCP) {
@@ -598,7 +588,7 @@ public class IPv4Packet extends Packet {
         if (!Arrays.equals(fOptions, other.fOptions)) {
             return false;
         }
-        if (fChildPacket == null && !payloadEquals(fPayload, other.fPayload)) {
+        if (getChildPacket() == null && !payloadEquals(fPayload, other.fPayload)) {
             return false;
         }
         if (fReservedFlag != other.fReservedFlag) {
@@ -16,7 +16,6 @@ package org.eclipse.tracecompass.internal.pcap.core.protocol.pcap;
 
 import java.nio.ByteBuffer;
 
-import org.eclipse.tracecompass.internal.pcap.core.packet.BadPacketException;
 import org.eclipse.tracecompass.internal.pcap.core.trace.PcapNgFile;
 
 /**
@@ -41,17 +40,14 @@ public class PcapNgPacket extends PcapPacket {
      *            original length
      * @param packetData
      *            packet data
-     * @throws BadPacketException
-     *             Thrown when the Packet is erroneous.
      */
-    public PcapNgPacket(PcapNgFile file, PcapNgInterface interfaceDesc, long timestamp, int originalLength, ByteBuffer packetData) throws BadPacketException {
+    public PcapNgPacket(PcapNgFile file, PcapNgInterface interfaceDesc, long timestamp, int originalLength, ByteBuffer packetData) {
         super(file);
         fInterface = interfaceDesc;
         setTimeStamp(timestamp);
         setIncludedLength(packetData.limit());
         setOriginalLength(originalLength);
         setPayload(packetData);
-        setChildPacket(findChildPacket());
     }
 
     @Override
@@ -99,10 +99,6 @@ public class PcapOldPacket extends PcapPacket {
         pcapPacket.order(ByteOrder.BIG_ENDIAN);
         pcapPacket.position(0);
         setPayload(pcapPacket);
-
-        // Find Child Packet
-        setChildPacket(findChildPacket());
-
     }
 
     @Override
@@ -41,7 +41,6 @@ import com.google.common.collect.ImmutableMap;
 
 public abstract class PcapPacket extends Packet {
 
-    private @Nullable Packet fChildPacket;
     private @Nullable ByteBuffer fPayload;
 
     private long fTimestamp;
@@ -64,21 +63,6 @@ public abstract class PcapPacket extends Packet {
         super(file, null, PcapProtocol.PCAP);
     }
 
-    @Override
-    public @Nullable Packet getChildPacket() {
-        return fChildPacket;
-    }
-
-    /**
-     * Setter method that stores the child packet
-     *
-     * @param childPacket
-     *            The child of packet
-     */
-    public void setChildPacket(@Nullable Packet childPacket) {
-        fChildPacket = childPacket;
-    }
-
     @Override
     public @Nullable ByteBuffer getPayload() {
         if (fPayload != null) {
@@ -192,7 +176,7 @@ public abstract class PcapPacket extends Packet {
                 fIncludedLength + " bytes captured.\nArrival time: " + //$NON-NLS-1$
                 ConversionHelper.toGMTTime(fTimestamp, getTimestampScale()) + "\n"; //$NON-NLS-1$
 
-        final Packet child = fChildPacket;
+        final Packet child = getChildPacket();
         if (child != null) {
             return string + child.toString();
         }
@@ -214,7 +198,7 @@ public abstract class PcapPacket extends Packet {
         // The link type
         switch ((int) getDataLinkType()) {
         case LinkTypeHelper.LINKTYPE_ETHERNET:
-            return new EthernetIIPacket(getPcapFile(), this, payload);
+            return new EthernetIIPacket(getPcapFile(), this, payload.duplicate());
         default:
             return new UnknownPacket(getPcapFile(), this, payload);
         }
@@ -282,7 +266,7 @@ public abstract class PcapPacket extends Packet {
         final int prime = 31;
         int result = 1;
 
-        Packet child = fChildPacket;
+        Packet child = getChildPacket();
         if (child == null) {
             result = prime * result;
         } else {
@@ -313,7 +297,7 @@ public abstract class PcapPacket extends Packet {
             return false;
         }
         PcapPacket other = (PcapPacket) obj;
-        if (!Objects.equals(fChildPacket, other.fChildPacket)) {
+        if (!Objects.equals(getChildPacket(), other.getChildPacket())) {
             return false;
         }
         if (fIncludedLength != other.fIncludedLength) {
@@ -325,7 +309,7 @@ public abstract class PcapPacket extends Packet {
         if (fPacketIndex != other.fPacketIndex) {
             return false;
         }
-        if (fChildPacket == null && !payloadEquals(fPayload, other.fPayload)) {
+        if (getChildPacket() == null && !payloadEquals(fPayload, other.fPayload)) {
             return false;
         }
         return (fTimestamp == other.fTimestamp);
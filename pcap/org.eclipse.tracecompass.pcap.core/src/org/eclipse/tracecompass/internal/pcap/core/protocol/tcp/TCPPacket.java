@@ -40,7 +40,6 @@ import com.google.common.collect.ImmutableMap.Builder;
  */
 public class TCPPacket extends Packet {
 
-    private final @Nullable Packet fChildPacket;
     private final @Nullable ByteBuffer fPayload;
 
     private final int fSourcePort;
@@ -77,10 +76,8 @@ public class TCPPacket extends Packet {
      *            The parent packet of this packet (the encapsulating packet).
      * @param packet
      *            The entire packet (header and payload).
-     * @throws BadPacketException
-     *             Thrown when the packet is erroneous.
      */
-    public TCPPacket(PcapFile file, @Nullable Packet parent, ByteBuffer packet) throws BadPacketException {
+    public TCPPacket(PcapFile file, @Nullable Packet parent, ByteBuffer packet) {
         super(file, parent, PcapProtocol.TCP);
 
         // The endpoints are lazy loaded. They are defined in the get*Endpoint()
@@ -133,15 +130,6 @@ public class TCPPacket extends Packet {
         } else {
             fPayload = null;
         }
-
-        // find child packet
-        fChildPacket = findChildPacket();
-
-    }
-
-    @Override
-    public @Nullable Packet getChildPacket() {
-        return fChildPacket;
     }
 
     @Override
@@ -181,7 +169,7 @@ public class TCPPacket extends Packet {
                 "\nHeader length: " + fDataOffset * TCPValues.BLOCK_SIZE + " bytes, Data length: " + length + //$NON-NLS-1$ //$NON-NLS-2$
                 "\n" + flagString + "Window size value: " + fWindowSize + ", Urgent Pointer: " + String.format("%s%04x", "0x", fUrgentPointer) + //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
                 "\nChecksum: " + String.format("%s%04x", "0x", fChecksum) + "\n"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
-        final Packet child = fChildPacket;
+        final Packet child = getChildPacket();
         if (child != null) {
             return string + child.toString();
         }
@@ -566,7 +554,7 @@ public class TCPPacket extends Packet {
         result = prime * result + (int) (fAcknowledgmentNumber ^ (fAcknowledgmentNumber >>> 32));
         result = prime * result + (fCWRFlag ? 1231 : 1237);
         result = prime * result + fChecksum;
-        final Packet child = fChildPacket;
+        final Packet child = getChildPacket();
         if (child != null) {
             result = prime * result + child.hashCode();
         } else {
@@ -617,7 +605,7 @@ public class TCPPacket extends Packet {
         if (fChecksum != other.fChecksum) {
             return false;
         }
-        if(!Objects.equals(fChildPacket, other.fChildPacket)){
+        if(!Objects.equals(getChildPacket(), other.getChildPacket())){
             return false;
         }
         if (fDataOffset != other.fDataOffset) {
@@ -641,7 +629,7 @@ public class TCPPacket extends Packet {
         if (fPSHFlag != other.fPSHFlag) {
             return false;
         }
-        if (fChildPacket == null && !payloadEquals(fPayload, other.fPayload)) {
+        if (getChildPacket() == null && !payloadEquals(fPayload, other.fPayload)) {
             return false;
         }
         if (fRSTFlag != other.fRSTFlag) {
@@ -37,7 +37,6 @@ import com.google.common.collect.ImmutableMap;
  */
 public class UDPPacket extends Packet {
 
-    private final @Nullable Packet fChildPacket;
     private final @Nullable ByteBuffer fPayload;
 
     private final int fSourcePort;
@@ -59,10 +58,8 @@ public class UDPPacket extends Packet {
      *            The parent packet of this packet (the encapsulating packet).
      * @param packet
      *            The entire packet (header and payload).
-     * @throws BadPacketException
-     *             Thrown when the packet is erroneous.
      */
-    public UDPPacket(PcapFile file, @Nullable Packet parent, ByteBuffer packet) throws BadPacketException {
+    public UDPPacket(PcapFile file, @Nullable Packet parent, ByteBuffer packet) {
         super(file, parent, PcapProtocol.UDP);
 
         // The endpoints are lazy loaded. They are defined in the get*Endpoint()
@@ -87,15 +84,6 @@ public class UDPPacket extends Packet {
         } else {
             fPayload = null;
         }
-
-        // Find child
-        fChildPacket = findChildPacket();
-
-    }
-
-    @Override
-    public @Nullable Packet getChildPacket() {
-        return fChildPacket;
     }
 
     @Override
@@ -125,7 +113,7 @@ public class UDPPacket extends Packet {
     public String toString() {
         String string = getProtocol().getName() + ", Source Port: " + fSourcePort + ", Destination Port: " + fDestinationPort + //$NON-NLS-1$ //$NON-NLS-2$
                 ", Length: " + fTotalLength + ", Checksum: " + fChecksum + "\n"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-        final Packet child = fChildPacket;
+        final Packet child = getChildPacket();
         if (child != null) {
             return string + child.toString();
         }
@@ -231,7 +219,7 @@ public class UDPPacket extends Packet {
         final int prime = 31;
         int result = 1;
         result = prime * result + fChecksum;
-        final Packet child = fChildPacket;
+        final Packet child = getChildPacket();
         if (child != null) {
             result = prime * result + child.hashCode();
         } else {
@@ -261,13 +249,13 @@ public class UDPPacket extends Packet {
         if (fChecksum != other.fChecksum) {
             return false;
         }
-        if(!Objects.equals(fChildPacket, other.fChildPacket)){
+        if(!Objects.equals(getChildPacket(), other.getChildPacket())){
             return false;
         }
         if (fDestinationPort != other.fDestinationPort) {
             return false;
         }
-        if (fChildPacket == null && !payloadEquals(fPayload, other.fPayload)) {
+        if (getChildPacket() == null && !payloadEquals(fPayload, other.fPayload)) {
             return false;
         }
         if (fSourcePort != other.fSourcePort) {
@@ -16,7 +16,6 @@ package org.eclipse.tracecompass.internal.pcap.core.protocol.unknown;
 
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
 
@@ -40,7 +39,6 @@ import com.google.common.collect.ImmutableMap.Builder;
  */
 public class UnknownPacket extends Packet {
 
-    private final @Nullable Packet fChildPacket;
     private final ByteBuffer fPayload;
 
     private @Nullable UnknownEndpoint fSourceEndpoint;
@@ -70,13 +68,6 @@ public class UnknownPacket extends Packet {
 
         // Header is not used. All data go into payload.
         fPayload = packet;
-
-        fChildPacket = findChildPacket();
-    }
-
-    @Override
-    public @Nullable Packet getChildPacket() {
-        return fChildPacket;
     }
 
     @Override
@@ -91,9 +82,9 @@ public class UnknownPacket extends Packet {
 
     @Override
     public String toString() {
-        byte[] array = Arrays.copyOfRange(fPayload.array(), fPayload.arrayOffset(), fPayload.arrayOffset() + fPayload.limit());
+        byte[] array = toByteArray(fPayload);
         String string = "Payload: " + ConversionHelper.bytesToHex(array, true); //$NON-NLS-1$
-        final Packet child = fChildPacket;
+        final Packet child = getChildPacket();
         if (child != null) {
             return string + child.toString();
         }
@@ -134,7 +125,7 @@ public class UnknownPacket extends Packet {
     public Map<String, String> getFields() {
         Map<String, String> map = fFields;
         if (map == null) {
-            byte[] array = Arrays.copyOfRange(fPayload.array(), fPayload.arrayOffset(), fPayload.arrayOffset() + fPayload.limit());
+            byte[] array = toByteArray(fPayload);
 
             Builder<String, String> builder = ImmutableMap.<@NonNull String, @NonNull String> builder()
                     .put("Binary", ConversionHelper.bytesToHex(array, true)); //$NON-NLS-1$
@@ -173,7 +164,7 @@ public class UnknownPacket extends Packet {
     public int hashCode() {
         final int prime = 31;
         int result = prime;
-        final Packet child = fChildPacket;
+        final Packet child = getChildPacket();
         if (child != null) {
             result += child.hashCode();
         }
@@ -195,10 +186,10 @@ public class UnknownPacket extends Packet {
             return false;
         }
         UnknownPacket other = (UnknownPacket) obj;
-        if (!Objects.equals(fChildPacket, other.fChildPacket)) {
+        if (!Objects.equals(getChildPacket(), other.getChildPacket())) {
             return false;
         }
-        if (fChildPacket == null && !payloadEquals(fPayload, other.fPayload)) {
+        if (getChildPacket() == null && !payloadEquals(fPayload, other.fPayload)) {
             return false;
         }
         return true;
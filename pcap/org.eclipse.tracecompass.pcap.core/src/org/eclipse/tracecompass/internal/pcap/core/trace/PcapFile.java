@@ -17,12 +17,14 @@ package org.eclipse.tracecompass.internal.pcap.core.trace;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
-import java.util.TreeMap;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.pcap.core.packet.BadPacketException;
@@ -36,6 +38,16 @@ import org.eclipse.tracecompass.internal.pcap.core.util.PcapTimestampScale;
  */
 public abstract class PcapFile implements Closeable {
 
+    /**
+     * Whether the packets are read from the file mapped in memory, can be
+     * disabled with the "org.eclipse.tracecompass.pcap.core.mapFile" system
+     * property, for instance where a mapped file cannot be deleted.
+     */
+    private static final boolean MAP_FILE = Boolean.parseBoolean(System.getProperty("org.eclipse.tracecompass.pcap.core.mapFile", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+
+    /** Size of the parts of the file mapped in memory */
+    private static final long MAP_SIZE = 64L * 1024 * 1024;
+
     private long fCurrentRank = 0;
     private long fTotalNumberPackets = -1;
 
@@ -45,7 +57,11 @@ public abstract class PcapFile implements Closeable {
     private int fMajorVersion;
     private int fMinorVersion;
 
-    private TreeMap<Long, Long> fFileIndex = new TreeMap<>();
+    private final PcapFileIndex fFileIndex = new PcapFileIndex();
+    private @Nullable Path fIndexFile = null;
+
+    private @Nullable MappedByteBuffer fMappedWindow = null;
+    private long fMappedWindowStart = 0;
 
     /**
      * Constructor of the PcapFile Class
@@ -59,7 +75,6 @@ public abstract class PcapFile implements Closeable {
      *
      */
     public PcapFile(Path filePath) throws BadPcapFileException, IOException {
-        fFileIndex = new TreeMap<>();
         fPcapFilePath = filePath;
         // Check file validity
         if (Files.notExists(fPcapFilePath) || !Files.isRegularFile(fPcapFilePath) ||
@@ -136,29 +151,59 @@ public abstract class PcapFile implements Closeable {
             throw new IllegalArgumentException();
         }
 
-        TreeMap<Long, Long> fileIndex = getFileIndex();
-        Long positionInBytes = fileIndex.get(rank);
-
-        if (positionInBytes != null) {
-            // Index is known. Move to position.
-            getFileChannel().position(positionInBytes.longValue());
-            setCurrentRank(rank);
-        } else {
-            // Index is unknown. Find the corresponding position.
-            // Find closest index
-            long floorRank = fileIndex.floorKey(rank);
+        // Find the closest known position
+        PcapFileIndex fileIndex = getFileIndex();
+        long floorRank = fileIndex.floorRank(rank);
+        if (floorRank >= 0) {
+            getFileChannel().position(fileIndex.getPosition(floorRank));
             setCurrentRank(floorRank);
-            positionInBytes = fileIndex.get(floorRank);
-            if (positionInBytes != null) {
-                getFileChannel().position(positionInBytes);
-                // skip until wanted packet is found
-                while (getCurrentRank() < rank && skipNextPacket()) {
-                    // Do nothing
-                }
+            // skip until wanted packet is found
+            while (getCurrentRank() < rank && skipNextPacket()) {
+                // Do nothing
             }
         }
     }
 
+    /**
+     * Method that reads bytes at the current position, and moves the position
+     * after them. The bytes are a view of the part of the file mapped in
+     * memory, they are not copied, so the packets only decode them when they
+     * are needed.
+     *
+     * @param length
+     *            The number of bytes to read
+     * @return The bytes, in the byte order of the file. There are less bytes
+     *         than requested if the end of the file is reached.
+     * @throws IOException
+     *             Thrown when there is an error while reading the file.
+     */
+    protected ByteBuffer readBytes(int length) throws IOException {
+        FileChannel fileChannel = getFileChannel();
+        long position = fileChannel.position();
+        long fileSize = fileChannel.size();
+        int size = (int) Math.min(length, Math.max(fileSize - position, 0));
+        ByteBuffer buffer;
+        if (MAP_FILE && size <= MAP_SIZE) {
+            MappedByteBuffer window = fMappedWindow;
+            if (window == null || position < fMappedWindowStart || position + size > fMappedWindowStart + window.capacity()) {
+                window = fileChannel.map(MapMode.READ_ONLY, position, Math.min(MAP_SIZE, fileSize - position));
+                fMappedWindow = window;
+                fMappedWindowStart = position;
+            }
+            ByteBuffer view = window.duplicate();
+            view.position((int) (position - fMappedWindowStart));
+            view.limit(view.position() + size);
+            buffer = view.slice();
+            fileChannel.position(position + size);
+        } else {
+            buffer = ByteBuffer.allocate(size);
+            fileChannel.read(buffer);
+            buffer.flip();
+        }
+        buffer.order(fByteOrder);
+        return buffer;
+    }
+
     /**
      * Method that returns the ts precision of a pcap/pcapNg packet data
      *
@@ -178,7 +223,8 @@ public abstract class PcapFile implements Closeable {
     public synchronized long getTotalNbPackets() throws IOException, BadPcapFileException {
         if (fTotalNumberPackets == -1) {
             long rank = fCurrentRank;
-            fCurrentRank = fFileIndex.floorKey(rank);
+            // Start from the furthest known position
+            seekPacket(fFileIndex.floorRank(Long.MAX_VALUE));
 
             // skip until end of file.
             while (skipNextPacket()) {
@@ -252,17 +298,40 @@ public abstract class PcapFile implements Closeable {
      *
      * @return The current file index
      */
-    public TreeMap<Long, Long> getFileIndex() {
+    public PcapFileIndex getFileIndex() {
         return fFileIndex;
     }
 
     /**
-     * Method that closes the file.
+     * Set the file where the index of the file is saved. The index saved by a
+     * previous reading of the file is loaded, and the index is saved there
+     * when the file is closed if it grew.
+     *
+     * @param indexFile
+     *            The index file
+     * @throws IOException
+     *             Thrown when the size of the file cannot be read.
+     */
+    public void setIndexFile(Path indexFile) throws IOException {
+        fIndexFile = indexFile;
+        fFileIndex.load(indexFile, getFileChannel().size());
+    }
+
+    /**
+     * Method that closes the file, and saves its index if needed.
      *
      */
     @Override
     public void close() throws IOException {
-        getFileChannel().close();
+        try {
+            Path indexFile = fIndexFile;
+            if (indexFile != null && getFileChannel().isOpen()) {
+                fFileIndex.save(indexFile, getFileChannel().size());
+            }
+        } finally {
+            fMappedWindow = null;
+            getFileChannel().close();
+        }
     }
 
     /**
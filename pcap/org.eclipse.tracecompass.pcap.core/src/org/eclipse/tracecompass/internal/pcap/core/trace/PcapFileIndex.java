@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.pcap.core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Sparse index of the positions of the packets of a pcap file. The position
+ * of one packet every {@link #getInterval()} packets is kept in a primitive
+ * array, the packets in between are found by skipping forward from the
+ * closest sample before them.
+ *
+ * The samples are added in order while the file is read, so the index grows
+ * with the part of the file that was read. It can be saved to a file and
+ * loaded back, to seek in a file without reading it again from the start.
+ * The position of the last packet recorded is also kept, so reading the file
+ * sequentially does not skip from the samples.
+ */
+public class PcapFileIndex {
+
+    /**
+     * The number of packets between two samples, can be set with the
+     * "org.eclipse.tracecompass.pcap.core.indexInterval" system property
+     */
+    public static final int DEFAULT_INTERVAL = Integer.getInteger("org.eclipse.tracecompass.pcap.core.indexInterval", 1024); //$NON-NLS-1$
+
+    private static final int MAGIC = 0x50434958;
+    private static final int VERSION = 1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int fInterval;
+    private long[] fPositions = new long[INITIAL_CAPACITY];
+    private int fSize = 0;
+    private int fSavedSize = 0;
+    private long fLastRank = -1;
+    private long fLastPosition = -1;
+
+    /**
+     * Constructor, with the default interval
+     */
+    public PcapFileIndex() {
+        this(DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param interval
+     *            The number of packets between two samples
+     */
+    public PcapFileIndex(int interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Invalid index interval: " + interval); //$NON-NLS-1$
+        }
+        fInterval = interval;
+    }
+
+    /**
+     * Get the number of packets between two samples
+     *
+     * @return The interval of the index
+     */
+    public int getInterval() {
+        return fInterval;
+    }
+
+    /**
+     * Get the number of samples in the index
+     *
+     * @return The number of samples
+     */
+    public int size() {
+        return fSize;
+    }
+
+    /**
+     * Record the position of a packet. Only the first position of the next
+     * sample is kept, the others are ignored.
+     *
+     * @param rank
+     *            The rank of the packet
+     * @param position
+     *            The position in bytes from which the packet is read
+     */
+    public void put(long rank, long position) {
+        fLastRank = rank;
+        fLastPosition = position;
+        if (rank % fInterval != 0 || rank / fInterval != fSize) {
+            return;
+        }
+        if (fSize == fPositions.length) {
+            fPositions = Arrays.copyOf(fPositions, fSize * 2);
+        }
+        fPositions[fSize++] = position;
+    }
+
+    /**
+     * Get the rank of the closest known packet at or before a rank, either a
+     * sample or the last packet recorded
+     *
+     * @param rank
+     *            The rank of a packet
+     * @return The rank of the known packet, or -1 if the index is empty
+     */
+    public long floorRank(long rank) {
+        long floorRank = (fSize == 0) ? -1 : Math.min(rank / fInterval, fSize - 1) * fInterval;
+        if (fLastRank <= rank && fLastRank > floorRank) {
+            return fLastRank;
+        }
+        return floorRank;
+    }
+
+    /**
+     * Get the position of a known packet
+     *
+     * @param rank
+     *            The rank of the packet, as returned by
+     *            {@link #floorRank(long)}
+     * @return The position in bytes from which the packet is read
+     */
+    public long getPosition(long rank) {
+        if (rank == fLastRank) {
+            return fLastPosition;
+        }
+        return fPositions[(int) (rank / fInterval)];
+    }
+
+    /**
+     * Load an index saved by {@link #save(Path, long)}. The index is only
+     * loaded if it was saved with the same interval, for a file of the same
+     * size.
+     *
+     * @param indexFile
+     *            The index file
+     * @param fileSize
+     *            The size of the pcap file
+     * @return true if the index was loaded
+     */
+    public boolean load(Path indexFile, long fileSize) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION ||
+                    in.readInt() != fInterval || in.readLong() != fileSize) {
+                return false;
+            }
+            int size = in.readInt();
+            if (size <= fSize) {
+                return false;
+            }
+            long[] positions = new long[size];
+            for (int i = 0; i < size; i++) {
+                positions[i] = in.readLong();
+            }
+            fPositions = positions;
+            fSize = size;
+            fSavedSize = size;
+            return true;
+        } catch (IOException e) {
+            /* No file, or an incomplete one, the index is rebuilt */
+            return false;
+        }
+    }
+
+    /**
+     * Save the index, if it has more samples than when it was last loaded or
+     * saved
+     *
+     * @param indexFile
+     *            The index file
+     * @param fileSize
+     *            The size of the pcap file
+     * @throws IOException
+     *             If the index cannot be written
+     */
+    public void save(Path indexFile, long fileSize) throws IOException {
+        if (fSize <= fSavedSize) {
+            return;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(fInterval);
+            out.writeLong(fileSize);
+            out.writeInt(fSize);
+            for (int i = 0; i < fSize; i++) {
+                out.writeLong(fPositions[i]);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(indexFile);
+            throw e;
+        }
+        fSavedSize = fSize;
+    }
+}
@@ -320,29 +320,17 @@ public class PcapNgFile extends PcapFile {
         if (getFileChannel().size() - position < PcapNgFileValues.BLOCK_HEADER_SIZE) {
             return null; // End of file reached
         }
-        ByteOrder byteOrder = getByteOrder();
-
-        ByteBuffer blockHeader = ByteBuffer.allocate(PcapNgFileValues.BLOCK_HEADER_SIZE);
-        blockHeader.order(byteOrder);
         // Read block header from the current position based on byte order
-        getFileChannel().read(blockHeader);
-        blockHeader.flip();
+        ByteBuffer blockHeader = readBytes(PcapNgFileValues.BLOCK_HEADER_SIZE);
         // Get block type
         int blockType = blockHeader.getInt();
         // Get block length
         int blockLength = blockHeader.getInt();
 
         // Read the body of the block or packet data
-        ByteBuffer blockBody = ByteBuffer.allocate(blockLength - PcapNgFileValues.BLOCK_HEADER_SIZE - PcapNgFileValues.BLOCK_FOOTER_SIZE);
-        blockBody.order(byteOrder);
-        // Read block body from the current position based on byte order
-        getFileChannel().read(blockBody);
-        blockBody.flip();
+        ByteBuffer blockBody = readBytes(blockLength - PcapNgFileValues.BLOCK_HEADER_SIZE - PcapNgFileValues.BLOCK_FOOTER_SIZE);
 
-        ByteBuffer blockFooter = ByteBuffer.allocate(PcapNgFileValues.BLOCK_FOOTER_SIZE);
-        blockFooter.order(byteOrder);
-        getFileChannel().read(blockFooter);
-        blockFooter.flip();
+        ByteBuffer blockFooter = readBytes(PcapNgFileValues.BLOCK_FOOTER_SIZE);
         int blockLengthFooter = blockFooter.getInt();
         if (blockLengthFooter != blockLength) {
             throw new BadPcapFileException("Inconsistent Block Total Length"); //$NON-NLS-1$
@@ -388,4 +376,14 @@ public class PcapNgFile extends PcapFile {
         setCurrentRank(getCurrentRank() + 1);
         return false;
     }
+
+    /**
+     * The index of a pcapNg file is not saved: the packets can only be read
+     * once the interface blocks before them were parsed, so the file must be
+     * read from the start anyway.
+     */
+    @Override
+    public void setIndexFile(Path indexFile) {
+        // Do nothing
+    }
 }
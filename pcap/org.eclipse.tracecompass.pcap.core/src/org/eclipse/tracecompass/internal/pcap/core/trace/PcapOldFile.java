@@ -18,7 +18,6 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.file.Path;
-import java.util.TreeMap;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.pcap.core.packet.BadPacketException;
@@ -57,7 +56,7 @@ public class PcapOldFile extends PcapFile {
 
         ByteOrder byteOrder;
 
-        TreeMap<Long, Long> fileIndex = getFileIndex();
+        PcapFileIndex fileIndex = getFileIndex();
         // Parse the global header.
         // Read the magic number (4 bytes) from the input stream
         // and determine the mode (big endian or little endian)
@@ -125,12 +124,7 @@ public class PcapOldFile extends PcapFile {
             throw new BadPcapFileException("A pcap header is invalid."); //$NON-NLS-1$
         }
 
-        ByteBuffer pcapPacketHeader = ByteBuffer.allocate(PcapFileValues.PACKET_HEADER_SIZE);
-        pcapPacketHeader.clear();
-        pcapPacketHeader.order(getByteOrder());
-        getFileChannel().read(pcapPacketHeader);
-        pcapPacketHeader.flip();
-
+        ByteBuffer pcapPacketHeader = readBytes(PcapFileValues.PACKET_HEADER_SIZE);
         pcapPacketHeader.position(PcapFileValues.INCLUDED_LENGTH_POSITION);
         long includedPacketLength = ConversionHelper.unsignedIntToLong(pcapPacketHeader.getInt());
 
@@ -142,14 +136,9 @@ public class PcapOldFile extends PcapFile {
             throw new BadPacketException("Packets that are bigger than 2^31-1 bytes are not supported."); //$NON-NLS-1$
         }
 
-        ByteBuffer pcapPacketData = ByteBuffer.allocate((int) includedPacketLength);
-        pcapPacketData.clear();
-        pcapPacketData.order(getByteOrder());
-        getFileChannel().read(pcapPacketData);
-
-        pcapPacketData.flip();
+        ByteBuffer pcapPacketData = readBytes((int) includedPacketLength);
 
-        TreeMap<Long, Long> fFileIndex = getFileIndex();
+        PcapFileIndex fFileIndex = getFileIndex();
         setCurrentRank(getCurrentRank()+1);
         fFileIndex.put(getCurrentRank(), getFileChannel().position());
 
@@ -168,11 +157,7 @@ public class PcapOldFile extends PcapFile {
             throw new BadPcapFileException("A pcap header is invalid."); //$NON-NLS-1$
         }
 
-        ByteBuffer pcapPacketHeader = ByteBuffer.allocate(PcapFileValues.PACKET_HEADER_SIZE);
-        pcapPacketHeader.clear();
-        pcapPacketHeader.order(getByteOrder());
-        getFileChannel().read(pcapPacketHeader);
-        pcapPacketHeader.flip();
+        ByteBuffer pcapPacketHeader = readBytes(PcapFileValues.PACKET_HEADER_SIZE);
         pcapPacketHeader.position(PcapFileValues.INCLUDED_LENGTH_POSITION);
         long includedPacketLength = ConversionHelper.unsignedIntToLong(pcapPacketHeader.getInt());
 
@@ -182,7 +167,7 @@ public class PcapOldFile extends PcapFile {
 
         getFileChannel().position(getFileChannel().position() + includedPacketLength);
 
-        TreeMap<Long, Long> fFileIndex = getFileIndex();
+        PcapFileIndex fFileIndex = getFileIndex();
         setCurrentRank(getCurrentRank() + 1);
         fFileIndex.put(getCurrentRank(), getFileChannel().position());
         return true;
@@ -16,13 +16,13 @@ package org.eclipse.tracecompass.tmf.pcap.core.tests.analysis;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
-import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 
+import java.util.List;
+
 import org.eclipse.tracecompass.internal.tmf.pcap.core.analysis.StreamListAnalysis;
-import org.eclipse.tracecompass.internal.tmf.pcap.core.event.TmfPacketStreamBuilder;
+import org.eclipse.tracecompass.internal.tmf.pcap.core.event.TmfPacketStream;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.protocol.TmfPcapProtocol;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.trace.PcapTrace;
 import org.eclipse.tracecompass.pcap.core.tests.shared.PcapTestTrace;
@@ -45,9 +45,7 @@ public class StreamListAnalysisTest {
         StreamListAnalysis analysis = new StreamListAnalysis();
         analysis.setId(StreamListAnalysis.ID);
         for (TmfPcapProtocol protocol : TmfPcapProtocol.values()) {
-            if (protocol.supportsStream()) {
-                assertNotNull(analysis.getBuilder(protocol));
-            }
+            assertTrue(analysis.getStreams(protocol).isEmpty());
         }
         assertFalse(analysis.isFinished());
 
@@ -99,36 +97,38 @@ public class StreamListAnalysisTest {
         analysis.schedule();
         analysis.waitForCompletion();
 
-        // Verify that builders are not empty.
-        TmfPacketStreamBuilder builder = analysis.getBuilder(TmfPcapProtocol.ETHERNET_II);
-        if (builder == null) {
-            fail("The PacketStreamBuilder is null!");
-            return;
-        }
-        assertEquals(1, builder.getNbStreams());
-
-        builder = analysis.getBuilder(TmfPcapProtocol.IPV4);
-        if (builder == null) {
-            fail("The PacketStreamBuilder is null!");
-            return;
+        // Verify that streams were found.
+        assertEquals(1, analysis.getStreams(TmfPcapProtocol.ETHERNET_II).size());
+        assertEquals(3, analysis.getStreams(TmfPcapProtocol.IPV4).size());
+        assertEquals(2, analysis.getStreams(TmfPcapProtocol.TCP).size());
+        assertEquals(1, analysis.getStreams(TmfPcapProtocol.UDP).size());
+        assertTrue(analysis.isFinished());
+
+        // All the packets are in the Ethernet stream
+        TmfPacketStream stream = analysis.getStreams(TmfPcapProtocol.ETHERNET_II).get(0);
+        assertEquals(0, stream.getID());
+        assertEquals(stream.getNbPacketsAtoB() + stream.getNbPacketsBtoA(), stream.getNbPackets());
+        assertTrue(stream.getNbBytes() > 0);
+        assertTrue(stream.getStartTime().compareTo(stream.getStopTime()) <= 0);
+
+        // The streams of a protocol are ordered by ID
+        List<TmfPacketStream> streams = analysis.getStreams(TmfPcapProtocol.IPV4);
+        for (int i = 0; i < streams.size(); i++) {
+            assertEquals(i, streams.get(i).getID());
         }
-        assertEquals(3, builder.getNbStreams());
 
-        builder = analysis.getBuilder(TmfPcapProtocol.TCP);
-        if (builder == null) {
-            fail("The PacketStreamBuilder is null!");
-            return;
-        }
-        assertEquals(2, builder.getNbStreams());
+        analysis.dispose();
 
-        builder = analysis.getBuilder(TmfPcapProtocol.UDP);
-        if (builder == null) {
-            fail("The PacketStreamBuilder is null!");
-            return;
-        }
-        assertEquals(1, builder.getNbStreams());
+        // The streams are read back from the saved state system
+        StreamListAnalysis reopened = new StreamListAnalysis();
+        reopened.setId(StreamListAnalysis.ID);
+        reopened.setTrace(pcapTrace);
+        reopened.schedule();
+        reopened.waitForCompletion();
+        assertEquals(streams.size(), reopened.getStreams(TmfPcapProtocol.IPV4).size());
+        assertEquals(stream.getNbBytes(), reopened.getStreams(TmfPcapProtocol.ETHERNET_II).get(0).getNbBytes());
 
-        analysis.dispose();
+        reopened.dispose();
         pcapTrace.dispose();
     }
 
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.pcap.core.tests.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.eclipse.tracecompass.internal.pcap.core.packet.BadPacketException;
+import org.eclipse.tracecompass.internal.pcap.core.protocol.pcap.PcapPacket;
+import org.eclipse.tracecompass.internal.pcap.core.trace.BadPcapFileException;
+import org.eclipse.tracecompass.internal.pcap.core.trace.PcapFile;
+import org.eclipse.tracecompass.internal.pcap.core.trace.PcapFileValues;
+import org.eclipse.tracecompass.internal.pcap.core.trace.PcapOldFile;
+import org.eclipse.tracecompass.internal.tmf.pcap.core.analysis.StreamListAnalysis;
+import org.eclipse.tracecompass.internal.tmf.pcap.core.analysis.StreamListStateProvider;
+import org.eclipse.tracecompass.internal.tmf.pcap.core.event.PcapEvent;
+import org.eclipse.tracecompass.internal.tmf.pcap.core.event.TmfPacketStream;
+import org.eclipse.tracecompass.internal.tmf.pcap.core.protocol.TmfPcapProtocol;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.StateSystemUtils;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundException;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the index of the streams built by {@link StreamListStateProvider}, and
+ * the streams read back from it
+ */
+public class StreamListStateProviderTest {
+
+    private static final int NB_PACKETS = 100;
+    private static final int HEADERS_SIZE = 14 + 20 + 8;
+    /* The packets span 10 periods of the counters */
+    private static final long PACKET_DELAY = StreamListStateProvider.COUNTER_PERIOD / 10;
+
+    /* IPv4 addresses and UDP ports of the flows, the second one is the reply of the first */
+    private static final int[][] FLOWS = {
+            { 10, 20, 1000, 53 },
+            { 20, 10, 53, 1000 },
+            { 10, 30, 1000, 80 },
+            { 10, 20, 2000, 53 }
+    };
+
+    private final ITmfTrace fTrace = new TmfTraceStub();
+    private Path fDir;
+    private Path fPcapPath;
+
+    private static byte[] createUdpPacket(int[] flow, int payloadSize) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADERS_SIZE + payloadSize);
+        // Ethernet: destination, source, type IPv4. A host has one address.
+        buffer.put(new byte[] { 1, 2, 3, 4, 5, (byte) flow[1], 1, 2, 3, 4, 5, (byte) flow[0] });
+        buffer.putShort((short) 0x0800);
+        // IPv4: version and header length, DSCP, length, identification and
+        // fragment, TTL, protocol UDP, checksum, addresses
+        buffer.put((byte) 0x45);
+        buffer.put((byte) 0);
+        buffer.putShort((short) (HEADERS_SIZE - 14 + payloadSize));
+        buffer.putInt(0);
+        buffer.put((byte) 64);
+        buffer.put((byte) 17);
+        buffer.putShort((short) 0);
+        buffer.putInt(flow[0]);
+        buffer.putInt(flow[1]);
+        // UDP: ports, length, checksum
+        buffer.putShort((short) flow[2]);
+        buffer.putShort((short) flow[3]);
+        buffer.putShort((short) (8 + payloadSize));
+        buffer.putShort((short) 0);
+        return buffer.array();
+    }
+
+    /**
+     * Write a pcap file of UDP packets of a few flows, whose timestamps are
+     * their ranks, in microseconds
+     *
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDir = Files.createTempDirectory("pcap-streams");
+        fPcapPath = fDir.resolve("test.pcap");
+
+        ByteBuffer buffer = ByteBuffer.allocate(PcapFileValues.GLOBAL_HEADER_SIZE + NB_PACKETS * (PcapFileValues.PACKET_HEADER_SIZE + HEADERS_SIZE + 10));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(PcapFileValues.MAGIC_BIG_ENDIAN_MICRO);
+        buffer.putShort((short) 2);
+        buffer.putShort((short) 4);
+        buffer.putInt(0);
+        buffer.putInt(0);
+        buffer.putInt(65535);
+        buffer.putInt(1);
+        for (int rank = 0; rank < NB_PACKETS; rank++) {
+            byte[] packet = createUdpPacket(FLOWS[rank % FLOWS.length], rank % 10);
+            buffer.putInt(0);
+            buffer.putInt(rank);
+            buffer.putInt(packet.length);
+            buffer.putInt(packet.length);
+            buffer.put(packet);
+        }
+        buffer.flip();
+        byte[] bytes = new byte[buffer.limit()];
+        buffer.get(bytes);
+        Files.write(fPcapPath, bytes);
+    }
+
+    /**
+     * Delete the files and dispose the trace
+     *
+     * @throws IOException
+     *             If the files cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(fPcapPath);
+        Files.deleteIfExists(fDir);
+        fTrace.dispose();
+    }
+
+    /**
+     * Test the streams found in the packets, and their statistics
+     *
+     * @throws BadPcapFileException
+     *             Thrown when the file is erroneous. Fails the test.
+     * @throws IOException
+     *             Thrown when an IO error occurs. Fails the test.
+     * @throws BadPacketException
+     *             Thrown when a packet is erroneous. Fails the test.
+     * @throws AttributeNotFoundException
+     *             Thrown when a counter is missing. Fails the test.
+     * @throws StateSystemDisposedException
+     *             Thrown when the state system is disposed. Fails the test.
+     */
+    @Test
+    public void testStreams() throws IOException, BadPcapFileException, BadPacketException, AttributeNotFoundException, StateSystemDisposedException {
+        ITmfStateSystemBuilder ss = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("test", 0));
+        StreamListStateProvider provider = new StreamListStateProvider(fTrace);
+        provider.assignTargetStateSystem(ss);
+        ITmfEventField content = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, null);
+        TmfEventType type = new TmfEventType("packet", null);
+        try (PcapFile file = new PcapOldFile(fPcapPath)) {
+            PcapPacket packet = file.parseNextPacket();
+            while (packet != null) {
+                long time = packet.getTimestamp() * PACKET_DELAY;
+                provider.processEvent(new PcapEvent(fTrace, packet.getIndex(), TmfTimestamp.fromNanos(time), "test", type, content, "test", packet));
+                packet = file.parseNextPacket();
+            }
+        }
+        /* The counters are written and the state system closed at the end */
+        provider.dispose();
+
+        /* The replies are in the same stream as the requests */
+        List<TmfPacketStream> ethernet = StreamListAnalysis.getStreams(ss, TmfPcapProtocol.ETHERNET_II);
+        assertEquals(2, ethernet.size());
+        assertEquals(NB_PACKETS / 2, ethernet.get(0).getNbPacketsAtoB());
+        assertEquals(NB_PACKETS / 4, ethernet.get(0).getNbPacketsBtoA());
+        assertEquals(NB_PACKETS / 4, ethernet.get(1).getNbPackets());
+        assertEquals(2, StreamListAnalysis.getStreams(ss, TmfPcapProtocol.IPV4).size());
+        List<TmfPacketStream> udp = StreamListAnalysis.getStreams(ss, TmfPcapProtocol.UDP);
+        assertEquals(3, udp.size());
+        for (int i = 0; i < udp.size(); i++) {
+            assertEquals(i, udp.get(i).getID());
+        }
+
+        TmfPacketStream stream = udp.get(0);
+        String[] endpoints = StreamListStateProvider.getEndpoints(stream.getFirstEndpoint() + StreamListStateProvider.ENDPOINT_SEPARATOR + stream.getSecondEndpoint());
+        assertNotNull(endpoints);
+        assertEquals(stream.getFirstEndpoint(), endpoints[0]);
+        assertEquals(stream.getSecondEndpoint(), endpoints[1]);
+        assertEquals(NB_PACKETS / 4, stream.getNbPacketsAtoB());
+        assertEquals(NB_PACKETS / 4, stream.getNbPacketsBtoA());
+        long bytesAtoB = 0;
+        long bytesBtoA = 0;
+        for (int rank = 0; rank < NB_PACKETS; rank += 4) {
+            bytesAtoB += HEADERS_SIZE + rank % 10;
+            bytesBtoA += HEADERS_SIZE + (rank + 1) % 10;
+        }
+        assertEquals(bytesAtoB, stream.getNbBytesAtoB());
+        assertEquals(bytesBtoA, stream.getNbBytesBtoA());
+        assertEquals(0, stream.getStartTime().toNanos());
+        assertEquals((NB_PACKETS - 3) * PACKET_DELAY, stream.getStopTime().toNanos());
+        assertTrue(stream.getBPSAtoB() > 0);
+
+        /* The first packet of the last stream is the fourth */
+        assertEquals(3 * PACKET_DELAY, udp.get(2).getStartTime().toNanos());
+        assertEquals(0, udp.get(2).getNbPacketsBtoA());
+
+        /* Nothing for the protocols that were not in the packets */
+        assertTrue(StreamListAnalysis.getStreams(ss, TmfPcapProtocol.TCP).isEmpty());
+
+        /*
+         * The counters are written once per period, at the time of their last
+         * packet of the period, with their exact value at that time
+         */
+        int udpQuark = ss.getQuarkAbsolute(TmfPcapProtocol.UDP.getShortName());
+        int streamQuark = ss.getSubAttributes(udpQuark, false).get(0);
+        int packetsQuark = ss.getQuarkRelative(streamQuark, StreamListStateProvider.PACKETS_A_TO_B);
+        List<ITmfStateInterval> states = StateSystemUtils.queryHistoryRange(ss, packetsQuark, ss.getStartTime(), ss.getCurrentEndTime());
+        long periods = (NB_PACKETS * PACKET_DELAY) / StreamListStateProvider.COUNTER_PERIOD;
+        assertTrue(states.size() <= periods + 1);
+        for (ITmfStateInterval state : states) {
+            if (state.getValue() != null) {
+                long time = state.getStartTime();
+                assertEquals(0, time / PACKET_DELAY % 4);
+                assertEquals(time / PACKET_DELAY / 4 + 1, state.getValueLong());
+            }
+        }
+    }
+}
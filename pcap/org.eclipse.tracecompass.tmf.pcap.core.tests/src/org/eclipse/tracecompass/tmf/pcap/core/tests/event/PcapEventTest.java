@@ -15,6 +15,8 @@
 package org.eclipse.tracecompass.tmf.pcap.core.tests.event;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 
@@ -24,9 +26,11 @@ import java.util.List;
 import java.util.Map;
 
 import org.eclipse.tracecompass.internal.tmf.pcap.core.event.PcapEvent;
+import org.eclipse.tracecompass.internal.tmf.pcap.core.event.PcapEventType;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.protocol.TmfPcapProtocol;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.trace.PcapTrace;
 import org.eclipse.tracecompass.pcap.core.tests.shared.PcapTestTrace;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
@@ -145,4 +149,25 @@ public class PcapEventTest {
         assertEquals("Src: 145.254.160.237 , Dst: 65.208.228.223", fEvent.toString(TmfPcapProtocol.IPV4));
     }
 
+    /**
+     * Method that tests the content and the type of PcapEvent, which are
+     * built from the packet on demand.
+     */
+    @Test
+    public void getContentAndTypeTest() {
+        ITmfEventField content = fEvent.getContent();
+        assertSame(content, fEvent.getContent());
+        List<String> names = new ArrayList<>();
+        for (ITmfEventField field : content.getFields()) {
+            names.add(field.getName());
+        }
+        assertEquals(ImmutableList.of("Packet Capture", "Ethernet II", "Internet Protocol Version 4", "Transmission Control Protocol", "Payload"), names);
+        ITmfEventField protocol = content.getField(PcapEvent.EVENT_FIELD_PACKET_PROTOCOL);
+        assertNotNull(protocol);
+        assertEquals("TCP", protocol.getValue());
+        assertEquals(fEvent.toString(), content.toString());
+
+        assertEquals(PcapEventType.DEFAULT_PCAP_TYPE_ID + ":tcp", fEvent.getName());
+        assertSame(fEvent.getType(), fEvent.getType());
+    }
 }
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.pcap.core.analysis;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.osgi.util.NLS;
+
+@NonNullByDefault({})
+@SuppressWarnings("javadoc")
+public class Messages extends NLS {
+
+    private static final String BUNDLE_NAME = "org.eclipse.tracecompass.internal.tmf.pcap.core.analysis.messages"; //$NON-NLS-1$
+
+    public static @Nullable String StreamThroughputDataProvider_Title;
+    public static @Nullable String StreamThroughputDataProvider_Description;
+    public static @Nullable String StreamThroughputDataProvider_YAxis;
+    public static @Nullable String StreamThroughputDataProvider_AtoB;
+    public static @Nullable String StreamThroughputDataProvider_BtoA;
+
+    static {
+        // initialize resource bundle
+        NLS.initializeMessages(BUNDLE_NAME, Messages.class);
+    }
+
+    private Messages() {
+    }
+}
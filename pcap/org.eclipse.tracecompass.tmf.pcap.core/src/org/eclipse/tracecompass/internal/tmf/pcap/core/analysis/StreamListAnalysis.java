@@ -14,51 +14,61 @@
 
 package org.eclipse.tracecompass.internal.tmf.pcap.core.analysis;
 
-import java.util.HashMap;
+import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
-import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.core.runtime.NullProgressMonitor;
-import org.eclipse.jdt.annotation.Nullable;
-import org.eclipse.tracecompass.internal.tmf.pcap.core.event.PcapEvent;
-import org.eclipse.tracecompass.internal.tmf.pcap.core.event.TmfPacketStreamBuilder;
+import org.eclipse.tracecompass.internal.tmf.pcap.core.event.TmfPacketStream;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.protocol.TmfPcapProtocol;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.trace.PcapTrace;
-import org.eclipse.tracecompass.tmf.core.analysis.TmfAbstractAnalysisModule;
-import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
-import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
-import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
-import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
-import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateIntervalMatrix;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.TmfStateSystemAnalysisModule;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.experiment.TmfExperiment;
 
+import com.google.common.primitives.Ints;
+
 /**
  * A pcap-specific analysis that parse an entire trace to find all the streams.
  *
+ * The streams are indexed in a state system, see
+ * {@link StreamListStateProvider}, which is saved with the trace, so the
+ * streams are not rebuilt from the packets, nor kept in memory, when the
+ * trace is opened again.
+ *
  * @author Vincent Perot
  */
-public class StreamListAnalysis extends TmfAbstractAnalysisModule {
+public class StreamListAnalysis extends TmfStateSystemAnalysisModule {
 
     /**
      * The Stream List analysis ID.
      */
     public static final String ID = "org.eclipse.linuxtools.tmf.pcap.core.analysis.stream"; //$NON-NLS-1$
 
-    private @Nullable ITmfEventRequest fRequest;
-    private final Map<TmfPcapProtocol, TmfPacketStreamBuilder> fBuilders;
+    /** The streams last read from the state system, by protocol */
+    private final Map<TmfPcapProtocol, CachedStreams> fStreams = new EnumMap<>(TmfPcapProtocol.class);
 
     /**
-     * The default constructor. It initializes all variables.
+     * Streams of a protocol, with the state of the state system they were read
+     * from
      */
-    public StreamListAnalysis() {
-        super();
-        fBuilders = new HashMap<>();
-        for (TmfPcapProtocol protocol : TmfPcapProtocol.values()) {
-            if (protocol.supportsStream()) {
-                fBuilders.put(protocol, new TmfPacketStreamBuilder(protocol));
-            }
+    private static final class CachedStreams {
+        private final long fEndTime;
+        private final int fNbAttributes;
+        private final List<TmfPacketStream> fStreams;
+
+        public CachedStreams(long endTime, int nbAttributes, List<TmfPacketStream> streams) {
+            fEndTime = endTime;
+            fNbAttributes = nbAttributes;
+            fStreams = streams;
         }
     }
 
@@ -89,68 +99,108 @@ public class StreamListAnalysis extends TmfAbstractAnalysisModule {
     }
 
     @Override
-    protected boolean executeAnalysis(@Nullable IProgressMonitor monitor) throws TmfAnalysisException {
-        IProgressMonitor mon = (monitor == null ? new NullProgressMonitor() : monitor);
-        ITmfTrace trace = getTrace();
-        if (trace == null) {
-            /* This analysis was cancelled in the meantime */
-            return false;
-        }
+    protected ITmfStateProvider createStateProvider() {
+        return new StreamListStateProvider(checkNotNull(getTrace()));
+    }
 
-        ITmfEventRequest request = fRequest;
-        if ((request != null) && (!request.isCompleted())) {
-            request.cancel();
+    /**
+     * Getter method that returns the streams of a particular protocol found so
+     * far, ordered by ID. The streams are read again from the state system
+     * only when it changed since the last call.
+     *
+     * @param protocol
+     *            The specified protocol.
+     * @return The streams, empty if the protocol does not support streams or
+     *         if the analysis did not start.
+     */
+    public List<TmfPacketStream> getStreams(TmfPcapProtocol protocol) {
+        ITmfStateSystem ss = getStateSystem();
+        if (ss == null) {
+            return Collections.emptyList();
         }
-
-        request = new TmfEventRequest(PcapEvent.class,
-                TmfTimeRange.ETERNITY, 0L, ITmfEventRequest.ALL_DATA,
-                ITmfEventRequest.ExecutionType.BACKGROUND) {
-
-            @Override
-            public void handleData(ITmfEvent data) {
-                // Called for each event
-                super.handleData(data);
-                if (!(data instanceof PcapEvent)) {
-                    return;
-                }
-                PcapEvent event = (PcapEvent) data;
-                for (Map.Entry<TmfPcapProtocol, TmfPacketStreamBuilder> entry : fBuilders.entrySet()) {
-                    entry.getValue().addEventToStream(event);
-                }
-
+        long endTime = ss.getCurrentEndTime();
+        int nbAttributes = ss.getNbAttributes();
+        synchronized (fStreams) {
+            CachedStreams cached = fStreams.get(protocol);
+            if (cached != null && cached.fEndTime == endTime && cached.fNbAttributes == nbAttributes) {
+                return cached.fStreams;
             }
-        };
-        trace.sendRequest(request);
-        fRequest = request;
-        try {
-            request.waitForCompletion();
-        } catch (InterruptedException e) {
-            // Request was canceled.
-            return false;
         }
-
-        return !mon.isCanceled() && !request.isCancelled() && !request.isFailed();
-
-    }
-
-    @Override
-    protected void canceling() {
-        ITmfEventRequest req = fRequest;
-        if ((req != null) && (!req.isCompleted())) {
-            req.cancel();
+        List<TmfPacketStream> streams = Collections.unmodifiableList(getStreams(ss, protocol));
+        synchronized (fStreams) {
+            fStreams.put(protocol, new CachedStreams(endTime, nbAttributes, streams));
         }
+        return streams;
     }
 
     /**
-     * Getter method that returns the packet builder associated to a particular
-     * protocol.
+     * Read the streams of a particular protocol from the state system built
+     * by {@link StreamListStateProvider}, at its current end time. Only the
+     * attributes of the streams of the protocol are queried.
      *
+     * @param ss
+     *            The state system of the analysis
      * @param protocol
      *            The specified protocol.
-     * @return The builder.
+     * @return The streams, ordered by ID
+     */
+    public static List<TmfPacketStream> getStreams(ITmfStateSystem ss, TmfPcapProtocol protocol) {
+        int protocolQuark = ss.optQuarkAbsolute(protocol.getShortName());
+        if (protocolQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
+            return Collections.emptyList();
+        }
+        /* The attributes must exist before the query to be part of it */
+        List<Integer> quarks = ss.getSubAttributes(protocolQuark, true);
+        TmfStateIntervalMatrix states;
+        try {
+            states = ss.queryMatrix(Ints.toArray(quarks), new long[] { ss.getCurrentEndTime() });
+        } catch (StateSystemDisposedException e) {
+            return Collections.emptyList();
+        }
+
+        List<TmfPacketStream> streams = new ArrayList<>();
+        for (int streamQuark : ss.getSubAttributes(protocolQuark, false)) {
+            String[] endpoints = StreamListStateProvider.getEndpoints(ss.getAttributeName(streamQuark));
+            int streamRow = states.getRow(streamQuark);
+            Object id = states.getValue(streamRow, 0);
+            if (endpoints == null || !(id instanceof Integer)) {
+                continue;
+            }
+            long startTime = states.getStartTime(streamRow, 0);
+            int packetsAtoB = getCounterRow(ss, states, streamQuark, StreamListStateProvider.PACKETS_A_TO_B);
+            int packetsBtoA = getCounterRow(ss, states, streamQuark, StreamListStateProvider.PACKETS_B_TO_A);
+            int bytesAtoB = getCounterRow(ss, states, streamQuark, StreamListStateProvider.BYTES_A_TO_B);
+            int bytesBtoA = getCounterRow(ss, states, streamQuark, StreamListStateProvider.BYTES_B_TO_A);
+            /* The counters of packets were last written at the last packet */
+            long stopTime = startTime;
+            if (packetsAtoB >= 0) {
+                stopTime = Math.max(stopTime, states.getStartTime(packetsAtoB, 0));
+            }
+            if (packetsBtoA >= 0) {
+                stopTime = Math.max(stopTime, states.getStartTime(packetsBtoA, 0));
+            }
+            streams.add(new TmfPacketStream((Integer) id, protocol, endpoints[0], endpoints[1],
+                    getCount(states, packetsAtoB), getCount(states, packetsBtoA), getCount(states, bytesAtoB), getCount(states, bytesBtoA),
+                    startTime, stopTime));
+        }
+        return streams;
+    }
+
+    /**
+     * Get the row of a counter of a stream in the matrix, or -1 if it was
+     * never written
      */
-    public @Nullable TmfPacketStreamBuilder getBuilder(TmfPcapProtocol protocol) {
-        return fBuilders.get(protocol);
+    private static int getCounterRow(ITmfStateSystem ss, TmfStateIntervalMatrix states, int streamQuark, String counter) {
+        int quark = ss.optQuarkRelative(streamQuark, counter);
+        if (quark == ITmfStateSystem.INVALID_ATTRIBUTE) {
+            return -1;
+        }
+        int row = states.getRow(quark);
+        return (row >= 0 && states.getValue(row, 0) instanceof Long) ? row : -1;
+    }
+
+    private static long getCount(TmfStateIntervalMatrix states, int row) {
+        return (row < 0) ? 0 : (Long) Objects.requireNonNull(states.getValue(row, 0));
     }
 
     /**
@@ -159,11 +209,11 @@ public class StreamListAnalysis extends TmfAbstractAnalysisModule {
      * @return Whether the analysis is finished or not.
      */
     public boolean isFinished() {
-        ITmfEventRequest req = fRequest;
-        if (req == null) {
+        ITmfStateSystem ss = getStateSystem();
+        if (ss == null) {
             return false;
         }
-        return req.isCompleted();
+        return ss.waitUntilBuilt(0);
     }
 
 }
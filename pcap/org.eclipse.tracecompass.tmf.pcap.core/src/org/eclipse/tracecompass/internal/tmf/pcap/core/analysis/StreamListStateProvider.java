@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.pcap.core.analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.tmf.pcap.core.event.PcapEvent;
+import org.eclipse.tracecompass.internal.tmf.pcap.core.protocol.TmfPcapProtocol;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+
+/**
+ * State provider of the stream list analysis. It indexes the packets of the
+ * trace by stream, so the streams do not have to be rebuilt from the packets
+ * when the trace is opened again.
+ *
+ * Attribute tree:
+ *
+ * <pre>
+ * |- protocol (short name)
+ * |  |- "endpoint A <-> endpoint B" -> the ID of the stream, from its first packet
+ * |  |  |- Packets A to B -> number of packets so far
+ * |  |  |- Packets B to A
+ * |  |  |- Bytes A to B -> number of bytes on the wire
+ * |  |  |- Bytes B to A
+ * </pre>
+ *
+ * The IDs of the streams of a protocol are given in the order of their first
+ * packet, which is also the order of their attributes.
+ *
+ * The counters are not written at each packet, which would add up to 8
+ * intervals per packet. They are accumulated in memory and written at most
+ * once per {@link #COUNTER_PERIOD}, at the time of the last packet they
+ * count, so their values are exact at that time and the last state of a
+ * counter starts at the last packet of its direction.
+ */
+public class StreamListStateProvider extends AbstractTmfStateProvider {
+
+    /** Separator of the endpoints in the name of the attribute of a stream */
+    public static final String ENDPOINT_SEPARATOR = " <-> "; //$NON-NLS-1$
+    /** Number of packets from the first endpoint to the second */
+    public static final String PACKETS_A_TO_B = "Packets A to B"; //$NON-NLS-1$
+    /** Number of packets from the second endpoint to the first */
+    public static final String PACKETS_B_TO_A = "Packets B to A"; //$NON-NLS-1$
+    /** Number of bytes from the first endpoint to the second */
+    public static final String BYTES_A_TO_B = "Bytes A to B"; //$NON-NLS-1$
+    /** Number of bytes from the second endpoint to the first */
+    public static final String BYTES_B_TO_A = "Bytes B to A"; //$NON-NLS-1$
+
+    /**
+     * Period, in nanoseconds, at which the counters of a stream are written to
+     * the state system
+     */
+    public static final long COUNTER_PERIOD = 1000000L;
+
+    private static final int VERSION = 2;
+
+    /** The protocols whose streams are indexed */
+    static final List<TmfPcapProtocol> STREAM_PROTOCOLS = Stream.of(TmfPcapProtocol.values())
+            .filter(TmfPcapProtocol::supportsStream)
+            .collect(Collectors.toList());
+
+    /** The number of streams of each protocol, by ordinal */
+    private final int[] fNbStreams = new int[TmfPcapProtocol.values().length];
+    /** The counters of each direction of the streams, by stream quark */
+    private final Map<Integer, Counter[]> fCounters = new HashMap<>();
+    /** The counters with packets that are not written yet */
+    private final List<Counter> fPending = new ArrayList<>();
+    /** The time of the first packet not written yet, or Long.MAX_VALUE */
+    private volatile long fPendingStart = Long.MAX_VALUE;
+    private long fLastTime = Long.MIN_VALUE;
+
+    /**
+     * The counters of a direction of a stream
+     */
+    private static final class Counter {
+        private final int fPacketsQuark;
+        private final int fBytesQuark;
+        private long fPackets = 0;
+        private long fBytes = 0;
+        private long fTime = Long.MIN_VALUE;
+        private boolean fPending = false;
+
+        public Counter(int packetsQuark, int bytesQuark) {
+            fPacketsQuark = packetsQuark;
+            fBytesQuark = bytesQuark;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            The trace, or experiment, of pcap traces
+     */
+    public StreamListStateProvider(ITmfTrace trace) {
+        super(trace, "Stream List"); //$NON-NLS-1$
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public ITmfStateProvider getNewInstance() {
+        return new StreamListStateProvider(getTrace());
+    }
+
+    @Override
+    public long getLatestSafeTime() {
+        /* The pending packets are not counted yet in the state system */
+        return Math.min(super.getLatestSafeTime(), fPendingStart - 1);
+    }
+
+    @Override
+    protected void eventHandle(ITmfEvent event) {
+        if (!(event instanceof PcapEvent)) {
+            return;
+        }
+        ITmfStateSystemBuilder ss = getStateSystemBuilder();
+        if (ss == null) {
+            return;
+        }
+        PcapEvent pcapEvent = (PcapEvent) event;
+        long ts = event.getTimestamp().toNanos();
+        long length = pcapEvent.getOriginalLength();
+        if (fLastTime / COUNTER_PERIOD != ts / COUNTER_PERIOD) {
+            flushCounters(ss);
+        }
+        fLastTime = ts;
+        for (TmfPcapProtocol protocol : STREAM_PROTOCOLS) {
+            String source = pcapEvent.getSourceEndpoint(protocol);
+            String destination = pcapEvent.getDestinationEndpoint(protocol);
+            if (source == null || destination == null) {
+                continue;
+            }
+            int protocolQuark = ss.getQuarkAbsoluteAndAdd(protocol.getShortName());
+            boolean aToB = true;
+            int streamQuark = ss.optQuarkRelative(protocolQuark, source + ENDPOINT_SEPARATOR + destination);
+            if (streamQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
+                streamQuark = ss.optQuarkRelative(protocolQuark, destination + ENDPOINT_SEPARATOR + source);
+                aToB = false;
+            }
+            if (streamQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
+                int id = fNbStreams[protocol.ordinal()]++;
+                streamQuark = ss.getQuarkRelativeAndAdd(protocolQuark, source + ENDPOINT_SEPARATOR + destination);
+                ss.modifyAttribute(ts, id, streamQuark);
+                aToB = true;
+            }
+            Counter[] counters = fCounters.computeIfAbsent(streamQuark, quark -> new Counter[2]);
+            int direction = aToB ? 0 : 1;
+            Counter counter = counters[direction];
+            if (counter == null) {
+                counter = new Counter(ss.getQuarkRelativeAndAdd(streamQuark, aToB ? PACKETS_A_TO_B : PACKETS_B_TO_A),
+                        ss.getQuarkRelativeAndAdd(streamQuark, aToB ? BYTES_A_TO_B : BYTES_B_TO_A));
+                counters[direction] = counter;
+            }
+            counter.fPackets++;
+            counter.fBytes += length;
+            counter.fTime = ts;
+            if (!counter.fPending) {
+                counter.fPending = true;
+                fPending.add(counter);
+                fPendingStart = Math.min(fPendingStart, ts);
+            }
+        }
+    }
+
+    @Override
+    public void done() {
+        ITmfStateSystemBuilder ss = getStateSystemBuilder();
+        if (ss != null) {
+            flushCounters(ss);
+        }
+    }
+
+    /**
+     * Write the counters of the pending packets, each at the time of its last
+     * packet. That time is after the previous write of the counter, which was
+     * in an earlier period.
+     */
+    private void flushCounters(ITmfStateSystemBuilder ss) {
+        for (Counter counter : fPending) {
+            ss.modifyAttribute(counter.fTime, counter.fPackets, counter.fPacketsQuark);
+            ss.modifyAttribute(counter.fTime, counter.fBytes, counter.fBytesQuark);
+            counter.fPending = false;
+        }
+        fPending.clear();
+        fPendingStart = Long.MAX_VALUE;
+    }
+
+    /**
+     * Get the endpoints of a stream from the name of its attribute
+     *
+     * @param streamName
+     *            The name of the attribute of the stream
+     * @return The two endpoints, or null if the name is not the one of a
+     *         stream
+     */
+    public static String @Nullable [] getEndpoints(String streamName) {
+        int index = streamName.indexOf(ENDPOINT_SEPARATOR);
+        if (index < 0) {
+            return null;
+        }
+        return new String[] { streamName.substring(0, index), streamName.substring(index + ENDPOINT_SEPARATOR.length()) };
+    }
+}
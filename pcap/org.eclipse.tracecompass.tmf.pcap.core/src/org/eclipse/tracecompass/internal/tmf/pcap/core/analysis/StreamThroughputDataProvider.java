@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.pcap.core.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
+import org.eclipse.tracecompass.internal.tmf.core.model.xy.AbstractTreeCommonXDataProvider;
+import org.eclipse.tracecompass.internal.tmf.pcap.core.protocol.TmfPcapProtocol;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateIntervalMatrix;
+import org.eclipse.tracecompass.tmf.core.dataprovider.DataType;
+import org.eclipse.tracecompass.tmf.core.model.YModel;
+import org.eclipse.tracecompass.tmf.core.model.filters.SelectionTimeQueryFilter;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeDataModel;
+import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.IYModel;
+import org.eclipse.tracecompass.tmf.core.model.xy.TmfXYAxisDescription;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceUtils;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Data provider of the throughput of the streams over time, in each
+ * direction. The throughput between two requested times is computed from the
+ * number of bytes of the stream, counted by {@link StreamListStateProvider},
+ * at these times.
+ */
+public class StreamThroughputDataProvider extends AbstractTreeCommonXDataProvider<StreamListAnalysis, TmfTreeDataModel> {
+
+    /**
+     * Extension point ID.
+     */
+    public static final String ID = "org.eclipse.tracecompass.tmf.pcap.core.analysis.StreamThroughputDataProvider"; //$NON-NLS-1$
+
+    /**
+     * Title of the XY models of this provider.
+     */
+    static final String PROVIDER_TITLE = Objects.requireNonNull(Messages.StreamThroughputDataProvider_Title);
+
+    private static final String BYTES_PER_SECOND = "B/s"; //$NON-NLS-1$
+    private static final double NANOSECONDS_PER_SECOND = 1E9;
+    private static final TmfXYAxisDescription Y_AXIS_DESCRIPTION = new TmfXYAxisDescription(Objects.requireNonNull(Messages.StreamThroughputDataProvider_YAxis), BYTES_PER_SECOND, DataType.BINARY_NUMBER);
+
+    /**
+     * The values of a series, computed from the successive numbers of bytes of
+     * a direction of a stream
+     */
+    private static final class SeriesBuilder {
+
+        private final long fId;
+        private final int fQuark;
+        private final String fName;
+        private final double[] fValues;
+        private long fPrevCount;
+
+        private SeriesBuilder(long id, int quark, String name, int length) {
+            fId = id;
+            fQuark = quark;
+            fName = name;
+            fValues = new double[length];
+        }
+
+        private void updateValue(int pos, long count, long deltaT) {
+            fValues[pos] = (count - fPrevCount) * NANOSECONDS_PER_SECOND / deltaT;
+            fPrevCount = count;
+        }
+
+        private IYModel build() {
+            return new YModel(fId, fName, fValues, Y_AXIS_DESCRIPTION);
+        }
+    }
+
+    /**
+     * Create an instance of {@link StreamThroughputDataProvider}. Returns null
+     * if the analysis module is not found.
+     *
+     * @param trace
+     *            A trace on which we are interested to fetch a model
+     * @return A {@link StreamThroughputDataProvider} instance, or null if the
+     *         analysis module is not found
+     */
+    public static @Nullable StreamThroughputDataProvider create(ITmfTrace trace) {
+        StreamListAnalysis module = TmfTraceUtils.getAnalysisModuleOfClass(trace, StreamListAnalysis.class, StreamListAnalysis.ID);
+        if (module != null) {
+            module.schedule();
+            return new StreamThroughputDataProvider(trace, module);
+        }
+        return null;
+    }
+
+    private StreamThroughputDataProvider(ITmfTrace trace, StreamListAnalysis module) {
+        super(trace, module);
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    protected TmfTreeModel<TmfTreeDataModel> getTree(ITmfStateSystem ss, Map<String, Object> parameters, @Nullable IProgressMonitor monitor) {
+        List<TmfTreeDataModel> nodes = new ArrayList<>();
+        long rootId = getId(ITmfStateSystem.ROOT_ATTRIBUTE);
+        nodes.add(new TmfTreeDataModel(rootId, -1, Collections.singletonList(getTrace().getName()), false, null));
+
+        String aToBName = Objects.requireNonNull(Messages.StreamThroughputDataProvider_AtoB);
+        String bToAName = Objects.requireNonNull(Messages.StreamThroughputDataProvider_BtoA);
+
+        for (TmfPcapProtocol protocol : StreamListStateProvider.STREAM_PROTOCOLS) {
+            int protocolQuark = ss.optQuarkAbsolute(protocol.getShortName());
+            if (protocolQuark == ITmfStateSystem.INVALID_ATTRIBUTE) {
+                continue;
+            }
+            long protocolId = getId(protocolQuark);
+            nodes.add(new TmfTreeDataModel(protocolId, rootId, Collections.singletonList(protocol.getName()), false, null));
+
+            for (int streamQuark : ss.getSubAttributes(protocolQuark, false)) {
+                long streamId = getId(streamQuark);
+                nodes.add(new TmfTreeDataModel(streamId, protocolId, Collections.singletonList(ss.getAttributeName(streamQuark)), false, null));
+
+                int aToBQuark = ss.optQuarkRelative(streamQuark, StreamListStateProvider.BYTES_A_TO_B);
+                if (aToBQuark != ITmfStateSystem.INVALID_ATTRIBUTE) {
+                    nodes.add(new TmfTreeDataModel(getId(aToBQuark), streamId, Collections.singletonList(aToBName), true, null));
+                }
+                int bToAQuark = ss.optQuarkRelative(streamQuark, StreamListStateProvider.BYTES_B_TO_A);
+                if (bToAQuark != ITmfStateSystem.INVALID_ATTRIBUTE) {
+                    nodes.add(new TmfTreeDataModel(getId(bToAQuark), streamId, Collections.singletonList(bToAName), true, null));
+                }
+            }
+        }
+        return new TmfTreeModel<>(Collections.emptyList(), nodes);
+    }
+
+    @Override
+    protected @Nullable Collection<IYModel> getYSeriesModels(ITmfStateSystem ss, Map<String, Object> fetchParameters, @Nullable IProgressMonitor monitor) throws StateSystemDisposedException {
+        SelectionTimeQueryFilter filter = FetchParametersUtils.createSelectionTimeQuery(fetchParameters);
+        if (filter == null) {
+            return null;
+        }
+        long[] xValues = filter.getTimesRequested();
+        List<SeriesBuilder> builders = initBuilders(ss, filter);
+        if (builders.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        /*
+         * Query the counters at the start and at the requested times in a
+         * single matrix. The first column is the start, if it is in the state
+         * system, and the columns of the other times are mapped by position,
+         * -1 if the time is not queried.
+         */
+        long ssStart = ss.getStartTime();
+        long currentEnd = ss.getCurrentEndTime();
+        long[] times = new long[xValues.length];
+        int[] columns = new int[xValues.length];
+        int nbTimes = 0;
+        long prevTime = filter.getStart();
+        boolean hasStart = prevTime >= ssStart && prevTime <= currentEnd;
+        if (hasStart) {
+            times[nbTimes++] = prevTime;
+        }
+        for (int i = 1; i < xValues.length; i++) {
+            long time = xValues[i];
+            columns[i] = -1;
+            if (time >= ssStart && time <= currentEnd && (nbTimes == 0 || time >= times[nbTimes - 1])) {
+                columns[i] = nbTimes;
+                times[nbTimes++] = time;
+            }
+        }
+        int[] quarks = new int[builders.size()];
+        for (int row = 0; row < quarks.length; row++) {
+            quarks[row] = builders.get(row).fQuark;
+        }
+        TmfStateIntervalMatrix matrix = ss.queryMatrix(quarks, Arrays.copyOf(times, nbTimes));
+        if (monitor != null && monitor.isCanceled()) {
+            return null;
+        }
+
+        if (hasStart) {
+            for (int row = 0; row < quarks.length; row++) {
+                builders.get(row).fPrevCount = getCount(matrix, row, 0);
+            }
+        }
+        for (int i = 1; i < xValues.length; i++) {
+            long time = xValues[i];
+            if (time > currentEnd) {
+                break;
+            } else if (columns[i] >= 0 && time > prevTime) {
+                for (int row = 0; row < quarks.length; row++) {
+                    builders.get(row).updateValue(i, getCount(matrix, row, columns[i]), time - prevTime);
+                }
+            }
+            prevTime = time;
+        }
+        return ImmutableList.copyOf(builders.stream().map(SeriesBuilder::build).iterator());
+    }
+
+    private List<SeriesBuilder> initBuilders(ITmfStateSystem ss, SelectionTimeQueryFilter filter) {
+        int length = filter.getTimesRequested().length;
+        List<SeriesBuilder> builders = new ArrayList<>();
+        for (Entry<Long, Integer> entry : getSelectedEntries(filter).entrySet()) {
+            int quark = entry.getValue();
+            String counter = ss.getAttributeName(quark);
+            String direction;
+            if (counter.equals(StreamListStateProvider.BYTES_A_TO_B)) {
+                direction = Messages.StreamThroughputDataProvider_AtoB;
+            } else if (counter.equals(StreamListStateProvider.BYTES_B_TO_A)) {
+                direction = Messages.StreamThroughputDataProvider_BtoA;
+            } else {
+                continue;
+            }
+            int streamQuark = ss.getParentAttributeQuark(quark);
+            int protocolQuark = ss.getParentAttributeQuark(streamQuark);
+            String name = getTrace().getName() + '/' + ss.getAttributeName(protocolQuark) + '/' + ss.getAttributeName(streamQuark) + '/' + direction;
+            builders.add(new SeriesBuilder(entry.getKey(), quark, name, length));
+        }
+        return builders;
+    }
+
+    private static long getCount(TmfStateIntervalMatrix matrix, int row, int column) {
+        Object value = matrix.getValue(row, column);
+        return (value instanceof Long) ? (Long) value : 0;
+    }
+
+    @Override
+    protected boolean isCacheable() {
+        return true;
+    }
+
+    @Override
+    protected String getTitle() {
+        return PROVIDER_TITLE;
+    }
+}
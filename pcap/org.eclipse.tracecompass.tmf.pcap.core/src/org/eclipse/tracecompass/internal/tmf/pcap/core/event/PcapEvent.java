@@ -15,17 +15,23 @@
 package org.eclipse.tracecompass.internal.tmf.pcap.core.event;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.pcap.core.packet.Packet;
 import org.eclipse.tracecompass.internal.pcap.core.protocol.PcapProtocol;
+import org.eclipse.tracecompass.internal.pcap.core.protocol.pcap.PcapPacket;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.protocol.TmfPcapProtocol;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.util.ProtocolConversion;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventType;
 import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
 import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
 import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
@@ -49,6 +55,9 @@ public class PcapEvent extends TmfEvent {
 
     private static final String EMPTY_STRING = ""; //$NON-NLS-1$
 
+    /* The event types, one per most encapsulated protocol */
+    private static final Map<PcapProtocol, ITmfEventType> EVENT_TYPES = new ConcurrentHashMap<>();
+
     private final Packet fPacket;
     private final String fSource;
     private final String fReference;
@@ -58,6 +67,12 @@ public class PcapEvent extends TmfEvent {
      */
     private transient @Nullable Collection<TmfPcapProtocol> fProtocols;
 
+    /** Lazy-loaded field containing the fields of all the layers */
+    private transient @Nullable ITmfEventField fContent;
+
+    /** Lazy-loaded field for the type, overriding TmfEvent's field */
+    private transient @Nullable ITmfEventType fEventType;
+
     /**
      * Full constructor.
      *
@@ -91,6 +106,79 @@ public class PcapEvent extends TmfEvent {
         fPacket = packet;
         fSource = source;
         fReference = reference;
+        fContent = content;
+        fEventType = type;
+    }
+
+    /**
+     * Constructor of an event whose content and type are only built from the
+     * packet when they are first requested, as decoding all the layers of the
+     * packet and their fields is much more expensive than reading it.
+     *
+     * @param trace
+     *            the parent trace
+     * @param rank
+     *            the event rank (in the trace)
+     * @param timestamp
+     *            the event timestamp
+     * @param source
+     *            the event source
+     * @param reference
+     *            the event reference
+     * @param packet
+     *            The packet contained in this event
+     */
+    public PcapEvent(ITmfTrace trace,
+            long rank,
+            ITmfTimestamp timestamp,
+            String source,
+            String reference,
+            PcapPacket packet) {
+
+        /* The type and the content are re-implemented in getType() and getContent() */
+        super(trace, rank, timestamp, null, null);
+        fPacket = packet;
+        fSource = source;
+        fReference = reference;
+    }
+
+    @Override
+    public synchronized ITmfEventType getType() {
+        ITmfEventType type = fEventType;
+        if (type == null) {
+            PcapProtocol protocol = fPacket.getMostEcapsulatedPacket().getProtocol();
+            type = EVENT_TYPES.computeIfAbsent(protocol, p -> new PcapEventType(PcapEventType.DEFAULT_PCAP_TYPE_ID + ':' + p.getShortName(), null));
+            fEventType = type;
+        }
+        return type;
+    }
+
+    @Override
+    public synchronized ITmfEventField getContent() {
+        ITmfEventField content = fContent;
+        if (content == null) {
+            content = new PcapRootEventField(generatePacketFields(fPacket), fPacket);
+            fContent = content;
+        }
+        return content;
+    }
+
+    private static ITmfEventField[] generatePacketFields(Packet packet) {
+        List<ITmfEventField> fieldList = new ArrayList<>();
+        Packet localPacket = packet.getPacket(PcapProtocol.PCAP);
+
+        while (localPacket != null) {
+            Map<String, String> fields = localPacket.getFields();
+            ITmfEventField[] subfieldArray = new ITmfEventField[fields.size()];
+            int i = 0;
+            for (Map.Entry<String, String> entry : fields.entrySet()) {
+                subfieldArray[i++] = new TmfEventField(entry.getKey(), entry.getValue(), null);
+            }
+            fieldList.add(new PcapEventField(localPacket.getProtocol().getName(), EMPTY_STRING, subfieldArray, localPacket));
+            localPacket = localPacket.getChildPacket();
+        }
+
+        return fieldList.toArray(new ITmfEventField[fieldList.size()]);
     }
 
     /**
@@ -182,6 +270,20 @@ public class PcapEvent extends TmfEvent {
         return packet.getDestinationEndpoint().toString();
     }
 
+    /**
+     * Method that returns the length of the packet on the wire, which can be
+     * more than the length that was captured.
+     *
+     * @return The original length of the packet, in bytes.
+     */
+    public long getOriginalLength() {
+        Packet packet = fPacket.getPacket(PcapProtocol.PCAP);
+        if (!(packet instanceof PcapPacket)) {
+            return 0;
+        }
+        return ((PcapPacket) packet).getOriginalLength();
+    }
+
     /**
      * Method that returns the most encapsulated protocol in this PcapEvent. If
      * it is an unknown protocol, it returns the last known protocol.
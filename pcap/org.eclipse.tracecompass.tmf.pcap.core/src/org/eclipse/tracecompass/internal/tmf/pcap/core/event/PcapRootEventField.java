@@ -44,13 +44,14 @@ public class PcapRootEventField extends TmfEventField {
      */
     public PcapRootEventField(ITmfEventField[] fields, Packet packet) {
         super(ITmfEventField.ROOT_FIELD_ID, null, fields);
+        Packet mostEncapsulatedPacket = packet.getMostEcapsulatedPacket();
         fPacketSourceField = new TmfEventField(PcapEvent.EVENT_FIELD_PACKET_SOURCE,
-                packet.getMostEcapsulatedPacket().getSourceEndpoint().toString(), null);
+                mostEncapsulatedPacket.getSourceEndpoint().toString(), null);
         fPacketDestinationField = new TmfEventField(PcapEvent.EVENT_FIELD_PACKET_DESTINATION,
-                packet.getMostEcapsulatedPacket().getDestinationEndpoint().toString(), null);
+                mostEncapsulatedPacket.getDestinationEndpoint().toString(), null);
         fProtocolField = new TmfEventField(PcapEvent.EVENT_FIELD_PACKET_PROTOCOL,
-                packet.getMostEcapsulatedPacket().getProtocol().getShortName().toUpperCase(), null);
-        fSummaryString = packet.getGlobalSummaryString();
+                mostEncapsulatedPacket.getProtocol().getShortName().toUpperCase(), null);
+        fSummaryString = mostEncapsulatedPacket.getGlobalSummaryString();
     }
 
     /**
@@ -21,13 +21,26 @@ import org.eclipse.tracecompass.tmf.core.timestamp.ITmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 
 /**
- * Class that wraps a Packet Stream.
+ * Class that holds the statistics of a Packet Stream, either taken from a
+ * stream being built or read from the state system of the stream list
+ * analysis.
  *
  * @author Vincent Perot
  */
 public class TmfPacketStream {
 
-    private final PacketStream fPacketStream;
+    private static final double SECOND_TO_NANOSECOND = 1000000000.0;
+
+    private final int fId;
+    private final TmfPcapProtocol fProtocol;
+    private final String fFirstEndpoint;
+    private final String fSecondEndpoint;
+    private final long fNbPacketsAtoB;
+    private final long fNbPacketsBtoA;
+    private final long fNbBytesAtoB;
+    private final long fNbBytesBtoA;
+    private final long fStartTime;
+    private final long fStopTime;
 
     /**
      * Class constructor.
@@ -36,7 +49,56 @@ public class TmfPacketStream {
      *            The stream to build the TmfPacketStream from.
      */
     public TmfPacketStream(PacketStream stream) {
-        fPacketStream = stream;
+        synchronized (stream) {
+            fId = stream.getID();
+            fProtocol = ProtocolConversion.wrap(stream.getProtocol());
+            fFirstEndpoint = stream.getEndpointPair().getFirstEndpoint().toString();
+            fSecondEndpoint = stream.getEndpointPair().getSecondEndpoint().toString();
+            fNbPacketsAtoB = stream.getNbPacketsAtoB();
+            fNbPacketsBtoA = stream.getNbPacketsBtoA();
+            fNbBytesAtoB = stream.getNbBytesAtoB();
+            fNbBytesBtoA = stream.getNbBytesBtoA();
+            fStartTime = stream.getStartTime();
+            fStopTime = stream.getStopTime();
+        }
+    }
+
+    /**
+     * Class constructor, from the statistics of a stream.
+     *
+     * @param id
+     *            The ID of the packet stream.
+     * @param protocol
+     *            The protocol of the packet stream.
+     * @param firstEndpoint
+     *            The first endpoint of the packet stream.
+     * @param secondEndpoint
+     *            The second endpoint of the packet stream.
+     * @param nbPacketsAtoB
+     *            The number of packets from A to B.
+     * @param nbPacketsBtoA
+     *            The number of packets from B to A.
+     * @param nbBytesAtoB
+     *            The number of bytes from A to B.
+     * @param nbBytesBtoA
+     *            The number of bytes from B to A.
+     * @param startTime
+     *            The time of the first packet, in nanoseconds.
+     * @param stopTime
+     *            The time of the last packet, in nanoseconds.
+     */
+    public TmfPacketStream(int id, TmfPcapProtocol protocol, String firstEndpoint, String secondEndpoint,
+            long nbPacketsAtoB, long nbPacketsBtoA, long nbBytesAtoB, long nbBytesBtoA, long startTime, long stopTime) {
+        fId = id;
+        fProtocol = protocol;
+        fFirstEndpoint = firstEndpoint;
+        fSecondEndpoint = secondEndpoint;
+        fNbPacketsAtoB = nbPacketsAtoB;
+        fNbPacketsBtoA = nbPacketsBtoA;
+        fNbBytesAtoB = nbBytesAtoB;
+        fNbBytesBtoA = nbBytesBtoA;
+        fStartTime = startTime;
+        fStopTime = stopTime;
     }
 
     /**
@@ -45,7 +107,7 @@ public class TmfPacketStream {
      * @return The first endpoint.
      */
     public String getFirstEndpoint() {
-        return fPacketStream.getEndpointPair().getFirstEndpoint().toString();
+        return fFirstEndpoint;
     }
 
     /**
@@ -54,7 +116,7 @@ public class TmfPacketStream {
      * @return The second endpoint.
      */
     public String getSecondEndpoint() {
-        return fPacketStream.getEndpointPair().getSecondEndpoint().toString();
+        return fSecondEndpoint;
     }
 
     /**
@@ -63,7 +125,7 @@ public class TmfPacketStream {
      * @return The ID of the packet stream.
      */
     public int getID() {
-        return fPacketStream.getID();
+        return fId;
     }
 
     /**
@@ -72,7 +134,7 @@ public class TmfPacketStream {
      * @return The TmfProtocol of the packet stream.
      */
     public TmfPcapProtocol getProtocol() {
-        return ProtocolConversion.wrap(fPacketStream.getProtocol());
+        return fProtocol;
     }
 
     /**
@@ -80,8 +142,8 @@ public class TmfPacketStream {
      *
      * @return The number of packets from A to B.
      */
-    public synchronized long getNbPacketsAtoB() {
-        return fPacketStream.getNbPacketsAtoB();
+    public long getNbPacketsAtoB() {
+        return fNbPacketsAtoB;
     }
 
     /**
@@ -89,8 +151,8 @@ public class TmfPacketStream {
      *
      * @return The number of packets from B to A.
      */
-    public synchronized long getNbPacketsBtoA() {
-        return fPacketStream.getNbPacketsBtoA();
+    public long getNbPacketsBtoA() {
+        return fNbPacketsBtoA;
     }
 
     /**
@@ -98,8 +160,8 @@ public class TmfPacketStream {
      *
      * @return The total number of packets.
      */
-    public synchronized long getNbPackets() {
-        return fPacketStream.getNbPackets();
+    public long getNbPackets() {
+        return fNbPacketsAtoB + fNbPacketsBtoA;
     }
 
     /**
@@ -107,8 +169,8 @@ public class TmfPacketStream {
      *
      * @return The number of bytes from A to B.
      */
-    public synchronized long getNbBytesAtoB() {
-        return fPacketStream.getNbBytesAtoB();
+    public long getNbBytesAtoB() {
+        return fNbBytesAtoB;
     }
 
     /**
@@ -116,8 +178,8 @@ public class TmfPacketStream {
      *
      * @return The number of bytes from B to A.
      */
-    public synchronized long getNbBytesBtoA() {
-        return fPacketStream.getNbBytesBtoA();
+    public long getNbBytesBtoA() {
+        return fNbBytesBtoA;
     }
 
     /**
@@ -125,8 +187,8 @@ public class TmfPacketStream {
      *
      * @return The total number of bytes.
      */
-    public synchronized long getNbBytes() {
-        return fPacketStream.getNbBytes();
+    public long getNbBytes() {
+        return fNbBytesAtoB + fNbBytesBtoA;
     }
 
     /**
@@ -134,8 +196,8 @@ public class TmfPacketStream {
      *
      * @return The start time.
      */
-    public synchronized ITmfTimestamp getStartTime() {
-        return TmfTimestamp.fromNanos(fPacketStream.getStartTime());
+    public ITmfTimestamp getStartTime() {
+        return TmfTimestamp.fromNanos(fStartTime);
     }
 
     /**
@@ -143,8 +205,8 @@ public class TmfPacketStream {
      *
      * @return The stop time.
      */
-    public synchronized ITmfTimestamp getStopTime() {
-        return TmfTimestamp.fromNanos(fPacketStream.getStopTime());
+    public ITmfTimestamp getStopTime() {
+        return TmfTimestamp.fromNanos(fStopTime);
     }
 
     /**
@@ -152,8 +214,8 @@ public class TmfPacketStream {
      *
      * @return The duration of this stream.
      */
-    public synchronized double getDuration() {
-        return fPacketStream.getDuration();
+    public double getDuration() {
+        return (fStopTime - fStartTime) / SECOND_TO_NANOSECOND;
     }
 
     /**
@@ -161,8 +223,11 @@ public class TmfPacketStream {
      *
      * @return the average byte per second from A to B.
      */
-    public synchronized double getBPSAtoB() {
-        return fPacketStream.getBPSAtoB();
+    public double getBPSAtoB() {
+        if (fStopTime == fStartTime) {
+            return 0;
+        }
+        return fNbBytesAtoB / getDuration();
     }
 
     /**
@@ -170,8 +235,11 @@ public class TmfPacketStream {
      *
      * @return the average byte per second from B to A.
      */
-    public synchronized double getBPSBtoA() {
-        return fPacketStream.getBPSBtoA();
+    public double getBPSBtoA() {
+        if (fStopTime == fStartTime) {
+            return 0;
+        }
+        return fNbBytesBtoA / getDuration();
     }
 
 }
@@ -57,6 +57,7 @@ import org.eclipse.tracecompass.tmf.core.project.model.ITmfPropertiesProvider;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.core.trace.TraceValidationStatus;
 import org.eclipse.tracecompass.tmf.core.trace.location.ITmfLocation;
 import org.eclipse.tracecompass.tmf.core.trace.location.TmfLongLocation;
@@ -84,6 +85,7 @@ public class PcapTrace extends TmfTrace implements ITmfPropertiesProvider {
             TmfBaseAspects.getContentsAspect());
 
     private static final String EMPTY_STRING = ""; //$NON-NLS-1$
+    private static final String INDEX_FILE_NAME = "pcap-index.idx"; //$NON-NLS-1$
     private static final int CONFIDENCE = 50;
     private @Nullable PcapFile fPcapFile = null;
     private @Nullable Map<String, String> fTraceProperties = null;
@@ -126,7 +128,9 @@ public class PcapTrace extends TmfTrace implements ITmfPropertiesProvider {
         }
         Path filePath = checkNotNull(Paths.get(path));
         try {
-            fPcapFile = PcapHelper.getPcapFile(filePath);
+            PcapFile pcap = PcapHelper.getPcapFile(filePath);
+            fPcapFile = pcap;
+            pcap.setIndexFile(checkNotNull(Paths.get(TmfTraceManager.getSupplementaryFileDir(this), INDEX_FILE_NAME)));
         } catch (IOException | BadPcapFileException e) {
             throw new TmfTraceException(e.getMessage(), e);
         }
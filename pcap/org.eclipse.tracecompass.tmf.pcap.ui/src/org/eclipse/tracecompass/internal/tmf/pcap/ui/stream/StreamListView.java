@@ -37,7 +37,6 @@ import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.analysis.StreamListAnalysis;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.event.TmfPacketStream;
-import org.eclipse.tracecompass.internal.tmf.pcap.core.event.TmfPacketStreamBuilder;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.event.aspect.PcapDestinationAspect;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.event.aspect.PcapSourceAspect;
 import org.eclipse.tracecompass.internal.tmf.pcap.core.protocol.TmfPcapProtocol;
@@ -274,10 +273,9 @@ public class StreamListView extends TmfView {
             }
             for (Entry<TmfPcapProtocol, Table> protocolEntry : tables.entrySet()) {
                 TmfPcapProtocol protocol = protocolEntry.getKey();
-                TmfPacketStreamBuilder builder = analysis.getBuilder(protocol);
                 Table table = protocolEntry.getValue();
-                if (builder != null && !(table.isDisposed())) {
-                    for (TmfPacketStream stream : builder.getStreams()) {
+                if (!(table.isDisposed())) {
+                    for (TmfPacketStream stream : analysis.getStreams(protocol)) {
 
                         TableItem item;
                         if (stream.getID() < table.getItemCount()) {
@@ -36,6 +36,7 @@ import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundExc
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateIntervalMatrix;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -214,6 +215,59 @@ public class StateSystem2DTest {
         testDiscrete(iterable, quarks, times, 8);
     }
 
+    /**
+     * Test the matrix query, which must give the same states as single
+     * queries
+     *
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     */
+    @Test
+    public void testMatrixQuery() throws StateSystemDisposedException {
+        ITmfStateSystem ss = fStateSystem;
+        assertNotNull(ss);
+        int stringQuark = fStateSystem.optQuarkAbsolute(STRING_ATTRIBUTE);
+        int integerQuark = fStateSystem.optQuarkAbsolute(INTEGER_ATTRIBUTE);
+        int[] quarks = { integerQuark, stringQuark };
+        long[] times = { START_TIME, 65L, 75L, 76L, 100L, 150L, 150L, 200L };
+
+        TmfStateIntervalMatrix matrix = ss.queryMatrix(quarks, times);
+        assertEquals(0, matrix.getRow(integerQuark));
+        assertEquals(1, matrix.getRow(stringQuark));
+        assertEquals(-1, matrix.getRow(42));
+        for (int row = 0; row < quarks.length; row++) {
+            for (int column = 0; column < times.length; column++) {
+                ITmfStateInterval expected = ss.querySingleState(times[column], quarks[row]);
+                assertTrue(matrix.hasState(row, column));
+                ITmfStateInterval interval = matrix.getInterval(row, column);
+                assertEquals(expected.getAttribute(), interval.getAttribute());
+                assertEquals(expected.getStartTime(), interval.getStartTime());
+                assertEquals(expected.getEndTime(), interval.getEndTime());
+                assertEquals(expected.getValue(), interval.getValue());
+                assertEquals(expected.getValue(), matrix.getValue(row, column));
+                assertEquals(expected.getStartTime(), matrix.getStartTime(row, column));
+                assertEquals(expected.getEndTime(), matrix.getEndTime(row, column));
+            }
+        }
+
+        /*
+         * The integer states, once per interval: null at 50 and 65, 0 at 75
+         * and 76, 2 at 100, 3 at 150 twice and 4 at 200
+         */
+        int row = matrix.getRow(integerQuark);
+        Object[] values = { null, 0, 2, 3, 4 };
+        int[] firstColumns = { 0, 2, 4, 5, 7 };
+        int[] lastColumns = { 1, 3, 4, 6, 7 };
+        assertEquals(values.length, matrix.getStateCount(row));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], matrix.getStateValue(row, i));
+            assertEquals(firstColumns[i], matrix.getStateFirstColumn(row, i));
+            assertEquals(lastColumns[i], matrix.getStateLastColumn(row, i));
+        }
+        assertEquals(110L, matrix.getStateStartTime(row, 3));
+        assertEquals(159L, matrix.getStateEndTime(row, 3));
+    }
+
     /**
      * Test index out of bound queries
      *
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.StateSystemTimeSlices;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test building a state system in time slices, compared to building it
+ * sequentially
+ */
+public class StateSystemTimeSlicesTest {
+
+    private static final String SSID = "slices";
+    private static final long START_TIME = 1000L;
+    private static final long[] SLICE_STARTS = { START_TIME, 20000L, 20001L, 45000L, 70000L, 80000L };
+
+    private static final class Change {
+        private final long fTime;
+        private final String[] fPath;
+        private final Object fValue;
+
+        public Change(long time, Object value, String... path) {
+            fTime = time;
+            fPath = path;
+            fValue = value;
+        }
+    }
+
+    private File fDirectory;
+    private final List<Change> fChanges = new ArrayList<>();
+
+    /**
+     * Create the state changes, they only depend on the time they happen at
+     *
+     * @throws IOException
+     *             If the temporary directory could not be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDirectory = Files.createTempDirectory("slices").toFile();
+        Random random = new Random(42);
+        long time = START_TIME;
+        /* Modified only in the first slice, carried over the others */
+        fChanges.add(new Change(time, 1L, "Total"));
+        while (time < 100000L) {
+            /* No changes between 70000 and 80000, an empty slice */
+            if (time < 70000L || time >= 80000L) {
+                int cpu = random.nextInt(4);
+                int tid = random.nextInt((int) (time / 5000) + 1);
+                String status = random.nextBoolean() ? "Running" : "Waiting";
+                fChanges.add(new Change(time, tid, "CPUs", String.valueOf(cpu), "Current Thread"));
+                fChanges.add(new Change(time, status, "Threads", String.valueOf(tid), "Status"));
+                if (random.nextInt(10) == 0) {
+                    fChanges.add(new Change(time, null, "CPUs", String.valueOf(cpu), "Current Thread"));
+                }
+            }
+            time += 1 + random.nextInt(20);
+        }
+        /* A change exactly at the start of a slice */
+        fChanges.add(new Change(45000L, 2.5, "Slice Start"));
+        fChanges.sort((c1, c2) -> Long.compare(c1.fTime, c2.fTime));
+    }
+
+    /**
+     * Clean-up
+     *
+     * @throws IOException
+     *             If the temporary directory could not be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(fDirectory);
+    }
+
+    private ITmfStateSystemBuilder newStateSystem(String name) throws IOException {
+        IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendNewFile(SSID,
+                new File(fDirectory, name), 0, START_TIME, 0);
+        return StateSystemFactory.newStateSystem(backend);
+    }
+
+    /**
+     * Test that the stitched state system has the same attributes and states
+     * as the one built sequentially
+     *
+     * @throws IOException
+     *             If the history files could not be written
+     * @throws StateSystemDisposedException
+     *             Fails the test
+     */
+    @Test
+    public void testStitch() throws IOException, StateSystemDisposedException {
+        ITmfStateSystemBuilder expected = newStateSystem("expected.ht");
+        for (Change change : fChanges) {
+            expected.modifyAttribute(change.fTime, change.fValue, expected.getQuarkAbsoluteAndAdd(change.fPath));
+        }
+        long endTime = fChanges.get(fChanges.size() - 1).fTime;
+        expected.closeHistory(endTime);
+
+        ITmfStateSystem actual;
+        try (StateSystemTimeSlices slices = new StateSystemTimeSlices(SSID, SLICE_STARTS, fDirectory)) {
+            assertEquals(SLICE_STARTS.length, slices.getSliceCount());
+            long[] lastTimes = new long[SLICE_STARTS.length];
+            for (int i = 0; i < lastTimes.length; i++) {
+                lastTimes[i] = Long.MIN_VALUE;
+            }
+            for (Change change : fChanges) {
+                int index = getSlice(slices, change.fTime);
+                ITmfStateSystemBuilder slice = slices.getSlice(index);
+                slice.modifyAttribute(change.fTime, change.fValue, slice.getQuarkAbsoluteAndAdd(change.fPath));
+                lastTimes[index] = change.fTime;
+            }
+            /* Close the slices like the state providers do, at their last event */
+            for (int i = 0; i < lastTimes.length; i++) {
+                slices.getSlice(i).closeHistory(lastTimes[i]);
+            }
+            IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendNewFile(SSID,
+                    new File(fDirectory, "actual.ht"), 0, START_TIME, 0);
+            actual = slices.stitch(backend);
+        }
+
+        assertEquals(expected.getNbAttributes(), actual.getNbAttributes());
+        assertEquals(expected.getStartTime(), actual.getStartTime());
+        assertEquals(expected.getCurrentEndTime(), actual.getCurrentEndTime());
+        for (int quark = 0; quark < expected.getNbAttributes(); quark++) {
+            assertArrayEquals(expected.getFullAttributePathArray(quark), actual.getFullAttributePathArray(quark));
+        }
+        for (long time = START_TIME; time <= endTime; time += 7) {
+            List<Object> expectedStates = new ArrayList<>();
+            expected.queryFullState(time).forEach(interval -> expectedStates.add(interval.getValue()));
+            List<Object> actualStates = new ArrayList<>();
+            actual.queryFullState(time).forEach(interval -> actualStates.add(interval.getValue()));
+            assertEquals("Time " + time, expectedStates, actualStates);
+        }
+        for (int i = 1; i < SLICE_STARTS.length; i++) {
+            long sliceStart = SLICE_STARTS[i];
+            for (int quark = 0; quark < expected.getNbAttributes(); quark++) {
+                assertEquals(expected.querySingleState(sliceStart - 1, quark).getValue(), actual.querySingleState(sliceStart - 1, quark).getValue());
+                assertEquals(expected.querySingleState(sliceStart, quark).getValue(), actual.querySingleState(sliceStart, quark).getValue());
+            }
+        }
+        expected.dispose();
+        actual.dispose();
+    }
+
+    /**
+     * Test that a slice cannot have states after the start of the next one
+     *
+     * @throws IOException
+     *             If the history files could not be written
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testStatesAfterSlice() throws IOException {
+        try (StateSystemTimeSlices slices = new StateSystemTimeSlices(SSID, new long[] { START_TIME, 2000L }, fDirectory)) {
+            ITmfStateSystemBuilder slice = slices.getSlice(0);
+            slice.modifyAttribute(1500L, 1, slice.getQuarkAbsoluteAndAdd("a"));
+            slice.modifyAttribute(2500L, 2, slice.getQuarkAbsoluteAndAdd("a"));
+            slice.closeHistory(2500L);
+            slices.getSlice(1).closeHistory(Long.MIN_VALUE);
+            slices.stitch(StateHistoryBackendFactory.createInMemoryBackend(SSID, START_TIME));
+        }
+    }
+
+    private static int getSlice(StateSystemTimeSlices slices, long time) {
+        int index = slices.getSliceCount() - 1;
+        while (slices.getSliceStart(index) > time) {
+            index--;
+        }
+        return index;
+    }
+}
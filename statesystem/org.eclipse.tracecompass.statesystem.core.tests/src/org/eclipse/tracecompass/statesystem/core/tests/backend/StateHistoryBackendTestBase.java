@@ -26,6 +26,7 @@ import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedE
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateIntervalMatrix;
 import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
 import org.eclipse.tracecompass.statesystem.core.tests.stubs.statevalues.CustomStateValueStub;
 import org.junit.Test;
@@ -225,6 +226,52 @@ public abstract class StateHistoryBackendTestBase {
         buildAndQueryFullRange(startTime, endTime, nbAttr, intervals, false);
     }
 
+    /**
+     * Test the matrix query with the cascading intervals of
+     * {@link #testCascadingIntervals()}, making sure that each cell has the
+     * state of a single query.
+     *
+     * @throws StateSystemDisposedException
+     *             if the state system was disposed
+     */
+    @Test
+    public void testMatrixQuery() throws StateSystemDisposedException {
+        final int nbAttr = 10;
+        final long duration = 10;
+        final long startTime = 0;
+        final long endTime = 1000;
+
+        List<ITmfStateInterval> intervals = new ArrayList<>();
+        for (long t = startTime + 1; t <= endTime + duration; t++) {
+            intervals.add(new TmfStateInterval(
+                    Math.max(startTime, t - duration),
+                    Math.min(endTime, t - 1),
+                    (int) t % nbAttr,
+                    t));
+        }
+        IStateHistoryBackend backend = prepareBackend(startTime, endTime, intervals);
+        assertNotNull(backend);
+
+        int[] quarks = { 7, 2, 5 };
+        long[] times = { 0, 3, 4, 4, 250, 251, 500, 733, 999, 1000 };
+        TmfStateIntervalMatrix matrix = new TmfStateIntervalMatrix(quarks, times);
+        backend.doQueryMatrix(matrix);
+        for (int row = 0; row < quarks.length; row++) {
+            for (int column = 0; column < times.length; column++) {
+                ITmfStateInterval expected = backend.doSingularQuery(times[column], quarks[row]);
+                assertNotNull(expected);
+                assertEquals(expected.getValue(), matrix.getValue(row, column));
+                assertEquals(expected.getStartTime(), matrix.getStartTime(row, column));
+                assertEquals(expected.getEndTime(), matrix.getEndTime(row, column));
+            }
+            /* The states are in order of time, and once per interval */
+            for (int i = 1; i < matrix.getStateCount(row); i++) {
+                assertTrue(matrix.getStateLastColumn(row, i - 1) < matrix.getStateFirstColumn(row, i));
+                assertTrue(matrix.getStateEndTime(row, i - 1) < matrix.getStateStartTime(row, i));
+            }
+        }
+    }
+
     /**
      * Test the full query method by filling a small backend with intervals that
      * take the full time range, like this:
@@ -11,13 +11,27 @@
 
 package org.eclipse.tracecompass.statesystem.core.tests.backend;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.ThreadedHistoryTreeBackend;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.junit.Test;
 
+import com.google.common.collect.Iterables;
+
 /**
  * Test the {@link ThreadedHistoryTreeBackend} class.
  *
@@ -53,4 +67,57 @@ public class ThreadedHistoryTreeBackendTest extends HistoryTreeBackendTest {
         // Exception is thrown in a thread, so we can't catch it
     }
 
+    /**
+     * Test queries while the history is built, which find the intervals in the
+     * tree or in the intervals waiting to be inserted in the tree
+     *
+     * @throws Exception
+     *             If the backend or a query failed
+     */
+    @Test
+    public void testQueriesWhileBuilding() throws Exception {
+        final int nbQuarks = 10;
+        final long endTime = 20000;
+        File historyTreeFile = File.createTempFile("ThreadedHistoryTreeBackendTest", ".ht");
+        fHistoryTreeFiles.add(historyTreeFile);
+        ThreadedHistoryTreeBackend backend = new ThreadedHistoryTreeBackend(SSID, historyTreeFile, PROVIDER_VERSION, 0, 10000, fBlockSize, fMaxChildren);
+        fBackendMap.put(backend, historyTreeFile);
+
+        /* The intervals of quark q last q + 1 and their value is their start */
+        AtomicLong inserted = new AtomicLong(-1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            Random random = new Random(42);
+            try {
+                while (inserted.get() < endTime) {
+                    /* The intervals of all the quarks are inserted up to there */
+                    long t = inserted.get() - nbQuarks;
+                    if (t < 0) {
+                        continue;
+                    }
+                    t = (long) (random.nextDouble() * t);
+                    int quark = random.nextInt(nbQuarks);
+                    ITmfStateInterval interval = backend.doSingularQuery(t, quark);
+                    assertNotNull(interval);
+                    assertEquals((int) (t - t % (quark + 1)), interval.getValue());
+                    Iterable<ITmfStateInterval> intervals = backend.query2D(IntegerRangeCondition.forDiscreteRange(Collections.singleton(quark)), TimeRangeCondition.singleton(t));
+                    assertEquals(interval.getStartTime(), Iterables.getOnlyElement(intervals).getStartTime());
+                }
+            } catch (StateSystemDisposedException | RuntimeException | AssertionError e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        for (long t = 0; t <= endTime; t++) {
+            for (int quark = 0; quark < nbQuarks; quark++) {
+                if ((t + 1) % (quark + 1) == 0) {
+                    backend.insertPastState(t - quark, t, quark, (int) (t - quark));
+                }
+            }
+            inserted.set(t);
+        }
+        reader.join();
+        backend.finishedBuilding(endTime);
+        assertNull(failure.get());
+    }
 }
@@ -13,24 +13,40 @@ package org.eclipse.tracecompass.statesystem.core.tests.backend.historytree;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTConfig;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTInterval;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTNode;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTNodeCache;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHistoryTree;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.LeafNode;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.classic.CoreNode;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
 import org.eclipse.tracecompass.statesystem.core.tests.stubs.backend.HistoryTreeClassicStub;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Lists;
+
 /**
  * Tests the history tree
  *
@@ -353,4 +369,135 @@ public class HistoryTreeTest {
         assertEquals( 5, branch.get(2).getSequenceNumber());
         assertEquals( 4, branch.get(2).getParentSequenceNumber());
     }
+
+    /**
+     * Test that the nodes are served by the node cache and that the cache
+     * budget follows the open trees
+     *
+     * @throws ClosedChannelException
+     *             If the test fails
+     */
+    @Test
+    public void testNodeCache() throws ClosedChannelException {
+        HTNodeCache cache = HTNodeCache.getInstance();
+        long budget = cache.getHeapBudget();
+
+        HistoryTreeClassicStub ht = setupSmallTree(2);
+        long start = fillNextLeafNode(ht, 1);
+        start = addValues(ht, STRING_VALUE, 1, start);
+        fillNextLeafNode(ht, start);
+        assertTrue(cache.getHeapBudget() >= budget);
+
+        /* The written node is in the cache */
+        CacheStats stats = cache.getHeapStats();
+        HTNode node = ht.readNode(0);
+        assertEquals(0, node.getSequenceNumber());
+        assertSame(node, ht.readNode(0));
+        CacheStats delta = cache.getHeapStats().minus(stats);
+        assertEquals(2, delta.hitCount());
+        assertEquals(0, delta.missCount());
+
+        /* Closing the tree releases its nodes */
+        long size = cache.getHeapSize();
+        ht.closeFile();
+        assertTrue(cache.getHeapSize() < size);
+        assertEquals(budget, cache.getHeapBudget());
+    }
+
+    /**
+     * Test reading the nodes of a completed tree file, which are read from a
+     * memory mapping of the file
+     *
+     * @throws IOException
+     *             If the test fails
+     */
+    @Test
+    public void testReadCompletedTree() throws IOException {
+        HistoryTreeClassicStub ht = setupSmallTree(2);
+        long start = 1;
+        for (int i = 0; i < 4; i++) {
+            start = fillNextLeafNode(ht, start);
+            start = addValues(ht, STRING_VALUE, 1, start);
+        }
+        ht.closeTree(start);
+        int nodeCount = ht.getNodeCount();
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(ht.readNode(i).toString());
+        }
+        ht.closeFile();
+
+        File file = fTempFile;
+        assertNotNull(file);
+        HistoryTreeClassicStub reopened = new HistoryTreeClassicStub(file, 1);
+        assertEquals(nodeCount, reopened.getNodeCount());
+        for (int i = 0; i < nodeCount; i++) {
+            assertEquals(nodes.get(i), reopened.readNode(i).toString());
+        }
+        reopened.closeFile();
+    }
+
+    /**
+     * Test the intervals of a node, inserted out of order and with all types
+     * of values, are queried the same before and after the node is written and
+     * read back
+     *
+     * @throws IOException
+     *             If the test fails
+     */
+    @Test
+    public void testNodeIntervals() throws IOException {
+        File file = fTempFile;
+        assertNotNull(file);
+        HTConfig config = new HTConfig(file, BLOCK_SIZE, 3, 1, 1);
+        HTNode node = new LeafNode(config, 0, -1, 1);
+        List<HTInterval> intervals = new ArrayList<>();
+        intervals.add(new HTInterval(1, 30, 0, 42));
+        intervals.add(new HTInterval(5, 10, 1, TEST_STRING));
+        intervals.add(new HTInterval(1, 4, 1, null));
+        intervals.add(new HTInterval(11, 30, 1, 1.5));
+        intervals.add(new HTInterval(1, 20, 2, Long.MAX_VALUE));
+        intervals.add(new HTInterval(21, 30, 2, -1L));
+        intervals.add(new HTInterval(1, 10, 3, TmfStateValue.newValueInt(-7)));
+        intervals.add(new HTInterval(11, 30, 3, TmfStateValue.nullValue()));
+        intervals.forEach(node::addInterval);
+        assertNodeIntervals(intervals, node);
+
+        IHistoryTree.IHTNodeFactory factory = new IHistoryTree.IHTNodeFactory() {
+            @Override
+            public HTNode createCoreNode(HTConfig htConfig, int seqNumber, int parentSeqNumber, long start) {
+                return new CoreNode(htConfig, seqNumber, parentSeqNumber, start);
+            }
+
+            @Override
+            public HTNode createLeafNode(HTConfig htConfig, int seqNumber, int parentSeqNumber, long start) {
+                return new LeafNode(htConfig, seqNumber, parentSeqNumber, start);
+            }
+        };
+        ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        node.writeSelf(buffer);
+        buffer.flip();
+        HTNode readNode = HTNode.readNode(config, buffer, factory);
+        assertEquals(node.getNodeFreeSpace(), readNode.getNodeFreeSpace());
+        assertNodeIntervals(intervals, readNode);
+    }
+
+    private static void assertNodeIntervals(List<HTInterval> intervals, HTNode node) {
+        for (long t = 1; t <= 30; t++) {
+            List<ITmfStateInterval> stateInfo = new ArrayList<>(Collections.nCopies(4, null));
+            node.writeInfoFromNode(stateInfo, t);
+            for (int quark = 0; quark < 4; quark++) {
+                HTInterval expected = null;
+                for (HTInterval interval : intervals) {
+                    if (interval.getAttribute() == quark && interval.intersects(t)) {
+                        expected = interval;
+                    }
+                }
+                assertEquals(expected, node.getRelevantInterval(quark, t));
+                assertEquals(expected, stateInfo.get(quark));
+            }
+        }
+        Iterable<HTInterval> all = node.iterable2D(IntegerRangeCondition.forDiscreteRange(Collections.singleton(1)), TimeRangeCondition.forContinuousRange(1, 30));
+        assertEquals(Arrays.asList(intervals.get(2), intervals.get(1), intervals.get(3)), Lists.newArrayList(all));
+    }
 }
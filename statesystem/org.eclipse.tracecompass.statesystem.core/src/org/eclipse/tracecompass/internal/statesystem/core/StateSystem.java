@@ -43,6 +43,7 @@ import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedE
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateValueTypeException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateIntervalMatrix;
 import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
 import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue.Type;
 import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
@@ -50,6 +51,8 @@ import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
 import com.google.common.collect.ImmutableCollection.Builder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
 
 /**
  * This is the core class of the Generic State System. It contains all the
@@ -668,6 +671,33 @@ public class StateSystem implements ITmfStateSystemBuilder {
         return Iterables.concat(transStateIterable, backendIterable);
     }
 
+    @Override
+    public TmfStateIntervalMatrix queryMatrix(int[] quarks, long[] times)
+            throws StateSystemDisposedException, TimeRangeException, IndexOutOfBoundsException {
+        if (isDisposed) {
+            throw new StateSystemDisposedException();
+        }
+        TmfStateIntervalMatrix matrix = new TmfStateIntervalMatrix(quarks, times);
+        if (quarks.length == 0 || times.length == 0) {
+            return matrix;
+        }
+        if (times[0] < getStartTime()) {
+            throw new TimeRangeException("Time conditions " + times[0] + " is lower than state system start time: " + getStartTime());  //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        for (int quark : quarks) {
+            if (quark < 0 || quark >= getNbAttributes()) {
+                throw new IndexOutOfBoundsException();
+            }
+        }
+
+        TimeRangeCondition timeCondition = TimeRangeCondition.forDiscreteRange(Longs.asList(times));
+        for (ITmfStateInterval interval : transState.query2D(Ints.asList(quarks), timeCondition)) {
+            matrix.add(interval);
+        }
+        backend.doQueryMatrix(matrix);
+        return matrix;
+    }
+
     @Override
     public void removeFiles() {
         backend.removeFiles();
@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.IntegerRangeCondition;
+import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.HTInterval;
+import org.eclipse.tracecompass.statesystem.core.StateSystemTimeSlices;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+
+/**
+ * State history back-end of one time slice of a {@link StateSystemTimeSlices}.
+ *
+ * The intervals are appended to a file, in the order they are inserted, so
+ * they can be read back in that order once the slice is built. Like the
+ * {@link NullBackend}, it cannot run queries, only the ongoing state of its
+ * state system can be queried.
+ */
+public class TimeSliceBackend implements IStateHistoryBackend {
+
+    /** Size of the blocks of intervals written to the file */
+    private static final int BLOCK_SIZE = 1 << 20;
+
+    private final @NonNull String fSsid;
+    private final long fStartTime;
+    private final File fFile;
+    private final FileChannel fChannel;
+    private final ByteBuffer fBlock = ByteBuffer.allocate(BLOCK_SIZE);
+
+    private volatile long fEndTime;
+    private volatile boolean fFinished = false;
+
+    /**
+     * Constructor
+     *
+     * @param ssid
+     *            The state system's id
+     * @param startTime
+     *            The start time of the slice's state system
+     * @param file
+     *            The file in which to write the intervals, it is overwritten
+     * @throws IOException
+     *             If the file could not be opened
+     */
+    public TimeSliceBackend(@NonNull String ssid, long startTime, File file) throws IOException {
+        fSsid = ssid;
+        fStartTime = startTime;
+        fEndTime = startTime;
+        fFile = file;
+        fChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        /* Each block starts with the number of bytes of intervals it holds */
+        fBlock.position(Integer.BYTES);
+    }
+
+    @Override
+    public String getSSID() {
+        return fSsid;
+    }
+
+    @Override
+    public long getStartTime() {
+        return fStartTime;
+    }
+
+    @Override
+    public long getEndTime() {
+        return fEndTime;
+    }
+
+    /**
+     * Whether the state system of this slice was closed
+     *
+     * @return true if {@link #finishedBuilding(long)} was called
+     */
+    public boolean isFinished() {
+        return fFinished;
+    }
+
+    @Override
+    public void insertPastState(long stateStartTime, long stateEndTime,
+            int quark, Object value) {
+        HTInterval interval = new HTInterval(stateStartTime, stateEndTime, quark, value);
+        if (interval.getSizeOnDisk(fStartTime) > fBlock.remaining()) {
+            writeBlock();
+        }
+        interval.writeInterval(fBlock, fStartTime);
+        if (stateEndTime > fEndTime) {
+            fEndTime = stateEndTime;
+        }
+    }
+
+    @Override
+    public void finishedBuilding(long endTime) {
+        writeBlock();
+        fEndTime = Math.max(fEndTime, endTime);
+        fFinished = true;
+        try {
+            fChannel.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot close the time slice file " + fFile, e); //$NON-NLS-1$
+        }
+    }
+
+    private void writeBlock() {
+        int length = fBlock.position() - Integer.BYTES;
+        if (length == 0) {
+            return;
+        }
+        fBlock.putInt(0, length);
+        fBlock.flip();
+        try {
+            while (fBlock.hasRemaining()) {
+                fChannel.write(fBlock);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write the time slice file " + fFile, e); //$NON-NLS-1$
+        }
+        fBlock.clear();
+        fBlock.position(Integer.BYTES);
+    }
+
+    /**
+     * Read back the intervals of this slice, once it is finished, in the order
+     * they were inserted.
+     *
+     * @param consumer
+     *            The consumer of the intervals
+     * @throws IOException
+     *             If the file could not be read
+     */
+    public void forEachInterval(Consumer<@NonNull ITmfStateInterval> consumer) throws IOException {
+        if (!fFinished) {
+            throw new IllegalStateException("The time slice is not finished: " + fFile); //$NON-NLS-1$
+        }
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        try (FileChannel channel = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
+            while (readFully(channel, header)) {
+                block.clear();
+                block.limit(header.getInt(0));
+                if (!readFully(channel, block)) {
+                    throw new EOFException("Truncated time slice file " + fFile); //$NON-NLS-1$
+                }
+                block.flip();
+                while (block.hasRemaining()) {
+                    consumer.accept(HTInterval.readFrom(block, fStartTime));
+                }
+                header.clear();
+            }
+        }
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public FileInputStream supplyAttributeTreeReader() {
+        return null;
+    }
+
+    @Override
+    public File supplyAttributeTreeWriterFile() {
+        return null;
+    }
+
+    @Override
+    public long supplyAttributeTreeWriterFilePosition() {
+        return -1;
+    }
+
+    @Override
+    public void removeFiles() {
+        dispose();
+        try {
+            Files.deleteIfExists(fFile.toPath());
+        } catch (IOException e) {
+            /* Only a temporary file, nothing else to do */
+        }
+    }
+
+    @Override
+    public void dispose() {
+        try {
+            fChannel.close();
+        } catch (IOException e) {
+            /* Nothing to do, the file is not used anymore */
+        }
+    }
+
+    /**
+     * Time slice back-ends cannot run queries. Nothing will be put in
+     * currentStateInfo.
+     */
+    @Override
+    public void doQuery(List<ITmfStateInterval> currentStateInfo, long t) {
+        /* Cannot do past queries */
+    }
+
+    /**
+     * Time slice back-ends cannot run queries. 'null' will be returned.
+     *
+     * @return Always returns null.
+     */
+    @Override
+    public ITmfStateInterval doSingularQuery(long t, int attributeQuark) {
+        /* Cannot do past queries */
+        return null;
+    }
+
+    @Override
+    public Iterable<@NonNull ITmfStateInterval> query2D(IntegerRangeCondition quarks,
+            TimeRangeCondition times) throws TimeRangeException {
+        return Collections.emptyList();
+    }
+}
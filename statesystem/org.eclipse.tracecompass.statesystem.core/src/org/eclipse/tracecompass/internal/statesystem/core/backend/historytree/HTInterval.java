@@ -47,12 +47,12 @@ public final class HTInterval implements ITmfStateInterval {
     private static final String errMsg = "Invalid interval data. Maybe your file is corrupt?"; //$NON-NLS-1$
 
     /* 'Byte' equivalent for state values types */
-    private static final byte TYPE_NULL = -1;
-    private static final byte TYPE_INTEGER = 0;
-    private static final byte TYPE_STRING = 1;
-    private static final byte TYPE_LONG = 2;
-    private static final byte TYPE_DOUBLE = 3;
-    private static final byte TYPE_CUSTOM = 20;
+    static final byte TYPE_NULL = -1;
+    static final byte TYPE_INTEGER = 0;
+    static final byte TYPE_STRING = 1;
+    static final byte TYPE_LONG = 2;
+    static final byte TYPE_DOUBLE = 3;
+    static final byte TYPE_CUSTOM = 20;
 
     private final long fStart;
     private final long fDuration;
@@ -140,9 +140,10 @@ public final class HTInterval implements ITmfStateInterval {
      * "Faster" constructor for inner use only. When we build an interval when
      * reading it from disk (with {@link #readFrom}), we already know the size
      * of the strings entry, so there is no need to call
-     * {@link #computeStringsEntrySize()} and do an extra copy.
+     * {@link #computeStringsEntrySize()} and do an extra copy. A negative size
+     * means it is computed when it is needed.
      */
-    private HTInterval(long intervalStart, long intervalEnd, int attribute,
+    HTInterval(long intervalStart, long intervalEnd, int attribute,
             Object value, int size) throws TimeRangeException {
         if (intervalStart > intervalEnd) {
             throw new TimeRangeException("Start:" + intervalStart + ", End:" + intervalEnd); //$NON-NLS-1$ //$NON-NLS-2$
@@ -199,21 +200,9 @@ public final class HTInterval implements ITmfStateInterval {
             value = buffer.getInt();
             break;
 
-        case TYPE_STRING: {
-            /* the first short = the size to read */
-            int valueSize = buffer.getShort();
-
-            byte[] array = new byte[valueSize];
-            buffer.get(array);
-            value = new String(array, CHARSET);
-
-            /* Confirm the 0'ed byte at the end */
-            byte res = buffer.get();
-            if (res != 0) {
-                throw new IOException(errMsg);
-            }
+        case TYPE_STRING:
+            value = readString(buffer);
             break;
-        }
 
         case TYPE_LONG:
             /* Go read the matching entry in the Strings section of the block */
@@ -225,12 +214,10 @@ public final class HTInterval implements ITmfStateInterval {
             value = buffer.getDouble();
             break;
 
-        case TYPE_CUSTOM: {
-            short valueSize = buffer.getShort();
-            ISafeByteBufferReader safeBuffer = SafeByteBufferFactory.wrapReader(buffer, valueSize);
-            value = CustomStateValue.readSerializedValue(safeBuffer);
+        case TYPE_CUSTOM:
+            value = readCustom(buffer);
             break;
-        }
+
         default:
             /* Unknown data, better to not make anything up... */
             throw new IOException(errMsg);
@@ -243,6 +230,77 @@ public final class HTInterval implements ITmfStateInterval {
         }
     }
 
+    /**
+     * Read an interval, in the same format as {@link #readFrom}, directly in
+     * the columns of the intervals of a node, without creating the interval
+     * object nor boxing its value.
+     *
+     * @param buffer
+     *            The ByteBuffer from which to read the information
+     * @param nodeStart
+     *            The start time of the node this interval is linked to
+     * @param intervals
+     *            The intervals of the node, to which to append this interval
+     * @throws IOException
+     *             If there was an error reading from the buffer
+     */
+    static void readInto(ByteBuffer buffer, long nodeStart, HTNodeIntervals intervals) throws IOException {
+        long intervalStart = HTVarInt.readLong(buffer) + nodeStart;
+        long duration = HTVarInt.readLong(buffer);
+        int attribute = buffer.getInt();
+        if (duration < 0) {
+            throw new IOException(errMsg);
+        }
+        long intervalEnd = intervalStart + duration;
+
+        byte valueType = buffer.get();
+        switch (valueType) {
+        case TYPE_NULL:
+            intervals.append(intervalStart, intervalEnd, attribute, valueType, 0, null);
+            break;
+        case TYPE_INTEGER:
+            intervals.append(intervalStart, intervalEnd, attribute, valueType, buffer.getInt(), null);
+            break;
+        case TYPE_LONG:
+            intervals.append(intervalStart, intervalEnd, attribute, valueType, buffer.getLong(), null);
+            break;
+        case TYPE_DOUBLE:
+            intervals.append(intervalStart, intervalEnd, attribute, valueType, buffer.getLong(), null);
+            break;
+        case TYPE_STRING:
+            intervals.append(intervalStart, intervalEnd, attribute, valueType, 0, readString(buffer));
+            break;
+        case TYPE_CUSTOM:
+            intervals.append(intervalStart, intervalEnd, attribute, valueType, 0, readCustom(buffer));
+            break;
+        default:
+            /* Unknown data, better to not make anything up... */
+            throw new IOException(errMsg);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        /* the first short = the size to read */
+        int valueSize = buffer.getShort();
+
+        byte[] array = new byte[valueSize];
+        buffer.get(array);
+        String value = new String(array, CHARSET);
+
+        /* Confirm the 0'ed byte at the end */
+        byte res = buffer.get();
+        if (res != 0) {
+            throw new IOException(errMsg);
+        }
+        return value;
+    }
+
+    private static Object readCustom(ByteBuffer buffer) {
+        short valueSize = buffer.getShort();
+        ISafeByteBufferReader safeBuffer = SafeByteBufferFactory.wrapReader(buffer, valueSize);
+        return CustomStateValue.readSerializedValue(safeBuffer);
+    }
+
     /**
      * Antagonist of the previous constructor, write the Data entry
      * corresponding to this interval in a ByteBuffer (mapped to a block in the
@@ -266,9 +324,21 @@ public final class HTInterval implements ITmfStateInterval {
         HTVarInt.writeLong(buffer, fStart - nodeStart);
         HTVarInt.writeLong(buffer, fDuration);
         buffer.putInt(fAttribute);
+        writeValue(buffer, fStateValue);
+    }
 
-        if (fStateValue != null) {
-            @NonNull Object value = fStateValue;
+    /**
+     * Write the type and the value of an interval, see
+     * {@link #writeInterval(ByteBuffer, long)}
+     *
+     * @param buffer
+     *            The already-allocated ByteBuffer corresponding to a SHT Node
+     * @param stateValue
+     *            The value of the interval
+     */
+    static void writeValue(ByteBuffer buffer, @Nullable Object stateValue) {
+        if (stateValue != null) {
+            @NonNull Object value = stateValue;
             if (value instanceof Integer) {
                 buffer.put(TYPE_INTEGER);
                 buffer.putInt((int) value);
@@ -338,6 +408,9 @@ public final class HTInterval implements ITmfStateInterval {
      * @return The interval size
      */
     public int getSizeOnDisk() {
+        if (fSizeOnDisk < 0) {
+            fSizeOnDisk = computeSizeOnDisk(fStateValue, 0);
+        }
         return fSizeOnDisk;
     }
 
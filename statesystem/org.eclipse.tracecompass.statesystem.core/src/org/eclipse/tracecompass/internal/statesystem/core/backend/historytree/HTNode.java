@@ -22,8 +22,6 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
@@ -36,6 +34,7 @@ import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.In
 import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.TimeRangeCondition;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateIntervalMatrix;
 
 /**
  * The base class for all the types of nodes that go in the History Tree.
@@ -139,18 +138,12 @@ public abstract class HTNode {
     /* True if this node was read from disk (meaning its end time is now fixed) */
     private volatile boolean fIsOnDisk;
 
-    /* Vector containing all the intervals contained in this node */
-    private final List<HTInterval> fIntervals;
+    /* The intervals contained in this node, sorted by end times */
+    private HTNodeIntervals fIntervals;
 
     /* Lock used to protect the accesses to intervals, nodeEnd and such */
     private final ReentrantReadWriteLock fRwl = new ReentrantReadWriteLock(false);
 
-    /** Order of intervals in a HTNode: sorted by end times, then by start times. */
-    private static final Comparator<ITmfStateInterval> NODE_ORDER = Comparator
-            .comparingLong(ITmfStateInterval::getEndTime)
-            .thenComparingLong(ITmfStateInterval::getStartTime)
-            .thenComparingInt(ITmfStateInterval::getAttribute);
-
     /**
      * Constructor
      *
@@ -172,7 +165,7 @@ public abstract class HTNode {
 
         fSizeOfIntervalSection = 0;
         fIsOnDisk = false;
-        fIntervals = new ArrayList<>();
+        fIntervals = new HTNodeIntervals();
     }
 
     /**
@@ -192,8 +185,6 @@ public abstract class HTNode {
      */
     public static final @NonNull HTNode readNode(HTConfig config, FileChannel fc, IHistoryTree.IHTNodeFactory nodeFactory)
             throws IOException {
-        HTNode newNode = null;
-
         ByteBuffer buffer = ByteBuffer.allocate(config.getBlockSize());
         buffer.order(ByteOrder.LITTLE_ENDIAN);
         buffer.clear();
@@ -202,6 +193,27 @@ public abstract class HTNode {
             throw new IOException("Expected " + config.getBlockSize() + " block size, but got " + res);  //$NON-NLS-1$//$NON-NLS-2$
         }
         buffer.flip();
+        return readNode(config, buffer, nodeFactory);
+    }
+
+    /**
+     * Reader factory method. Build a Node object (of the right type) from a
+     * node block that was already read, see {@link #writeSelf(ByteBuffer)}.
+     *
+     * @param config
+     *            Configuration of the History Tree
+     * @param buffer
+     *            Little-endian buffer positioned at the start of the node
+     *            block
+     * @param nodeFactory
+     *            The factory to create the nodes for this tree
+     * @return The node object
+     * @throws IOException
+     *             If the block is not a valid node
+     */
+    public static final @NonNull HTNode readNode(HTConfig config, ByteBuffer buffer, IHistoryTree.IHTNodeFactory nodeFactory)
+            throws IOException {
+        HTNode newNode = null;
 
         /* Read the common header part */
         byte typeByte = buffer.get();
@@ -237,11 +249,9 @@ public abstract class HTNode {
          * At this point, we should be done reading the header and 'buffer'
          * should only have the intervals left
          */
-        for (int i = 0; i < intervalCount; i++) {
-            HTInterval interval = HTInterval.readFrom(buffer, start);
-            newNode.fIntervals.add(interval);
-            newNode.fSizeOfIntervalSection += interval.getSizeOnDisk();
-        }
+        int intervalsStart = buffer.position();
+        newNode.fIntervals = HTNodeIntervals.readFrom(buffer, start, intervalCount);
+        newNode.fSizeOfIntervalSection = buffer.position() - intervalsStart;
 
         /* Assign the node's other information we have read previously */
         newNode.fNodeEnd = end;
@@ -262,6 +272,37 @@ public abstract class HTNode {
      *             If there was an error writing
      */
     public final void writeSelf(FileChannel fc) throws IOException {
+        final int blockSize = fConfig.getBlockSize();
+
+        ByteBuffer buffer = ByteBuffer.allocate(blockSize);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.clear();
+        writeSelf(buffer);
+
+        /* Finally, write everything in the Buffer to disk */
+        buffer.flip();
+        int res = fc.write(buffer);
+        if (res != blockSize) {
+            throw new IllegalStateException("Wrong size of block written: Actual: " + res + ", Expected: " + blockSize); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        fRwl.writeLock().lock();
+        try {
+            /* No more intervals will be added to this node */
+            fIntervals.trimToSize();
+            fIsOnDisk = true;
+        } finally {
+            fRwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write the block of this node to a buffer, in the same format as on disk.
+     * This does not mark the node as written to disk.
+     *
+     * @param buffer
+     *            Little-endian buffer with at least a block size remaining
+     */
+    public final void writeSelf(ByteBuffer buffer) {
         /*
          * Yes, we are taking the *read* lock here, because we are reading the
          * information in the node to write it to disk.
@@ -269,10 +310,7 @@ public abstract class HTNode {
         fRwl.readLock().lock();
         try {
             final int blockSize = fConfig.getBlockSize();
-
-            ByteBuffer buffer = ByteBuffer.allocate(blockSize);
-            buffer.order(ByteOrder.LITTLE_ENDIAN);
-            buffer.clear();
+            final int blockStart = buffer.position();
 
             /* Write the common header part */
             buffer.put(getNodeType().toByte());
@@ -288,30 +326,23 @@ public abstract class HTNode {
             writeSpecificHeader(buffer);
 
             /* Back to us, we write the intervals */
-            for (HTInterval interval : fIntervals) {
-                interval.writeInterval(buffer, fNodeStart);
+            for (int i = 0; i < fIntervals.size(); i++) {
+                fIntervals.write(i, buffer, fNodeStart);
             }
-            if (blockSize - buffer.position() != getNodeFreeSpace()) {
-                throw new IllegalStateException("Wrong free space: Actual: " + (blockSize - buffer.position()) + ", Expected: " + getNodeFreeSpace()); //$NON-NLS-1$ //$NON-NLS-2$
+            int written = buffer.position() - blockStart;
+            if (blockSize - written != getNodeFreeSpace()) {
+                throw new IllegalStateException("Wrong free space: Actual: " + (blockSize - written) + ", Expected: " + getNodeFreeSpace()); //$NON-NLS-1$ //$NON-NLS-2$
             }
             /*
              * Fill the rest with zeros
              */
-            while (buffer.position() < blockSize) {
+            while (buffer.position() - blockStart < blockSize) {
                 buffer.put((byte) 0);
             }
 
-            /* Finally, write everything in the Buffer to disk */
-            buffer.flip();
-            int res = fc.write(buffer);
-            if (res != blockSize) {
-                throw new IllegalStateException("Wrong size of block written: Actual: " + res + ", Expected: " + blockSize); //$NON-NLS-1$ //$NON-NLS-2$
-            }
-
         } finally {
             fRwl.readLock().unlock();
         }
-        fIsOnDisk = true;
     }
 
     // ------------------------------------------------------------------------
@@ -406,22 +437,9 @@ public abstract class HTNode {
                 throw new IllegalStateException("Insufficient disk space."); //$NON-NLS-1$
             }
 
-            /* Find the insert position to keep the list sorted */
-            int index = 0;
-            if (fIntervals.isEmpty()) {
-                index = 0;
-            } else if (NODE_ORDER.compare(fIntervals.get(fIntervals.size() - 1), newInterval) <= 0) {
-                index = fIntervals.size();
-            } else {
-                index = Collections.binarySearch(fIntervals, newInterval, NODE_ORDER);
-                /*
-                 * Interval should not already be in the node, binarySearch will
-                 * return (-insertionPoint - 1).
-                 */
-                index = -index - 1;
-            }
+            /* The intervals are inserted so that they stay sorted */
             newInterval.setSizeOnDisk(newSizeOnDisk);
-            fIntervals.add(index, newInterval);
+            fIntervals.add(newInterval);
             fNodeEnd = Long.max(fNodeEnd, newInterval.getEndTime());
             fMinQuark = Integer.min(fMinQuark, newInterval.getAttribute());
             fMaxQuark = Integer.max(fMaxQuark, newInterval.getAttribute());
@@ -482,11 +500,14 @@ public abstract class HTNode {
                  * Second condition is to ignore new attributes that might have
                  * been created after stateInfo was instantiated (they would be
                  * null anyway).
+                 *
+                 * The interval object is only created if the state info does
+                 * not already hold this interval.
                  */
-                ITmfStateInterval interval = fIntervals.get(i);
-                if (t >= interval.getStartTime() &&
-                        interval.getAttribute() < stateInfo.size()) {
-                    stateInfo.set(interval.getAttribute(), interval);
+                int quark = fIntervals.getQuark(i);
+                if (t >= fIntervals.getStart(i) && quark < stateInfo.size()
+                        && !fIntervals.sameBounds(i, stateInfo.get(quark))) {
+                    stateInfo.set(quark, fIntervals.get(i));
                 }
             }
         } finally {
@@ -513,10 +534,9 @@ public abstract class HTNode {
                 "time", t, //$NON-NLS-1$
                 "attribute", key)) { //$NON-NLS-1$
             for (int i = getStartIndexFor(t); i < fIntervals.size(); i++) {
-                HTInterval curInterval = fIntervals.get(i);
-                if (curInterval.getAttribute() == key
-                        && curInterval.getStartTime() <= t) {
-                    return curInterval;
+                if (fIntervals.getQuark(i) == key
+                        && fIntervals.getStart(i) <= t) {
+                    return fIntervals.get(i);
                 }
             }
 
@@ -544,10 +564,10 @@ public abstract class HTNode {
                 "quarks", quarks, //$NON-NLS-1$
                 "times", times)) { //$NON-NLS-1$
             List<HTInterval> intervals = new ArrayList<>();
-            for (HTInterval interval : fIntervals.subList(getStartIndexFor(times.min()), fIntervals.size())) {
-                if (quarks.test(interval.getAttribute())
-                        && times.intersects(interval.getStartTime(), interval.getEndTime())) {
-                    intervals.add(interval);
+            for (int i = getStartIndexFor(times.min()); i < fIntervals.size(); i++) {
+                if (quarks.test(fIntervals.getQuark(i))
+                        && times.intersects(fIntervals.getStart(i), fIntervals.getEnd(i))) {
+                    intervals.add(fIntervals.get(i));
                 }
             }
             return intervals;
@@ -556,24 +576,43 @@ public abstract class HTNode {
         }
     }
 
+    /**
+     * Matrix query method, adds the states of the desired quarks at the desired
+     * times to a matrix, directly from the columns of this node, without
+     * creating an interval object for each of them.
+     *
+     * @param matrix
+     *            The matrix to fill
+     * @param quarks
+     *            NumCondition on the quarks on which we want information
+     * @param times
+     *            NumCondition on the times on which we want information
+     */
+    public void fillMatrix(TmfStateIntervalMatrix matrix, IntegerRangeCondition quarks, TimeRangeCondition times) {
+        fRwl.readLock().lock();
+        try {
+            for (int i = getStartIndexFor(times.min()); i < fIntervals.size(); i++) {
+                int quark = fIntervals.getQuark(i);
+                long start = fIntervals.getStart(i);
+                long end = fIntervals.getEnd(i);
+                if (quarks.test(quark) && times.intersects(start, end)) {
+                    matrix.add(quark, start, end, fIntervals.getValue(i));
+                }
+            }
+        } finally {
+            fRwl.readLock().unlock();
+        }
+    }
+
     private int getStartIndexFor(long t) throws TimeRangeException {
         /* Should only be called by methods with the readLock taken */
 
-        if (fIntervals.isEmpty()) {
-            return 0;
-        }
-
         /*
          * Since the intervals are sorted by end time then by start time, we can
          * skip all the ones at the beginning whose end times are smaller than
-         * 't'. We search for a dummy interval from [Long.MIN_VALUE, t], which
-         * will return the first interval that ends with a time >= t.
+         * 't', with a binary search on the end times.
          */
-        HTInterval dummy = new HTInterval(Long.MIN_VALUE, t, 0, null);
-        int index = Collections.binarySearch(fIntervals, dummy, NODE_ORDER);
-
-        /* Handle negative binarySearch return */
-        return (index >= 0 ? index : -index - 1);
+        return fIntervals.firstEndingAtOrAfter(t);
     }
 
     /**
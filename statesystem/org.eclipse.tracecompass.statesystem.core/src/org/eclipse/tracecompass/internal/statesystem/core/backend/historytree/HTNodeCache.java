@@ -0,0 +1,413 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+
+/**
+ * Cache of history tree nodes shared by all the open history trees.
+ *
+ * The cache is budgeted in bytes of node blocks rather than in number of
+ * nodes, and its budget grows with the number of open trees, up to a maximum.
+ * Nodes are kept in two tiers:
+ * <ul>
+ * <li>the heap tier keeps the node objects, ready to be queried;</li>
+ * <li>the optional off-heap tier keeps the serialized blocks of the nodes
+ * evicted from the heap tier in direct buffers, so that reading them back
+ * does not go to disk.</li>
+ * </ul>
+ *
+ * The budgets can be configured with the following system properties, in
+ * bytes:
+ * <ul>
+ * <li>{@value #HEAP_PER_TREE_PROPERTY}, default 16 MiB;</li>
+ * <li>{@value #HEAP_MAX_PROPERTY}, default 1/8 of the maximum heap size;</li>
+ * <li>{@value #OFF_HEAP_PER_TREE_PROPERTY}, default 0, which disables the
+ * off-heap tier;</li>
+ * <li>{@value #OFF_HEAP_MAX_PROPERTY}, default 1 GiB.</li>
+ * </ul>
+ */
+public final class HTNodeCache {
+
+    /** Property for the heap budget per open tree */
+    public static final String HEAP_PER_TREE_PROPERTY = "org.eclipse.tracecompass.statesystem.core.nodeCache.heapPerTree"; //$NON-NLS-1$
+    /** Property for the maximum heap budget */
+    public static final String HEAP_MAX_PROPERTY = "org.eclipse.tracecompass.statesystem.core.nodeCache.heapMax"; //$NON-NLS-1$
+    /** Property for the off-heap budget per open tree */
+    public static final String OFF_HEAP_PER_TREE_PROPERTY = "org.eclipse.tracecompass.statesystem.core.nodeCache.offHeapPerTree"; //$NON-NLS-1$
+    /** Property for the maximum off-heap budget */
+    public static final String OFF_HEAP_MAX_PROPERTY = "org.eclipse.tracecompass.statesystem.core.nodeCache.offHeapMax"; //$NON-NLS-1$
+
+    private static final long MIB = 1024 * 1024;
+
+    private static final HTNodeCache INSTANCE = new HTNodeCache(
+            Long.getLong(HEAP_PER_TREE_PROPERTY, 16 * MIB),
+            Long.getLong(HEAP_MAX_PROPERTY, Runtime.getRuntime().maxMemory() / 8),
+            Long.getLong(OFF_HEAP_PER_TREE_PROPERTY, 0),
+            Long.getLong(OFF_HEAP_MAX_PROPERTY, 1024 * MIB));
+
+    private static final class CacheKey {
+
+        public final HT_IO fStateHistory;
+        public final int fSeqNumber;
+
+        public CacheKey(HT_IO stateHistory, int seqNumber) {
+            fStateHistory = stateHistory;
+            fSeqNumber = seqNumber;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(fStateHistory) + fSeqNumber;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return (fStateHistory == other.fStateHistory &&
+                    fSeqNumber == other.fSeqNumber);
+        }
+    }
+
+    private final long fHeapPerTree;
+    private final long fHeapMax;
+    private final long fOffHeapPerTree;
+    private final long fOffHeapMax;
+
+    /* Guarded by this */
+    private int fOpenTrees = 0;
+    private long fHeapBudget;
+    private long fOffHeapBudget;
+    private CacheStats fPastHeapStats = new CacheStats(0, 0, 0, 0, 0, 0);
+    private CacheStats fPastOffHeapStats = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    private volatile Cache<CacheKey, HTNode> fHeapCache;
+    private volatile @Nullable Cache<CacheKey, ByteBuffer> fOffHeapCache;
+
+    /**
+     * Constructor
+     *
+     * @param heapPerTree
+     *            The heap budget per open tree, in bytes
+     * @param heapMax
+     *            The maximum heap budget, in bytes
+     * @param offHeapPerTree
+     *            The off-heap budget per open tree, in bytes, 0 to disable the
+     *            off-heap tier
+     * @param offHeapMax
+     *            The maximum off-heap budget, in bytes
+     */
+    HTNodeCache(long heapPerTree, long heapMax, long offHeapPerTree, long offHeapMax) {
+        fHeapPerTree = Math.max(0, heapPerTree);
+        fHeapMax = Math.max(0, heapMax);
+        fOffHeapPerTree = Math.max(0, offHeapPerTree);
+        fOffHeapMax = Math.max(0, offHeapMax);
+        fHeapBudget = budget(fHeapPerTree, fHeapMax, 1);
+        fOffHeapBudget = budget(fOffHeapPerTree, fOffHeapMax, 1);
+        fHeapCache = buildHeapCache(fHeapBudget);
+        fOffHeapCache = buildOffHeapCache(fOffHeapBudget);
+    }
+
+    /**
+     * Get the cache shared by all the history trees
+     *
+     * @return The node cache
+     */
+    public static HTNodeCache getInstance() {
+        return INSTANCE;
+    }
+
+    // ------------------------------------------------------------------------
+    // Tree registration
+    // ------------------------------------------------------------------------
+
+    /**
+     * Register an open tree, which grows the budget of the cache
+     */
+    synchronized void register() {
+        fOpenTrees++;
+        resize();
+    }
+
+    /**
+     * Unregister a tree when it is closed. Its nodes are removed from the
+     * cache and the budget shrinks.
+     *
+     * @param io
+     *            The I/O object of the tree
+     */
+    synchronized void unregister(HT_IO io) {
+        fHeapCache.asMap().keySet().removeIf(key -> key.fStateHistory == io);
+        Cache<CacheKey, ByteBuffer> offHeapCache = fOffHeapCache;
+        if (offHeapCache != null) {
+            offHeapCache.asMap().keySet().removeIf(key -> key.fStateHistory == io);
+        }
+        fOpenTrees = Math.max(0, fOpenTrees - 1);
+        resize();
+    }
+
+    private void resize() {
+        long heapBudget = budget(fHeapPerTree, fHeapMax, fOpenTrees);
+        long offHeapBudget = budget(fOffHeapPerTree, fOffHeapMax, fOpenTrees);
+        /*
+         * Guava caches cannot change their maximum weight, so rebuild them with
+         * the entries that fit in the new budget.
+         */
+        if (offHeapBudget != fOffHeapBudget) {
+            Cache<CacheKey, ByteBuffer> oldCache = fOffHeapCache;
+            Cache<CacheKey, ByteBuffer> newCache = buildOffHeapCache(offHeapBudget);
+            if (oldCache != null) {
+                fPastOffHeapStats = fPastOffHeapStats.plus(oldCache.stats());
+                if (newCache != null) {
+                    newCache.putAll(oldCache.asMap());
+                }
+            }
+            fOffHeapCache = newCache;
+            fOffHeapBudget = offHeapBudget;
+        }
+        if (heapBudget != fHeapBudget) {
+            Cache<CacheKey, HTNode> oldCache = fHeapCache;
+            Cache<CacheKey, HTNode> newCache = buildHeapCache(heapBudget);
+            fPastHeapStats = fPastHeapStats.plus(oldCache.stats());
+            newCache.putAll(oldCache.asMap());
+            fHeapCache = newCache;
+            fHeapBudget = heapBudget;
+        }
+    }
+
+    private static long budget(long perTree, long max, int openTrees) {
+        if (perTree <= 0) {
+            return 0;
+        }
+        long budget = perTree * Math.max(1, openTrees);
+        /* Overflow of the multiplication */
+        if (budget / Math.max(1, openTrees) != perTree) {
+            return max;
+        }
+        return Math.min(budget, max);
+    }
+
+    private Cache<CacheKey, HTNode> buildHeapCache(long budget) {
+        return CacheBuilder.newBuilder()
+                .maximumWeight(budget)
+                .weigher((CacheKey key, HTNode node) -> key.fStateHistory.getBlockSize())
+                .removalListener(this::spill)
+                .recordStats()
+                .build();
+    }
+
+    private static @Nullable Cache<CacheKey, ByteBuffer> buildOffHeapCache(long budget) {
+        if (budget <= 0) {
+            return null;
+        }
+        return CacheBuilder.newBuilder()
+                .maximumWeight(budget)
+                .weigher((CacheKey key, ByteBuffer buffer) -> buffer.capacity())
+                .recordStats()
+                .build();
+    }
+
+    // ------------------------------------------------------------------------
+    // Cache operations
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get a node from the cache, reading it from the off-heap tier or from the
+     * file of the tree if it is not in the heap tier.
+     *
+     * @param io
+     *            The I/O object of the tree
+     * @param seqNumber
+     *            The sequence number of the node
+     * @return The node
+     * @throws ExecutionException
+     *             If the node could not be read
+     */
+    @NonNull HTNode get(HT_IO io, int seqNumber) throws ExecutionException {
+        CacheKey key = new CacheKey(io, seqNumber);
+        return fHeapCache.get(key, () -> {
+            HTNode node = readOffHeap(key);
+            return (node != null ? node : io.loadNode(seqNumber));
+        });
+    }
+
+    /**
+     * Get a node only if it is in the cache, in either tier. This does not
+     * count as a cache lookup in the statistics.
+     *
+     * @param io
+     *            The I/O object of the tree
+     * @param seqNumber
+     *            The sequence number of the node
+     * @return The node, or null if it is not in the cache
+     */
+    @Nullable HTNode getIfCached(HT_IO io, int seqNumber) {
+        CacheKey key = new CacheKey(io, seqNumber);
+        Cache<CacheKey, HTNode> heapCache = fHeapCache;
+        HTNode node = heapCache.asMap().get(key);
+        if (node != null) {
+            return node;
+        }
+        Cache<CacheKey, ByteBuffer> offHeapCache = fOffHeapCache;
+        ByteBuffer block = (offHeapCache == null ? null : offHeapCache.asMap().get(key));
+        if (block == null) {
+            return null;
+        }
+        try {
+            node = decode(key, block);
+        } catch (IOException e) {
+            return null;
+        }
+        heapCache.put(key, node);
+        return node;
+    }
+
+    /**
+     * Put a node that was just written in the cache
+     *
+     * @param io
+     *            The I/O object of the tree
+     * @param node
+     *            The node
+     */
+    void put(HT_IO io, HTNode node) {
+        fHeapCache.put(new CacheKey(io, node.getSequenceNumber()), node);
+    }
+
+    private @Nullable HTNode readOffHeap(CacheKey key) throws IOException {
+        Cache<CacheKey, ByteBuffer> offHeapCache = fOffHeapCache;
+        if (offHeapCache == null) {
+            return null;
+        }
+        ByteBuffer block = offHeapCache.getIfPresent(key);
+        return (block == null ? null : decode(key, block));
+    }
+
+    private static HTNode decode(CacheKey key, ByteBuffer block) throws IOException {
+        ByteBuffer buffer = block.duplicate();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return key.fStateHistory.decodeNode(buffer);
+    }
+
+    /**
+     * Copy the block of the nodes evicted from the heap tier to the off-heap
+     * tier
+     */
+    private void spill(RemovalNotification<CacheKey, HTNode> notification) {
+        Cache<CacheKey, ByteBuffer> offHeapCache = fOffHeapCache;
+        CacheKey key = notification.getKey();
+        HTNode node = notification.getValue();
+        if (offHeapCache == null || key == null || node == null ||
+                notification.getCause() != RemovalCause.SIZE ||
+                offHeapCache.asMap().containsKey(key)) {
+            return;
+        }
+        ByteBuffer block = ByteBuffer.allocateDirect(key.fStateHistory.getBlockSize());
+        block.order(ByteOrder.LITTLE_ENDIAN);
+        node.writeSelf(block);
+        block.flip();
+        offHeapCache.put(key, block);
+    }
+
+    // ------------------------------------------------------------------------
+    // Metrics
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the statistics of the heap tier
+     *
+     * @return The statistics since the cache was created
+     */
+    public synchronized CacheStats getHeapStats() {
+        return fPastHeapStats.plus(fHeapCache.stats());
+    }
+
+    /**
+     * Get the statistics of the off-heap tier. Its hits are the heap tier
+     * misses that did not need to read the disk.
+     *
+     * @return The statistics since the cache was created
+     */
+    public synchronized CacheStats getOffHeapStats() {
+        Cache<CacheKey, ByteBuffer> offHeapCache = fOffHeapCache;
+        return (offHeapCache == null ? fPastOffHeapStats : fPastOffHeapStats.plus(offHeapCache.stats()));
+    }
+
+    /**
+     * Get the current budget of the heap tier
+     *
+     * @return The budget, in bytes of node blocks
+     */
+    public synchronized long getHeapBudget() {
+        return fHeapBudget;
+    }
+
+    /**
+     * Get the current budget of the off-heap tier
+     *
+     * @return The budget, in bytes, 0 if the off-heap tier is disabled
+     */
+    public synchronized long getOffHeapBudget() {
+        return fOffHeapBudget;
+    }
+
+    /**
+     * Get the number of bytes of node blocks currently in the heap tier
+     *
+     * @return The size of the heap tier
+     */
+    public long getHeapSize() {
+        long size = 0;
+        for (CacheKey key : fHeapCache.asMap().keySet()) {
+            size += key.fStateHistory.getBlockSize();
+        }
+        return size;
+    }
+
+    /**
+     * Get the number of bytes currently in the off-heap tier
+     *
+     * @return The size of the off-heap tier
+     */
+    public long getOffHeapSize() {
+        Cache<CacheKey, ByteBuffer> offHeapCache = fOffHeapCache;
+        if (offHeapCache == null) {
+            return 0;
+        }
+        long size = 0;
+        for (ByteBuffer block : offHeapCache.asMap().values()) {
+            size += block.capacity();
+        }
+        return size;
+    }
+}
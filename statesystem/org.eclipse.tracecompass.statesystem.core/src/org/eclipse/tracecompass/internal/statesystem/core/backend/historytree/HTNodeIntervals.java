@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.datastore.core.encoding.HTVarInt;
+import org.eclipse.tracecompass.internal.provisional.statesystem.core.statevalue.CustomStateValue;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
+import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
+
+/**
+ * The intervals of a {@link HTNode}, stored in columns of primitive arrays
+ * instead of one object per interval. The intervals are kept sorted by end
+ * times, then by start times and attributes, so the first interval that ends
+ * at or after a given time can be found with a binary search on the end times.
+ *
+ * Integer, long and double values are packed in a long array, only the other
+ * values (strings, custom values) are kept as objects, in an array that is only
+ * allocated if the node has such values. The queries and the writes compare
+ * and read the columns, the interval objects are only created for the
+ * intervals returned by the queries, see {@link #get(int)}.
+ *
+ * This class is not thread-safe, the accesses are protected by the lock of the
+ * node.
+ */
+final class HTNodeIntervals {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int fSize = 0;
+    private long[] fStarts;
+    private long[] fEnds;
+    private int[] fQuarks;
+    private byte[] fTypes;
+    private long[] fPrimitives;
+    private @Nullable Object @Nullable [] fObjects = null;
+
+    /**
+     * Constructor, for an empty node
+     */
+    public HTNodeIntervals() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private HTNodeIntervals(int capacity) {
+        fStarts = new long[capacity];
+        fEnds = new long[capacity];
+        fQuarks = new int[capacity];
+        fTypes = new byte[capacity];
+        fPrimitives = new long[capacity];
+    }
+
+    /**
+     * Read the intervals of a node block. They are decoded directly in the
+     * columns, without creating interval objects.
+     *
+     * @param buffer
+     *            The buffer, positioned at the first interval of the node
+     * @param nodeStart
+     *            The start time of the node
+     * @param count
+     *            The number of intervals in the node
+     * @return The intervals of the node
+     * @throws IOException
+     *             If the intervals are not valid
+     */
+    public static HTNodeIntervals readFrom(ByteBuffer buffer, long nodeStart, int count) throws IOException {
+        HTNodeIntervals intervals = new HTNodeIntervals(count);
+        for (int i = 0; i < count; i++) {
+            HTInterval.readInto(buffer, nodeStart, intervals);
+        }
+        return intervals;
+    }
+
+    /**
+     * Get the number of intervals
+     *
+     * @return The number of intervals
+     */
+    public int size() {
+        return fSize;
+    }
+
+    /**
+     * Whether there are no intervals
+     *
+     * @return true if there are no intervals
+     */
+    public boolean isEmpty() {
+        return fSize == 0;
+    }
+
+    /**
+     * Get the start time of an interval
+     *
+     * @param index
+     *            The index of the interval
+     * @return The start time
+     */
+    public long getStart(int index) {
+        return fStarts[index];
+    }
+
+    /**
+     * Get the end time of an interval
+     *
+     * @param index
+     *            The index of the interval
+     * @return The end time
+     */
+    public long getEnd(int index) {
+        return fEnds[index];
+    }
+
+    /**
+     * Get the attribute of an interval
+     *
+     * @param index
+     *            The index of the interval
+     * @return The attribute's quark
+     */
+    public int getQuark(int index) {
+        return fQuarks[index];
+    }
+
+    /**
+     * Get the value of an interval
+     *
+     * @param index
+     *            The index of the interval
+     * @return The state value
+     */
+    public @Nullable Object getValue(int index) {
+        switch (fTypes[index]) {
+        case HTInterval.TYPE_NULL:
+            return null;
+        case HTInterval.TYPE_INTEGER:
+            return (int) fPrimitives[index];
+        case HTInterval.TYPE_LONG:
+            return fPrimitives[index];
+        case HTInterval.TYPE_DOUBLE:
+            return Double.longBitsToDouble(fPrimitives[index]);
+        default:
+            Object[] objects = fObjects;
+            return (objects == null ? null : objects[index]);
+        }
+    }
+
+    /**
+     * Write an interval to a node block, in the same format as
+     * {@link HTInterval#writeInterval(ByteBuffer, long)}, without creating
+     * the interval object
+     *
+     * @param index
+     *            The index of the interval
+     * @param buffer
+     *            The buffer of the node block
+     * @param nodeStart
+     *            The start time of the node
+     */
+    public void write(int index, ByteBuffer buffer, long nodeStart) {
+        HTVarInt.writeLong(buffer, fStarts[index] - nodeStart);
+        HTVarInt.writeLong(buffer, fEnds[index] - fStarts[index]);
+        buffer.putInt(fQuarks[index]);
+        byte type = fTypes[index];
+        switch (type) {
+        case HTInterval.TYPE_NULL:
+            buffer.put(type);
+            break;
+        case HTInterval.TYPE_INTEGER:
+            buffer.put(type);
+            buffer.putInt((int) fPrimitives[index]);
+            break;
+        case HTInterval.TYPE_LONG:
+        case HTInterval.TYPE_DOUBLE:
+            /* Doubles are kept as their raw long bits */
+            buffer.put(type);
+            buffer.putLong(fPrimitives[index]);
+            break;
+        default:
+            HTInterval.writeValue(buffer, getValue(index));
+            break;
+        }
+    }
+
+    /**
+     * Get whether an interval has the same bounds and attribute as an
+     * interval object, without creating the interval object of the index
+     *
+     * @param index
+     *            The index of the interval
+     * @param interval
+     *            The interval object, can be null
+     * @return true if the interval object has the same bounds and attribute
+     */
+    public boolean sameBounds(int index, @Nullable ITmfStateInterval interval) {
+        return interval != null
+                && interval.getStartTime() == fStarts[index]
+                && interval.getEndTime() == fEnds[index]
+                && interval.getAttribute() == fQuarks[index];
+    }
+
+    /**
+     * Create the interval object of an interval
+     *
+     * @param index
+     *            The index of the interval
+     * @return The interval
+     */
+    public HTInterval get(int index) {
+        return new HTInterval(fStarts[index], fEnds[index], fQuarks[index], getValue(index), -1);
+    }
+
+    /**
+     * Get the index of the first interval that ends at or after a time
+     *
+     * @param t
+     *            The time
+     * @return The index of the first interval that ends at or after t, or the
+     *         number of intervals if there are none
+     */
+    public int firstEndingAtOrAfter(long t) {
+        int low = 0;
+        int high = fSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fEnds[mid] < t) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Add an interval, at its place in the order of the intervals
+     *
+     * @param interval
+     *            The interval to add
+     */
+    public void add(HTInterval interval) {
+        long start = interval.getStartTime();
+        long end = interval.getEndTime();
+        int quark = interval.getAttribute();
+        int index = fSize;
+        if (fSize > 0 && compare(fSize - 1, start, end, quark) > 0) {
+            /* Intervals are usually appended, else find the insert position */
+            int low = 0;
+            int high = fSize;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(mid, start, end, quark) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            index = low;
+        }
+        ensureCapacity(fSize + 1);
+        if (index < fSize) {
+            int length = fSize - index;
+            System.arraycopy(fStarts, index, fStarts, index + 1, length);
+            System.arraycopy(fEnds, index, fEnds, index + 1, length);
+            System.arraycopy(fQuarks, index, fQuarks, index + 1, length);
+            System.arraycopy(fTypes, index, fTypes, index + 1, length);
+            System.arraycopy(fPrimitives, index, fPrimitives, index + 1, length);
+            Object[] objects = fObjects;
+            if (objects != null) {
+                System.arraycopy(objects, index, objects, index + 1, length);
+            }
+        }
+        fSize++;
+        set(index, start, end, quark, interval.getValue());
+    }
+
+    /**
+     * Append an interval read from disk, the intervals of a node are written
+     * in order.
+     */
+    void append(long start, long end, int quark, byte type, long primitive, @Nullable Object object) {
+        ensureCapacity(fSize + 1);
+        int index = fSize++;
+        fStarts[index] = start;
+        fEnds[index] = end;
+        fQuarks[index] = quark;
+        fTypes[index] = type;
+        fPrimitives[index] = primitive;
+        if (object != null) {
+            objects()[index] = object;
+        }
+    }
+
+    /**
+     * Release the unused capacity, once no more intervals will be added
+     */
+    public void trimToSize() {
+        if (fStarts.length > fSize) {
+            resize(fSize);
+        }
+    }
+
+    private void set(int index, long start, long end, int quark, @Nullable Object value) {
+        fStarts[index] = start;
+        fEnds[index] = end;
+        fQuarks[index] = quark;
+        fPrimitives[index] = 0;
+        Object[] objects = fObjects;
+        if (objects != null) {
+            objects[index] = null;
+        }
+        Object unboxed = (value instanceof TmfStateValue) ? ((ITmfStateValue) value).unboxValue() : value;
+        if (unboxed == null) {
+            fTypes[index] = HTInterval.TYPE_NULL;
+        } else if (unboxed instanceof Integer) {
+            fTypes[index] = HTInterval.TYPE_INTEGER;
+            fPrimitives[index] = (Integer) unboxed;
+        } else if (unboxed instanceof Long) {
+            fTypes[index] = HTInterval.TYPE_LONG;
+            fPrimitives[index] = (Long) unboxed;
+        } else if (unboxed instanceof Double) {
+            fTypes[index] = HTInterval.TYPE_DOUBLE;
+            fPrimitives[index] = Double.doubleToRawLongBits((Double) unboxed);
+        } else {
+            /* Other values are written as strings by the interval */
+            fTypes[index] = (unboxed instanceof CustomStateValue) ? HTInterval.TYPE_CUSTOM : HTInterval.TYPE_STRING;
+            objects()[index] = unboxed;
+        }
+    }
+
+    private int compare(int index, long start, long end, int quark) {
+        int cmp = Long.compare(fEnds[index], end);
+        if (cmp == 0) {
+            cmp = Long.compare(fStarts[index], start);
+        }
+        if (cmp == 0) {
+            cmp = Integer.compare(fQuarks[index], quark);
+        }
+        return cmp;
+    }
+
+    private @Nullable Object[] objects() {
+        Object[] objects = fObjects;
+        if (objects == null) {
+            objects = new Object[fStarts.length];
+            fObjects = objects;
+        }
+        return objects;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > fStarts.length) {
+            resize(Math.max(capacity, fStarts.length + (fStarts.length >> 1) + 1));
+        }
+    }
+
+    private void resize(int capacity) {
+        fStarts = Arrays.copyOf(fStarts, capacity);
+        fEnds = Arrays.copyOf(fEnds, capacity);
+        fQuarks = Arrays.copyOf(fQuarks, capacity);
+        fTypes = Arrays.copyOf(fTypes, capacity);
+        fPrimitives = Arrays.copyOf(fPrimitives, capacity);
+        Object[] objects = fObjects;
+        if (objects != null) {
+            fObjects = Arrays.copyOf(objects, capacity);
+        }
+    }
+}
@@ -18,12 +18,15 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.util.Deque;
 import java.util.Iterator;
-import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -35,10 +38,6 @@ import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
 import org.eclipse.tracecompass.internal.statesystem.core.Activator;
 import org.eclipse.tracecompass.internal.statesystem.core.backend.historytree.IHistoryTree.IHTNodeFactory;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-
 /**
  * This class abstracts inputs/outputs of the HistoryTree nodes.
  *
@@ -54,62 +53,17 @@ public class HT_IO {
 
     private static final @NonNull Logger LOGGER = TraceCompassLog.getLogger(HT_IO.class);
 
-    // ------------------------------------------------------------------------
-    // Global cache of nodes
-    // ------------------------------------------------------------------------
-
-    private static final class CacheKey {
-
-        public final HT_IO fStateHistory;
-        public final int fSeqNumber;
-
-        public CacheKey(HT_IO stateHistory,  int seqNumber) {
-            fStateHistory = stateHistory;
-            fSeqNumber = seqNumber;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(fStateHistory.fConfig.getStateFile().getAbsolutePath(), fSeqNumber);
-        }
-
-        @Override
-        public boolean equals(@Nullable Object obj) {
-            if (this == obj) {
-                return true;
-            }
-            if (obj == null) {
-                return false;
-            }
-            if (getClass() != obj.getClass()) {
-                return false;
-            }
-            CacheKey other = (CacheKey) obj;
-            return (fStateHistory.equals(other.fStateHistory) &&
-                    fSeqNumber == other.fSeqNumber);
-        }
-    }
-
-    private static final int CACHE_SIZE = 200;
+    private static final HTNodeCache NODE_CACHE = HTNodeCache.getInstance();
 
-    private static final CacheLoader<CacheKey, HTNode> NODE_LOADER = new CacheLoader<CacheKey, HTNode>() {
-        @Override
-        public HTNode load(CacheKey key) throws IOException {
-            HT_IO io = key.fStateHistory;
-            int seqNb = key.fSeqNumber;
-
-            TraceCompassLogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheMiss", "seqNum", seqNb); //$NON-NLS-1$ //$NON-NLS-2$
-
-            synchronized (io) {
-                io.seekFCToNodePos(io.fFileChannelIn, seqNb);
-                return HTNode.readNode(io.fConfig, io.fFileChannelIn, key.fStateHistory.fNodeFactory);
-            }
-        }
-    };
-
-    private static final LoadingCache<CacheKey, HTNode> NODE_CACHE = CacheBuilder.newBuilder()
-            .maximumSize(CACHE_SIZE).build(NODE_LOADER);
+    /**
+     * Property to enable or disable the memory-mapped reads of the nodes of
+     * completed trees. They are disabled by default on Windows, where a file
+     * cannot be deleted while it is still mapped.
+     */
+    public static final String MAPPED_READS_PROPERTY = "org.eclipse.tracecompass.statesystem.core.mappedReads"; //$NON-NLS-1$
 
+    private static final boolean MAPPED_READS = Boolean.parseBoolean(System.getProperty(MAPPED_READS_PROPERTY,
+            String.valueOf(!System.getProperty("os.name", "").startsWith("Windows")))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
     // ------------------------------------------------------------------------
     // Instance fields
@@ -126,12 +80,17 @@ public class HT_IO {
 
     private final IHTNodeFactory fNodeFactory;
 
+    private volatile boolean fIsClosed = false;
+
+    /* Read-only mappings of the nodes, in chunks of whole nodes */
+    private volatile @NonNull MappedByteBuffer @Nullable [] fMappedNodes = null;
+    private int fNodesPerMapping;
+    private int fMappedNodeCount;
+
     // ------------------------------------------------------------------------
     // Methods
     // ------------------------------------------------------------------------
 
-
-
     /**
      * Standard constructor
      *
@@ -177,6 +136,7 @@ public class HT_IO {
         fFileChannelIn = fFileInputStream.getChannel();
         fFileChannelOut = fFileOutputStream.getChannel();
         fNodeFactory = nodeFactory;
+        NODE_CACHE.register();
     }
 
     /**
@@ -193,9 +153,8 @@ public class HT_IO {
     public @NonNull HTNode readNode(int seqNumber) throws ClosedChannelException {
         /* Do a cache lookup. If it's not present it will be loaded from disk */
         TraceCompassLogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheLookup", "seqNum", seqNumber); //$NON-NLS-1$ //$NON-NLS-2$
-        CacheKey key = new CacheKey(this, seqNumber);
         try {
-            return Objects.requireNonNull(NODE_CACHE.get(key));
+            return NODE_CACHE.get(this, seqNumber);
 
         } catch (ExecutionException e) {
             /* Get the inner exception that was generated */
@@ -230,8 +189,7 @@ public class HT_IO {
         Iterator<Integer> iterator = queue.iterator();
         while (iterator.hasNext()) {
             Integer seqNumber = iterator.next();
-            CacheKey key = new CacheKey(this, seqNumber);
-            HTNode node = NODE_CACHE.getIfPresent(key);
+            HTNode node = NODE_CACHE.getIfCached(this, seqNumber);
             if (node != null) {
                 iterator.remove();
                 return node;
@@ -241,6 +199,100 @@ public class HT_IO {
         return readNode(queue.pop());
     }
 
+    /**
+     * Read a node from the file on disk, bypassing the cache. Called by the
+     * cache on a miss.
+     *
+     * @param seqNumber
+     *            The sequence number of the node to read
+     * @return The node
+     * @throws IOException
+     *             If the node could not be read
+     */
+    @NonNull HTNode loadNode(int seqNumber) throws IOException {
+        TraceCompassLogUtils.traceInstant(LOGGER, Level.FINEST, "Ht_Io:CacheMiss", "seqNum", seqNumber); //$NON-NLS-1$ //$NON-NLS-2$
+
+        MappedByteBuffer[] mappedNodes = fMappedNodes;
+        if (mappedNodes != null && seqNumber < fMappedNodeCount) {
+            /* No lock needed, every reader gets its own view of the mapping */
+            if (fIsClosed) {
+                throw new ClosedChannelException();
+            }
+            int blockSize = fConfig.getBlockSize();
+            ByteBuffer buffer = mappedNodes[seqNumber / fNodesPerMapping].duplicate();
+            int offset = (seqNumber % fNodesPerMapping) * blockSize;
+            buffer.limit(offset + blockSize);
+            buffer.position(offset);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return decodeNode(buffer);
+        }
+
+        synchronized (this) {
+            seekFCToNodePos(fFileChannelIn, seqNumber);
+            return HTNode.readNode(fConfig, fFileChannelIn, fNodeFactory);
+        }
+    }
+
+    /**
+     * Map the nodes of the file in memory, to read them without seeking the
+     * shared file channel. This should be called once the nodes are complete
+     * on disk, when the tree is closed or opened from an existing file. Nodes
+     * with a greater sequence number are still read from the file channel.
+     *
+     * If mapped reads are disabled, or the mapping fails, the nodes are read
+     * from the file channel.
+     *
+     * @param nodeCount
+     *            The number of nodes to map, from the first one
+     */
+    public synchronized void mapNodes(int nodeCount) {
+        if (!MAPPED_READS || fIsClosed || nodeCount <= 0) {
+            return;
+        }
+        int blockSize = fConfig.getBlockSize();
+        int nodesPerMapping = Integer.MAX_VALUE / blockSize;
+        try {
+            if (fFileChannelIn.size() < IHistoryTree.TREE_HEADER_SIZE + (long) nodeCount * blockSize) {
+                /* The file is not complete */
+                return;
+            }
+            int nbMappings = (nodeCount + nodesPerMapping - 1) / nodesPerMapping;
+            @NonNull MappedByteBuffer[] mappedNodes = new @NonNull MappedByteBuffer[nbMappings];
+            for (int i = 0; i < nbMappings; i++) {
+                int nodes = Math.min(nodesPerMapping, nodeCount - i * nodesPerMapping);
+                long position = IHistoryTree.TREE_HEADER_SIZE + (long) i * nodesPerMapping * blockSize;
+                mappedNodes[i] = fFileChannelIn.map(MapMode.READ_ONLY, position, (long) nodes * blockSize);
+            }
+            fNodesPerMapping = nodesPerMapping;
+            fMappedNodeCount = nodeCount;
+            fMappedNodes = mappedNodes;
+        } catch (IOException e) {
+            Activator.getDefault().logWarning("Could not map the history tree file, nodes will be read from the file channel", e); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Build a node of this tree from its block
+     *
+     * @param buffer
+     *            The buffer containing the node block
+     * @return The node
+     * @throws IOException
+     *             If the block is not a valid node
+     */
+    @NonNull HTNode decodeNode(ByteBuffer buffer) throws IOException {
+        return HTNode.readNode(fConfig, buffer, fNodeFactory);
+    }
+
+    /**
+     * Get the size of the node blocks of this tree
+     *
+     * @return The block size, in bytes
+     */
+    int getBlockSize() {
+        return fConfig.getBlockSize();
+    }
+
     /**
      * Write the given node to disk.
      *
@@ -252,8 +304,7 @@ public class HT_IO {
             int seqNumber = node.getSequenceNumber();
 
             /* "Write-back" the node into the cache */
-            CacheKey key = new CacheKey(this, seqNumber);
-            NODE_CACHE.put(key, node);
+            NODE_CACHE.put(this, node);
 
             /* Position ourselves at the start of the node and write it */
             synchronized (this) {
@@ -300,6 +351,13 @@ public class HT_IO {
      * Close all file channels and streams.
      */
     public synchronized void closeFile() {
+        if (!fIsClosed) {
+            fIsClosed = true;
+            fMappedNodes = null;
+            NODE_CACHE.unregister(this);
+            TraceCompassLogUtils.traceInstant(LOGGER, Level.FINE, "Ht_Io:CacheStats", //$NON-NLS-1$
+                    "heap", NODE_CACHE.getHeapStats(), "offHeap", NODE_CACHE.getOffHeapStats()); //$NON-NLS-1$ //$NON-NLS-2$
+        }
         try {
             fFileInputStream.close();
             fFileOutputStream.close();
@@ -39,8 +39,11 @@ import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateIntervalMatrix;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
 
 /**
  * History Tree backend for storing a state history. This is the basic version
@@ -341,8 +344,17 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
             int sequenceNumber = queue.pop();
             HTNode currentNode = getSHT().readNode(sequenceNumber);
             if (currentNode.getNodeType() == HTNode.NodeType.CORE) {
-                /* Here we add the relevant children nodes for BFS */
-                queue.addAll(((ParentNode) currentNode).selectNextChildren(t, key));
+                try {
+                    /* Here we add the relevant children nodes for BFS */
+                    queue.addAll(((ParentNode) currentNode).selectNextChildren(t, key));
+                } catch (TimeRangeException e) {
+                    /*
+                     * During the SHT construction, the node may have been
+                     * closed before t after its parent selected it, it has
+                     * no children at t.
+                     */
+                    continue;
+                }
             }
             interval = currentNode.getRelevantInterval(key, t);
         }
@@ -372,8 +384,11 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
                             HTNode currentNode = getSHT().readNode(seqNumberQueue);
                             /*
                              * Compute reduced conditions here to reduce complexity in queuing operations.
+                             * The end of a node that is not on disk yet is not final, its children may
+                             * already hold later intervals.
                              */
-                            TimeRangeCondition subTimes = times.subCondition(currentNode.getNodeStart(), currentNode.getNodeEnd());
+                            long nodeEnd = currentNode.isOnDisk() ? currentNode.getNodeEnd() : Long.MAX_VALUE;
+                            TimeRangeCondition subTimes = times.subCondition(currentNode.getNodeStart(), nodeEnd);
                             /*
                              * During the SHT construction, the bounds of the children are not final, so we
                              * may have queued some nodes which don't overlap the query.
@@ -409,6 +424,41 @@ public class HistoryTreeBackend implements IStateHistoryBackend {
         }
     }
 
+    /**
+     * Fill the matrix with a single traversal of the tree, like
+     * {@link #query2D(IntegerRangeCondition, TimeRangeCondition)}, but reading
+     * the states straight from the nodes.
+     */
+    @Override
+    public void doQueryMatrix(TmfStateIntervalMatrix matrix) throws TimeRangeException, StateSystemDisposedException {
+        int[] quarks = matrix.getQuarks();
+        long[] times = matrix.getTimes();
+        if (quarks.length == 0 || times.length == 0) {
+            return;
+        }
+        IntegerRangeCondition quarkCondition = IntegerRangeCondition.forDiscreteRange(Ints.asList(quarks));
+        TimeRangeCondition timeCondition = TimeRangeCondition.forDiscreteRange(Longs.asList(times));
+        try (TraceCompassLogUtils.ScopeLog log = new TraceCompassLogUtils.ScopeLog(LOGGER, Level.FINER, "HistoryTreeBackend:queryMatrix", //$NON-NLS-1$
+                "ssid", getSSID(), //$NON-NLS-1$
+                "quarks", quarkCondition, //$NON-NLS-1$
+                "timeCondition", timeCondition)) { //$NON-NLS-1$
+            Deque<Integer> seqNumberQueue = new ArrayDeque<>(Collections.singleton(getSHT().getRootNode().getSequenceNumber()));
+            while (!seqNumberQueue.isEmpty()) {
+                HTNode currentNode = getSHT().readNode(seqNumberQueue);
+                long nodeEnd = currentNode.isOnDisk() ? currentNode.getNodeEnd() : Long.MAX_VALUE;
+                TimeRangeCondition subTimes = timeCondition.subCondition(currentNode.getNodeStart(), nodeEnd);
+                if (quarkCondition.intersects(currentNode.getMinQuark(), currentNode.getMaxQuark()) && subTimes != null) {
+                    if (currentNode.getNodeType() == HTNode.NodeType.CORE) {
+                        ((ParentNode) currentNode).queueNextChildren2D(quarkCondition, subTimes, seqNumberQueue, false);
+                    }
+                    currentNode.fillMatrix(matrix, quarkCondition, subTimes);
+                }
+            }
+        } catch (ClosedChannelException e) {
+            throw new StateSystemDisposedException(e);
+        }
+    }
+
     /**
      * Return the size of the tree history file
      *
@@ -18,11 +18,17 @@ package org.eclipse.tracecompass.internal.statesystem.core.backend.historytree;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.collect.BufferedBlockingQueue;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
@@ -32,14 +38,21 @@ import org.eclipse.tracecompass.internal.statesystem.core.Activator;
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateIntervalMatrix;
 import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
 
-import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
 
 /**
  * Variant of the HistoryTreeBackend which runs all the interval-insertion logic
  * in a separate thread.
  *
+ * While the history is built, the intervals that are not in the tree yet are
+ * also kept per attribute, in the order of their end times, so the queries
+ * find them without going through the whole insertion queue.
+ *
  * @author Alexandre Montplaisir
  */
 public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
@@ -56,6 +69,14 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
      */
     private long fEndTime;
 
+    /**
+     * The intervals that are not in the tree yet, per quark, sorted by end
+     * time. The intervals of a quark are inserted in order, so they are added
+     * at the tail by the inserting thread, and removed from the head by the
+     * tree thread once in the tree. Readers iterate without locking.
+     */
+    private volatile AtomicReferenceArray<@Nullable ConcurrentLinkedQueue<HTInterval>> fPendingIntervals = new AtomicReferenceArray<>(64);
+
     /**
      * New state history constructor
      *
@@ -152,6 +173,8 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
          */
         HTInterval interval = new HTInterval(stateStartTime, stateEndTime,
                 quark, value);
+        /* Pending before it is queued, so it is pending until in the tree */
+        getOrCreatePending(quark).add(interval);
         intervalQueue.put(interval);
         fEndTime = Math.max(fEndTime, stateEndTime);
     }
@@ -215,6 +238,7 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
             while (currentInterval.getStartTime() != Long.MIN_VALUE || currentInterval.getAttribute() != -1) {
                 /* Send the interval to the History Tree */
                 getSHT().insertInterval(currentInterval);
+                removePending(currentInterval);
                 /* Actually remove the interval from the queue */
                 // FIXME Replace with remove() once it is implemented.
                 intervalQueue.take();
@@ -272,28 +296,98 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
 
         /*
          * We couldn't find the interval in the history tree. It's possible that
-         * it is currently in the intervalQueue. Look for it there. Note that
-         * BufferedBlockingQueue's iterator() is thread-safe (no need to lock
-         * the queue).
+         * it is currently in the intervalQueue. Look for it in the pending
+         * intervals of the attribute, they are sorted by end time.
          */
-        for (ITmfStateInterval interval : intervalQueue) {
-            if (interval.getAttribute() == attributeQuark && interval.intersects(t)) {
-                return interval;
+        ConcurrentLinkedQueue<HTInterval> pending = getPending(attributeQuark);
+        if (pending != null) {
+            for (HTInterval interval : pending) {
+                if (interval.getEndTime() >= t) {
+                    if (interval.getStartTime() <= t) {
+                        return interval;
+                    }
+                    break;
+                }
             }
         }
 
         /*
          * If we missed it again, it's because it got inserted in the tree
-         * *while we were iterating* on the queue. One last pass in the tree
-         * should find it.
+         * *while we were iterating* on the pending intervals, they are removed
+         * once in the tree. One last pass in the tree should find it.
          *
          * This case is really rare, which is why we do a second pass at the end
-         * if needed, instead of systematically checking in the queue first
-         * (which is slow).
+         * if needed, instead of systematically checking the pending intervals
+         * first.
          */
         return super.doSingularQuery(t, attributeQuark);
     }
 
+    // ------------------------------------------------------------------------
+    // Pending intervals
+    // ------------------------------------------------------------------------
+
+    private @Nullable ConcurrentLinkedQueue<HTInterval> getPending(int quark) {
+        AtomicReferenceArray<@Nullable ConcurrentLinkedQueue<HTInterval>> pending = fPendingIntervals;
+        return (quark >= 0 && quark < pending.length()) ? pending.get(quark) : null;
+    }
+
+    private ConcurrentLinkedQueue<HTInterval> getOrCreatePending(int quark) {
+        ConcurrentLinkedQueue<HTInterval> queue = getPending(quark);
+        if (queue != null) {
+            return queue;
+        }
+        synchronized (this) {
+            AtomicReferenceArray<@Nullable ConcurrentLinkedQueue<HTInterval>> pending = fPendingIntervals;
+            if (quark >= pending.length()) {
+                /* The queues are shared by the old and new arrays */
+                AtomicReferenceArray<@Nullable ConcurrentLinkedQueue<HTInterval>> bigger = new AtomicReferenceArray<>(Math.max(quark + 1, pending.length() * 2));
+                for (int i = 0; i < pending.length(); i++) {
+                    bigger.set(i, pending.get(i));
+                }
+                fPendingIntervals = bigger;
+                pending = bigger;
+            }
+            queue = pending.get(quark);
+            if (queue == null) {
+                queue = new ConcurrentLinkedQueue<>();
+                pending.set(quark, queue);
+            }
+            return queue;
+        }
+    }
+
+    private void removePending(HTInterval interval) {
+        ConcurrentLinkedQueue<HTInterval> queue = getPending(interval.getAttribute());
+        if (queue != null && queue.peek() == interval) {
+            queue.poll();
+        } else if (queue != null) {
+            /* Not expected, the intervals of a quark are inserted in order */
+            queue.remove(interval);
+        }
+    }
+
+    /**
+     * Get the pending intervals of the quarks that intersect the times, at the
+     * time of the call
+     */
+    private Set<@NonNull HTInterval> getPendingIntervals(IntegerRangeCondition quarks, TimeRangeCondition times) {
+        AtomicReferenceArray<@Nullable ConcurrentLinkedQueue<HTInterval>> pending = fPendingIntervals;
+        Set<@NonNull HTInterval> intervals = new LinkedHashSet<>();
+        int high = Math.min(quarks.max(), pending.length() - 1);
+        for (int quark = Math.max(quarks.min(), 0); quark <= high; quark++) {
+            ConcurrentLinkedQueue<HTInterval> queue = pending.get(quark);
+            if (queue != null && quarks.test(quark)) {
+                for (HTInterval interval : queue) {
+                    if (times.intersects(interval.getStartTime(), interval.getEndTime())) {
+                        intervals.add(interval);
+                    }
+                }
+            }
+        }
+        return intervals;
+    }
+
     @Override
     public Iterable<@NonNull ITmfStateInterval> query2D(IntegerRangeCondition quarks, TimeRangeCondition times)
             throws TimeRangeException {
@@ -301,17 +395,49 @@ public final class ThreadedHistoryTreeBackend extends HistoryTreeBackend
                 "ssid", getSSID(), //$NON-NLS-1$
                 "quarks", quarks, //$NON-NLS-1$
                 "timeCondition", times)) { //$NON-NLS-1$
+            if (isFinishedBuilding()) {
+                return super.query2D(quarks, times);
+            }
             /*
              * There can still be intervals in the queue, search the
-             * HistoryTreeBackend, then the queue for the intervals we need.
-             * Iterables will lazily evaluate the BBQ only once the
-             * HistoryTreeBackend is consumed and if the construction still
-             * isn't done.
+             * HistoryTreeBackend, then the pending intervals of the quarks for
+             * the intervals we need. The pending intervals are taken before
+             * the tree is searched: an interval is only removed from them once
+             * in the tree, so it is found in either. The ones that reached the
+             * tree in the meantime are skipped there.
              */
-            Iterable<@NonNull HTInterval> queuedIntervals = Iterables.filter(intervalQueue,
-                    interval -> !isFinishedBuilding() && quarks.test(interval.getAttribute())
-                            && times.intersects(interval.getStartTime(), interval.getEndTime()));
-            return Iterables.concat(super.query2D(quarks, times), queuedIntervals);
+            return () -> {
+                Set<@NonNull HTInterval> pending = getPendingIntervals(quarks, times);
+                Iterator<@NonNull ITmfStateInterval> treeIntervals = super.query2D(quarks, times).iterator();
+                if (!pending.isEmpty()) {
+                    treeIntervals = Iterators.filter(treeIntervals, interval -> !pending.contains(interval));
+                }
+                return Iterators.concat(treeIntervals, pending.iterator());
+            };
+        }
+    }
+
+    @Override
+    public void doQueryMatrix(TmfStateIntervalMatrix matrix) throws TimeRangeException, StateSystemDisposedException {
+        if (isFinishedBuilding()) {
+            super.doQueryMatrix(matrix);
+            return;
+        }
+        /*
+         * As for query2D, take the pending intervals before searching the
+         * tree. The ones that reached the tree in the meantime are added
+         * twice, the matrix keeps only one state per cell.
+         */
+        int[] quarks = matrix.getQuarks();
+        long[] times = matrix.getTimes();
+        if (quarks.length == 0 || times.length == 0) {
+            return;
+        }
+        Set<@NonNull HTInterval> pending = getPendingIntervals(IntegerRangeCondition.forDiscreteRange(Ints.asList(quarks)),
+                TimeRangeCondition.forDiscreteRange(Longs.asList(times)));
+        super.doQueryMatrix(matrix);
+        for (HTInterval interval : pending) {
+            matrix.add(interval);
         }
     }
 }
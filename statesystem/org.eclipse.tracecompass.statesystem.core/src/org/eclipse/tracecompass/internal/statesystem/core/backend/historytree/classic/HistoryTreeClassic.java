@@ -228,6 +228,7 @@ public class HistoryTreeClassic implements IHistoryTree {
             throw new IOException("Inconsistent start times in the" + //$NON-NLS-1$
                     "history file, it might be corrupted."); //$NON-NLS-1$
         }
+        fTreeIO.mapNodes(fNodeCount);
     }
 
     /**
@@ -310,6 +311,9 @@ public class HistoryTreeClassic implements IHistoryTree {
                  */
                 throw new RuntimeException("State system write error", e); //$NON-NLS-1$
             }
+
+            /* The nodes will not change anymore, read them from memory */
+            fTreeIO.mapNodes(fNodeCount);
         }
     }
 
@@ -23,8 +23,12 @@ import org.eclipse.tracecompass.statesystem.core.exceptions.AttributeNotFoundExc
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateIntervalMatrix;
 import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
 
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+
 
 /**
  * This is the read-only interface to the generic state system. It contains all
@@ -534,4 +538,39 @@ public interface ITmfStateSystem {
      */
     Iterable<@NonNull ITmfStateInterval> query2D(@NonNull Collection<Integer> quarks,
             long start, long end) throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException;
-}
\ No newline at end of file
+
+    /**
+     * Multiple attribute and multiple times query, returning the state of each
+     * attribute at each timestamp. The intervals are read in one pass over
+     * the history, and stored once for all the timestamps they contain, without
+     * creating interval objects. This is the query to use to sample states
+     * over a time range, to draw a time graph for example.
+     *
+     * @param quarks
+     *            The attributes to query, without duplicates
+     * @param times
+     *            The timestamps to query, sorted in ascending order
+     * @return The states, as a matrix with a row per attribute and a column
+     *         per timestamp
+     * @throws StateSystemDisposedException
+     *             If the query is sent after the state system has been disposed
+     * @throws IndexOutOfBoundsException
+     *             If the smallest attribute is {@literal <} 0 or if the largest
+     *             is {@literal >=} to the number of attributes.
+     * @throws TimeRangeException
+     *             If the smallest time is before the state system start time.
+     * @throws IllegalArgumentException
+     *             If a quark is repeated or if the times are not sorted
+     * @since 5.2
+     */
+    default TmfStateIntervalMatrix queryMatrix(int @NonNull [] quarks, long @NonNull [] times)
+            throws StateSystemDisposedException, IndexOutOfBoundsException, TimeRangeException {
+        TmfStateIntervalMatrix matrix = new TmfStateIntervalMatrix(quarks, times);
+        if (quarks.length > 0 && times.length > 0) {
+            for (ITmfStateInterval interval : query2D(Ints.asList(quarks), Longs.asList(times))) {
+                matrix.add(interval);
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.statesystem.core.StateSystem;
+import org.eclipse.tracecompass.internal.statesystem.core.backend.TimeSliceBackend;
+import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
+import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateInterval;
+
+/**
+ * Builds the history of a state system in time slices, which can be built
+ * independently, typically in parallel, and are then stitched together into a
+ * single history.
+ *
+ * Each slice has its own state system, see {@link #getSlice(int)}, in which
+ * the attributes start with an unknown state: until it is modified in the
+ * slice, an attribute keeps the state it had at the end of the previous
+ * slices. The states written to a slice must thus not depend on the states
+ * written before the start of the slice: an attribute must not be read before
+ * being modified in the slice, and states must only be modified between the
+ * start of the slice and the start of the next one. The state systems of the
+ * slices do not keep their history, only their ongoing state can be queried.
+ *
+ * The intervals of the slices are kept in files until they are stitched, see
+ * {@link #stitch(IStateHistoryBackend)}, the files are deleted when this
+ * object is closed.
+ *
+ * @since 5.2
+ */
+@NonNullByDefault
+public final class StateSystemTimeSlices implements AutoCloseable {
+
+    private final long[] fSliceStarts;
+    private final TimeSliceBackend[] fBackends;
+    private final StateSystem[] fSlices;
+
+    /**
+     * Constructor
+     *
+     * @param ssid
+     *            The ID of the state system
+     * @param sliceStarts
+     *            The start times of the slices, in strictly increasing order.
+     *            The first one is the start time of the history.
+     * @param directory
+     *            The directory where to keep the intervals of the slices until
+     *            they are stitched
+     * @throws IOException
+     *             If the files of the slices could not be created
+     */
+    public StateSystemTimeSlices(String ssid, long[] sliceStarts, File directory) throws IOException {
+        if (sliceStarts.length == 0) {
+            throw new IllegalArgumentException("There must be at least one time slice"); //$NON-NLS-1$
+        }
+        for (int i = 1; i < sliceStarts.length; i++) {
+            if (sliceStarts[i] <= sliceStarts[i - 1]) {
+                throw new IllegalArgumentException("The time slices must be in increasing order: " + Arrays.toString(sliceStarts)); //$NON-NLS-1$
+            }
+        }
+        fSliceStarts = Arrays.copyOf(sliceStarts, sliceStarts.length);
+        fBackends = new TimeSliceBackend[sliceStarts.length];
+        fSlices = new StateSystem[sliceStarts.length];
+        try {
+            for (int i = 0; i < sliceStarts.length; i++) {
+                File file = File.createTempFile(ssid + ".slice" + i, ".tmp", directory); //$NON-NLS-1$ //$NON-NLS-2$
+                /*
+                 * The slices after the first start just before their first
+                 * event, the states at that time are the unknown states.
+                 */
+                long start = (i == 0) ? sliceStarts[i] : sliceStarts[i] - 1;
+                TimeSliceBackend backend = new TimeSliceBackend(ssid, start, file);
+                fBackends[i] = backend;
+                fSlices[i] = new StateSystem(backend);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of slices
+     *
+     * @return The number of slices
+     */
+    public int getSliceCount() {
+        return fSliceStarts.length;
+    }
+
+    /**
+     * Get the start time of a slice, the time of the first states that can be
+     * written to this slice
+     *
+     * @param index
+     *            The index of the slice
+     * @return The start time of the slice
+     */
+    public long getSliceStart(int index) {
+        return fSliceStarts[index];
+    }
+
+    /**
+     * Get the state system of a slice. Its history must be closed, with
+     * {@link ITmfStateSystemBuilder#closeHistory(long)}, before the slices are
+     * stitched.
+     *
+     * @param index
+     *            The index of the slice
+     * @return The state system in which to write the states of the slice
+     */
+    public ITmfStateSystemBuilder getSlice(int index) {
+        return fSlices[index];
+    }
+
+    /**
+     * Stitch the slices together into a new state system, once they are all
+     * built. The attributes get the quarks they have in the first slice they
+     * appear in, in the order of the slices, and the unknown states at the
+     * start of the slices are replaced by the states at the end of the
+     * previous slices.
+     *
+     * @param backend
+     *            The new, empty, backend of the state system, starting at the
+     *            start time of the first slice
+     * @return The stitched state system, its history is closed at the end of
+     *         the last slice
+     * @throws IOException
+     *             If the intervals of the slices could not be read
+     */
+    public ITmfStateSystemBuilder stitch(IStateHistoryBackend backend) throws IOException {
+        if (backend.getStartTime() != fSliceStarts[0]) {
+            throw new IllegalArgumentException("The backend must start at the start of the first slice: " + backend.getStartTime()); //$NON-NLS-1$
+        }
+        StitchedStateSystem ss = new StitchedStateSystem(backend);
+        Stitcher stitcher = new Stitcher(ss, backend);
+        long endTime = fSliceStarts[0];
+        for (int i = 0; i < fSlices.length; i++) {
+            TimeSliceBackend sliceBackend = fBackends[i];
+            if (!sliceBackend.isFinished()) {
+                throw new IllegalStateException("The history of time slice " + i + " was not closed"); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            long sliceEnd = sliceBackend.getEndTime();
+            if (i < fSlices.length - 1 && sliceEnd >= fSliceStarts[i + 1]) {
+                throw new IllegalStateException("Time slice " + i + " has states after its end: " + sliceEnd); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            stitcher.startSlice(fSlices[i], i == 0 ? Long.MIN_VALUE : sliceBackend.getStartTime(), sliceEnd);
+            sliceBackend.forEachInterval(stitcher::insert);
+            endTime = Math.max(endTime, sliceEnd);
+        }
+        stitcher.finish(endTime);
+        return ss;
+    }
+
+    @Override
+    public void close() {
+        for (TimeSliceBackend backend : fBackends) {
+            if (backend != null) {
+                backend.removeFiles();
+            }
+        }
+    }
+
+    /**
+     * The stitched state system, its history is inserted directly in the
+     * backend so its ongoing state is set at the end.
+     */
+    private static final class StitchedStateSystem extends StateSystem {
+
+        public StitchedStateSystem(IStateHistoryBackend backend) {
+            super(backend);
+        }
+
+        public void setOngoingState(List<@NonNull ITmfStateInterval> ongoing) {
+            replaceOngoingState(ongoing);
+        }
+    }
+
+    /**
+     * Inserts the intervals of the slices in the backend, in order. The last
+     * state of each attribute is pending until the next slices show where it
+     * ends, it is kept as the ongoing state of the state system at the end.
+     */
+    private static final class Stitcher {
+
+        private final StitchedStateSystem fStateSystem;
+        private final IStateHistoryBackend fBackend;
+        private final long fStartTime;
+
+        private long[] fPendingStarts = new long[0];
+        private @Nullable Object[] fPendingValues = new Object[0];
+
+        private int[] fQuarks = new int[0];
+        private long fSliceStart;
+        private long fSliceEnd;
+
+        public Stitcher(StitchedStateSystem ss, IStateHistoryBackend backend) {
+            fStateSystem = ss;
+            fBackend = backend;
+            fStartTime = backend.getStartTime();
+        }
+
+        public void startSlice(StateSystem slice, long sliceStart, long sliceEnd) {
+            int nbAttributes = slice.getNbAttributes();
+            fQuarks = new int[nbAttributes];
+            for (int quark = 0; quark < nbAttributes; quark++) {
+                fQuarks[quark] = fStateSystem.getQuarkAbsoluteAndAdd(slice.getFullAttributePathArray(quark));
+            }
+            int nbStitched = fStateSystem.getNbAttributes();
+            if (nbStitched > fPendingStarts.length) {
+                int previous = fPendingStarts.length;
+                fPendingStarts = Arrays.copyOf(fPendingStarts, nbStitched);
+                fPendingValues = Arrays.copyOf(fPendingValues, nbStitched);
+                /* New attributes were in the null state until now */
+                Arrays.fill(fPendingStarts, previous, nbStitched, fStartTime);
+            }
+            fSliceStart = sliceStart;
+            fSliceEnd = sliceEnd;
+        }
+
+        public void insert(ITmfStateInterval interval) {
+            int quark = fQuarks[interval.getAttribute()];
+            boolean unknown = (interval.getStartTime() == fSliceStart);
+            boolean last = (interval.getEndTime() == fSliceEnd);
+            if (unknown && last) {
+                /* Not modified in this slice, the pending state goes on */
+                return;
+            }
+            if (unknown) {
+                /* The pending state lasts until the first change in this slice */
+                fBackend.insertPastState(fPendingStarts[quark], interval.getEndTime(), quark, fPendingValues[quark]);
+            } else if (last) {
+                fPendingStarts[quark] = interval.getStartTime();
+                fPendingValues[quark] = interval.getValue();
+            } else {
+                fBackend.insertPastState(interval.getStartTime(), interval.getEndTime(), quark, interval.getValue());
+            }
+        }
+
+        public void finish(long endTime) {
+            List<@NonNull ITmfStateInterval> ongoing = new ArrayList<>(fPendingStarts.length);
+            for (int quark = 0; quark < fPendingStarts.length; quark++) {
+                ongoing.add(new TmfStateInterval(fPendingStarts[quark], endTime, quark, fPendingValues[quark]));
+            }
+            fStateSystem.setOngoingState(ongoing);
+            fStateSystem.closeHistory(endTime);
+        }
+    }
+}
@@ -25,8 +25,12 @@ import org.eclipse.tracecompass.internal.provisional.datastore.core.condition.Ti
 import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.exceptions.TimeRangeException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
+import org.eclipse.tracecompass.statesystem.core.interval.TmfStateIntervalMatrix;
 import org.eclipse.tracecompass.statesystem.core.statevalue.TmfStateValue;
 
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+
 /**
  * The main difference between StateSystem and StateHistorySystem is that SHS
  * allows 'seeking' back in time to reload a Current State at a previous time.
@@ -292,6 +296,34 @@ public interface IStateHistoryBackend {
         return query2D(quarkCondition, timeCondition);
     }
 
+    /**
+     * Query the states of a set of attributes at a set of timestamps, and add
+     * them to a matrix. The default implementation adds the intervals returned
+     * by {@link #query2D(IntegerRangeCondition, TimeRangeCondition)}, which
+     * visits the intervals matching any of the timestamps only once.
+     *
+     * @param matrix
+     *            The matrix to fill, with the quarks and timestamps to query
+     * @throws TimeRangeException
+     *             if the time bounds are outside the range of the backend
+     * @throws StateSystemDisposedException
+     *             If the state system is disposed while a request is ongoing.
+     * @since 5.2
+     */
+    default void doQueryMatrix(TmfStateIntervalMatrix matrix)
+            throws TimeRangeException, StateSystemDisposedException {
+        int[] quarks = matrix.getQuarks();
+        long[] times = matrix.getTimes();
+        if (quarks.length == 0 || times.length == 0) {
+            return;
+        }
+        IntegerRangeCondition quarkCondition = IntegerRangeCondition.forDiscreteRange(Ints.asList(quarks));
+        TimeRangeCondition timeCondition = TimeRangeCondition.forDiscreteRange(Longs.asList(times));
+        for (ITmfStateInterval interval : query2D(quarkCondition, timeCondition)) {
+            matrix.add(interval);
+        }
+    }
+
     /**
      * Defines whether backend is able to insert states before existing states.
      *
@@ -0,0 +1,457 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.statesystem.core.interval;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The result of a state system query over a set of attributes and a sorted
+ * set of timestamps, see
+ * {@link org.eclipse.tracecompass.statesystem.core.ITmfStateSystem#queryMatrix(int[], long[])}.
+ *
+ * It can be seen as a matrix where each row is an attribute and each column a
+ * timestamp, and each cell the state of the attribute at the timestamp. As
+ * consecutive timestamps usually fall in the same interval, the states are
+ * stored once per interval, with the range of columns it covers, in primitive
+ * arrays. No interval object is created, unless requested with
+ * {@link #getInterval(int, int)}.
+ *
+ * The states of a row can be read per cell, or per interval in the order of
+ * the timestamps, which is the order needed to draw them.
+ *
+ * This class is not thread safe. It is filled by the query, and can then be
+ * read by one thread.
+ *
+ * @since 5.2
+ */
+public final class TmfStateIntervalMatrix {
+
+    private static final int INITIAL_ROW_CAPACITY = 4;
+
+    private final int[] fQuarks;
+    private final long[] fTimes;
+    /* Row of the quarks, indexed by quark - fMinQuark */
+    private final int[] fRows;
+    private final int fMinQuark;
+
+    /* The intervals of each row, sorted by their first column when read */
+    private final Row[] fRowData;
+
+    private static final class Row {
+        private int fCount = 0;
+        private boolean fSorted = true;
+        private int[] fFirstColumns = new int[INITIAL_ROW_CAPACITY];
+        private int[] fLastColumns = new int[INITIAL_ROW_CAPACITY];
+        private long[] fStarts = new long[INITIAL_ROW_CAPACITY];
+        private long[] fEnds = new long[INITIAL_ROW_CAPACITY];
+        private @Nullable Object[] fValues = new @Nullable Object[INITIAL_ROW_CAPACITY];
+
+        private void add(int firstColumn, int lastColumn, long start, long end, @Nullable Object value) {
+            if (fCount == fFirstColumns.length) {
+                int capacity = fCount * 2;
+                fFirstColumns = Arrays.copyOf(fFirstColumns, capacity);
+                fLastColumns = Arrays.copyOf(fLastColumns, capacity);
+                fStarts = Arrays.copyOf(fStarts, capacity);
+                fEnds = Arrays.copyOf(fEnds, capacity);
+                fValues = Arrays.copyOf(fValues, capacity);
+            }
+            if (fCount > 0 && fFirstColumns[fCount - 1] >= firstColumn) {
+                fSorted = false;
+            }
+            fFirstColumns[fCount] = firstColumn;
+            fLastColumns[fCount] = lastColumn;
+            fStarts[fCount] = start;
+            fEnds[fCount] = end;
+            fValues[fCount] = value;
+            fCount++;
+        }
+
+        /**
+         * Sort the intervals by column, and remove the duplicates that a query
+         * can return while the state system is being built.
+         */
+        private void sort() {
+            if (fSorted) {
+                return;
+            }
+            /*
+             * Sort the first columns with the index in the low bits, the order
+             * of insertion is kept for equal columns.
+             */
+            long[] order = new long[fCount];
+            for (int i = 0; i < fCount; i++) {
+                order[i] = ((long) fFirstColumns[i] << 32) | i;
+            }
+            Arrays.sort(order);
+            int[] firstColumns = new int[fCount];
+            int[] lastColumns = new int[fCount];
+            long[] starts = new long[fCount];
+            long[] ends = new long[fCount];
+            @Nullable Object[] values = new @Nullable Object[fCount];
+            int count = 0;
+            for (long key : order) {
+                int i = (int) key;
+                if (count > 0 && firstColumns[count - 1] == fFirstColumns[i]) {
+                    continue;
+                }
+                firstColumns[count] = fFirstColumns[i];
+                lastColumns[count] = fLastColumns[i];
+                starts[count] = fStarts[i];
+                ends[count] = fEnds[i];
+                values[count] = fValues[i];
+                count++;
+            }
+            fFirstColumns = firstColumns;
+            fLastColumns = lastColumns;
+            fStarts = starts;
+            fEnds = ends;
+            fValues = values;
+            fCount = count;
+            fSorted = true;
+        }
+
+        /* Index of the interval containing the column, or -1 */
+        private int find(int column) {
+            sort();
+            int low = 0;
+            int high = fCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (fLastColumns[mid] < column) {
+                    low = mid + 1;
+                } else if (fFirstColumns[mid] > column) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Constructor
+     *
+     * @param quarks
+     *            The attributes to query, without duplicates
+     * @param times
+     *            The timestamps to query, sorted in ascending order
+     * @throws IllegalArgumentException
+     *             If a quark is repeated or if the times are not sorted
+     */
+    public TmfStateIntervalMatrix(int[] quarks, long[] times) {
+        for (int i = 1; i < times.length; i++) {
+            if (times[i] < times[i - 1]) {
+                throw new IllegalArgumentException("The times must be sorted"); //$NON-NLS-1$
+            }
+        }
+        fQuarks = Arrays.copyOf(quarks, quarks.length);
+        fTimes = Arrays.copyOf(times, times.length);
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int quark : quarks) {
+            min = Math.min(min, quark);
+            max = Math.max(max, quark);
+        }
+        fMinQuark = min;
+        fRows = new int[quarks.length == 0 ? 0 : max - min + 1];
+        Arrays.fill(fRows, -1);
+        fRowData = new Row[quarks.length];
+        for (int row = 0; row < quarks.length; row++) {
+            int index = quarks[row] - min;
+            if (fRows[index] != -1) {
+                throw new IllegalArgumentException("Duplicate quark " + quarks[row]); //$NON-NLS-1$
+            }
+            fRows[index] = row;
+            fRowData[row] = new Row();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Filling
+    // ------------------------------------------------------------------------
+
+    /**
+     * Add an interval to the matrix. It is stored for all the timestamps it
+     * contains. Intervals of other attributes, or that do not contain any of
+     * the timestamps, are ignored.
+     *
+     * @param quark
+     *            The attribute of the interval
+     * @param start
+     *            The start time of the interval
+     * @param end
+     *            The end time of the interval
+     * @param value
+     *            The value of the interval
+     */
+    public void add(int quark, long start, long end, @Nullable Object value) {
+        int row = getRow(quark);
+        if (row < 0) {
+            return;
+        }
+        int firstColumn = lowerBound(start);
+        int lastColumn = (end == Long.MAX_VALUE ? fTimes.length : lowerBound(end + 1)) - 1;
+        if (firstColumn > lastColumn) {
+            return;
+        }
+        fRowData[row].add(firstColumn, lastColumn, start, end, value);
+    }
+
+    /**
+     * Add an interval to the matrix, see {@link #add(int, long, long, Object)}
+     *
+     * @param interval
+     *            The interval
+     */
+    public void add(ITmfStateInterval interval) {
+        add(interval.getAttribute(), interval.getStartTime(), interval.getEndTime(), interval.getValue());
+    }
+
+    /* Index of the first time >= t */
+    private int lowerBound(long t) {
+        int low = 0;
+        int high = fTimes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (fTimes[mid] < t) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // ------------------------------------------------------------------------
+    // Dimensions
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the queried attributes, one per row
+     *
+     * @return A copy of the quarks
+     */
+    public int[] getQuarks() {
+        return Arrays.copyOf(fQuarks, fQuarks.length);
+    }
+
+    /**
+     * Get the queried timestamps, one per column
+     *
+     * @return A copy of the timestamps
+     */
+    public long[] getTimes() {
+        return Arrays.copyOf(fTimes, fTimes.length);
+    }
+
+    /**
+     * Get the row of an attribute
+     *
+     * @param quark
+     *            The attribute
+     * @return The row, or -1 if the attribute was not queried
+     */
+    public int getRow(int quark) {
+        long index = (long) quark - fMinQuark;
+        if (index < 0 || index >= fRows.length) {
+            return -1;
+        }
+        return fRows[(int) index];
+    }
+
+    // ------------------------------------------------------------------------
+    // Cell accessors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get whether there is a state for a cell. There may be none if the time is
+     * after the end of the state system, or before the creation of the
+     * attribute during the state system construction.
+     *
+     * @param row
+     *            The row of the attribute
+     * @param column
+     *            The column of the timestamp
+     * @return true if the cell has a state
+     */
+    public boolean hasState(int row, int column) {
+        return fRowData[row].find(column) >= 0;
+    }
+
+    /**
+     * Get the value of the state of a cell
+     *
+     * @param row
+     *            The row of the attribute
+     * @param column
+     *            The column of the timestamp
+     * @return The value, null if it is a null state or if there is no state
+     */
+    public @Nullable Object getValue(int row, int column) {
+        Row data = fRowData[row];
+        int index = data.find(column);
+        return (index < 0 ? null : data.fValues[index]);
+    }
+
+    /**
+     * Get the start time of the state of a cell
+     *
+     * @param row
+     *            The row of the attribute
+     * @param column
+     *            The column of the timestamp
+     * @return The start time of the state
+     * @throws IllegalStateException
+     *             If there is no state for this cell
+     */
+    public long getStartTime(int row, int column) {
+        Row data = fRowData[row];
+        return data.fStarts[checkIndex(data.find(column))];
+    }
+
+    /**
+     * Get the end time of the state of a cell
+     *
+     * @param row
+     *            The row of the attribute
+     * @param column
+     *            The column of the timestamp
+     * @return The end time of the state
+     * @throws IllegalStateException
+     *             If there is no state for this cell
+     */
+    public long getEndTime(int row, int column) {
+        Row data = fRowData[row];
+        return data.fEnds[checkIndex(data.find(column))];
+    }
+
+    /**
+     * Get the state of a cell as an interval object
+     *
+     * @param row
+     *            The row of the attribute
+     * @param column
+     *            The column of the timestamp
+     * @return The state interval, or null if there is no state for this cell
+     */
+    public @Nullable ITmfStateInterval getInterval(int row, int column) {
+        Row data = fRowData[row];
+        int index = data.find(column);
+        if (index < 0) {
+            return null;
+        }
+        return new TmfStateInterval(data.fStarts[index], data.fEnds[index], fQuarks[row], data.fValues[index]);
+    }
+
+    private static int checkIndex(int index) {
+        if (index < 0) {
+            throw new IllegalStateException("No state for this cell"); //$NON-NLS-1$
+        }
+        return index;
+    }
+
+    // ------------------------------------------------------------------------
+    // Interval accessors
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the number of distinct states of a row
+     *
+     * @param row
+     *            The row of the attribute
+     * @return The number of states, which can be read in order of time with
+     *         the index accessors
+     */
+    public int getStateCount(int row) {
+        Row data = fRowData[row];
+        data.sort();
+        return data.fCount;
+    }
+
+    /**
+     * Get the first column of the index-th state of a row
+     *
+     * @param row
+     *            The row of the attribute
+     * @param index
+     *            The index of the state in the row
+     * @return The first column covered by the state
+     */
+    public int getStateFirstColumn(int row, int index) {
+        Row data = fRowData[row];
+        data.sort();
+        return data.fFirstColumns[index];
+    }
+
+    /**
+     * Get the last column of the index-th state of a row
+     *
+     * @param row
+     *            The row of the attribute
+     * @param index
+     *            The index of the state in the row
+     * @return The last column covered by the state
+     */
+    public int getStateLastColumn(int row, int index) {
+        Row data = fRowData[row];
+        data.sort();
+        return data.fLastColumns[index];
+    }
+
+    /**
+     * Get the start time of the index-th state of a row
+     *
+     * @param row
+     *            The row of the attribute
+     * @param index
+     *            The index of the state in the row
+     * @return The start time of the state
+     */
+    public long getStateStartTime(int row, int index) {
+        Row data = fRowData[row];
+        data.sort();
+        return data.fStarts[index];
+    }
+
+    /**
+     * Get the end time of the index-th state of a row
+     *
+     * @param row
+     *            The row of the attribute
+     * @param index
+     *            The index of the state in the row
+     * @return The end time of the state
+     */
+    public long getStateEndTime(int row, int index) {
+        Row data = fRowData[row];
+        data.sort();
+        return data.fEnds[index];
+    }
+
+    /**
+     * Get the value of the index-th state of a row
+     *
+     * @param row
+     *            The row of the attribute
+     * @param index
+     *            The index of the state in the row
+     * @return The value of the state
+     */
+    public @Nullable Object getStateValue(int row, int index) {
+        Row data = fRowData[row];
+        data.sort();
+        return data.fValues[index];
+    }
+}
@@ -175,6 +175,38 @@ public class TmfXmlFsmCuTest {
 
     };
 
+    private static final @NonNull CompilationResult VALID_KEY = new CompilationResult() {
+
+        @Override
+        public String getName() {
+            return "key";
+        }
+
+        @Override
+        public String getXmlString() {
+            return String.format(WRAPPER_STRING,
+                    TEST1 + ACTION1 + String.format(FSM_START, getName(), "initial=\"" + STATE1_NAME + "\" key=\"tid\"") +
+                            String.format(STATE_START, STATE1_NAME) +
+                            String.format(TRANSITION_STRING, EVENTS_STRING, String.format(ACTION_STRING, ACTION1_NAME), String.format(TEST_STRING, TEST1_NAME), String.format(TARGET_STRING, STATE1_NAME), StringUtils.EMPTY, StringUtils.EMPTY) +
+                            STATE_END +
+                            FSM_END);
+        }
+
+        @Override
+        public DataDrivenFsm getResult() {
+            DataDrivenFsmSimpleState state = new DataDrivenFsmSimpleState(STATE1_NAME,
+                    Collections.singletonList(new DataDrivenFsmStateTransition(EVENT_CONDITION,
+                            TEST1_DD,
+                            STATE1_NAME,
+                            Collections.singletonList(ACTION1_DD))),
+                    DataDrivenAction.NO_ACTION, DataDrivenAction.NO_ACTION);
+            return new DataDrivenFsm(getName(), state,
+                    ImmutableMap.of(STATE1_NAME, state), DataDrivenCondition.TRUE_CONDITION, true, true,
+                    new DataDrivenValueEventField(null, ITmfStateValue.Type.NULL, "tid"));
+        }
+
+    };
+
     private static final @NonNull CompilationResult VALID_SAVE_CLEAR_FIELDS = new CompilationResult() {
 
         @Override
@@ -555,6 +587,7 @@ public class TmfXmlFsmCuTest {
         return Arrays.asList(new Object[][] {
                 { VALID_ONE_STATE_FINAL },
                 { VALID_ONE_STATE_LOOP },
+                { VALID_KEY },
                 { VALID_SAVE_CLEAR_FIELDS },
                 { VALID_MULTIPLE_ACTIONS_TESTS },
                 { VALID_MULTIPLE_STATES_TRANSITIONS },
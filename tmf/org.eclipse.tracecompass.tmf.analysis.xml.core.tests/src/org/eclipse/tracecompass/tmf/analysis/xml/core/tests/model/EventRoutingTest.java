@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.analysis.xml.core.tests.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenAction;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenCondition;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenCondition.ConditionOperator;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenEventHandler;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenFsm;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenFsmSimpleState;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenFsmStateTransition;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime.DataDrivenRuntimeData;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.values.DataDrivenValueConstant;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.values.DataDrivenValueEventField;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.values.DataDrivenValueEventName;
+import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Test the resolution, by event name, of the event handlers and the FSM
+ * transitions that can be taken for the events of that name
+ */
+public class EventRoutingTest {
+
+    private static final @NonNull String SYSCALL = "syscall_entry_open";
+    private static final @NonNull String SCHED = "sched_switch";
+    private static final @NonNull String IRQ = "irq_handler_entry";
+
+    private static final @NonNull DataDrivenCondition SYSCALL_CONDITION = new DataDrivenCondition.DataDrivenRegexCondition(Pattern.compile("syscall_entry_.*"),
+            new DataDrivenValueEventName(null));
+    private static final @NonNull DataDrivenCondition SCHED_CONDITION = new DataDrivenCondition.DataDrivenRegexCondition(Pattern.compile(SCHED),
+            new DataDrivenValueEventName(null));
+    private static final @NonNull DataDrivenCondition CPU_CONDITION = new DataDrivenCondition.DataDrivenComparisonCondition(new DataDrivenValueConstant(null, ITmfStateValue.Type.NULL, 0),
+            new DataDrivenValueEventField(null, ITmfStateValue.Type.NULL, "cpu"), ConditionOperator.EQ);
+
+    private static DataDrivenFsm createFsm(String id, DataDrivenCondition eventCondition) {
+        DataDrivenFsmStateTransition transition = new DataDrivenFsmStateTransition(eventCondition, CPU_CONDITION, "final", Collections.emptyList());
+        DataDrivenFsmSimpleState state = new DataDrivenFsmSimpleState("state", Collections.singletonList(transition), DataDrivenAction.NO_ACTION, DataDrivenAction.NO_ACTION);
+        DataDrivenFsmSimpleState finalState = DataDrivenFsmSimpleState.createFinalState("final");
+        return new DataDrivenFsm(id, state, ImmutableMap.of("state", state, "final", finalState), DataDrivenCondition.TRUE_CONDITION, false, true);
+    }
+
+    /**
+     * Test the event names the conditions can match
+     */
+    @Test
+    public void testConditions() {
+        assertTrue(SYSCALL_CONDITION.canMatchEventName(SYSCALL));
+        assertFalse(SYSCALL_CONDITION.canMatchEventName(SCHED));
+
+        DataDrivenCondition or = new DataDrivenCondition.DataDrivenOrCondition(ImmutableList.of(SYSCALL_CONDITION, SCHED_CONDITION));
+        assertTrue(or.canMatchEventName(SYSCALL));
+        assertTrue(or.canMatchEventName(SCHED));
+        assertFalse(or.canMatchEventName(IRQ));
+
+        DataDrivenCondition and = new DataDrivenCondition.DataDrivenAndCondition(ImmutableList.of(SCHED_CONDITION, CPU_CONDITION));
+        assertTrue(and.canMatchEventName(SCHED));
+        assertFalse(and.canMatchEventName(IRQ));
+
+        /* Conditions that do not depend only on the event name may match */
+        assertTrue(CPU_CONDITION.canMatchEventName(IRQ));
+        assertTrue(DataDrivenCondition.TRUE_CONDITION.canMatchEventName(IRQ));
+        assertTrue(new DataDrivenCondition.DataDrivenNotCondition(SCHED_CONDITION).canMatchEventName(SCHED));
+        DataDrivenCondition mapped = new DataDrivenCondition.DataDrivenRegexCondition(Pattern.compile(SCHED), new DataDrivenValueEventName("group"));
+        assertTrue(mapped.canMatchEventName(IRQ));
+    }
+
+    /**
+     * Test the event names an event handler applies to
+     */
+    @Test
+    public void testEventHandler() {
+        DataDrivenEventHandler handler = new DataDrivenEventHandler("syscall_entry_*", Collections.emptyList());
+        assertTrue(handler.appliesToEvent(SYSCALL));
+        assertFalse(handler.appliesToEvent(SCHED));
+    }
+
+    /**
+     * Test the FSMs resolved for each event name
+     */
+    @Test
+    public void testFsms() {
+        DataDrivenFsm syscallFsm = createFsm("syscall", SYSCALL_CONDITION);
+        DataDrivenFsm schedFsm = createFsm("sched", SCHED_CONDITION);
+        assertTrue(syscallFsm.canHandleEvent(SYSCALL));
+        assertFalse(syscallFsm.canHandleEvent(SCHED));
+        assertFalse(syscallFsm.getState("final").canTakeTransition(SYSCALL));
+
+        List<DataDrivenFsm> fsms = ImmutableList.of(syscallFsm, schedFsm);
+        DataDrivenRuntimeData runtimeData = new DataDrivenRuntimeData();
+        Set<DataDrivenFsm> syscallFsms = runtimeData.getFsmsForEvent(SYSCALL, fsms);
+        assertEquals(1, syscallFsms.size());
+        assertTrue(syscallFsms.contains(syscallFsm));
+        assertSame(syscallFsms, runtimeData.getFsmsForEvent(SYSCALL, fsms));
+        assertEquals(Collections.singleton(schedFsm), runtimeData.getFsmsForEvent(SCHED, fsms));
+        assertTrue(runtimeData.getFsmsForEvent(IRQ, fsms).isEmpty());
+    }
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.analysis.xml.core.tests.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenAction;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenCondition;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenFsm;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenFsmSimpleState;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenFsmStateTransition;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenMappingGroup;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenPatternEventHandler;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime.DataDrivenRuntimeData;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime.DataDrivenRuntimeFsm;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime.DataDrivenScenario;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.values.DataDrivenValueEventField;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.values.DataDrivenValueEventName;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.module.IAnalysisDataContainer;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventField;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
+import org.eclipse.tracecompass.tmf.core.statesystem.TmfAttributePool;
+import org.eclipse.tracecompass.tmf.core.statesystem.TmfAttributePool.QueueType;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Test that the scenarios of an FSM with a key only handle the events with
+ * their key
+ */
+public class ScenarioKeyTest {
+
+    private static final @NonNull String REQUEST_START = "request_start";
+    private static final @NonNull String REQUEST_END = "request_end";
+    private static final @NonNull String ID_FIELD = "id";
+
+    /**
+     * A container of the scenarios in an in-memory state system
+     */
+    private static class ScenarioContainer implements IAnalysisDataContainer {
+
+        private final ITmfStateSystemBuilder fStateSystem = StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("test", 0));
+        private final Map<Integer, TmfAttributePool> fAttributePools = new HashMap<>();
+
+        @Override
+        public ITmfStateSystem getStateSystem() {
+            return fStateSystem;
+        }
+
+        @Override
+        public DataDrivenMappingGroup getMappingGroup(String id) {
+            throw new IllegalStateException("No mapping group in this test");
+        }
+
+        @Override
+        public boolean isReadOnlyContainer() {
+            return false;
+        }
+
+        @Override
+        public @Nullable TmfAttributePool getAttributePool(int startNodeQuark) {
+            return fAttributePools.computeIfAbsent(startNodeQuark, baseQuark -> new TmfAttributePool(fStateSystem, baseQuark, QueueType.PRIORITY));
+        }
+    }
+
+    private final TmfTraceStub fTrace = new TmfTraceStub();
+    private ScenarioContainer fContainer;
+    private DataDrivenRuntimeData fRuntimeData;
+    private DataDrivenFsm fFsm;
+    private DataDrivenPatternEventHandler fHandler;
+    private long fTime = 1;
+
+    private static DataDrivenCondition eventCondition(String name) {
+        return new DataDrivenCondition.DataDrivenRegexCondition(Pattern.compile(name), new DataDrivenValueEventName(null));
+    }
+
+    /**
+     * Create a request FSM with the ID of the request as key. Its transitions
+     * do not test the ID, so only the key correlates the events.
+     */
+    @Before
+    public void setUp() {
+        DataDrivenFsmSimpleState start = new DataDrivenFsmSimpleState("start",
+                Collections.singletonList(new DataDrivenFsmStateTransition(eventCondition(REQUEST_START), DataDrivenCondition.TRUE_CONDITION, "in_progress", Collections.emptyList())),
+                DataDrivenAction.NO_ACTION, DataDrivenAction.NO_ACTION);
+        DataDrivenFsmSimpleState inProgress = new DataDrivenFsmSimpleState("in_progress",
+                Collections.singletonList(new DataDrivenFsmStateTransition(eventCondition(REQUEST_END), DataDrivenCondition.TRUE_CONDITION, "end", Collections.emptyList())),
+                DataDrivenAction.NO_ACTION, DataDrivenAction.NO_ACTION);
+        DataDrivenFsmSimpleState end = DataDrivenFsmSimpleState.createFinalState("end");
+        fFsm = new DataDrivenFsm("request", start, ImmutableMap.of("start", start, "in_progress", inProgress, "end", end),
+                DataDrivenCondition.TRUE_CONDITION, true, true, new DataDrivenValueEventField(null, ITmfStateValue.Type.NULL, ID_FIELD));
+        fHandler = new DataDrivenPatternEventHandler(Collections.singletonList(fFsm), Collections.singletonList(fFsm));
+        fContainer = new ScenarioContainer();
+        fRuntimeData = new DataDrivenRuntimeData();
+    }
+
+    /**
+     * Dispose the trace
+     */
+    @After
+    public void tearDown() {
+        fTrace.dispose();
+    }
+
+    private void handleEvent(String name, @Nullable Long id) {
+        ITmfEventField[] fields = (id == null) ? new ITmfEventField[0] : new ITmfEventField[] { new TmfEventField(ID_FIELD, id, null) };
+        ITmfEventField content = new TmfEventField(ITmfEventField.ROOT_FIELD_ID, null, fields);
+        ITmfEvent event = new TmfEvent(fTrace, fTime, TmfTimestamp.fromNanos(fTime), new TmfEventType(name, null), content);
+        fTime++;
+        fHandler.handleEvent(event, fContainer, fRuntimeData);
+    }
+
+    private DataDrivenScenario getScenario(long id) {
+        Collection<DataDrivenScenario> scenarios = fRuntimeData.getRuntimeForFsm(fFsm).getActiveScenarios(id);
+        assertEquals(1, scenarios.size());
+        return scenarios.iterator().next();
+    }
+
+    /**
+     * Test that the events of a request are only handled by the scenario of
+     * that request
+     */
+    @Test
+    public void testKeyedScenarios() {
+        DataDrivenRuntimeFsm runtimeFsm = fRuntimeData.getRuntimeForFsm(fFsm);
+        handleEvent(REQUEST_START, 1L);
+        handleEvent(REQUEST_START, 2L);
+        handleEvent(REQUEST_START, 3L);
+        assertEquals(3, runtimeFsm.getActiveScenarios().size());
+        DataDrivenScenario first = getScenario(1);
+        DataDrivenScenario second = getScenario(2);
+
+        /* The first scenario would take the transition if it was tested */
+        handleEvent(REQUEST_END, 2L);
+        assertTrue(first.isActive());
+        assertFalse(second.isActive());
+
+        /* The ended scenario is removed at the next event */
+        handleEvent(REQUEST_START, 4L);
+        assertEquals(3, runtimeFsm.getActiveScenarios().size());
+        assertTrue(runtimeFsm.getActiveScenarios(2L).isEmpty());
+
+        /* An event without the key is handled by all the scenarios */
+        handleEvent(REQUEST_END, null);
+        assertFalse(first.isActive());
+        assertTrue(getScenario(3).isActive());
+        assertTrue(getScenario(4).isActive());
+    }
+}
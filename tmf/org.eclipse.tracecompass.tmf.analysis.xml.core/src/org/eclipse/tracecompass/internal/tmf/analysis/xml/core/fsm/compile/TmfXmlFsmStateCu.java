@@ -26,6 +26,9 @@ import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDri
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenFsmSimpleState;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenFsmState;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenFsmStateTransition;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.values.DataDrivenValue;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.values.DataDrivenValueEventField;
+import org.eclipse.tracecompass.statesystem.core.statevalue.ITmfStateValue;
 import org.eclipse.tracecompass.tmf.analysis.xml.core.module.TmfXmlStrings;
 import org.eclipse.tracecompass.tmf.analysis.xml.core.module.TmfXmlUtils;
 import org.w3c.dom.Element;
@@ -48,6 +51,7 @@ public abstract class TmfXmlFsmStateCu implements IDataDrivenCompilationUnit {
         private final TmfXmlConditionCu fPreCondition;
         private final boolean fConsuming;
         private final boolean fMultipleInstances;
+        private final @Nullable String fKey;
 
         /**
          * Constructor
@@ -66,14 +70,18 @@ public abstract class TmfXmlFsmStateCu implements IDataDrivenCompilationUnit {
          *            parallel
          * @param preCondition
          *            The preconditions for this FSM
+         * @param key
+         *            The name of the event field that correlates the events of
+         *            a scenario, or <code>null</code> if there is none
          */
-        private TmfXmlFsmCu(String id, TmfXmlFsmStateCu initialStateCu, Collection<TmfXmlFsmSimpleStateCu> states, boolean consuming, boolean instanceMultipleEnabled, TmfXmlConditionCu preCondition) {
+        private TmfXmlFsmCu(String id, TmfXmlFsmStateCu initialStateCu, Collection<TmfXmlFsmSimpleStateCu> states, boolean consuming, boolean instanceMultipleEnabled, TmfXmlConditionCu preCondition, @Nullable String key) {
             super(id);
             fInitialState = initialStateCu;
             fStates = states;
             fPreCondition = preCondition;
             fConsuming = consuming;
             fMultipleInstances = instanceMultipleEnabled;
+            fKey = key;
         }
 
         @Override
@@ -82,7 +90,9 @@ public abstract class TmfXmlFsmStateCu implements IDataDrivenCompilationUnit {
                     .map(TmfXmlFsmSimpleStateCu::generate)
                     .collect(Collectors.toMap(DataDrivenFsmState::getId, state -> state));
 
-            return new DataDrivenFsm(getId(), fInitialState.generate(), states, fPreCondition.generate(), fConsuming, fMultipleInstances);
+            String keyField = fKey;
+            DataDrivenValue key = (keyField == null) ? null : new DataDrivenValueEventField(null, ITmfStateValue.Type.NULL, keyField);
+            return new DataDrivenFsm(getId(), fInitialState.generate(), states, fPreCondition.generate(), fConsuming, fMultipleInstances, key);
         }
 
     }
@@ -172,6 +182,8 @@ public abstract class TmfXmlFsmStateCu implements IDataDrivenCompilationUnit {
         String multipleInstancesStr = element.getAttribute(TmfXmlStrings.MULTIPLE);
         boolean consuming = consumingStr.isEmpty() ? true : Boolean.parseBoolean(consumingStr);
         boolean instanceMultipleEnabled = multipleInstancesStr.isEmpty() ? true : Boolean.parseBoolean(multipleInstancesStr);
+        String keyStr = element.getAttribute(TmfXmlStrings.KEY);
+        String key = keyStr.isEmpty() ? null : keyStr;
 
         Map<String, TmfXmlFsmSimpleStateCu> states = new HashMap<>();
         // Create the FSM states, without transitions yet
@@ -284,7 +296,7 @@ public abstract class TmfXmlFsmStateCu implements IDataDrivenCompilationUnit {
         }
         TmfXmlConditionCu preCondition = TmfXmlConditionCu.createOrCondition(preConditions);
 
-        TmfXmlFsmCu fsm = new TmfXmlFsmCu(id, initialStateCu, states.values(), consuming, instanceMultipleEnabled, preCondition);
+        TmfXmlFsmCu fsm = new TmfXmlFsmCu(id, initialStateCu, states.values(), consuming, instanceMultipleEnabled, preCondition, key);
         analysisData.addFsm(id, fsm);
         return fsm;
     }
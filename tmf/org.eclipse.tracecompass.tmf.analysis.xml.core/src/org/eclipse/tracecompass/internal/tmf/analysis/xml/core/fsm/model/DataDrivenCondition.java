@@ -20,6 +20,7 @@ import java.util.regex.Pattern;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime.DataDrivenScenarioInfo;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.values.DataDrivenValue;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.values.DataDrivenValueEventName;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.module.IAnalysisDataContainer;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
@@ -338,6 +339,16 @@ public interface DataDrivenCondition extends IDataDrivenRuntimeObject {
             return true;
         }
 
+        @Override
+        public boolean canMatchEventName(String eventName) {
+            for (DataDrivenCondition cond : fConditions) {
+                if (!cond.canMatchEventName(eventName)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         @Override
         public int hashCode() {
             return Objects.hash(DataDrivenAndCondition.class, fConditions);
@@ -386,6 +397,16 @@ public interface DataDrivenCondition extends IDataDrivenRuntimeObject {
             return false;
         }
 
+        @Override
+        public boolean canMatchEventName(String eventName) {
+            for (DataDrivenCondition cond : fConditions) {
+                if (cond.canMatchEventName(eventName)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         @Override
         public int hashCode() {
             return Objects.hash(DataDrivenOrCondition.class, fConditions);
@@ -412,6 +433,8 @@ public interface DataDrivenCondition extends IDataDrivenRuntimeObject {
      */
     public static class DataDrivenRegexCondition implements DataDrivenCondition {
 
+        private static final DataDrivenValue EVENT_NAME_VALUE = new DataDrivenValueEventName(null);
+
         private final Pattern fPattern;
         private final DataDrivenValue fValue;
 
@@ -437,6 +460,15 @@ public interface DataDrivenCondition extends IDataDrivenRuntimeObject {
             return fPattern.matcher(String.valueOf(value)).matches();
         }
 
+        @Override
+        public boolean canMatchEventName(String eventName) {
+            // Only the name of the event, without mapping, is known in advance
+            if (!EVENT_NAME_VALUE.equals(fValue)) {
+                return true;
+            }
+            return fPattern.matcher(eventName).matches();
+        }
+
         @Override
         public int hashCode() {
             return Objects.hash(String.valueOf(fPattern), fValue);
@@ -475,4 +507,18 @@ public interface DataDrivenCondition extends IDataDrivenRuntimeObject {
      */
     boolean test(ITmfEvent event, DataDrivenScenarioInfo scenarioInfo, IAnalysisDataContainer container);
 
+    /**
+     * Get whether this condition can be true for an event of a given name. It
+     * is used to resolve, once per event name, which conditions need to be
+     * tested for the events of that name.
+     *
+     * @param eventName
+     *            The name of the event
+     * @return <code>false</code> if this condition can never be true for an
+     *         event of this name, <code>true</code> if it may be
+     */
+    default boolean canMatchEventName(String eventName) {
+        return true;
+    }
+
 }
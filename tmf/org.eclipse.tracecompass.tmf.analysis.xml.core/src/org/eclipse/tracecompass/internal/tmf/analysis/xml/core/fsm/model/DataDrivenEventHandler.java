@@ -48,13 +48,21 @@ public class DataDrivenEventHandler implements IDataDrivenRuntimeObject {
         fStateChanges = actions;
     }
 
-    private boolean appliesToEvent(ITmfEvent event) {
-        String eventName = event.getName();
+    /**
+     * Get whether this handler applies to the events of a given name
+     *
+     * @param eventName
+     *            The name of the event
+     * @return <code>true</code> if the events of this name are handled by
+     *         this handler
+     */
+    public boolean appliesToEvent(String eventName) {
         return fEventName.matcher(eventName).matches();
     }
 
     /**
-     * Handle the event, ie execute the actions if the event matches the name
+     * Handle the event, ie execute the actions. The name of the event should
+     * have been verified with {@link #appliesToEvent(String)}.
      *
      * @param event
      *            The event to handle
@@ -64,9 +72,6 @@ public class DataDrivenEventHandler implements IDataDrivenRuntimeObject {
      *            The analysis data container
      */
     public void handleEvent(ITmfEvent event, DataDrivenScenarioInfo scenarioInfo, DataDrivenStateProvider container) {
-        if (!appliesToEvent(event)) {
-            return;
-        }
         fStateChanges.forEach(change -> change.eventHandle(event, scenarioInfo, container));
     }
 
@@ -21,7 +21,9 @@ import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime.DataDrivenRuntimeFsm;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime.DataDrivenScenario;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime.DataDrivenScenarioInfo;
+import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.values.DataDrivenValue;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.module.IAnalysisDataContainer;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 
 /**
@@ -37,6 +39,7 @@ public class DataDrivenFsm extends DataDrivenFsmState {
     private final DataDrivenCondition fPrecondition;
     private final boolean fConsuming;
     private final boolean fMultipleInstances;
+    private final @Nullable DataDrivenValue fKey;
 
     /**
      * Constructor
@@ -58,12 +61,42 @@ public class DataDrivenFsm extends DataDrivenFsmState {
      *            Whether multiple scenarios are allowed for this state machine
      */
     public DataDrivenFsm(String id, DataDrivenFsmState initial, Map<String, DataDrivenFsmSimpleState> states, DataDrivenCondition preCondition, boolean consuming, boolean multipleInstances) {
+        this(id, initial, states, preCondition, consuming, multipleInstances, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param id
+     *            The ID of this FSM
+     * @param initial
+     *            The initial state
+     * @param states
+     *            The map of states for this state machine
+     * @param preCondition
+     *            The precondition that should be matched for this state machine
+     *            to be considered
+     * @param consuming
+     *            Whether the state machine is consuming, ie if a transition is
+     *            taken from any one scenario, then the other scenarios will not
+     *            be considered
+     * @param multipleInstances
+     *            Whether multiple scenarios are allowed for this state machine
+     * @param key
+     *            The value that correlates the events of a scenario, like a
+     *            thread or request ID, or <code>null</code> if the events are
+     *            not correlated. An event with a key is only handled by the
+     *            scenarios that were activated by an event with the same key,
+     *            and by the ones activated without a key.
+     */
+    public DataDrivenFsm(String id, DataDrivenFsmState initial, Map<String, DataDrivenFsmSimpleState> states, DataDrivenCondition preCondition, boolean consuming, boolean multipleInstances, @Nullable DataDrivenValue key) {
         super(id);
         fInitial = initial;
         fStates = states;
         fPrecondition = preCondition;
         fConsuming = consuming;
         fMultipleInstances = multipleInstances;
+        fKey = key;
     }
 
     /**
@@ -98,6 +131,31 @@ public class DataDrivenFsm extends DataDrivenFsmState {
                 && runtimeFsm.getPendingScenario() == null;
     }
 
+    /**
+     * Get whether a scenario of this FSM can change state on an event of a
+     * given name. The events of other names do not need to be handled by this
+     * FSM.
+     *
+     * @param eventName
+     *            The name of the event
+     * @return <code>false</code> if no transition of this FSM can be taken for
+     *         an event of this name
+     */
+    public boolean canHandleEvent(String eventName) {
+        if (!fPrecondition.canMatchEventName(eventName)) {
+            return false;
+        }
+        if (fInitial.canTakeTransition(eventName)) {
+            return true;
+        }
+        for (DataDrivenFsmSimpleState state : fStates.values()) {
+            if (state.canTakeTransition(eventName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Let the FSM try to handle this event
      *
@@ -117,15 +175,25 @@ public class DataDrivenFsm extends DataDrivenFsmState {
         }
 
         DataDrivenRuntimeFsm runtimeFsm = executionData.getRuntimeForFsm(this);
+        runtimeFsm.removeEndedScenarios();
         boolean eventConsumed = false;
+        Object key = getKey(event, container);
 
         // First handle the active scenarios
-        eventConsumed = handleActiveScenarios(event, runtimeFsm, container);
+        eventConsumed = handleActiveScenarios(event, key, runtimeFsm, container);
         // Then handle the pending scenario
-        handlePendingScenario(event, eventConsumed, runtimeFsm, container);
+        handlePendingScenario(event, key, eventConsumed, runtimeFsm, container);
     }
 
-    private void handlePendingScenario(ITmfEvent event, boolean eventConsumed, DataDrivenRuntimeFsm runtimeFsm, IAnalysisDataContainer container) {
+    private @Nullable Object getKey(ITmfEvent event, IAnalysisDataContainer container) {
+        DataDrivenValue key = fKey;
+        if (key == null) {
+            return null;
+        }
+        return key.getValue(event, ITmfStateSystem.ROOT_ATTRIBUTE, DataDrivenScenarioInfo.DUMMY_SCENARIO, container);
+    }
+
+    private void handlePendingScenario(ITmfEvent event, @Nullable Object key, boolean eventConsumed, DataDrivenRuntimeFsm runtimeFsm, IAnalysisDataContainer container) {
         if (fConsuming && eventConsumed) {
             return;
         }
@@ -134,7 +202,10 @@ public class DataDrivenFsm extends DataDrivenFsmState {
         if (scenario != null) {
             scenario.handleEvent(event, container);
             if (!scenario.isPending()) {
-                runtimeFsm.activatePending();
+                runtimeFsm.activatePending(key);
+                if (!scenario.isActive()) {
+                    runtimeFsm.scenarioEnded(scenario);
+                }
             }
         }
     }
@@ -144,23 +215,30 @@ public class DataDrivenFsm extends DataDrivenFsmState {
      *
      * @param event
      *            The ongoing event
+     * @param key
+     *            The key of the event, only the scenarios with this key or
+     *            without a key are handled. All of them if it is
+     *            <code>null</code>.
      * @param runtimeFsm
      *            The map of transition
      * @param container
      *            The data container
      * @return True if the event has been consumed by the active scenarios
      */
-    private boolean handleActiveScenarios(ITmfEvent event, DataDrivenRuntimeFsm runtimeFsm, IAnalysisDataContainer container) {
+    private boolean handleActiveScenarios(ITmfEvent event, @Nullable Object key, DataDrivenRuntimeFsm runtimeFsm, IAnalysisDataContainer container) {
 
         boolean eventConsumed = false;
         List<DataDrivenScenario> toRemove = new ArrayList<>();
-        for (DataDrivenScenario scenario : runtimeFsm.getActiveScenarios()) {
+        for (DataDrivenScenario scenario : runtimeFsm.getActiveScenarios(key)) {
             // Remove inactive scenarios or handle the active ones.
             if (!scenario.isActive()) {
                 toRemove.add(scenario);
             } else {
                 if (scenario.isActive() || scenario.isPending()) {
                     eventConsumed |= scenario.handleEvent(event, container);
+                    if (!scenario.isActive()) {
+                        runtimeFsm.scenarioEnded(scenario);
+                    }
                     if (fConsuming && eventConsumed) {
                         break;
                     }
@@ -204,7 +282,7 @@ public class DataDrivenFsm extends DataDrivenFsmState {
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), fInitial, fStates, fPrecondition, fConsuming, fMultipleInstances);
+        return Objects.hash(super.hashCode(), fInitial, fStates, fPrecondition, fConsuming, fMultipleInstances, fKey);
     }
 
     @Override
@@ -218,13 +296,14 @@ public class DataDrivenFsm extends DataDrivenFsmState {
                 Objects.equals(fPrecondition, other.fPrecondition) &&
                 Objects.equals(fConsuming, other.fConsuming) &&
                 Objects.equals(fMultipleInstances, other.fMultipleInstances) &&
+                Objects.equals(fKey, other.fKey) &&
                 Objects.equals(fStates, other.fStates);
     }
 
     @Override
     public String toString() {
         return "FSM " + getId() + ':' + fInitial + ' ' + fPrecondition + ' ' + fConsuming + ' ' + fMultipleInstances + //$NON-NLS-1$
-                ' ' + fStates;
+                ' ' + fKey + ' ' + fStates;
     }
 
 }
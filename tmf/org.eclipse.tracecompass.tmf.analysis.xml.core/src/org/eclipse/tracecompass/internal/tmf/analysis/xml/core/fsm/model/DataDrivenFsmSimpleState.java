@@ -13,7 +13,9 @@ package org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime.DataDrivenScenarioInfo;
@@ -28,9 +30,17 @@ import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
  */
 public class DataDrivenFsmSimpleState extends DataDrivenFsmState {
 
+    private static final DataDrivenFsmStateTransition[] NO_TRANSITION = new DataDrivenFsmStateTransition[0];
+
     private final List<DataDrivenFsmStateTransition> fTransitions;
     private final DataDrivenAction fOnEntry;
     private final DataDrivenAction fOnExit;
+    /*
+     * The transitions that can be taken for each event name, resolved the
+     * first time an event of that name is handled. The states are shared by
+     * the executions of the analysis, so it needs to be thread-safe.
+     */
+    private final Map<String, DataDrivenFsmStateTransition[]> fTransitionsByEvent = new ConcurrentHashMap<>();
 
     /**
      * Create a final state (ie without transitions or actions) with the given
@@ -65,7 +75,7 @@ public class DataDrivenFsmSimpleState extends DataDrivenFsmState {
 
     @Override
     public @Nullable DataDrivenFsmState takeTransition(ITmfEvent event, DataDrivenScenarioInfo scenarioInfo, IAnalysisDataContainer container) {
-        for (DataDrivenFsmStateTransition transition : fTransitions) {
+        for (DataDrivenFsmStateTransition transition : getTransitions(event.getName())) {
             if (transition.canTake(event, scenarioInfo, container)) {
                 // We have a valid transition, start by executing the onExit actions
                 fOnExit.eventHandle(event, scenarioInfo, container);
@@ -80,6 +90,20 @@ public class DataDrivenFsmSimpleState extends DataDrivenFsmState {
         return null;
     }
 
+    private DataDrivenFsmStateTransition[] getTransitions(String eventName) {
+        return fTransitionsByEvent.computeIfAbsent(eventName, name -> {
+            DataDrivenFsmStateTransition[] transitions = fTransitions.stream()
+                    .filter(transition -> transition.canTake(name))
+                    .toArray(DataDrivenFsmStateTransition[]::new);
+            return transitions.length == 0 ? NO_TRANSITION : transitions;
+        });
+    }
+
+    @Override
+    public boolean canTakeTransition(String eventName) {
+        return getTransitions(eventName).length > 0;
+    }
+
     @Override
     public boolean isFinal() {
         return fTransitions.isEmpty();
@@ -62,6 +62,19 @@ public class DataDrivenFsmState implements IDataDrivenRuntimeObject {
         return null;
     }
 
+    /**
+     * Get whether a transition out of this state can be taken for an event of
+     * a given name
+     *
+     * @param eventName
+     *            The name of the event
+     * @return <code>false</code> if no transition out of this state can be
+     *         taken for an event of this name
+     */
+    public boolean canTakeTransition(String eventName) {
+        return false;
+    }
+
     /**
      * Return whether this state is a final state, ie has no transitions from it
      *
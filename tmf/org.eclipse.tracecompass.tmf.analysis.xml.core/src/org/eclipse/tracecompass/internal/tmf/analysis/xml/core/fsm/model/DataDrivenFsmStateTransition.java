@@ -67,6 +67,19 @@ public class DataDrivenFsmStateTransition implements IDataDrivenRuntimeObject {
         return fEvents.test(event, scenarioInfo, container) && fCondition.test(event, scenarioInfo, container);
     }
 
+    /**
+     * Get whether this transition can be taken for an event of a given name,
+     * without testing the event itself
+     *
+     * @param eventName
+     *            The name of the event
+     * @return <code>false</code> if this transition can never be taken for an
+     *         event of this name
+     */
+    public boolean canTake(String eventName) {
+        return fEvents.canMatchEventName(eventName) && fCondition.canMatchEventName(eventName);
+    }
+
     /**
      * Take this transition and return the next state
      *
@@ -93,8 +93,15 @@ public class DataDrivenPatternEventHandler implements IDataDrivenRuntimeObject {
                 fsm.createScenario(event, false, runtimeData, container);
             }
         }
+        // Only the FSMs with a transition for this event need to handle it
+        Set<DataDrivenFsm> eventFsms = runtimeData.getFsmsForEvent(event.getName(), fFsms);
+        if (eventFsms.isEmpty()) {
+            return;
+        }
         for (DataDrivenFsm fsm : activeFsmList) {
-            fsm.handleEvent(event, runtimeData, container);
+            if (eventFsms.contains(fsm)) {
+                fsm.handleEvent(event, runtimeData, container);
+            }
         }
     }
 
@@ -11,8 +11,12 @@
 
 package org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.DataDrivenFsm;
 
@@ -30,6 +34,7 @@ public class DataDrivenRuntimeData {
     public static final DataDrivenRuntimeData DEFAULT = new DataDrivenRuntimeData();
 
     private final Map<DataDrivenFsm, DataDrivenRuntimeFsm> fFsmRuntime = new HashMap<>();
+    private final Map<String, Set<DataDrivenFsm>> fFsmsByEvent = new HashMap<>();
     private DataDrivenScenarioHistoryBuilder fHistoryBuilder = new DataDrivenScenarioHistoryBuilder();
 
     /**
@@ -43,6 +48,29 @@ public class DataDrivenRuntimeData {
         return fFsmRuntime.computeIfAbsent(fsm, dataDrivenRuntimeFsm -> new DataDrivenRuntimeFsm());
     }
 
+    /**
+     * Get the FSMs that can handle the events of a given name. They are
+     * resolved the first time an event of that name is handled by this
+     * analysis execution.
+     *
+     * @param eventName
+     *            The name of the event
+     * @param fsms
+     *            All the FSMs of the analysis
+     * @return The FSMs that can handle the event, compared by identity
+     */
+    public Set<DataDrivenFsm> getFsmsForEvent(String eventName, Collection<DataDrivenFsm> fsms) {
+        return fFsmsByEvent.computeIfAbsent(eventName, name -> {
+            Set<DataDrivenFsm> eventFsms = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (DataDrivenFsm fsm : fsms) {
+                if (fsm.canHandleEvent(name)) {
+                    eventFsms.add(fsm);
+                }
+            }
+            return eventFsms.isEmpty() ? Collections.emptySet() : eventFsms;
+        });
+    }
+
     /**
      * Get the history builder for this analysis execution
      *
@@ -12,7 +12,13 @@
 package org.eclipse.tracecompass.internal.tmf.analysis.xml.core.fsm.model.runtime;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.eclipse.jdt.annotation.Nullable;
 
@@ -27,7 +33,12 @@ public class DataDrivenRuntimeFsm {
 
     private int fScenarioCount = 0;
     private @Nullable DataDrivenScenario fPendingScenario = null;
-    private List<DataDrivenScenario> fActiveScenarios = new ArrayList<>();
+    /* The active scenarios, in the order of activation, with their key */
+    private final Map<DataDrivenScenario, @Nullable Object> fActiveScenarios = new LinkedHashMap<>();
+    /* The active scenarios that have a key, by key */
+    private final Map<Object, List<DataDrivenScenario>> fScenariosByKey = new HashMap<>();
+    private int fUnkeyedScenarioCount = 0;
+    private final List<DataDrivenScenario> fEndedScenarios = new ArrayList<>();
 
     /**
      * Get the number of active scenarios
@@ -66,10 +77,39 @@ public class DataDrivenRuntimeFsm {
     /**
      * Get the active scenarios
      *
-     * @return The list of active scenarios
+     * @return The active scenarios, in the order they were activated
      */
-    public List<DataDrivenScenario> getActiveScenarios() {
-        return fActiveScenarios;
+    public Collection<DataDrivenScenario> getActiveScenarios() {
+        return fActiveScenarios.keySet();
+    }
+
+    /**
+     * Get the active scenarios that can handle an event with a given key, ie
+     * the scenarios with this key and the ones without a key
+     *
+     * @param key
+     *            The key of the event, or <code>null</code> if the event has
+     *            no key, in which case all the active scenarios are returned
+     * @return The active scenarios for this key, in the order they were
+     *         activated
+     */
+    public Collection<DataDrivenScenario> getActiveScenarios(@Nullable Object key) {
+        if (key == null) {
+            return fActiveScenarios.keySet();
+        }
+        List<DataDrivenScenario> scenarios = fScenariosByKey.getOrDefault(key, Collections.emptyList());
+        if (fUnkeyedScenarioCount == 0) {
+            return scenarios;
+        }
+        // Keep the order of activation of the keyed and unkeyed scenarios
+        List<DataDrivenScenario> keyScenarios = new ArrayList<>();
+        for (Entry<DataDrivenScenario, @Nullable Object> entry : fActiveScenarios.entrySet()) {
+            Object scenarioKey = entry.getValue();
+            if (scenarioKey == null || scenarioKey.equals(key)) {
+                keyScenarios.add(entry.getKey());
+            }
+        }
+        return keyScenarios;
     }
 
     /**
@@ -79,20 +119,67 @@ public class DataDrivenRuntimeFsm {
      *            The scenario to remove
      */
     public void removeScenario(DataDrivenScenario scenario) {
-        if (fActiveScenarios.remove(scenario)) {
-            fScenarioCount--;
+        if (!fActiveScenarios.containsKey(scenario)) {
+            return;
+        }
+        Object key = fActiveScenarios.remove(scenario);
+        if (key == null) {
+            fUnkeyedScenarioCount--;
+        } else {
+            List<DataDrivenScenario> scenarios = fScenariosByKey.get(key);
+            if (scenarios != null) {
+                scenarios.remove(scenario);
+                if (scenarios.isEmpty()) {
+                    fScenariosByKey.remove(key);
+                }
+            }
         }
+        fScenarioCount--;
     }
 
     /**
      * Active the pending scenario. There will be no pending scenario after this
+     *
+     * @param key
+     *            The key of the scenario, ie the key of the event that
+     *            activated it, or <code>null</code> if it has no key
      */
-    public synchronized void activatePending() {
+    public synchronized void activatePending(@Nullable Object key) {
         DataDrivenScenario pendingScenario = fPendingScenario;
         if (pendingScenario != null) {
             fPendingScenario = null;
-            fActiveScenarios.add(pendingScenario);
+            fActiveScenarios.put(pendingScenario, key);
+            if (key == null) {
+                fUnkeyedScenarioCount++;
+            } else {
+                fScenariosByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(pendingScenario);
+            }
+        }
+    }
+
+    /**
+     * Mark an active scenario as ended. It will be removed by the next call to
+     * {@link #removeEndedScenarios()}, so scenarios that are not visited again,
+     * because no other event has their key, do not stay in memory.
+     *
+     * @param scenario
+     *            The scenario that is not active anymore
+     */
+    public void scenarioEnded(DataDrivenScenario scenario) {
+        fEndedScenarios.add(scenario);
+    }
+
+    /**
+     * Remove the scenarios marked as ended
+     */
+    public void removeEndedScenarios() {
+        if (fEndedScenarios.isEmpty()) {
+            return;
+        }
+        for (DataDrivenScenario scenario : fEndedScenarios) {
+            removeScenario(scenario);
         }
+        fEndedScenarios.clear();
     }
 
 }
@@ -39,7 +39,11 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
  */
 public class DataDrivenStateProvider extends AbstractTmfStateProvider implements IAnalysisDataContainer {
 
+    private static final DataDrivenEventHandler[] NO_HANDLER = new DataDrivenEventHandler[0];
+
     private final List<DataDrivenEventHandler> fEventHandlers;
+    /* The handlers that apply to each event name, resolved at its first event */
+    private final Map<String, DataDrivenEventHandler[]> fHandlersByEvent = new HashMap<>();
     private final Map<String, DataDrivenMappingGroup> fMappingGroups = new HashMap<>();
     private Map<String, ScriptEngine> fScriptengine = new HashMap<>();
     private final String fId;
@@ -82,7 +86,17 @@ public class DataDrivenStateProvider extends AbstractTmfStateProvider implements
 
     @Override
     protected void eventHandle(ITmfEvent event) {
-        fEventHandlers.forEach(handler -> handler.handleEvent(event, DataDrivenScenarioInfo.DUMMY_SCENARIO, this));
+        DataDrivenEventHandler[] handlers = fHandlersByEvent.computeIfAbsent(event.getName(), this::resolveHandlers);
+        for (DataDrivenEventHandler handler : handlers) {
+            handler.handleEvent(event, DataDrivenScenarioInfo.DUMMY_SCENARIO, this);
+        }
+    }
+
+    private DataDrivenEventHandler[] resolveHandlers(String eventName) {
+        DataDrivenEventHandler[] handlers = fEventHandlers.stream()
+                .filter(handler -> handler.appliesToEvent(eventName))
+                .toArray(DataDrivenEventHandler[]::new);
+        return handlers.length == 0 ? NO_HANDLER : handlers;
     }
 
     @Override
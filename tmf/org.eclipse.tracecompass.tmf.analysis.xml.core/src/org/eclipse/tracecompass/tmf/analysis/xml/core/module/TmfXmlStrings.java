@@ -279,6 +279,10 @@ public interface TmfXmlStrings {
     String ALIAS = "alias";
     String ABANDON = "abandon";
     String CONSUMING = "consuming";
+    /**
+     * @since 4.1
+     */
+    String KEY = "key";
     String MAPPING_GROUP = "mappingGroup";
     String ENTRY = "entry";
     String INITIAL_STATE = "initialState";
@@ -15,6 +15,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -29,6 +30,7 @@ import org.eclipse.tracecompass.internal.provisional.tmf.core.model.events.TmfEv
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.events.TmfEventTableDataProvider;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.events.TmfEventTableDataProvider.Direction;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.events.TmfEventTableFilterModel;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.events.TmfFilterRankIndex;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.filters.EventTableQueryFilter;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.filters.VirtualTableQueryFilter;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.EventTableLine;
@@ -37,7 +39,10 @@ import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.ITmfVi
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.TmfVirtualTableModel;
 import org.eclipse.tracecompass.internal.provisional.tmf.core.model.table.VirtualTableCell;
 import org.eclipse.tracecompass.internal.tmf.core.model.filters.FetchParametersUtils;
+import org.eclipse.tracecompass.tmf.core.event.aspect.TmfBaseAspects;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
+import org.eclipse.tracecompass.tmf.core.filter.model.TmfFilterMatchesNode;
+import org.eclipse.tracecompass.tmf.core.filter.model.TmfFilterRootNode;
 import org.eclipse.tracecompass.tmf.core.model.CoreFilterProperty;
 import org.eclipse.tracecompass.tmf.core.model.filters.TimeQueryFilter;
 import org.eclipse.tracecompass.tmf.core.model.tree.TmfTreeModel;
@@ -46,6 +51,7 @@ import org.eclipse.tracecompass.tmf.core.tests.shared.TmfTestTrace;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestampFormat;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
 import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -589,6 +595,126 @@ public class TmfEventTableDataProviderTest {
         assertEquals(expectedModel, currentModel);
     }
 
+    /**
+     * Given a filter, we check that the lines and the table indexes returned
+     * once the index of the events matching the filter is built are the same
+     * as when the trace is read.
+     *
+     * @throws InterruptedException
+     *             If the wait for the index is interrupted
+     */
+    @Test
+    public void testDataProviderWithFilterIndex() throws InterruptedException {
+        Long eventTypeColumnId = fColumns.get(EVENT_TYPE_COLUMN_NAME);
+        Long timestampColumnId = fColumns.get(TIMESTAMP_COLUMN_NAME);
+        assertNotNull(timestampColumnId);
+        assertNotNull(eventTypeColumnId);
+
+        /* Delete the index saved by a previous run, so the trace is read first */
+        File[] indexFiles = new File(TmfTraceManager.getSupplementaryFileDir(fTrace)).listFiles((dir, name) -> name.startsWith("filter-index-"));
+        if (indexFiles != null) {
+            for (File file : indexFiles) {
+                assertTrue(file.delete());
+            }
+        }
+
+        Map<Long, String> tableFilter = new HashMap<>();
+        tableFilter.put(eventTypeColumnId, "5");
+        TmfEventTableFilterModel filterModel = new TmfEventTableFilterModel(tableFilter, null, false);
+        int queryIndex = 700;
+        VirtualTableQueryFilter queryFilter = new EventTableQueryFilter(Arrays.asList(eventTypeColumnId, timestampColumnId), queryIndex, 10, filterModel);
+        Map<String, Object> parameters = FetchParametersUtils.virtualTableQueryToMap(queryFilter);
+        parameters.put(TmfEventTableDataProvider.TABLE_FILTERS_KEY, filterModel);
+
+        /* One event out of seven is of type 5, starting at rank 5 */
+        List<Long> expectedColumnsId = Arrays.asList(eventTypeColumnId, timestampColumnId);
+        List<EventTableLine> expectedData = new ArrayList<>();
+        for (int index = queryIndex; index < queryIndex + 10; index++) {
+            int rank = 7 * index + 5;
+            expectedData.add(new EventTableLine(Arrays.asList(new VirtualTableCell("Type-5"), new VirtualTableCell(lineTimestamp(rank + 1))), index, TmfTimestamp.fromMillis(rank + 1), rank, 0));
+        }
+        ITmfVirtualTableModel<EventTableLine> expectedModel = new TmfVirtualTableModel<>(expectedColumnsId, expectedData, queryIndex, 1428);
+        TmfEventTableDataProvider provider = (TmfEventTableDataProvider) fProvider;
+        long matchingRank = 7 * queryIndex + 5;
+
+        /* The index is not built yet, these queries read the trace */
+        assertEquals(expectedModel, provider.fetchLines(parameters, null).getModel());
+        assertEquals(Collections.singletonList((long) queryIndex), provider.fetchIndex(parameters, matchingRank, 0, null).getModel());
+        assertEquals(Collections.singletonList(queryIndex + 1L), provider.fetchIndex(parameters, matchingRank + 1, 0, null).getModel());
+
+        /* Wait for the index built in the background, for the same filter */
+        TmfFilterRootNode filter = new TmfFilterRootNode();
+        TmfFilterMatchesNode filterNode = new TmfFilterMatchesNode(null);
+        filterNode.setEventAspect(TmfBaseAspects.getEventTypeAspect());
+        filterNode.setRegex("5");
+        filter.addChild(filterNode);
+        TmfFilterRankIndex rankIndex = TmfFilterRankIndex.getIndex(fTrace, filter);
+        assertNotNull(rankIndex);
+        rankIndex.waitForCompletion();
+        assertTrue(rankIndex.isComplete(fTrace.getNbEvents()));
+
+        /* The same queries, with the index */
+        assertEquals(expectedModel, provider.fetchLines(parameters, null).getModel());
+        assertEquals(Collections.singletonList((long) queryIndex), provider.fetchIndex(parameters, matchingRank, 0, null).getModel());
+        assertEquals(Collections.singletonList(queryIndex + 1L), provider.fetchIndex(parameters, matchingRank + 1, 0, null).getModel());
+    }
+
+    /**
+     * Given a filter whose matches are further apart than the checkpoint
+     * interval, test that the lines fetched with the filter rank index are the
+     * same as the lines fetched by reading the trace.
+     *
+     * @throws InterruptedException
+     *             If the wait for the index is interrupted
+     */
+    @Test
+    public void testDataProviderWithSparseFilterIndex() throws InterruptedException {
+        Long timestampNsColumnId = fColumns.get(TIMESTAMP_NS_COLUMN_NAME);
+        assertNotNull(timestampNsColumnId);
+
+        /* Delete the index saved by a previous run, so the trace is read first */
+        File[] indexFiles = new File(TmfTraceManager.getSupplementaryFileDir(fTrace)).listFiles((dir, name) -> name.startsWith("filter-index-"));
+        if (indexFiles != null) {
+            for (File file : indexFiles) {
+                assertTrue(file.delete());
+            }
+        }
+
+        /* Every 2000 ms, so the matches are two checkpoints apart */
+        String regex = "[02468]000000000$";
+        Map<Long, String> tableFilter = new HashMap<>();
+        tableFilter.put(timestampNsColumnId, regex);
+        TmfEventTableFilterModel filterModel = new TmfEventTableFilterModel(tableFilter, null, false);
+        VirtualTableQueryFilter queryFilter = new EventTableQueryFilter(Collections.singletonList(timestampNsColumnId), 0, 10, filterModel);
+        Map<String, Object> parameters = FetchParametersUtils.virtualTableQueryToMap(queryFilter);
+        parameters.put(TmfEventTableDataProvider.TABLE_FILTERS_KEY, filterModel);
+
+        List<EventTableLine> expectedData = new ArrayList<>();
+        for (int index = 0; index < 5; index++) {
+            int millisecond = 2000 * (index + 1);
+            expectedData.add(new EventTableLine(Collections.singletonList(new VirtualTableCell(lineNsTimestamp(millisecond))), index, TmfTimestamp.fromMillis(millisecond), millisecond - 1, 0));
+        }
+        ITmfVirtualTableModel<EventTableLine> expectedModel = new TmfVirtualTableModel<>(Collections.singletonList(timestampNsColumnId), expectedData, 0, 5);
+        TmfEventTableDataProvider provider = (TmfEventTableDataProvider) fProvider;
+
+        /* The index is not built yet, this query reads the trace */
+        assertEquals(expectedModel, provider.fetchLines(parameters, null).getModel());
+
+        /* Wait for the index built in the background, for the same filter */
+        TmfFilterRootNode filter = new TmfFilterRootNode();
+        TmfFilterMatchesNode filterNode = new TmfFilterMatchesNode(null);
+        filterNode.setEventAspect(TmfBaseAspects.getTimestampNsAspect());
+        filterNode.setRegex(regex);
+        filter.addChild(filterNode);
+        TmfFilterRankIndex rankIndex = TmfFilterRankIndex.getIndex(fTrace, filter);
+        assertNotNull(rankIndex);
+        rankIndex.waitForCompletion();
+        assertTrue(rankIndex.isComplete(fTrace.getNbEvents()));
+
+        /* The same query, with the index, reading one run of events per match */
+        assertEquals(expectedModel, provider.fetchLines(parameters, null).getModel());
+    }
+
     /**
      * Sets a negative index to EventTableQueryFilter. Expected an
      * IllegalArgumentException
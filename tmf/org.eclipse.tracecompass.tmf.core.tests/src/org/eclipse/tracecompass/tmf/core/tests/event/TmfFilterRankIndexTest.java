@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.tracecompass.internal.provisional.tmf.core.model.events.TmfFilterRankIndex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the index of the events matching a filter, {@link TmfFilterRankIndex}
+ */
+public class TmfFilterRankIndexTest {
+
+    private static final String KEY = "root [Event type[null] matches \"1\"]";
+    private static final long NB_EVENTS = 10000;
+
+    private File fDir;
+    private File fFile;
+
+    /**
+     * Create the directory of the index files
+     *
+     * @throws IOException
+     *             If the directory cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fDir = Files.createTempDirectory("filter-index").toFile();
+        fFile = new File(fDir, "filter-index.idx");
+    }
+
+    /**
+     * Delete the index files
+     *
+     * @throws IOException
+     *             If the directory cannot be deleted
+     */
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(fDir);
+    }
+
+    /* Every third event matches */
+    private TmfFilterRankIndex buildIndex() throws IOException {
+        TmfFilterRankIndex index = new TmfFilterRankIndex(fFile, KEY);
+        index.start();
+        for (long rank = 0; rank < NB_EVENTS; rank++) {
+            if (rank % 3 == 1) {
+                index.add(rank);
+            }
+        }
+        assertFalse(index.isComplete(NB_EVENTS));
+        index.finish(NB_EVENTS);
+        return index;
+    }
+
+    private static void validate(TmfFilterRankIndex index) {
+        assertTrue(index.isComplete(NB_EVENTS));
+        assertFalse(index.isComplete(NB_EVENTS + 1));
+        assertEquals(NB_EVENTS, index.getNbEvents());
+        assertEquals(NB_EVENTS / 3, index.size());
+        for (long i = 0; i < index.size(); i++) {
+            assertEquals(3 * i + 1, index.getRank(i));
+        }
+        for (long rank = 0; rank < NB_EVENTS; rank++) {
+            /* The number of matching events before the rank */
+            assertEquals((rank + 1) / 3, index.getIndex(rank));
+        }
+        assertEquals(index.size(), index.getIndex(NB_EVENTS));
+    }
+
+    /**
+     * Test the queries of an index that was built
+     *
+     * @throws IOException
+     *             If the index cannot be written
+     */
+    @Test
+    public void testBuild() throws IOException {
+        validate(buildIndex());
+        /* Only the index file remains */
+        assertEquals(1, fDir.list().length);
+    }
+
+    /**
+     * Test reading an index saved by a previous build
+     *
+     * @throws IOException
+     *             If the index cannot be written
+     */
+    @Test
+    public void testLoad() throws IOException {
+        buildIndex();
+
+        TmfFilterRankIndex index = new TmfFilterRankIndex(fFile, KEY);
+        assertTrue(index.load(NB_EVENTS));
+        validate(index);
+
+        /* The index of another filter or of another number of events */
+        assertFalse(new TmfFilterRankIndex(fFile, KEY + " ").load(NB_EVENTS));
+        assertFalse(new TmfFilterRankIndex(fFile, KEY).load(NB_EVENTS + 1));
+    }
+
+    /**
+     * Test that an aborted build does not leave a file
+     *
+     * @throws IOException
+     *             If the index cannot be written
+     * @throws InterruptedException
+     *             If the wait is interrupted
+     */
+    @Test
+    public void testAbort() throws IOException, InterruptedException {
+        TmfFilterRankIndex index = new TmfFilterRankIndex(fFile, KEY);
+        index.start();
+        index.add(4);
+        index.abort();
+        index.waitForCompletion();
+        assertFalse(index.isComplete(NB_EVENTS));
+        assertEquals(0, fDir.list().length);
+        assertFalse(new TmfFilterRankIndex(fFile, KEY).load(NB_EVENTS));
+    }
+
+    /**
+     * Test that cancelling a build does not leave a file
+     *
+     * @throws IOException
+     *             If the index cannot be written
+     * @throws InterruptedException
+     *             If the wait is interrupted
+     */
+    @Test
+    public void testCancel() throws IOException, InterruptedException {
+        TmfFilterRankIndex index = new TmfFilterRankIndex(fFile, KEY);
+        index.start();
+        index.add(4);
+        index.cancel();
+        index.waitForCompletion();
+        assertFalse(index.isComplete(NB_EVENTS));
+        assertEquals(0, fDir.list().length);
+
+        /* Cancelling a complete index has no effect */
+        index = buildIndex();
+        index.cancel();
+        validate(index);
+    }
+
+    /**
+     * Test that the file of an evicted index is deleted, even if the index was
+     * being built
+     *
+     * @throws IOException
+     *             If the index cannot be written
+     */
+    @Test
+    public void testEvict() throws IOException {
+        TmfFilterRankIndex index = buildIndex();
+        assertTrue(fFile.exists());
+        index.evict();
+        assertFalse(fFile.exists());
+
+        index = new TmfFilterRankIndex(fFile, KEY);
+        index.start();
+        index.add(4);
+        index.evict();
+        index.finish(NB_EVENTS);
+        assertFalse(index.isComplete(NB_EVENTS));
+        assertEquals(0, fDir.list().length);
+    }
+}
@@ -20,13 +20,16 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.IllformedLocaleException;
+import java.util.List;
 import java.util.Vector;
 
 import org.eclipse.tracecompass.internal.tmf.core.component.TmfProviderManager;
 import org.eclipse.tracecompass.internal.tmf.core.request.TmfCoalescedEventRequest;
 import org.eclipse.tracecompass.tmf.core.component.ITmfEventProvider;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfTraceException;
 import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
 import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
@@ -346,6 +349,141 @@ public class TmfCoalescedEventRequestTest {
         assertTrue("isCancelled", subRequest2.isCancelled());
     }
 
+    // ------------------------------------------------------------------------
+    // Fan-out
+    // ------------------------------------------------------------------------
+
+    private static class RecordingRequest extends TmfEventRequest {
+        private final List<Long> fRanks = new ArrayList<>();
+        private final boolean fSlow;
+
+        public RecordingRequest(long index, int nbRequested, boolean slow) {
+            super(ITmfEvent.class, TmfTimeRange.ETERNITY, index, nbRequested, ExecutionType.FOREGROUND);
+            fSlow = slow;
+            setProviderFilter(event -> true);
+        }
+
+        @Override
+        public void handleData(ITmfEvent event) {
+            super.handleData(event);
+            fRanks.add(event.getRank());
+            if (fSlow && fRanks.size() % 1000 == 0) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that the sub-requests receive their events in order when they are
+     * dispatched on their own threads, even when one of them is slower than
+     * the others and the events do not fit in the ring buffer
+     */
+    @Test
+    public void testFanOut() {
+        final int nbEvents = 20000;
+        TmfTraceStub trace = new TmfTraceStub();
+        TmfCoalescedEventRequest request = new TmfCoalescedEventRequest(ITmfEvent.class, range1, 0, TmfEventRequest.ALL_DATA, ExecutionType.FOREGROUND, 0);
+        request.setProviderFilter(event -> true);
+        RecordingRequest all = new RecordingRequest(0, TmfEventRequest.ALL_DATA, false);
+        RecordingRequest slow = new RecordingRequest(0, TmfEventRequest.ALL_DATA, true);
+        RecordingRequest partial = new RecordingRequest(100, 5000, false);
+        request.addRequest(all);
+        request.addRequest(slow);
+        request.addRequest(partial);
+
+        request.start();
+        assertFalse("Event reuse", request.isEventReuseAllowed());
+        for (int i = 0; i < nbEvents; i++) {
+            request.handleData(new TmfEvent(trace, i, TmfTimestamp.fromNanos(i), null, null));
+        }
+        request.done();
+
+        assertTrue("isCompleted", all.isCompleted() && slow.isCompleted() && partial.isCompleted());
+        assertEquals(nbEvents, all.fRanks.size());
+        assertEquals(nbEvents, slow.fRanks.size());
+        assertEquals(5000, partial.fRanks.size());
+        for (int i = 0; i < nbEvents; i++) {
+            assertEquals(i, all.fRanks.get(i).longValue());
+            assertEquals(i, slow.fRanks.get(i).longValue());
+        }
+        for (int i = 0; i < partial.fRanks.size(); i++) {
+            assertEquals(i + 100, partial.fRanks.get(i).longValue());
+        }
+        trace.dispose();
+    }
+
+    /**
+     * Test cancelling a request while the events are dispatched to the
+     * sub-requests on their own threads
+     */
+    @Test
+    public void testFanOutCancel() {
+        TmfTraceStub trace = new TmfTraceStub();
+        TmfCoalescedEventRequest request = new TmfCoalescedEventRequest(ITmfEvent.class, range1, 0, TmfEventRequest.ALL_DATA, ExecutionType.FOREGROUND, 0);
+        request.setProviderFilter(event -> true);
+        RecordingRequest first = new RecordingRequest(0, TmfEventRequest.ALL_DATA, true);
+        RecordingRequest second = new RecordingRequest(0, TmfEventRequest.ALL_DATA, false);
+        request.addRequest(first);
+        request.addRequest(second);
+
+        request.start();
+        for (int i = 0; i < 10000; i++) {
+            request.handleData(new TmfEvent(trace, i, TmfTimestamp.fromNanos(i), null, null));
+        }
+        request.cancel();
+
+        assertTrue("isCancelled", request.isCancelled());
+        assertTrue("isCancelled", first.isCancelled() && second.isCancelled());
+        /* Events published after the cancellation are ignored */
+        int nbHandled = first.fRanks.size();
+        request.handleData(new TmfEvent(trace, 10000, TmfTimestamp.fromNanos(10000), null, null));
+        assertEquals(nbHandled, first.fRanks.size());
+        trace.dispose();
+    }
+
+    /**
+     * Test that a sub-request whose thread fails is failed, and that the
+     * others still receive all the events, even if they do not fit in the
+     * ring buffer
+     */
+    @Test
+    public void testFanOutFailure() {
+        final int nbEvents = 20000;
+        TmfTraceStub trace = new TmfTraceStub();
+        TmfCoalescedEventRequest request = new TmfCoalescedEventRequest(ITmfEvent.class, range1, 0, TmfEventRequest.ALL_DATA, ExecutionType.FOREGROUND, 0);
+        request.setProviderFilter(event -> true);
+        RecordingRequest failing = new RecordingRequest(0, TmfEventRequest.ALL_DATA, false) {
+            @Override
+            public void handleData(ITmfEvent event) {
+                super.handleData(event);
+                if (event.getRank() == 10) {
+                    /* Not an exception, which the dispatch would catch */
+                    throw new AssertionError("Handler failure");
+                }
+            }
+        };
+        RecordingRequest other = new RecordingRequest(0, TmfEventRequest.ALL_DATA, false);
+        request.addRequest(failing);
+        request.addRequest(other);
+
+        request.start();
+        for (int i = 0; i < nbEvents; i++) {
+            request.handleData(new TmfEvent(trace, i, TmfTimestamp.fromNanos(i), null, null));
+        }
+        request.done();
+
+        assertTrue("isFailed", failing.isFailed());
+        assertEquals(11, failing.fRanks.size());
+        assertTrue("isCompleted", other.isCompleted());
+        assertFalse("isFailed", other.isFailed());
+        assertEquals(nbEvents, other.fRanks.size());
+        trace.dispose();
+    }
+
     // ------------------------------------------------------------------------
     // Coalescing
     // ------------------------------------------------------------------------
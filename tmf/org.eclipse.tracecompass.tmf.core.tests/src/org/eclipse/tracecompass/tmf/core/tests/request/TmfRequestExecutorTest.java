@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.tmf.core.component.TmfEventThread;
+import org.eclipse.tracecompass.internal.tmf.core.request.TmfRequestExecutor;
+import org.eclipse.tracecompass.tmf.core.component.TmfEventProvider;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.TmfContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the scheduling of the requests by the {@link TmfRequestExecutor}
+ */
+public class TmfRequestExecutorTest {
+
+    private static final int NB_EVENTS = 100;
+
+    /* The maximum number of new requests waiting, for each priority */
+    private static final int MAX_QUEUED = 10;
+
+    private EventProvider fProvider;
+    private TmfRequestExecutor fExecutor;
+    private final List<CountDownLatch> fGates = new ArrayList<>();
+    private final AtomicInteger fStartOrder = new AtomicInteger();
+
+    /**
+     * Provider of an endless stream of events
+     */
+    private static class EventProvider extends TmfEventProvider {
+
+        public EventProvider() {
+            super("events", ITmfEvent.class);
+        }
+
+        @Override
+        public ITmfContext armRequest(ITmfEventRequest request) {
+            return new TmfContext(null, 0);
+        }
+
+        @Override
+        public ITmfEvent getNext(ITmfContext context) {
+            long rank = context.getRank();
+            context.increaseRank();
+            return new TmfEvent(null, rank, TmfTimestamp.fromNanos(rank), null, null);
+        }
+    }
+
+    /**
+     * Request that records the order in which it started, and that can hold
+     * its slot at its first event until its gate is opened
+     */
+    private class GatedRequest extends TmfEventRequest {
+        private final CountDownLatch fStarted = new CountDownLatch(1);
+        private final @Nullable CountDownLatch fGate;
+        private volatile int fOrder = Integer.MAX_VALUE;
+
+        public GatedRequest(ExecutionType type, int nbRequested, boolean gated) {
+            super(ITmfEvent.class, TmfTimeRange.ETERNITY, 0, nbRequested, type);
+            if (gated) {
+                CountDownLatch gate = new CountDownLatch(1);
+                fGates.add(gate);
+                fGate = gate;
+            } else {
+                fGate = null;
+            }
+        }
+
+        public void open() {
+            CountDownLatch gate = fGate;
+            if (gate != null) {
+                gate.countDown();
+            }
+        }
+
+        @Override
+        public void handleData(ITmfEvent event) {
+            super.handleData(event);
+            if (fStarted.getCount() == 0) {
+                return;
+            }
+            fOrder = fStartOrder.incrementAndGet();
+            fStarted.countDown();
+            CountDownLatch gate = fGate;
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Clean-up
+     */
+    @After
+    public void tearDown() {
+        for (CountDownLatch gate : fGates) {
+            gate.countDown();
+        }
+        if (fExecutor != null) {
+            fExecutor.stop();
+        }
+        if (fProvider != null) {
+            fProvider.dispose();
+        }
+    }
+
+    private void setUp(int maxConcurrentRequests) {
+        fProvider = new EventProvider();
+        fExecutor = new TmfRequestExecutor(maxConcurrentRequests);
+        fExecutor.init();
+    }
+
+    private GatedRequest submit(ExecutionType type, int nbRequested, boolean gated) {
+        GatedRequest request = new GatedRequest(type, nbRequested, gated);
+        fExecutor.execute(new TmfEventThread(fProvider, request));
+        return request;
+    }
+
+    /**
+     * Make sure the tests start with a clean state
+     */
+    @Before
+    public void before() {
+        fProvider = null;
+        fExecutor = null;
+        fGates.clear();
+        fStartOrder.set(0);
+    }
+
+    /**
+     * Test that requests run concurrently up to the maximum
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted
+     */
+    @Test
+    public void testConcurrentRequests() throws InterruptedException {
+        setUp(3);
+        GatedRequest[] requests = new GatedRequest[3];
+        for (int i = 0; i < requests.length; i++) {
+            requests[i] = submit(ExecutionType.BACKGROUND, NB_EVENTS, true);
+        }
+        /* They all started while they hold their slot */
+        for (GatedRequest request : requests) {
+            assertTrue(request.fStarted.await(10, TimeUnit.SECONDS));
+        }
+        assertEquals(3, fExecutor.getRunningCount());
+        for (GatedRequest request : requests) {
+            request.open();
+            request.waitForCompletion();
+            assertEquals(NB_EVENTS, request.getNbRead());
+        }
+        assertEquals(3, fExecutor.getStartedCount());
+    }
+
+    /**
+     * Test that a background request is not starved by foreground requests
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted
+     */
+    @Test
+    public void testAging() throws InterruptedException {
+        setUp(1);
+        GatedRequest foreground1 = submit(ExecutionType.FOREGROUND, NB_EVENTS, true);
+        assertTrue(foreground1.fStarted.await(10, TimeUnit.SECONDS));
+        /* This one only ends when cancelled */
+        GatedRequest foreground2 = submit(ExecutionType.FOREGROUND, ITmfEventRequest.ALL_DATA, false);
+        GatedRequest background = submit(ExecutionType.BACKGROUND, NB_EVENTS, true);
+        assertEquals(1, fExecutor.getRunningCount());
+        assertEquals(1, fExecutor.getQueueDepth(ExecutionType.FOREGROUND));
+        assertEquals(1, fExecutor.getQueueDepth(ExecutionType.BACKGROUND));
+
+        foreground1.open();
+        foreground1.waitForCompletion();
+        assertEquals(NB_EVENTS, foreground1.getNbRead());
+
+        /* The background request runs although the foreground one never ends */
+        assertTrue(background.fStarted.await(10, TimeUnit.SECONDS));
+        /* The foreground request ran first */
+        assertTrue(foreground2.fOrder < background.fOrder);
+        assertTrue(foreground2.isRunning());
+
+        background.open();
+        background.waitForCompletion();
+        assertEquals(NB_EVENTS, background.getNbRead());
+        foreground2.cancel();
+        foreground2.waitForCompletion();
+        assertTrue(fExecutor.getMaxWaitTime() > 0);
+    }
+
+    /**
+     * Test that the suspended requests do not count in the limit of new
+     * requests waiting for a slot
+     *
+     * @throws InterruptedException
+     *             If the test is interrupted
+     */
+    @Test
+    public void testQueueDepth() throws InterruptedException {
+        setUp(1);
+        /* This one only ends when cancelled */
+        GatedRequest background = submit(ExecutionType.BACKGROUND, ITmfEventRequest.ALL_DATA, false);
+        assertTrue(background.fStarted.await(10, TimeUnit.SECONDS));
+        /* The foreground request suspends the background one and holds the slot */
+        GatedRequest foreground = submit(ExecutionType.FOREGROUND, NB_EVENTS, true);
+        assertTrue(foreground.fStarted.await(10, TimeUnit.SECONDS));
+        assertEquals(0, fExecutor.getQueueDepth(ExecutionType.BACKGROUND));
+
+        List<GatedRequest> queued = new ArrayList<>();
+        for (int i = 0; i < MAX_QUEUED; i++) {
+            queued.add(submit(ExecutionType.BACKGROUND, NB_EVENTS, false));
+        }
+        assertEquals(MAX_QUEUED, fExecutor.getQueueDepth(ExecutionType.BACKGROUND));
+        for (GatedRequest request : queued) {
+            assertFalse(request.isCancelled());
+        }
+        /* The queue is full */
+        GatedRequest rejected = submit(ExecutionType.BACKGROUND, NB_EVENTS, false);
+        assertTrue(rejected.isCancelled());
+        assertEquals(MAX_QUEUED, fExecutor.getQueueDepth(ExecutionType.BACKGROUND));
+    }
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.statesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.tests.stubs.trace.TmfTraceStub;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+
+/**
+ * Test the handling of the events by the thread of
+ * {@link AbstractTmfStateProvider}
+ */
+public class AbstractTmfStateProviderTest {
+
+    /** Timeout the tests after 1 minute */
+    @Rule
+    public TestRule timeoutRule = new Timeout(1, TimeUnit.MINUTES);
+
+    private static final int QUEUE_SIZE = 4;
+    private static final int CHUNK_SIZE = 10;
+    private static final int NB_EVENTS = 1000;
+
+    private final ITmfTrace fTrace = new TmfTraceStub();
+
+    /**
+     * Provider recording the events it handles, and the value of its
+     * attribute when it handles them
+     */
+    private static class RecordingProvider extends AbstractTmfStateProvider {
+
+        private final boolean fBatches;
+        protected final List<Long> fTimes = new ArrayList<>();
+        protected final List<Object> fValues = new ArrayList<>();
+        protected final List<Integer> fBatchSizes = new ArrayList<>();
+        private int fQuark = -1;
+
+        public RecordingProvider(ITmfTrace trace, boolean batches) {
+            super(trace, "Recording", QUEUE_SIZE, CHUNK_SIZE);
+            fBatches = batches;
+        }
+
+        @Override
+        public int getVersion() {
+            return 0;
+        }
+
+        @Override
+        public ITmfStateProvider getNewInstance() {
+            return new RecordingProvider(getTrace(), fBatches);
+        }
+
+        @Override
+        protected void eventHandle(List<ITmfEvent> events) {
+            fBatchSizes.add(events.size());
+            if (fBatches) {
+                for (ITmfEvent event : events) {
+                    eventHandle(event);
+                }
+            } else {
+                super.eventHandle(events);
+            }
+        }
+
+        @Override
+        protected void eventHandle(ITmfEvent event) {
+            ITmfStateSystemBuilder ss = getStateSystemBuilder();
+            if (ss == null) {
+                return;
+            }
+            if (fQuark == -1) {
+                fQuark = ss.getQuarkAbsoluteAndAdd("value");
+            }
+            long time = event.getTimestamp().toNanos();
+            fTimes.add(time);
+            fValues.add(ss.queryOngoing(fQuark));
+            if (time % 100 == 0) {
+                /* Set the value at the time of the next event */
+                addFutureEvent(time + 1, (int) time, fQuark);
+            }
+        }
+    }
+
+    private static ITmfEvent createEvent(long time) {
+        return new TmfEvent(null, time, TmfTimestamp.fromNanos(time), null, null);
+    }
+
+    private RecordingProvider createProvider(boolean batches) {
+        RecordingProvider provider = new RecordingProvider(fTrace, batches);
+        provider.assignTargetStateSystem(StateSystemFactory.newStateSystem(StateHistoryBackendFactory.createInMemoryBackend("test", 0)));
+        return provider;
+    }
+
+    /**
+     * Dispose the trace
+     */
+    @After
+    public void tearDown() {
+        fTrace.dispose();
+    }
+
+    /**
+     * Test that the events are handled in order, in batches of at most a
+     * chunk, and that the future events are applied before the events at
+     * their time
+     */
+    @Test
+    public void testEventHandle() {
+        RecordingProvider provider = createProvider(false);
+        for (long time = 1; time <= NB_EVENTS; time++) {
+            provider.processEvent(createEvent(time));
+        }
+        provider.waitForEmptyQueue();
+
+        assertEquals(NB_EVENTS, provider.fTimes.size());
+        for (int i = 0; i < NB_EVENTS; i++) {
+            long time = i + 1;
+            assertEquals(time, (long) provider.fTimes.get(i));
+            Object expected = (time > 100) ? (int) ((time - 1) / 100 * 100) : null;
+            assertEquals(expected, provider.fValues.get(i));
+        }
+        assertEquals(NB_EVENTS, provider.fBatchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(provider.fBatchSizes.stream().allMatch(size -> size > 0 && size <= CHUNK_SIZE));
+        provider.dispose();
+    }
+
+    /**
+     * Test waiting for the queue to be empty, with events that do not fill a
+     * chunk, and with providers handling the batches themselves
+     */
+    @Test
+    public void testWaitForEmptyQueue() {
+        RecordingProvider provider = createProvider(true);
+        for (long time = 1; time <= 25; time++) {
+            provider.processEvent(createEvent(time));
+            if (time % 5 == 0) {
+                provider.waitForEmptyQueue();
+                assertEquals(time, provider.fTimes.size());
+            }
+        }
+        provider.dispose();
+        assertEquals(25, provider.fTimes.size());
+
+        /* The queue of a provider that is not running is never emptied */
+        RecordingProvider notStarted = new RecordingProvider(fTrace, true);
+        notStarted.waitForEmptyQueue();
+        assertTrue(notStarted.fTimes.isEmpty());
+    }
+}
@@ -11,6 +11,7 @@
 
 package org.eclipse.tracecompass.tmf.core.tests.statesystem;
 
+import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -29,10 +30,12 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
+import org.eclipse.tracecompass.statesystem.core.exceptions.StateSystemDisposedException;
 import org.eclipse.tracecompass.statesystem.core.interval.ITmfStateInterval;
 import org.eclipse.tracecompass.statesystem.core.tests.shared.utils.StateIntervalStub;
 import org.eclipse.tracecompass.statesystem.core.tests.shared.utils.StateSystemTestUtils;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEventField;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
 import org.eclipse.tracecompass.tmf.core.signal.TmfTraceOpenedSignal;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
@@ -466,6 +469,94 @@ public class StateSystemAnalysisModuleTest {
         }
     }
 
+    /**
+     * Test that a state system built in time slices has the same states as
+     * the one built sequentially
+     *
+     * @throws TmfAnalysisException
+     *             An exception when setting the trace
+     * @throws StateSystemDisposedException
+     *             Fails the test
+     */
+    @Test
+    public void testTimeSlices() throws TmfAnalysisException, StateSystemDisposedException {
+        ITmfTrace trace = fTrace;
+        assertNotNull(trace);
+        try {
+            /* Only writes the states of the events, a restartable provider */
+            TestStateSystemProvider.setEventHandler((ss, provider, event) -> {
+                long time = event.getTimestamp().toNanos();
+                ss.modifyAttribute(time, event.getName(), ss.getQuarkAbsoluteAndAdd("Last Event"));
+                for (ITmfEventField field : event.getContent().getFields()) {
+                    ss.modifyAttribute(time, String.valueOf(field.getValue()), ss.getQuarkAbsoluteAndAdd(event.getName(), field.getName()));
+                }
+                return true;
+            });
+            TestStateSystemModule expected = new SlicedModule("sequential", 1);
+            TestStateSystemModule actual = new SlicedModule("sliced", 3);
+            try {
+                expected.setTrace(trace);
+                actual.setTrace(trace);
+                for (TestStateSystemModule module : ImmutableList.of(expected, actual)) {
+                    File file = module.getSsFile();
+                    assertNotNull(file);
+                    file.delete();
+                    module.schedule();
+                    assertTrue(module.waitForCompletion());
+                }
+                ITmfStateSystem expectedSs = expected.getStateSystem();
+                ITmfStateSystem actualSs = actual.getStateSystem();
+                assertNotNull(expectedSs);
+                assertNotNull(actualSs);
+                assertEquals(expectedSs.getNbAttributes(), actualSs.getNbAttributes());
+                assertEquals(expectedSs.getCurrentEndTime(), actualSs.getCurrentEndTime());
+                for (long time = expectedSs.getStartTime(); time <= expectedSs.getCurrentEndTime(); time++) {
+                    for (int quark = 0; quark < expectedSs.getNbAttributes(); quark++) {
+                        String[] path = expectedSs.getFullAttributePathArray(quark);
+                        int actualQuark = actualSs.optQuarkAbsolute(path);
+                        assertEquals(String.join("/", path) + " at " + time, expectedSs.querySingleState(time, quark).getValue(),
+                                actualSs.querySingleState(time, actualQuark).getValue());
+                    }
+                }
+            } finally {
+                expected.dispose();
+                actual.dispose();
+            }
+        } finally {
+            TestStateSystemProvider.setEventHandler(null);
+        }
+    }
+
+    /**
+     * A module on disk with a restartable state provider, built in a given
+     * number of time slices
+     */
+    private static final class SlicedModule extends TestStateSystemModule {
+
+        private final int fSliceCount;
+
+        public SlicedModule(String id, int sliceCount) {
+            super(true);
+            setId(id);
+            fSliceCount = sliceCount;
+        }
+
+        @Override
+        protected @NonNull ITmfStateProvider createStateProvider() {
+            return new TestStateSystemProvider(checkNotNull(getTrace())) {
+                @Override
+                public boolean isRestartable() {
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        protected int getTimeSliceCount(@NonNull ITmfStateProvider provider) {
+            return fSliceCount;
+        }
+    }
+
     /**
      * Test adding future values to the state system
      */
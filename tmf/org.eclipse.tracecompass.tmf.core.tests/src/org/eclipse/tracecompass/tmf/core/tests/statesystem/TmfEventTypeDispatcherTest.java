@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.statesystem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
+import org.eclipse.tracecompass.tmf.core.statesystem.TmfEventTypeDispatcher;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.junit.Test;
+
+/**
+ * Test the dispatch of events to handlers by event type,
+ * {@link TmfEventTypeDispatcher}
+ */
+public class TmfEventTypeDispatcherTest {
+
+    private final Map<String, Integer> fNbResolved = new HashMap<>();
+
+    private String resolve(String name) {
+        fNbResolved.merge(name, 1, Integer::sum);
+        return name.startsWith("syscall_") ? "syscall" : (name.startsWith("sched_") ? name : null);
+    }
+
+    private static ITmfEvent createEvent(String name) {
+        return new TmfEvent(null, 0, TmfTimestamp.fromNanos(0), new TmfEventType(name, null), null);
+    }
+
+    /**
+     * Test that the handlers are resolved once per event name, whether the
+     * names are the same instance or not
+     */
+    @Test
+    public void testDispatch() {
+        TmfEventTypeDispatcher<String> dispatcher = new TmfEventTypeDispatcher<>(this::resolve);
+        ITmfEvent switchEvent = createEvent("sched_switch");
+        ITmfEvent openEvent = createEvent("syscall_entry_open");
+        ITmfEvent otherEvent = createEvent("irq_handler_entry");
+        for (int i = 0; i < 10; i++) {
+            assertEquals("sched_switch", dispatcher.getHandler(switchEvent));
+            assertEquals("syscall", dispatcher.getHandler(openEvent));
+            assertNull(dispatcher.getHandler(otherEvent));
+            /* A different instance of the same name */
+            assertEquals("syscall", dispatcher.getHandler(createEvent(new String("syscall_entry_open"))));
+        }
+        assertEquals(3, fNbResolved.size());
+        fNbResolved.values().forEach(count -> assertEquals(1, (int) count));
+
+        int switchId = dispatcher.getTypeId(switchEvent);
+        assertEquals(switchId, dispatcher.getTypeId(new String("sched_switch")));
+        assertNotEquals(switchId, dispatcher.getTypeId(openEvent));
+        assertEquals("sched_switch", dispatcher.getHandler(switchId));
+    }
+
+    /**
+     * Test many event names, more than the names cached by identity
+     */
+    @Test
+    public void testManyNames() {
+        TmfEventTypeDispatcher<String> dispatcher = new TmfEventTypeDispatcher<>(this::resolve);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 1000; i++) {
+                String name = (i % 2 == 0 ? "syscall_entry_" : "sched_") + i;
+                int id = dispatcher.getTypeId(name);
+                assertEquals(i, id);
+                assertEquals(i % 2 == 0 ? "syscall" : name, dispatcher.getHandler(id));
+            }
+        }
+        assertEquals(1000, fNbResolved.size());
+        fNbResolved.values().forEach(count -> assertEquals(1, (int) count));
+    }
+}
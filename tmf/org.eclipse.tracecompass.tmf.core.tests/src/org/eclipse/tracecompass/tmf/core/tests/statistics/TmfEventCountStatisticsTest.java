@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.tests.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import org.eclipse.tracecompass.internal.tmf.core.statistics.TmfEventCountStatistics;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.TmfEventType;
+import org.eclipse.tracecompass.tmf.core.event.TmfLostEvent;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test the event counts sampled per time bucket,
+ * {@link TmfEventCountStatistics}
+ */
+public class TmfEventCountStatisticsTest {
+
+    private static final String TYPE_A = "A";
+    private static final String TYPE_B = "B";
+    private static final String TYPE_LOST = "Lost event";
+
+    private final List<ITmfEvent> fEvents = new ArrayList<>();
+    private File fFile;
+    private int fNbRead;
+    private int fNbCalls;
+
+    /**
+     * Create the events, with irregular timestamps so that the buckets get
+     * merged many times
+     *
+     * @throws IOException
+     *             If the temporary file could not be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fFile = File.createTempFile("statistics-counts", ".dat");
+        fFile.delete();
+        long ts = 1000;
+        for (int i = 0; i < 200000; i++) {
+            ts += (i % 7) * (i % 1000 == 0 ? 100000 : 13);
+            if (i % 5000 == 4999) {
+                fEvents.add(new TmfLostEvent(null, i, TmfTimestamp.fromNanos(ts), new TmfEventType(TYPE_LOST, null),
+                        new TmfTimeRange(TmfTimestamp.fromNanos(ts), TmfTimestamp.fromNanos(ts + 10)), 10));
+            } else {
+                fEvents.add(new TmfEvent(null, i, TmfTimestamp.fromNanos(ts), new TmfEventType(i % 3 == 0 ? TYPE_A : TYPE_B, null), null));
+            }
+        }
+    }
+
+    /**
+     * Delete the file
+     */
+    @After
+    public void tearDown() {
+        fFile.delete();
+    }
+
+    private void read(long start, long end, Consumer<ITmfEvent> consumer) {
+        fNbCalls++;
+        for (ITmfEvent event : fEvents) {
+            long ts = event.getTimestamp().toNanos();
+            if (ts >= start && ts <= end) {
+                fNbRead++;
+                consumer.accept(event);
+            }
+        }
+    }
+
+    private TmfEventCountStatistics build() {
+        TmfEventCountStatistics counts = new TmfEventCountStatistics(this::read, fFile);
+        for (ITmfEvent event : fEvents) {
+            counts.addEvent(event);
+        }
+        counts.finish();
+        return counts;
+    }
+
+    private long expectedTotal(long start, long end) {
+        return fEvents.stream()
+                .filter(event -> !(event instanceof TmfLostEvent))
+                .filter(event -> event.getTimestamp().toNanos() >= start && event.getTimestamp().toNanos() <= end)
+                .count();
+    }
+
+    private Map<String, Long> expectedTypes(long start, long end) {
+        Map<String, Long> map = new HashMap<>();
+        map.put(TYPE_A, 0L);
+        map.put(TYPE_B, 0L);
+        map.put(TYPE_LOST, 0L);
+        for (ITmfEvent event : fEvents) {
+            long ts = event.getTimestamp().toNanos();
+            if (ts >= start && ts <= end) {
+                long count = (event instanceof TmfLostEvent) ? ((TmfLostEvent) event).getNbLostEvents() : 1;
+                map.merge(event.getName(), count, Long::sum);
+            }
+        }
+        return map;
+    }
+
+    private void assertCounts(TmfEventCountStatistics counts) {
+        long first = fEvents.get(0).getTimestamp().toNanos();
+        long last = fEvents.get(fEvents.size() - 1).getTimestamp().toNanos();
+        assertEquals(expectedTotal(first, last), counts.getEventsTotal());
+        assertEquals(expectedTypes(first, last), counts.getEventTypesTotal());
+
+        long[][] ranges = {
+                { first, last },
+                { 0, Long.MAX_VALUE },
+                { first + 1, last - 1 },
+                { first + 12345, first + 567890 },
+                { last - 1000, last },
+                { first + 777, first + 777 }
+        };
+        for (long[] range : ranges) {
+            assertEquals(expectedTotal(range[0], range[1]), counts.getEventsInRange(range[0], range[1]));
+            assertEquals(expectedTypes(range[0], range[1]), counts.getEventTypesInRange(range[0], range[1]));
+        }
+    }
+
+    /**
+     * Test that the counts in ranges are exact, even inside the buckets
+     */
+    @Test
+    public void testCounts() {
+        TmfEventCountStatistics counts = build();
+        assertTrue(counts.isComplete());
+        assertTrue(counts.getBucketWidth() > 1);
+        assertCounts(counts);
+
+        /* Only the events inside a bucket are read to refine the count */
+        fNbRead = 0;
+        long first = fEvents.get(0).getTimestamp().toNanos();
+        counts.getEventsInRange(first + 1000, first + 3000000);
+        assertTrue(fNbRead < fEvents.size() / 100);
+    }
+
+    /**
+     * Test that the histogram is exact at the ends of the buckets, and
+     * interpolated inside the buckets without reading the trace, except at
+     * the two ends of its range
+     */
+    @Test
+    public void testHistogram() {
+        TmfEventCountStatistics counts = build();
+        long first = fEvents.get(0).getTimestamp().toNanos();
+        long last = fEvents.get(fEvents.size() - 1).getTimestamp().toNanos();
+        long width = counts.getBucketWidth();
+        long[] aligned = LongStream.range(0, 100).map(i -> first - 1 + i * width * 500).toArray();
+        long[][] timesList = {
+                /* At the bucket boundaries */
+                aligned,
+                /* Inside the buckets, some of them in the same bucket */
+                LongStream.range(0, 100).map(i -> first + i * (last - first) / 99 + (i % 3) * width / 4).toArray(),
+                /* Many times per bucket */
+                LongStream.range(0, 1000).map(i -> first + 1000 + i * 7).toArray()
+        };
+        for (long[] times : timesList) {
+            fNbCalls = 0;
+            List<Long> histogram = counts.histogramQuery(times);
+            assertEquals(times.length, histogram.size());
+            /* Only the two ends of the range are read */
+            assertTrue(fNbCalls <= 2);
+            long sum = 0;
+            for (int i = 0; i < times.length; i++) {
+                assertTrue(histogram.get(i) >= 0);
+                sum += histogram.get(i);
+                /* The error is at most the number of events in the bucket */
+                long bucketStart = first + Math.floorDiv(times[i] - first, width) * width;
+                long error = expectedTotal(bucketStart, bucketStart + width - 1);
+                assertTrue(Math.abs(expectedTotal(times[0], times[i]) - sum) <= error);
+            }
+            assertEquals(expectedTotal(times[0], times[times.length - 1]), sum);
+        }
+        List<Long> histogram = counts.histogramQuery(aligned);
+        for (int i = 1; i < aligned.length; i++) {
+            assertEquals(expectedTotal(aligned[i - 1] + 1, aligned[i]), (long) histogram.get(i));
+        }
+    }
+
+    /**
+     * Test saving and loading the counts
+     */
+    @Test
+    public void testSaveLoad() {
+        build();
+        assertTrue(fFile.isFile());
+        TmfEventCountStatistics loaded = new TmfEventCountStatistics(this::read, fFile);
+        assertTrue(loaded.load());
+        assertTrue(loaded.isComplete());
+        assertCounts(loaded);
+
+        loaded.deleteFile();
+        assertFalse(new TmfEventCountStatistics(this::read, fFile).load());
+    }
+
+    /**
+     * Test querying the counts while they are being built
+     */
+    @Test
+    public void testPartial() {
+        TmfEventCountStatistics counts = new TmfEventCountStatistics(this::read, null);
+        assertEquals(0, counts.getEventsTotal());
+        assertEquals(0, counts.getEventsInRange(0, Long.MAX_VALUE));
+        int half = fEvents.size() / 2;
+        for (ITmfEvent event : fEvents.subList(0, half)) {
+            counts.addEvent(event);
+        }
+        assertFalse(counts.isComplete());
+        long total = counts.getEventsTotal();
+        assertTrue(total > 0);
+        assertTrue(total <= expectedTotal(0, fEvents.get(half - 1).getTimestamp().toNanos()));
+        assertEquals(total, counts.getEventsInRange(0, Long.MAX_VALUE));
+    }
+}
@@ -98,6 +98,7 @@ public class TmfEventTableDataProvider extends AbstractTmfTraceDataProvider impl
     public static final String ID = "org.eclipse.tracecompass.internal.provisional.tmf.core.model.events.TmfEventTableDataProvider"; //$NON-NLS-1$
 
     private @Nullable ITmfFilter fFilter;
+    private @Nullable TmfFilterRankIndex fRankIndex;
 
     /**
      * Maps used for the optimization of filtered query.
@@ -261,6 +262,10 @@ public class TmfEventTableDataProvider extends AbstractTmfTraceDataProvider impl
          * TODO implement upper limit of queryFilter.getCount() to avoid running out of memory.
          * TBD if the check and should be handled here or in the calling methods.
          */
+        TmfFilterRankIndex rankIndex = (filter != null && collapseFilter == null) ? getRankIndex(filter) : null;
+        if (filter != null && rankIndex != null) {
+            return fetchIndexedLines(columnsIds, Math.abs(queryFilter.getCount()), queryFilter.getIndex(), aspects, rankIndex, searchFilter, monitor);
+        }
         TableEventRequest request;
         if (filter != null) {
             request = filteredTableRequest(Math.abs(queryFilter.getCount()), queryFilter.getIndex(), aspects, filter, searchFilter, collapseFilter, monitor);
@@ -323,6 +328,10 @@ public class TmfEventTableDataProvider extends AbstractTmfTraceDataProvider impl
         if (filter == null) {
             return new TmfModelResponse<>(Collections.singletonList(rank), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
         }
+        TmfFilterRankIndex rankIndex = getRankIndex(filter);
+        if (rankIndex != null && rank < rankIndex.getNbEvents()) {
+            return new TmfModelResponse<>(Collections.singletonList(rankIndex.getIndex(rank)), ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
+        }
         applyFilter(filter);
 
         Entry<Long, Long> nearestEntry = fRankToIndexMap.floorEntry(rank);
@@ -371,7 +380,11 @@ public class TmfEventTableDataProvider extends AbstractTmfTraceDataProvider impl
         private List<EventTableLine> fEventLines = new ArrayList<>();
 
         public TableEventRequest(long startingRank) {
-            super(ITmfEvent.class, TmfTimeRange.ETERNITY, startingRank, ITmfEventRequest.ALL_DATA, ExecutionType.FOREGROUND);
+            this(startingRank, ITmfEventRequest.ALL_DATA);
+        }
+
+        public TableEventRequest(long startingRank, int nbRequested) {
+            super(ITmfEvent.class, TmfTimeRange.ETERNITY, startingRank, nbRequested, ExecutionType.FOREGROUND);
         }
 
         public void incrementCount() {
@@ -481,6 +494,145 @@ public class TmfEventTableDataProvider extends AbstractTmfTraceDataProvider impl
         };
     }
 
+    /**
+     * Get the index of the events matching a filter, if it is complete for the
+     * current events of the trace. Otherwise the index is built in the
+     * background, for the next requests. The index of the previous filter of
+     * this table is released, so its build stops if it is not complete.
+     *
+     * @param filter
+     *            The filter
+     * @return The complete index, or null if the trace must be read
+     */
+    private @Nullable TmfFilterRankIndex getRankIndex(ITmfFilter filter) {
+        TmfFilterRankIndex rankIndex = TmfFilterRankIndex.getIndex(getTrace(), filter);
+        TmfFilterRankIndex previous;
+        synchronized (this) {
+            previous = fRankIndex;
+            fRankIndex = rankIndex;
+        }
+        if (previous != null && previous != rankIndex) {
+            TmfFilterRankIndex.release(getTrace(), previous);
+        }
+        if (rankIndex != null && rankIndex.isComplete(getTrace().getNbEvents())) {
+            return rankIndex;
+        }
+        return null;
+    }
+
+    /**
+     * Fill a list of {@link EventTableLine} based on the query parameters and
+     * on the index of the events matching the filter. The requested events are
+     * read by runs of nearby ranks, with one request per run, so the events
+     * between the runs are skipped by seeking instead of being read.
+     *
+     * @param columnsIds
+     *            The IDs of the columns
+     * @param queryCount
+     *            number of requested events
+     * @param queryIndex
+     *            index of the first requested event in the filtered table
+     * @param aspects
+     *            Aspects to resolve
+     * @param rankIndex
+     *            The complete index of the events matching the filter
+     * @param searchFilter
+     *            Search filter used to tag event lines
+     * @param monitor
+     *            a progress monitor
+     * @return The response with the lines
+     */
+    private TmfModelResponse<ITmfVirtualTableModel<EventTableLine>> fetchIndexedLines(List<Long> columnsIds,
+            int queryCount,
+            long queryIndex,
+            Map<Long, ITmfEventAspect<?>> aspects,
+            TmfFilterRankIndex rankIndex,
+            @Nullable ITmfFilter searchFilter,
+            @Nullable IProgressMonitor monitor) {
+
+        long size = rankIndex.size();
+        long endIndex = Math.min(size, Math.max(queryIndex, 0L) + queryCount);
+        /* Seeking reads at most the events of a checkpoint interval */
+        long maxGap = getTrace().getCacheSize();
+        List<EventTableLine> lines = new ArrayList<>();
+        long index = Math.max(queryIndex, 0L);
+        while (index < endIndex) {
+            long lastIndex = index;
+            while (lastIndex + 1 < endIndex && rankIndex.getRank(lastIndex + 1) - rankIndex.getRank(lastIndex) <= maxGap) {
+                lastIndex++;
+            }
+            TableEventRequest request = indexedTableRequest(index, lastIndex, aspects, rankIndex, searchFilter, monitor);
+            getTrace().sendRequest(request);
+            try {
+                request.waitForCompletion();
+            } catch (InterruptedException e) {
+                return new TmfModelResponse<>(null, ITmfResponse.Status.FAILED, NonNullUtils.nullToEmptyString(e.getMessage()));
+            }
+            if (request.isCancelled()) {
+                return new TmfModelResponse<>(null, ITmfResponse.Status.CANCELLED, CommonStatusMessage.TASK_CANCELLED);
+            }
+            lines.addAll(request.getEventLines());
+            index = lastIndex + 1;
+        }
+        TmfVirtualTableModel<EventTableLine> model = new TmfVirtualTableModel<>(columnsIds, lines, queryIndex, size);
+        return new TmfModelResponse<>(model, ITmfResponse.Status.COMPLETED, CommonStatusMessage.COMPLETED);
+    }
+
+    /**
+     * Create a table event request that fills a list of {@link EventTableLine}
+     * with a run of events of the index of the events matching the filter. The
+     * request starts at the rank of the first event of the run and stops at
+     * the last one.
+     *
+     * @param firstIndex
+     *            index of the first event of the run in the filtered table
+     * @param lastIndex
+     *            index of the last event of the run in the filtered table
+     * @param aspects
+     *            Aspects to resolve
+     * @param rankIndex
+     *            The complete index of the events matching the filter
+     * @param searchFilter
+     *            Search filter used to tag event lines
+     * @param monitor
+     *            a progress monitor
+     * @return a {@link TableEventRequest} to fill a list of {@link EventTableLine}
+     */
+    private TableEventRequest indexedTableRequest(long firstIndex,
+            long lastIndex,
+            Map<Long, ITmfEventAspect<?>> aspects,
+            TmfFilterRankIndex rankIndex,
+            @Nullable ITmfFilter searchFilter,
+            @Nullable IProgressMonitor monitor) {
+
+        long startingRank = rankIndex.getRank(firstIndex);
+        long nbRequested = rankIndex.getRank(lastIndex) - startingRank + 1;
+
+        return new TableEventRequest(startingRank, (int) Math.min(nbRequested, Integer.MAX_VALUE)) {
+            private long currentIndex = firstIndex;
+            private long rank = startingRank;
+
+            @Override
+            public void handleData(ITmfEvent event) {
+                super.handleData(event);
+                if (monitor != null && monitor.isCanceled()) {
+                    cancel();
+                    return;
+                }
+                if (rank == rankIndex.getRank(currentIndex)) {
+                    boolean matches = searchFilter != null && searchFilter.matches(event);
+                    getEventLines().add(buildEventTableLine(aspects, event, currentIndex, rank, matches));
+                    currentIndex++;
+                    if (currentIndex > lastIndex) {
+                        done();
+                        return;
+                    }
+                }
+                rank++;
+            }
+        };
+    }
+
     /**
      * Create a table event request that fills a list of {@link EventTableLine}
      * based on the query parameters.
@@ -0,0 +1,544 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.provisional.tmf.core.model.events;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.tmf.core.Activator;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.filter.ITmfFilter;
+import org.eclipse.tracecompass.tmf.core.filter.model.ITmfFilterTreeNode;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
+import org.eclipse.tracecompass.tmf.core.request.TmfEventRequest;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+
+/**
+ * Index of the events of a trace that match a filter, for filtered event
+ * tables. It holds the ranks of the matching events in the trace, sorted, so
+ * the rank of the event at a given index of the filtered table is read
+ * directly, and the index of an event is found by binary search.
+ *
+ * The index is built once per trace and filter, by a background request that
+ * reads the whole trace, and saved in the supplementary folder of the trace.
+ * The file is read through a memory mapping, so the index does not take heap
+ * space and is reused when the trace is opened again. The indexes are shared
+ * by all the data providers of the trace, see
+ * {@link #getIndex(ITmfTrace, ITmfFilter)}.
+ *
+ * The index is only used once complete and if it covers all the events of the
+ * trace, otherwise the table falls back to reading the trace. A build that
+ * failed is not retried until the trace has more events. A build is cancelled
+ * when its filter is replaced, see {@link #release(ITmfTrace, TmfFilterRankIndex)},
+ * and the file of an index is deleted when it is evicted from the indexes kept
+ * in memory.
+ */
+public final class TmfFilterRankIndex {
+
+    private static final int MAGIC = 0x54465249; /* "TFRI" */
+    private static final int VERSION = 1;
+
+    private static final String FILE_PREFIX = "filter-index-"; //$NON-NLS-1$
+    private static final String FILE_SUFFIX = ".idx"; //$NON-NLS-1$
+
+    /** Maximum number of indexes kept in memory per trace */
+    private static final int MAX_INDEXES_PER_TRACE = 8;
+
+    /** Number of ranks per mapping, each mapping must be less than 2 GB */
+    private static final int CHUNK_BITS = 27;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private static final Map<ITmfTrace, Map<String, TmfFilterRankIndex>> INDEXES = new WeakHashMap<>();
+
+    private final File fFile;
+    private final String fKey;
+    private final CountDownLatch fCompletion = new CountDownLatch(1);
+
+    private @Nullable File fTempFile = null;
+    private @Nullable DataOutputStream fOut = null;
+    private long fWritten = 0;
+
+    private volatile ByteBuffer[] fChunks = new ByteBuffer[0];
+    private volatile long fSize = 0;
+    private volatile long fNbEvents = -1;
+    private volatile boolean fComplete = false;
+    private volatile boolean fFailed = false;
+
+    /* The build request, and the number of events of the trace when sent */
+    private @Nullable ITmfEventRequest fRequest = null;
+    private long fBuildNbEvents = -1;
+    private boolean fEvicted = false;
+
+    /**
+     * Get the index of the events of a trace that match a filter. The index is
+     * shared by all the callers with an equivalent filter. If it is not
+     * complete, or does not cover all the events of the trace, it is built in
+     * the background.
+     *
+     * @param trace
+     *            The trace
+     * @param filter
+     *            The filter
+     * @return The index, or null if the filter cannot be identified, so its
+     *         results cannot be shared
+     */
+    public static @Nullable TmfFilterRankIndex getIndex(ITmfTrace trace, ITmfFilter filter) {
+        String key = getKey(filter);
+        if (key == null) {
+            return null;
+        }
+        long nbEvents = trace.getNbEvents();
+        TmfFilterRankIndex index;
+        synchronized (INDEXES) {
+            Map<String, TmfFilterRankIndex> indexes = INDEXES.computeIfAbsent(trace, t -> new LinkedHashMap<String, TmfFilterRankIndex>(MAX_INDEXES_PER_TRACE, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.@Nullable Entry<String, TmfFilterRankIndex> eldest) {
+                    if (size() > MAX_INDEXES_PER_TRACE) {
+                        if (eldest != null) {
+                            eldest.getValue().evict();
+                        }
+                        return true;
+                    }
+                    return false;
+                }
+            });
+            index = indexes.get(key);
+            if (index != null && !index.isStale(nbEvents)) {
+                return index;
+            }
+            index = new TmfFilterRankIndex(getIndexFile(trace, key), key);
+            indexes.put(key, index);
+            if (index.load(nbEvents)) {
+                return index;
+            }
+        }
+        build(trace, filter, index, nbEvents);
+        return index;
+    }
+
+    /**
+     * Release an index that a caller does not need anymore, because its filter
+     * was replaced, for instance as the user types it. If the index is still
+     * being built, the build is cancelled and the index is forgotten, so it is
+     * built again if its filter is used again.
+     *
+     * @param trace
+     *            The trace
+     * @param index
+     *            The index, returned by {@link #getIndex(ITmfTrace, ITmfFilter)}
+     */
+    public static void release(ITmfTrace trace, TmfFilterRankIndex index) {
+        synchronized (INDEXES) {
+            if (index.fComplete) {
+                return;
+            }
+            Map<String, TmfFilterRankIndex> indexes = INDEXES.get(trace);
+            if (indexes != null) {
+                indexes.remove(index.fKey, index);
+            }
+        }
+        index.cancel();
+    }
+
+    /**
+     * Get the key identifying the events matched by a filter
+     *
+     * @param filter
+     *            The filter
+     * @return The key, or null if the filter cannot be identified
+     */
+    private static @Nullable String getKey(ITmfFilter filter) {
+        if (filter instanceof ITmfFilterTreeNode) {
+            /* The explicit form includes the trace types of the aspects */
+            return ((ITmfFilterTreeNode) filter).toString(true);
+        }
+        return null;
+    }
+
+    private static File getIndexFile(ITmfTrace trace, String key) {
+        return new File(TmfTraceManager.getSupplementaryFileDir(trace) + FILE_PREFIX + Integer.toHexString(key.hashCode()) + FILE_SUFFIX);
+    }
+
+    private static void build(ITmfTrace trace, ITmfFilter filter, TmfFilterRankIndex index, long nbEvents) {
+        synchronized (index) {
+            index.fBuildNbEvents = nbEvents;
+        }
+        try {
+            index.start();
+        } catch (IOException e) {
+            Activator.logWarning("Cannot create the filter index file " + index.fFile + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+            index.abort();
+            return;
+        }
+        TmfEventRequest request = new TmfEventRequest(ITmfEvent.class, TmfTimeRange.ETERNITY, 0, ITmfEventRequest.ALL_DATA, ExecutionType.BACKGROUND) {
+            private long fRank = 0;
+
+            @Override
+            public void handleData(ITmfEvent event) {
+                super.handleData(event);
+                try {
+                    if (filter.matches(event)) {
+                        index.add(fRank);
+                    }
+                } catch (IOException e) {
+                    Activator.logWarning("Cannot write the filter index file " + index.fFile + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+                    cancel();
+                }
+                fRank++;
+            }
+
+            @Override
+            public void handleSuccess() {
+                super.handleSuccess();
+                try {
+                    index.finish(fRank);
+                } catch (IOException e) {
+                    Activator.logWarning("Cannot write the filter index file " + index.fFile + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+                    index.abort();
+                }
+            }
+
+            @Override
+            public void handleFailure() {
+                super.handleFailure();
+                index.abort();
+            }
+
+            @Override
+            public void handleCancel() {
+                super.handleCancel();
+                index.abort();
+            }
+        };
+        synchronized (index) {
+            if (index.fFailed) {
+                /* Cancelled before the request was sent */
+                return;
+            }
+            index.fRequest = request;
+        }
+        trace.sendRequest(request);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param file
+     *            The file of the index
+     * @param key
+     *            The key identifying the filter, saved in the file to check
+     *            that it is the index of the same filter
+     */
+    public TmfFilterRankIndex(File file, String key) {
+        fFile = file;
+        fKey = key;
+    }
+
+    // ------------------------------------------------------------------------
+    // Building
+    // ------------------------------------------------------------------------
+
+    /**
+     * Start building the index, in a temporary file
+     *
+     * @throws IOException
+     *             If the file cannot be created
+     */
+    public synchronized void start() throws IOException {
+        File dir = fFile.getAbsoluteFile().getParentFile();
+        File tempFile = File.createTempFile(fFile.getName(), null, dir);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())));
+        fTempFile = tempFile;
+        fOut = out;
+        fWritten = 0;
+        byte[] key = fKey.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        /* The number of events and ranks are written once complete */
+        out.writeLong(-1);
+        out.writeLong(-1);
+        out.writeInt(key.length);
+        out.write(key);
+    }
+
+    /**
+     * Add the rank of a matching event, the ranks must be added in order
+     *
+     * @param rank
+     *            The rank of the event in the trace
+     * @throws IOException
+     *             If the rank cannot be written
+     */
+    public synchronized void add(long rank) throws IOException {
+        DataOutputStream out = fOut;
+        if (out == null) {
+            throw new IOException("The index is not being built"); //$NON-NLS-1$
+        }
+        out.writeLong(rank);
+        fWritten++;
+    }
+
+    /**
+     * Complete the index, it replaces the previous file and can then be used
+     *
+     * @param nbEvents
+     *            The number of events of the trace that were read
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    public synchronized void finish(long nbEvents) throws IOException {
+        if (fEvicted) {
+            abort();
+            return;
+        }
+        DataOutputStream out = fOut;
+        File tempFile = fTempFile;
+        if (out == null || tempFile == null) {
+            throw new IOException("The index is not being built"); //$NON-NLS-1$
+        }
+        out.close();
+        fOut = null;
+        try (RandomAccessFile raf = new RandomAccessFile(tempFile, "rw")) { //$NON-NLS-1$
+            raf.seek(Integer.BYTES * 2);
+            raf.writeLong(nbEvents);
+            raf.writeLong(fWritten);
+        }
+        Files.move(tempFile.toPath(), fFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        fTempFile = null;
+        if (!load(nbEvents)) {
+            throw new IOException("Cannot read the index that was built"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Abort building the index, the temporary file is deleted
+     */
+    public synchronized void abort() {
+        if (fComplete) {
+            return;
+        }
+        DataOutputStream out = fOut;
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // Deleted anyway
+            }
+            fOut = null;
+        }
+        File tempFile = fTempFile;
+        if (tempFile != null && tempFile.exists() && !tempFile.delete()) {
+            Activator.logWarning("Cannot delete the filter index file " + tempFile); //$NON-NLS-1$
+        }
+        fTempFile = null;
+        fFailed = true;
+        fCompletion.countDown();
+    }
+
+    /**
+     * Cancel building the index. The build request is cancelled outside of the
+     * lock of the index, as it takes the lock of the request and then the one
+     * of the index to abort.
+     */
+    public void cancel() {
+        ITmfEventRequest request;
+        synchronized (this) {
+            request = fRequest;
+            if (request == null) {
+                if (fOut != null) {
+                    abort();
+                }
+                return;
+            }
+        }
+        if (!request.isCompleted()) {
+            request.cancel();
+        }
+    }
+
+    /**
+     * Evict the index, its build is cancelled and its file deleted
+     */
+    public void evict() {
+        synchronized (this) {
+            fEvicted = true;
+        }
+        cancel();
+        synchronized (this) {
+            try {
+                Files.deleteIfExists(fFile.toPath());
+            } catch (IOException e) {
+                Activator.logWarning("Cannot delete the filter index file " + fFile + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        }
+    }
+
+    /**
+     * Read the index saved in the file
+     *
+     * @param nbEvents
+     *            The number of events the index must cover
+     * @return true if the file holds the complete index of the same filter for
+     *         this number of events, then the index can be used
+     */
+    public synchronized boolean load(long nbEvents) {
+        if (!fFile.isFile()) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(fFile.toPath(), StandardOpenOption.READ)) {
+            long size;
+            long offset;
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(fFile.toPath()))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != nbEvents) {
+                    return false;
+                }
+                size = in.readLong();
+                byte[] key = new byte[in.readInt()];
+                in.readFully(key);
+                if (size < 0 || !fKey.equals(new String(key, StandardCharsets.UTF_8))) {
+                    return false;
+                }
+                offset = Integer.BYTES * 3 + Long.BYTES * 2 + key.length;
+            }
+            if (channel.size() < offset + size * Long.BYTES) {
+                return false;
+            }
+            int nbChunks = (int) ((size + CHUNK_MASK) >>> CHUNK_BITS);
+            ByteBuffer[] chunks = new ByteBuffer[nbChunks];
+            for (int i = 0; i < nbChunks; i++) {
+                long first = (long) i << CHUNK_BITS;
+                long length = Math.min(size - first, CHUNK_MASK + 1);
+                chunks[i] = channel.map(MapMode.READ_ONLY, offset + first * Long.BYTES, length * Long.BYTES);
+            }
+            fChunks = chunks;
+            fSize = size;
+            fNbEvents = nbEvents;
+            fComplete = true;
+            fCompletion.countDown();
+            return true;
+        } catch (IOException e) {
+            Activator.logWarning("Cannot read the filter index file " + fFile + ", it will be built again: " + e); //$NON-NLS-1$ //$NON-NLS-2$
+            return false;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Queries
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get whether the index is complete and covers the events of the trace
+     *
+     * @param nbEvents
+     *            The current number of events of the trace
+     * @return true if the index can be used
+     */
+    public boolean isComplete(long nbEvents) {
+        return fComplete && fNbEvents == nbEvents;
+    }
+
+    private synchronized boolean isStale(long nbEvents) {
+        if (fFailed) {
+            /* Retrying would fail again, unless the trace has more events */
+            return fBuildNbEvents != nbEvents;
+        }
+        return fComplete && fNbEvents != nbEvents;
+    }
+
+    /**
+     * Wait for the index to be built
+     *
+     * @throws InterruptedException
+     *             If the thread was interrupted while waiting
+     */
+    public void waitForCompletion() throws InterruptedException {
+        fCompletion.await();
+    }
+
+    /**
+     * Get the number of events of the trace covered by the index
+     *
+     * @return The number of events, or -1 if the index is not complete
+     */
+    public long getNbEvents() {
+        return fNbEvents;
+    }
+
+    /**
+     * Get the number of matching events
+     *
+     * @return The number of events that match the filter
+     */
+    public long size() {
+        return fSize;
+    }
+
+    /**
+     * Get the rank in the trace of a matching event
+     *
+     * @param index
+     *            The index of the event among the matching events, less than
+     *            {@link #size()}
+     * @return The rank of the event in the trace
+     */
+    public long getRank(long index) {
+        if (index < 0 || index >= fSize) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + fSize); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        return fChunks[(int) (index >>> CHUNK_BITS)].getLong((int) (index & CHUNK_MASK) * Long.BYTES);
+    }
+
+    /**
+     * Get the index among the matching events of the first matching event at
+     * or after a rank, which is also the number of matching events before the
+     * rank
+     *
+     * @param rank
+     *            The rank in the trace
+     * @return The index of the event, {@link #size()} if no event matches
+     *         after the rank
+     */
+    public long getIndex(long rank) {
+        long low = 0;
+        long high = fSize;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (getRank(mid) < rank) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -56,6 +56,19 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
      */
     private Map<String, Set<ITmfEventRequest>> fRequestsCache = new HashMap<>();
 
+    /**
+     * System property to disable the dispatching of the events to the
+     * sub-requests in parallel, see {@link TmfEventFanOut}. It is enabled by
+     * default.
+     */
+    private static final String FAN_OUT_PROPERTY = "org.eclipse.tracecompass.tmf.core.request.fanOut"; //$NON-NLS-1$
+
+    /**
+     * Dispatches the events to the sub-requests on their own threads, null if
+     * the events are dispatched on the thread of this request
+     */
+    private volatile TmfEventFanOut fFanOut = null;
+
     // ------------------------------------------------------------------------
     // Constructor
     // ------------------------------------------------------------------------
@@ -146,6 +159,24 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
 
     }
 
+    /**
+     * Events can only be reused if every sub-request allows it, since they all
+     * receive the same event object.
+     */
+    @Override
+    public boolean isEventReuseAllowed() {
+        if (fFanOut != null) {
+            /* The sub-requests handle the events after the next ones are read */
+            return false;
+        }
+        for (ITmfEventRequest request : fRequests) {
+            if (!request.isEventReuseAllowed()) {
+                return false;
+            }
+        }
+        return !fRequests.isEmpty();
+    }
+
     private boolean ranksOverlap(ITmfEventRequest request) {
         long start = request.getIndex();
         long end = start + request.getNbRequested();
@@ -215,6 +246,12 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
 
         long index = getIndex() + getNbRead() - 1;
 
+        TmfEventFanOut fanOut = fFanOut;
+        if (fanOut != null) {
+            fanOut.publish(data, index);
+            return;
+        }
+
         String traceName = data.getTrace().getName();
         Set<ITmfEventRequest> requests = fRequestsCache.get(traceName);
 
@@ -231,25 +268,40 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
 
         // dispatch event to relevant requests
         for (ITmfEventRequest request : requests) {
-            long start = request.getIndex();
-            if (!request.isCompleted() && index >= start && request.getNbRead() < request.getNbRequested()) {
-                ITmfTimestamp ts = data.getTimestamp();
-                if (request.getRange().contains(ts)) {
-                    if (request.getDataType().isInstance(data)) {
-                        try {
-                            request.handleData(data);
-                        } catch (Exception e) {
-                            /*
-                             * We don't usually catch all exception, but here it
-                             * is important because this will cause the request
-                             * thread to hang forever and the other requests to
-                             * be stopped. This should properly cancel the
-                             * request with the exception and let the rest
-                             * continue.
-                             */
-                            Activator.logError("An uncaught exception happened on request " + request + ": " + e.getMessage());  //$NON-NLS-1$//$NON-NLS-2$
-                            request.fail(e);
-                        }
+            dispatch(request, data, index);
+        }
+    }
+
+    /**
+     * Dispatch an event to a sub-request, if it is part of the events it
+     * requested
+     *
+     * @param request
+     *            The sub-request
+     * @param data
+     *            The event
+     * @param index
+     *            The rank of the event
+     */
+    static void dispatch(ITmfEventRequest request, ITmfEvent data, long index) {
+        long start = request.getIndex();
+        if (!request.isCompleted() && index >= start && request.getNbRead() < request.getNbRequested()) {
+            ITmfTimestamp ts = data.getTimestamp();
+            if (request.getRange().contains(ts)) {
+                if (request.getDataType().isInstance(data)) {
+                    try {
+                        request.handleData(data);
+                    } catch (Exception e) {
+                        /*
+                         * We don't usually catch all exception, but here it
+                         * is important because this will cause the request
+                         * thread to hang forever and the other requests to
+                         * be stopped. This should properly cancel the
+                         * request with the exception and let the rest
+                         * continue.
+                         */
+                        Activator.logError("An uncaught exception happened on request " + request + ": " + e.getMessage());  //$NON-NLS-1$//$NON-NLS-2$
+                        request.fail(e);
                     }
                 }
             }
@@ -263,11 +315,31 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
                 request.start();
             }
         }
+        /*
+         * With more than one sub-request, they handle the events in parallel
+         * instead of at the speed of all of them together.
+         */
+        if (fRequests.size() > 1 && Boolean.parseBoolean(System.getProperty(FAN_OUT_PROPERTY, Boolean.TRUE.toString()))) {
+            fFanOut = new TmfEventFanOut(getRequestId(), new ArrayList<>(fRequests));
+        }
         super.start();
     }
 
+    /**
+     * Wait until the sub-requests handled all the events dispatched to them
+     * on their own threads
+     */
+    private void closeFanOut() {
+        TmfEventFanOut fanOut = fFanOut;
+        if (fanOut != null) {
+            fFanOut = null;
+            fanOut.close();
+        }
+    }
+
     @Override
     public synchronized void done() {
+        closeFanOut();
         for (ITmfEventRequest request : fRequests) {
             if (!request.isCompleted()) {
                 request.done();
@@ -281,6 +353,7 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
         for (ITmfEventRequest request : fRequests) {
             request.fail(e);
         }
+        closeFanOut();
         super.fail(e);
     }
 
@@ -291,6 +364,7 @@ public class TmfCoalescedEventRequest extends TmfEventRequest {
                 request.cancel();
             }
         }
+        closeFanOut();
         super.cancel();
     }
 
@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.core.request;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tracecompass.internal.tmf.core.Activator;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest;
+
+/**
+ * Dispatches the events of a coalesced request to its sub-requests in
+ * parallel, each sub-request handling the events on its own thread.
+ *
+ * The events are published in a ring buffer shared by the sub-requests, in
+ * which each sub-request reads at its own pace and in order. The publisher only
+ * waits when the ring buffer is full, that is when the slowest sub-request is
+ * a full buffer behind, so the request goes at the speed of its slowest
+ * sub-request instead of the sum of all of them.
+ *
+ * The threads of the sub-requests are daemon threads. A sub-request whose
+ * thread fails is failed and no longer counted, so the publisher never waits
+ * for it.
+ */
+final class TmfEventFanOut {
+
+    private static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+
+    private final ITmfEvent[] fEvents = new ITmfEvent[CAPACITY];
+    private final long[] fRanks = new long[CAPACITY];
+    private final Consumer[] fConsumers;
+
+    private final Object fLock = new Object();
+
+    /** Number of events published, only written by the publisher */
+    private volatile long fPublished = 0;
+    /** Lower bound of the number of events read by the slowest consumer */
+    private long fMinConsumed = 0;
+
+    private volatile boolean fClosed = false;
+    private volatile boolean fPublisherWaiting = false;
+    private volatile int fConsumersWaiting = 0;
+
+    /**
+     * Constructor, starts the threads of the sub-requests
+     *
+     * @param requestId
+     *            The ID of the coalesced request, to name the threads
+     * @param requests
+     *            The sub-requests
+     */
+    public TmfEventFanOut(int requestId, List<ITmfEventRequest> requests) {
+        fConsumers = new Consumer[requests.size()];
+        for (int i = 0; i < fConsumers.length; i++) {
+            ITmfEventRequest request = requests.get(i);
+            Consumer consumer = new Consumer(request);
+            fConsumers[i] = consumer;
+            consumer.fThread = new Thread(consumer, "Request " + requestId + " dispatcher for request " + request.getRequestId()); //$NON-NLS-1$ //$NON-NLS-2$
+            /* The threads must not keep the application alive */
+            consumer.fThread.setDaemon(true);
+        }
+        for (Consumer consumer : fConsumers) {
+            consumer.fThread.start();
+        }
+    }
+
+    /**
+     * Publish an event to the sub-requests, waiting if the slowest one is too
+     * far behind
+     *
+     * @param event
+     *            The event
+     * @param rank
+     *            The rank of the event in the coalesced request
+     */
+    public void publish(ITmfEvent event, long rank) {
+        long sequence = fPublished;
+        if (sequence - fMinConsumed >= CAPACITY) {
+            fMinConsumed = minConsumed();
+            if (sequence - fMinConsumed >= CAPACITY && !waitForConsumers(sequence)) {
+                return;
+            }
+        }
+        int slot = (int) (sequence & MASK);
+        fEvents[slot] = event;
+        fRanks[slot] = rank;
+        /* The volatile write makes the event visible to the consumers */
+        fPublished = sequence + 1;
+        if (fConsumersWaiting > 0) {
+            synchronized (fLock) {
+                fLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Stop publishing events and wait until the sub-requests handled all the
+     * published events
+     */
+    public void close() {
+        fClosed = true;
+        synchronized (fLock) {
+            fLock.notifyAll();
+        }
+        for (Consumer consumer : fConsumers) {
+            if (consumer.fThread == Thread.currentThread()) {
+                /* Closed by a sub-request, it cannot wait for itself */
+                continue;
+            }
+            try {
+                consumer.fThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private long minConsumed() {
+        long min = Long.MAX_VALUE;
+        for (Consumer consumer : fConsumers) {
+            min = Math.min(min, consumer.fConsumed);
+        }
+        return min;
+    }
+
+    /**
+     * Wait until there is room in the ring buffer for an event.
+     *
+     * @return false if the fan-out was closed while waiting
+     */
+    private boolean waitForConsumers(long sequence) {
+        synchronized (fLock) {
+            fPublisherWaiting = true;
+            try {
+                while (!fClosed) {
+                    fMinConsumed = minConsumed();
+                    if (sequence - fMinConsumed < CAPACITY) {
+                        return true;
+                    }
+                    fLock.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                fPublisherWaiting = false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Handles the events of one sub-request, in the order they are published
+     */
+    private final class Consumer implements Runnable {
+
+        private final ITmfEventRequest fRequest;
+        private final Map<String, Boolean> fMatchingTraces = new HashMap<>();
+        private Thread fThread;
+
+        /**
+         * Number of events read, only written by the consumer. It is
+         * Long.MAX_VALUE once the consumer stopped, so it is not waited for.
+         */
+        private volatile long fConsumed = 0;
+
+        public Consumer(ITmfEventRequest request) {
+            fRequest = request;
+        }
+
+        @Override
+        public void run() {
+            try {
+                long consumed = 0;
+                while (true) {
+                    long available = fPublished;
+                    if (available == consumed) {
+                        if (!waitForEvents(consumed)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    /* Handle all the available events before updating the cursor */
+                    for (long sequence = consumed; sequence < available; sequence++) {
+                        int slot = (int) (sequence & MASK);
+                        handle(fEvents[slot], fRanks[slot]);
+                    }
+                    consumed = available;
+                    fConsumed = consumed;
+                    notifyPublisher();
+                }
+            } catch (Throwable t) {
+                /* The other sub-requests keep going without this one */
+                fRequest.fail(t instanceof Exception ? (Exception) t : new RuntimeException(t));
+                Activator.logError("The dispatcher of request " + fRequest + " failed", t); //$NON-NLS-1$ //$NON-NLS-2$
+            } finally {
+                fConsumed = Long.MAX_VALUE;
+                notifyPublisher();
+            }
+        }
+
+        private void notifyPublisher() {
+            if (fPublisherWaiting) {
+                synchronized (fLock) {
+                    fLock.notifyAll();
+                }
+            }
+        }
+
+        private void handle(ITmfEvent event, long rank) {
+            if (fRequest.isCompleted()) {
+                return;
+            }
+            String traceName = event.getTrace().getName();
+            Boolean matches = fMatchingTraces.get(traceName);
+            if (matches == null) {
+                matches = fRequest.getProviderFilter().matches(event);
+                fMatchingTraces.put(traceName, matches);
+            }
+            if (matches) {
+                TmfCoalescedEventRequest.dispatch(fRequest, event, rank);
+            }
+        }
+
+        /**
+         * Wait until events are published.
+         *
+         * @return false if there will be no more events
+         */
+        private boolean waitForEvents(long consumed) {
+            synchronized (fLock) {
+                fConsumersWaiting++;
+                try {
+                    while (fPublished == consumed) {
+                        if (fClosed) {
+                            return false;
+                        }
+                        fLock.wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                } finally {
+                    fConsumersWaiting--;
+                }
+            }
+            return true;
+        }
+    }
+}
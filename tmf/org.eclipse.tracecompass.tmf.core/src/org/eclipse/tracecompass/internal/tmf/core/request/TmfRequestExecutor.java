@@ -18,17 +18,19 @@ package org.eclipse.tracecompass.internal.tmf.core.request;
 
 import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
 
-import java.util.Queue;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLog;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils;
 import org.eclipse.tracecompass.common.core.log.TraceCompassLogUtils.FlowScopeLog;
@@ -38,16 +40,20 @@ import org.eclipse.tracecompass.internal.tmf.core.component.TmfEventThread;
 import org.eclipse.tracecompass.tmf.core.request.ITmfEventRequest.ExecutionType;
 
 /**
- * The request scheduler works with 5 slots with a specific time. It has 4 slots
- * for foreground requests and 1 slot for background requests, and it passes
- * through all the slots (foreground first and background after).
+ * The request scheduler runs up to a number of requests concurrently, by
+ * default the number of processors, and shares these slots between the
+ * requests in time slices.
  *
- * Example: if we have one foreground and one background request, the foreground
- * request will be executed four times more often than the background request.
+ * When requests are waiting for a slot, the requests that ran for a whole time
+ * slice are suspended to let the request that waited the most run. Foreground
+ * requests have a head start of 4 time slices over background requests, so
+ * with one foreground and one background request competing for a slot, the
+ * foreground request runs about four times more often. Background requests
+ * still age while they wait, so they always end up running.
  *
  * @author Francois Chouinard
  * @author Simon Delisle
- * @version 1.1
+ * @version 1.2
  */
 public class TmfRequestExecutor implements Executor {
 
@@ -61,6 +67,18 @@ public class TmfRequestExecutor implements Executor {
     private static final long REQUEST_TIME = 100;
     private static final int FOREGROUND_SLOT = 4;
 
+    private static final long REQUEST_TIME_NANOS = TimeUnit.MILLISECONDS.toNanos(REQUEST_TIME);
+    private static final long FOREGROUND_HEAD_START = FOREGROUND_SLOT * REQUEST_TIME_NANOS;
+
+    /** Maximum number of new requests waiting, for each priority */
+    private static final int MAX_QUEUED = 10;
+
+    /**
+     * System property with the number of requests of a provider that can run
+     * at the same time. Defaults to the number of processors.
+     */
+    private static final String CONCURRENT_REQUESTS_PROPERTY = "org.eclipse.tracecompass.tmf.core.request.concurrentRequests"; //$NON-NLS-1$
+
     // ------------------------------------------------------------------------
     // Attributes
     // ------------------------------------------------------------------------
@@ -69,17 +87,45 @@ public class TmfRequestExecutor implements Executor {
     private final ExecutorService fExecutor = Executors.newCachedThreadPool();
     private final String fExecutorName;
 
-    // The request queues
-    private final Queue<TmfEventThread> fForegroundTasks = new ArrayBlockingQueue<>(10);
-    private final Queue<TmfEventThread> fBackgroundTasks = new ArrayBlockingQueue<>(10);
+    private final int fMaxRunning;
 
-    // The tasks
-    private TmfEventThread fActiveTask;
+    // The tasks, waiting for a slot or running
+    private final List<Task> fWaiting = new ArrayList<>();
+    private final List<Task> fRunning = new ArrayList<>();
 
     private Timer fTimer;
     private TimerTask fTimerTask;
 
-    private int fForegroundCycle = 0;
+    // Metrics of the time the requests wait before they start
+    private long fStartedCount = 0;
+    private long fTotalWaitTime = 0;
+    private long fMaxWaitTime = 0;
+
+    /**
+     * A request and its scheduling state
+     */
+    private static final class Task {
+        private final TmfEventThread fWrapper;
+        private final long fSubmittedAt;
+        private long fQueuedAt;
+        private long fRunningSince;
+        private boolean fStarted = false;
+
+        public Task(TmfEventThread wrapper, long now) {
+            fWrapper = wrapper;
+            fSubmittedAt = now;
+            fQueuedAt = now;
+        }
+
+        public boolean isForeground() {
+            return fWrapper.getExecType() == ExecutionType.FOREGROUND;
+        }
+
+        /** The priority of a waiting task, higher runs first */
+        public long getScore(long now) {
+            return (now - fQueuedAt) + (isForeground() ? FOREGROUND_HEAD_START : 0);
+        }
+    }
 
     // ------------------------------------------------------------------------
     // Constructors
@@ -89,6 +135,17 @@ public class TmfRequestExecutor implements Executor {
      * Default constructor
      */
     public TmfRequestExecutor() {
+        this(Integer.getInteger(CONCURRENT_REQUESTS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxConcurrentRequests
+     *            The number of requests that can run at the same time
+     */
+    public TmfRequestExecutor(int maxConcurrentRequests) {
+        fMaxRunning = Math.max(1, maxConcurrentRequests);
         // We know the canonical name is not null because we use ExecutorService
         // only
         String canonicalName = checkNotNull(fExecutor.getClass().getCanonicalName());
@@ -116,6 +173,61 @@ public class TmfRequestExecutor implements Executor {
         return fExecutor.isTerminated();
     }
 
+    /**
+     * @return the number of requests that can run at the same time
+     */
+    public int getMaxConcurrentRequests() {
+        return fMaxRunning;
+    }
+
+    /**
+     * @return the number of requests running
+     */
+    public synchronized int getRunningCount() {
+        return fRunning.size();
+    }
+
+    /**
+     * Get the number of new requests of a priority waiting for a slot, not
+     * counting the suspended ones, which already started
+     *
+     * @param type
+     *            The priority of the requests
+     * @return the number of waiting requests
+     */
+    public synchronized int getQueueDepth(ExecutionType type) {
+        int count = 0;
+        for (Task task : fWaiting) {
+            if (!task.fStarted && task.fWrapper.getExecType() == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of requests that started running
+     */
+    public synchronized long getStartedCount() {
+        return fStartedCount;
+    }
+
+    /**
+     * @return the average time the requests waited before they started
+     *         running, in nanoseconds
+     */
+    public synchronized long getAverageWaitTime() {
+        return (fStartedCount == 0 ? 0 : fTotalWaitTime / fStartedCount);
+    }
+
+    /**
+     * @return the longest time a request waited before it started running, in
+     *         nanoseconds
+     */
+    public synchronized long getMaxWaitTime() {
+        return fMaxWaitTime;
+    }
+
     // ------------------------------------------------------------------------
     // Operations
     // ------------------------------------------------------------------------
@@ -123,7 +235,7 @@ public class TmfRequestExecutor implements Executor {
     /**
      * Initialize the executor
      */
-    public void init() {
+    public synchronized void init() {
         if (fTimer != null) {
             return;
         }
@@ -156,17 +268,15 @@ public class TmfRequestExecutor implements Executor {
                 }
             };
 
-            // Add the thread to the appropriate queue
-            ExecutionType priority = thread.getExecType();
-
-            if (priority == ExecutionType.FOREGROUND) {
-                if (!fForegroundTasks.offer(wrapper)) {
-                    wrapper.cancel();
-                }
-            } else {
-                if (!fBackgroundTasks.offer(wrapper)) {
-                    wrapper.cancel();
-                }
+            // Add the thread to the queue, if there is room for its priority
+            if (getQueueDepth(thread.getExecType()) >= MAX_QUEUED) {
+                wrapper.cancel();
+                return;
+            }
+            fWaiting.add(new Task(wrapper, System.nanoTime()));
+            if (fTimer != null && fRunning.size() < fMaxRunning) {
+                // A slot is free, no need to wait for the next time slice
+                scheduleNext();
             }
         }
     }
@@ -186,43 +296,47 @@ public class TmfRequestExecutor implements Executor {
     }
 
     /**
-     * Executes the next pending request, if applicable.
+     * Executes the next pending requests, if applicable.
      */
     protected synchronized void scheduleNext() {
-        if (!isShutdown()) {
-            if (fActiveTask == null) {
-                schedule();
-            } else if (fActiveTask.getExecType() == ExecutionType.FOREGROUND) {
-                if (fActiveTask.getThread().isCompleted()) {
-                    fActiveTask = null;
-                    schedule();
-                } else {
-                    if (hasTasks()) {
-                        fActiveTask.getThread().suspend();
-                        if (!fForegroundTasks.offer(fActiveTask)) {
-                            fActiveTask.cancel();
-                            fActiveTask = null;
-                        }
-                        schedule();
-                    }
-                }
+        if (isShutdown()) {
+            return;
+        }
+        long now = System.nanoTime();
+        fRunning.removeIf(task -> task.fWrapper.getThread().isCompleted());
 
-            } else if (fActiveTask.getExecType() == ExecutionType.BACKGROUND) {
-                if (fActiveTask.getThread().isCompleted()) {
-                    fActiveTask = null;
-                    schedule();
-                } else {
-                    if (hasTasks()) {
-                        fActiveTask.getThread().suspend();
-                        if (!fBackgroundTasks.offer(fActiveTask)) {
-                            fActiveTask.cancel();
-                            fActiveTask = null;
-                        }
-                        schedule();
-                    }
+        // Fill the free slots
+        while (fRunning.size() < fMaxRunning && !fWaiting.isEmpty()) {
+            start(pollNext(now), now);
+        }
+
+        /*
+         * The requests that ran a whole time slice make room for the waiting
+         * requests that have a higher priority than they would have once
+         * suspended.
+         */
+        int swaps = Math.min(fWaiting.size(), fRunning.size());
+        for (int i = 0; i < swaps; i++) {
+            Task longest = null;
+            for (Task task : fRunning) {
+                if (now - task.fRunningSince >= REQUEST_TIME_NANOS && (longest == null || task.fRunningSince < longest.fRunningSince)) {
+                    longest = task;
                 }
             }
+            Task next = peekNext(now);
+            if (longest == null || next == null || next.getScore(now) < (longest.isForeground() ? FOREGROUND_HEAD_START : 0)) {
+                break;
+            }
+            longest.fWrapper.getThread().suspend();
+            fRunning.remove(longest);
+            longest.fQueuedAt = now;
+            fWaiting.remove(next);
+            fWaiting.add(longest);
+            start(next, now);
         }
+
+        TraceCompassLogUtils.traceCounter(LOGGER, Level.FINER, "RequestExecutor:Queues", //$NON-NLS-1$
+                "running", fRunning.size(), "waiting", fWaiting.size()); //$NON-NLS-1$ //$NON-NLS-2$
     }
 
     /**
@@ -237,15 +351,16 @@ public class TmfRequestExecutor implements Executor {
             fTimer.cancel();
         }
 
-        if (fActiveTask != null) {
-            fActiveTask.cancel();
-        }
-
-        while ((fActiveTask = fForegroundTasks.poll()) != null) {
-            fActiveTask.cancel();
-        }
-        while ((fActiveTask = fBackgroundTasks.poll()) != null) {
-            fActiveTask.cancel();
+        List<Task> tasks = new ArrayList<>(fRunning);
+        tasks.addAll(fWaiting);
+        fRunning.clear();
+        fWaiting.clear();
+        for (Task task : tasks) {
+            task.fWrapper.cancel();
+            if (task.fWrapper.getThread().isPaused()) {
+                // Let the suspended thread see the cancellation and finish
+                task.fWrapper.getThread().resume();
+            }
         }
 
         fExecutor.shutdown();
@@ -259,60 +374,47 @@ public class TmfRequestExecutor implements Executor {
     // ------------------------------------------------------------------------
 
     /**
-     * Determine which type of request (foreground or background) we schedule
-     * next
+     * Get the waiting task with the highest priority
      */
-    private void schedule() {
-        if (!fForegroundTasks.isEmpty()) {
-            scheduleNextForeground();
-        } else {
-            scheduleNextBackground();
+    private @Nullable Task peekNext(long now) {
+        Task next = null;
+        long nextScore = Long.MIN_VALUE;
+        for (Task task : fWaiting) {
+            long score = task.getScore(now);
+            if (next == null || score > nextScore) {
+                next = task;
+                nextScore = score;
+            }
         }
+        return next;
     }
 
-    /**
-     * Schedule the next foreground request
-     */
-    private void scheduleNextForeground() {
-        if (fForegroundCycle < FOREGROUND_SLOT || fBackgroundTasks.isEmpty()) {
-            ++fForegroundCycle;
-            fActiveTask = fForegroundTasks.poll();
-            executefActiveTask();
-        } else {
-            fActiveTask = null;
-            scheduleNextBackground();
-        }
+    private Task pollNext(long now) {
+        Task next = checkNotNull(peekNext(now));
+        fWaiting.remove(next);
+        return next;
     }
 
     /**
-     * Schedule the next background request
+     * Execute or resume a task
      */
-    private void scheduleNextBackground() {
-        fForegroundCycle = 0;
-        if (!fBackgroundTasks.isEmpty()) {
-            fActiveTask = fBackgroundTasks.poll();
-            executefActiveTask();
+    private void start(Task task, long now) {
+        if (!task.fStarted) {
+            task.fStarted = true;
+            long wait = now - task.fSubmittedAt;
+            fStartedCount++;
+            fTotalWaitTime += wait;
+            fMaxWaitTime = Math.max(fMaxWaitTime, wait);
         }
-    }
-
-    /**
-     * Execute or resume the active task
-     */
-    private void executefActiveTask() {
-        if (fActiveTask.getThread().isPaused()) {
-            fActiveTask.getThread().resume();
+        task.fRunningSince = now;
+        fRunning.add(task);
+        if (task.fWrapper.getThread().isPaused()) {
+            task.fWrapper.getThread().resume();
         } else {
-            fExecutor.execute(fActiveTask);
+            fExecutor.execute(task.fWrapper);
         }
     }
 
-    /**
-     * Check if the scheduler has tasks
-     */
-    private boolean hasTasks() {
-        return !(fForegroundTasks.isEmpty() && fBackgroundTasks.isEmpty());
-    }
-
     // ------------------------------------------------------------------------
     // Object
     // ------------------------------------------------------------------------
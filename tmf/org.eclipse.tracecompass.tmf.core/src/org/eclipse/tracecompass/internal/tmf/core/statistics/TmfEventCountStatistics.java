@@ -0,0 +1,582 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.internal.tmf.core.statistics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.tmf.core.Activator;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfLostEvent;
+import org.eclipse.tracecompass.tmf.core.statistics.ITmfStatistics;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+
+/**
+ * Implementation of {@link ITmfStatistics} which stores the cumulative event
+ * counts of the trace, in total and per event type, sampled at the end of
+ * fixed-width time buckets.
+ *
+ * Instead of one state interval per event, each count only has one entry per
+ * bucket in which it changed, so the size of the store is bounded by the
+ * number of buckets. The width of the buckets starts at one nanosecond and is
+ * doubled, merging the buckets two by two, each time the trace goes beyond
+ * the maximum number of buckets.
+ *
+ * The counts in a time range are exact: at each end of the range, the events
+ * between the start of its bucket and the end are read from the trace, which
+ * seeks the start of the bucket using its checkpoint index. Histograms only
+ * read the events at the two ends of their range, the counts at the times
+ * inside are interpolated in their bucket, so they are exact at the ends of
+ * the buckets.
+ *
+ * The counts are kept as they were in the statistics state systems: lost
+ * events are not counted in the total, and add their number of lost events to
+ * their event type.
+ */
+public class TmfEventCountStatistics implements ITmfStatistics {
+
+    /**
+     * Reads the events of a time range, to count the events inside a bucket
+     */
+    @FunctionalInterface
+    public interface IEventReader {
+
+        /**
+         * Read the events of a time range, in order
+         *
+         * @param start
+         *            The start of the time range, in nanoseconds
+         * @param end
+         *            The end of the time range, inclusive, in nanoseconds
+         * @param consumer
+         *            The consumer of the events
+         */
+        void read(long start, long end, Consumer<ITmfEvent> consumer);
+    }
+
+    private static final int MAGIC = 0x54534543; /* "TSEC" */
+    private static final int VERSION = 1;
+
+    /** Maximum number of buckets, the width is doubled beyond */
+    private static final int MAX_BUCKETS = 1 << 16;
+
+    private final IEventReader fReader;
+    private final @Nullable File fFile;
+
+    /* Only modified with the lock held, read by the queries */
+    private final Column fTotal = new Column();
+    private final Map<String, Column> fTypes = new HashMap<>();
+    private long fStart = Long.MIN_VALUE;
+    private long fWidth = 1;
+    /** Time up to which the counts can be queried */
+    private long fEnd = Long.MIN_VALUE;
+    private boolean fComplete = false;
+
+    /* Only used by the thread adding the events */
+    private long fCurrentBucket = -1;
+    private final List<Column> fDirty = new ArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param trace
+     *            The trace whose events are counted, read to count the events
+     *            inside a bucket
+     * @param file
+     *            The file where the counts are saved, or null to keep them in
+     *            memory only
+     */
+    public TmfEventCountStatistics(ITmfTrace trace, @Nullable File file) {
+        this((start, end, consumer) -> readTrace(trace, start, end, consumer), file);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param reader
+     *            Reads the events to count the events inside a bucket
+     * @param file
+     *            The file where the counts are saved, or null to keep them in
+     *            memory only
+     */
+    public TmfEventCountStatistics(IEventReader reader, @Nullable File file) {
+        fReader = reader;
+        fFile = file;
+    }
+
+    private static void readTrace(ITmfTrace trace, long start, long end, Consumer<ITmfEvent> consumer) {
+        ITmfContext context = trace.seekEvent(TmfTimestamp.fromNanos(start));
+        try {
+            ITmfEvent event = trace.getNext(context);
+            while (event != null && event.getTimestamp().toNanos() <= end) {
+                consumer.accept(event);
+                event = trace.getNext(context);
+            }
+        } finally {
+            context.dispose();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Building
+    // ------------------------------------------------------------------------
+
+    /**
+     * Add an event to the counts. The events must be added in order, by a
+     * single thread.
+     *
+     * @param event
+     *            The event
+     */
+    public void addEvent(ITmfEvent event) {
+        long ts = event.getTimestamp().toNanos();
+        if (fCurrentBucket < 0) {
+            synchronized (this) {
+                fStart = ts;
+                fCurrentBucket = 0;
+            }
+        }
+        long bucket = (ts - fStart) / fWidth;
+        if (bucket > fCurrentBucket) {
+            commit(bucket, ts);
+        }
+        if (!(event instanceof ITmfLostEvent)) {
+            increment(fTotal, 1);
+        }
+        String type = event.getName();
+        Column column = fTypes.get(type);
+        if (column == null) {
+            column = new Column();
+            synchronized (this) {
+                fTypes.put(type, column);
+            }
+        }
+        increment(column, getTypeIncrement(event));
+    }
+
+    private void increment(Column column, long count) {
+        if (!column.fDirty) {
+            column.fDirty = true;
+            fDirty.add(column);
+        }
+        column.fCurrent += count;
+    }
+
+    private static long getTypeIncrement(ITmfEvent event) {
+        if (event instanceof ITmfLostEvent) {
+            return ((ITmfLostEvent) event).getNbLostEvents();
+        }
+        return 1;
+    }
+
+    /**
+     * Save the counts of the current bucket and move to the next bucket
+     */
+    private synchronized void commit(long nextBucket, long ts) {
+        for (Column column : fDirty) {
+            column.append(fCurrentBucket);
+            column.fDirty = false;
+        }
+        fDirty.clear();
+        long bucket = nextBucket;
+        while (bucket >= MAX_BUCKETS) {
+            merge();
+            bucket = (ts - fStart) / fWidth;
+        }
+        fCurrentBucket = bucket;
+        /* All the buckets before the current one are complete */
+        fEnd = fStart + bucket * fWidth - 1;
+    }
+
+    /**
+     * Double the width of the buckets, merging them two by two
+     */
+    private void merge() {
+        fWidth *= 2;
+        fCurrentBucket >>= 1;
+        fTotal.merge();
+        for (Column column : fTypes.values()) {
+            column.merge();
+        }
+    }
+
+    /**
+     * Save the counts of the last bucket once all the events were added, and
+     * save the counts to the file.
+     */
+    public void finish() {
+        synchronized (this) {
+            if (fCurrentBucket >= 0) {
+                for (Column column : fDirty) {
+                    column.append(fCurrentBucket);
+                    column.fDirty = false;
+                }
+                fDirty.clear();
+                fEnd = fStart + (fCurrentBucket + 1) * fWidth - 1;
+            }
+            fComplete = true;
+        }
+        save();
+    }
+
+    /**
+     * Clear the counts, to count the events of the trace again
+     */
+    public synchronized void reset() {
+        fTotal.clear();
+        fTypes.clear();
+        fDirty.clear();
+        fStart = Long.MIN_VALUE;
+        fWidth = 1;
+        fEnd = Long.MIN_VALUE;
+        fCurrentBucket = -1;
+        fComplete = false;
+    }
+
+    /**
+     * Get whether all the events of the trace were counted
+     *
+     * @return true if the counts are complete
+     */
+    public synchronized boolean isComplete() {
+        return fComplete;
+    }
+
+    /**
+     * Get the width of the buckets
+     *
+     * @return The width of the buckets, in nanoseconds
+     */
+    public synchronized long getBucketWidth() {
+        return fWidth;
+    }
+
+    // ------------------------------------------------------------------------
+    // File
+    // ------------------------------------------------------------------------
+
+    private synchronized void save() {
+        File file = fFile;
+        if (file == null) {
+            return;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fStart);
+            out.writeLong(fWidth);
+            out.writeLong(fEnd);
+            fTotal.write(out);
+            out.writeInt(fTypes.size());
+            for (Map.Entry<String, Column> entry : fTypes.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().write(out);
+            }
+        } catch (IOException e) {
+            Activator.logWarning("Cannot write the event counts file " + file + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    /**
+     * Delete the file of the counts
+     */
+    public synchronized void deleteFile() {
+        File file = fFile;
+        if (file != null && file.exists() && !file.delete()) {
+            Activator.logWarning("Cannot delete the event counts file " + file); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Read the counts saved in the file by a previous build
+     *
+     * @return true if complete counts were read, false if the events must be
+     *         counted
+     */
+    public synchronized boolean load() {
+        File file = fFile;
+        if (file == null || !file.isFile()) {
+            return false;
+        }
+        reset();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            long start = in.readLong();
+            long width = in.readLong();
+            long end = in.readLong();
+            fTotal.read(in);
+            int nbTypes = in.readInt();
+            for (int i = 0; i < nbTypes; i++) {
+                String type = in.readUTF();
+                Column column = new Column();
+                column.read(in);
+                fTypes.put(type, column);
+            }
+            fStart = start;
+            fWidth = width;
+            fEnd = end;
+            fComplete = true;
+            return true;
+        } catch (IOException e) {
+            Activator.logWarning("Cannot read the event counts file " + file + ", the events will be counted again: " + e); //$NON-NLS-1$ //$NON-NLS-2$
+            reset();
+            return false;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // ITmfStatistics
+    // ------------------------------------------------------------------------
+
+    @Override
+    public List<@NonNull Long> histogramQuery(long[] timeRequested) {
+        List<@NonNull Long> list = new ArrayList<>(timeRequested.length);
+        if (timeRequested.length == 0) {
+            return list;
+        }
+        /* Count the events up to the time before the first requested time too */
+        long[] totals = new long[timeRequested.length + 1];
+        synchronized (this) {
+            totals[0] = getInterpolatedTotal(timeRequested[0] - 1);
+            for (int i = 0; i < timeRequested.length; i++) {
+                totals[i + 1] = getInterpolatedTotal(timeRequested[i]);
+            }
+        }
+        /* The ends are exact, so the sum of the histogram is too */
+        long first = getCountsAt(timeRequested[0] - 1, false).fTotal;
+        long last = getCountsAt(timeRequested[timeRequested.length - 1], false).fTotal;
+        totals[0] = first;
+        totals[totals.length - 1] = last;
+        for (int i = 1; i < totals.length; i++) {
+            long total = Math.max(first, Math.min(last, totals[i]));
+            list.add(total - totals[i - 1]);
+            totals[i] = total;
+        }
+        return list;
+    }
+
+    @Override
+    public synchronized long getEventsTotal() {
+        return fTotal.getLastCount();
+    }
+
+    @Override
+    public synchronized Map<@NonNull String, @NonNull Long> getEventTypesTotal() {
+        Map<@NonNull String, @NonNull Long> map = new HashMap<>();
+        for (Map.Entry<String, Column> entry : fTypes.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().getLastCount());
+        }
+        return map;
+    }
+
+    @Override
+    public long getEventsInRange(long start, long end) {
+        Counts startCounts = getCountsAt(start - 1, false);
+        Counts endCounts = getCountsAt(end, false);
+        return endCounts.fTotal - startCounts.fTotal;
+    }
+
+    @Override
+    public Map<String, Long> getEventTypesInRange(long start, long end) {
+        Counts startCounts = getCountsAt(start - 1, true);
+        Counts endCounts = getCountsAt(end, true);
+        if (endCounts.fTypes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Long> map = new HashMap<>();
+        for (Map.Entry<String, Long> entry : endCounts.fTypes.entrySet()) {
+            map.put(entry.getKey(), entry.getValue() - startCounts.fTypes.getOrDefault(entry.getKey(), 0L));
+        }
+        return map;
+    }
+
+    @Override
+    public void dispose() {
+        /* Nothing to dispose, the file is closed after each access */
+    }
+
+    // ------------------------------------------------------------------------
+    // Helpers
+    // ------------------------------------------------------------------------
+
+    /**
+     * Get the counts of the events up to a time, inclusively
+     */
+    private Counts getCountsAt(long time, boolean withTypes) {
+        Counts counts = new Counts();
+        long refineStart;
+        long refineEnd;
+        synchronized (this) {
+            if (fEnd == Long.MIN_VALUE || time < fStart) {
+                return counts;
+            }
+            long ts = Math.min(time, fEnd);
+            long bucket = (ts - fStart) / fWidth;
+            long bucketEnd = fStart + (bucket + 1) * fWidth - 1;
+            /* Read the counts up to the previous bucket, or the whole bucket */
+            long lastBucket = (ts >= bucketEnd) ? bucket : bucket - 1;
+            counts.fTotal = fTotal.getCountAt(lastBucket);
+            if (withTypes) {
+                for (Map.Entry<String, Column> entry : fTypes.entrySet()) {
+                    counts.fTypes.put(entry.getKey(), entry.getValue().getCountAt(lastBucket));
+                }
+            }
+            if (ts >= bucketEnd) {
+                return counts;
+            }
+            refineStart = fStart + bucket * fWidth;
+            refineEnd = ts;
+        }
+        /* Count the events inside the bucket, without holding the lock */
+        fReader.read(refineStart, refineEnd, event -> {
+            if (!(event instanceof ITmfLostEvent)) {
+                counts.fTotal++;
+            }
+            if (withTypes) {
+                counts.fTypes.merge(event.getName(), getTypeIncrement(event), Long::sum);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Get the total count of the events up to a time, inclusively, without
+     * reading the trace: it is interpolated between the counts at the ends of
+     * its bucket.
+     */
+    private long getInterpolatedTotal(long time) {
+        if (fEnd == Long.MIN_VALUE || time < fStart) {
+            return 0;
+        }
+        long ts = Math.min(time, fEnd);
+        long bucket = (ts - fStart) / fWidth;
+        long bucketStart = fStart + bucket * fWidth;
+        long before = fTotal.getCountAt(bucket - 1);
+        long after = fTotal.getCountAt(bucket);
+        return before + (long) ((double) (after - before) * (ts - bucketStart + 1) / fWidth);
+    }
+
+    private static final class Counts {
+        private long fTotal = 0;
+        private final Map<String, Long> fTypes = new HashMap<>();
+    }
+
+    /**
+     * The cumulative counts of the events of a type, or of all the events, at
+     * the end of the buckets in which they changed
+     */
+    private static final class Column {
+        private int[] fBuckets = new int[16];
+        private long[] fCounts = new long[16];
+        private int fSize = 0;
+
+        /* Only used by the thread adding the events */
+        private long fCurrent = 0;
+        private boolean fDirty = false;
+
+        public void append(long bucket) {
+            if (fSize > 0 && fBuckets[fSize - 1] == bucket) {
+                fCounts[fSize - 1] = fCurrent;
+                return;
+            }
+            if (fSize == fBuckets.length) {
+                fBuckets = Arrays.copyOf(fBuckets, fSize * 2);
+                fCounts = Arrays.copyOf(fCounts, fSize * 2);
+            }
+            fBuckets[fSize] = (int) bucket;
+            fCounts[fSize] = fCurrent;
+            fSize++;
+        }
+
+        public void merge() {
+            int size = 0;
+            for (int i = 0; i < fSize; i++) {
+                int bucket = fBuckets[i] >> 1;
+                if (size > 0 && fBuckets[size - 1] == bucket) {
+                    /* The last count of the merged bucket is kept */
+                    size--;
+                }
+                fBuckets[size] = bucket;
+                fCounts[size] = fCounts[i];
+                size++;
+            }
+            fSize = size;
+        }
+
+        public void clear() {
+            fSize = 0;
+            fCurrent = 0;
+            fDirty = false;
+        }
+
+        /**
+         * Get the count at the end of a bucket
+         */
+        public long getCountAt(long bucket) {
+            int low = 0;
+            int high = fSize - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (fBuckets[mid] <= bucket) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return (found < 0) ? 0 : fCounts[found];
+        }
+
+        public long getLastCount() {
+            return (fSize == 0) ? 0 : fCounts[fSize - 1];
+        }
+
+        public void write(DataOutputStream out) throws IOException {
+            out.writeInt(fSize);
+            for (int i = 0; i < fSize; i++) {
+                out.writeInt(fBuckets[i]);
+                out.writeLong(fCounts[i]);
+            }
+        }
+
+        public void read(DataInputStream in) throws IOException {
+            int size = in.readInt();
+            fBuckets = new int[Math.max(size, 16)];
+            fCounts = new long[fBuckets.length];
+            for (int i = 0; i < size; i++) {
+                fBuckets[i] = in.readInt();
+                fCounts[i] = in.readLong();
+            }
+            fSize = size;
+            fCurrent = getLastCount();
+        }
+    }
+}
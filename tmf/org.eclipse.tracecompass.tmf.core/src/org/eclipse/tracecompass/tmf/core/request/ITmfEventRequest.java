@@ -81,6 +81,20 @@ public interface ITmfEventRequest {
         return 0;
     }
 
+    /**
+     * Gets whether the provider may recycle the event objects passed to
+     * {@link #handleData(ITmfEvent)}. A request that returns true promises not
+     * to keep a reference to an event, or to its content, after handleData
+     * returns. The provider can then decode all the events of the request into
+     * the same object.
+     *
+     * @return true if the event objects can be reused
+     * @since 8.1
+     */
+    default boolean isEventReuseAllowed() {
+        return false;
+    }
+
     /**
      * @return the index of the first event requested
      */
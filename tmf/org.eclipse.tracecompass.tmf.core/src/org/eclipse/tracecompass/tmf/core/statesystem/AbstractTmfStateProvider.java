@@ -14,9 +14,14 @@
 
 package org.eclipse.tracecompass.tmf.core.statesystem;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,7 +52,9 @@ import com.google.common.annotations.VisibleForTesting;
  *
  * {@link #processEvent(ITmfEvent)} is replaced with
  * {@link #eventHandle(ITmfEvent)}, so that all the multi-thread logic is
- * abstracted away.
+ * abstracted away. The events are passed to the handler thread in chunks, and
+ * providers can handle a whole chunk at once by overriding
+ * {@link #eventHandle(List)}.
  *
  * @author Alexandre Montplaisir
  */
@@ -73,8 +80,20 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
         }
     }
 
-    private static final int DEFAULT_EVENTS_QUEUE_SIZE = 127;
-    private static final int DEFAULT_EVENTS_CHUNK_SIZE = 127;
+    /**
+     * System properties with the number of chunks in the events queue and the
+     * number of events per chunk. The events are passed to the handler thread
+     * a chunk at a time.
+     */
+    private static final String EVENTS_QUEUE_SIZE_PROPERTY = "org.eclipse.tracecompass.tmf.core.statesystem.eventsQueueSize"; //$NON-NLS-1$
+    private static final String EVENTS_CHUNK_SIZE_PROPERTY = "org.eclipse.tracecompass.tmf.core.statesystem.eventsChunkSize"; //$NON-NLS-1$
+
+    /* About as many events in the queue as with 127 chunks of 127 events */
+    private static final int DEFAULT_EVENTS_QUEUE_SIZE = Math.max(1, Integer.getInteger(EVENTS_QUEUE_SIZE_PROPERTY, 31));
+    private static final int DEFAULT_EVENTS_CHUNK_SIZE = Math.max(1, Integer.getInteger(EVENTS_CHUNK_SIZE_PROPERTY, 511));
+
+    /* Interval at which a thread waiting for the queue to be empty checks that the handler is running */
+    private static final long EMPTY_QUEUE_CHECK_MS = 500;
 
     private final ITmfTrace fTrace;
     private final BufferedBlockingQueue<ITmfEvent> fEventsQueue;
@@ -245,11 +264,15 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
          * the state. That way, when that event leaves the queue, we will know
          * for sure that the state system processed the preceding real event.
          */
+        EmptyQueueEvent emptyQueueEvent = new EmptyQueueEvent();
         try {
-            fEventsQueue.put(EMPTY_QUEUE_EVENT);
+            fEventsQueue.put(emptyQueueEvent);
             fEventsQueue.flushInputBuffer();
-            while (!fEventsQueue.isEmpty()) {
-                Thread.sleep(100);
+            /* The event is never reached if the handler thread is not running */
+            while (!emptyQueueEvent.await(EMPTY_QUEUE_CHECK_MS)) {
+                if (!fEventHandlerThread.isAlive()) {
+                    return;
+                }
             }
         } catch (InterruptedException e) {
             // do nothing
@@ -269,15 +292,27 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
         }
     }
 
-    /** Fake event indicating we want to clear the current queue */
+    /**
+     * Fake event indicating we want to clear the current queue, it is reached
+     * once the preceding events are handled
+     */
     private static class EmptyQueueEvent extends TmfEvent {
+        private final CountDownLatch fReached = new CountDownLatch(1);
+
         public EmptyQueueEvent() {
             super(null, ITmfContext.UNKNOWN_RANK, null, null, null);
         }
+
+        public void reached() {
+            fReached.countDown();
+        }
+
+        public boolean await(long timeoutMs) throws InterruptedException {
+            return fReached.await(timeoutMs, TimeUnit.MILLISECONDS);
+        }
     }
 
     private static final EndEvent END_EVENT = new EndEvent();
-    private static final EmptyQueueEvent EMPTY_QUEUE_EVENT = new EmptyQueueEvent();
 
     // ------------------------------------------------------------------------
     // Inner classes
@@ -291,6 +326,8 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
 
         private final FlowScopeLog fLog;
         private @Nullable ITmfEvent currentEvent;
+        /* The chunk of events being handled */
+        private List<ITmfEvent> fChunk = Collections.emptyList();
         private boolean fDone = false;
 
         public EventProcessor(FlowScopeLog log) {
@@ -306,36 +343,33 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
                 }
 
                 /*
-                 * We never insert null in the queue. Cannot be checked at
-                 * compile-time until Java 8 annotations...
+                 * The events of a chunk are handled in batches, cut at the
+                 * synchronization events.
                  */
-                ITmfEvent event = fEventsQueue.take();
-
-                /* This is a singleton, we want to do != instead of !x.equals */
-                while (event != END_EVENT) {
-                    if (event == EMPTY_QUEUE_EVENT) {
-                        /* Synchronization event, should be ignored */
-                        event = fEventsQueue.take();
-                        continue;
+                List<ITmfEvent> batch = new ArrayList<>(DEFAULT_EVENTS_CHUNK_SIZE);
+                List<ITmfEvent> readOnlyBatch = Collections.unmodifiableList(batch);
+                boolean end = false;
+                while (!end) {
+                    fChunk = fEventsQueue.takeChunk();
+                    for (ITmfEvent event : fChunk) {
+                        /* This is a singleton, we want to do == instead of x.equals */
+                        if (event == END_EVENT) {
+                            end = true;
+                            break;
+                        }
+                        if (event instanceof EmptyQueueEvent) {
+                            /* Synchronization event, reached once the preceding events are handled */
+                            if (!handleBatch(batch, readOnlyBatch)) {
+                                return;
+                            }
+                            ((EmptyQueueEvent) event).reached();
+                            continue;
+                        }
+                        batch.add(event);
                     }
-                    currentEvent = event;
-                    long currentTime = event.getTimestamp().toNanos();
-                    fSafeTime = currentTime - 1;
-                    ITmfStateSystemBuilder stateSystemBuilder = getStateSystemBuilder();
-                    if (stateSystemBuilder == null) {
+                    if (!handleBatch(batch, readOnlyBatch)) {
                         return;
                     }
-                    FutureEvent futureEvent = fFutureEvents.peek();
-                    while (futureEvent != null && (currentTime >= futureEvent.fTime)) {
-                        futureEvent = fFutureEvents.poll();
-                        if (futureEvent != null) {
-                            applyFutureEvent(futureEvent, stateSystemBuilder);
-                        }
-                        futureEvent = fFutureEvents.peek();
-                    }
-                    eventHandle(event);
-
-                    event = fEventsQueue.take();
                 }
                 fDone = true;
                 /*
@@ -363,20 +397,26 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
 
         }
 
-        private void applyFutureEvent(FutureEvent futureEvent, ITmfStateSystemBuilder stateSystemBuilder) {
-            switch (futureEvent.fType) {
-            case MODIFICATION:
-                stateSystemBuilder.modifyAttribute(futureEvent.fTime, futureEvent.fValue, futureEvent.fQuark);
-                break;
-            case PUSH:
-                stateSystemBuilder.pushAttribute(futureEvent.fTime, futureEvent.fValue, futureEvent.fQuark);
-                break;
-            case POP:
-                stateSystemBuilder.popAttributeObject(futureEvent.fTime, futureEvent.fQuark);
-                break;
-            default:
-                break;
+        /**
+         * Handle a batch of events and clear it
+         *
+         * @return false if the state system was disposed
+         */
+        private boolean handleBatch(List<ITmfEvent> batch, List<ITmfEvent> readOnlyBatch) {
+            if (batch.isEmpty()) {
+                return true;
+            }
+            ITmfStateSystemBuilder stateSystemBuilder = getStateSystemBuilder();
+            if (stateSystemBuilder == null) {
+                return false;
             }
+            currentEvent = batch.get(batch.size() - 1);
+            long startTime = batch.get(0).getTimestamp().toNanos();
+            fSafeTime = startTime - 1;
+            applyFutureEvents(startTime, stateSystemBuilder);
+            eventHandle(readOnlyBatch);
+            batch.clear();
+            return true;
         }
 
         private void closeStateSystem() {
@@ -405,13 +445,22 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
                  */
                 return;
             }
-            /* drain */
-            ITmfEvent event = fEventsQueue.take();
+            /*
+             * Release the threads waiting on the chunk that was being handled,
+             * then drain the queue, unless the chunk had the last event
+             */
+            boolean end = false;
+            for (ITmfEvent event : fChunk) {
+                if (event instanceof EmptyQueueEvent) {
+                    ((EmptyQueueEvent) event).reached();
+                }
+                end |= (event == END_EVENT);
+            }
+            ITmfEvent event = end ? END_EVENT : fEventsQueue.take();
             while (event != END_EVENT) {
-                if (event == EMPTY_QUEUE_EVENT) {
-                    /* Synchronization event, should be ignored */
-                    event = fEventsQueue.take();
-                    continue;
+                if (event instanceof EmptyQueueEvent) {
+                    /* Synchronization event, release the waiting thread */
+                    ((EmptyQueueEvent) event).reached();
                 }
                 event = fEventsQueue.take();
             }
@@ -431,6 +480,37 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
         fFutureEvents.add(new FutureEvent(time, futureValue, attribute, type));
     }
 
+    private void applyFutureEvent(FutureEvent futureEvent, ITmfStateSystemBuilder stateSystemBuilder) {
+        switch (futureEvent.fType) {
+        case MODIFICATION:
+            stateSystemBuilder.modifyAttribute(futureEvent.fTime, futureEvent.fValue, futureEvent.fQuark);
+            break;
+        case PUSH:
+            stateSystemBuilder.pushAttribute(futureEvent.fTime, futureEvent.fValue, futureEvent.fQuark);
+            break;
+        case POP:
+            stateSystemBuilder.popAttributeObject(futureEvent.fTime, futureEvent.fQuark);
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Apply the future events that are due at a time, before handling an
+     * event at that time
+     */
+    private void applyFutureEvents(long time, ITmfStateSystemBuilder stateSystemBuilder) {
+        FutureEvent futureEvent = fFutureEvents.peek();
+        while (futureEvent != null && (time >= futureEvent.fTime)) {
+            futureEvent = fFutureEvents.poll();
+            if (futureEvent != null) {
+                applyFutureEvent(futureEvent, stateSystemBuilder);
+            }
+            futureEvent = fFutureEvents.peek();
+        }
+    }
+
     // ------------------------------------------------------------------------
     // Abstract methods
     // ------------------------------------------------------------------------
@@ -450,4 +530,34 @@ public abstract class AbstractTmfStateProvider implements ITmfStateProvider {
      */
     protected abstract void eventHandle(ITmfEvent event);
 
+    /**
+     * Handle a batch of consecutive events, in the event handler thread.
+     *
+     * The default implementation handles the events one at a time with
+     * {@link #eventHandle(ITmfEvent)}, applying the future events that are due
+     * before each event. Providers can override it to handle a batch at once,
+     * for example to group the events by type or resolve their attributes
+     * together. Then the future events due before the first event of the batch
+     * are applied before the call, the others before the next batch, so
+     * providers that add future events due within a batch should apply them
+     * themselves or keep the default implementation.
+     *
+     * @param events
+     *            The events, in order. The list cannot be modified and is only
+     *            valid during the call.
+     * @since 8.1
+     */
+    protected void eventHandle(List<ITmfEvent> events) {
+        ITmfStateSystemBuilder stateSystemBuilder = getStateSystemBuilder();
+        if (stateSystemBuilder == null) {
+            return;
+        }
+        for (ITmfEvent event : events) {
+            long currentTime = event.getTimestamp().toNanos();
+            fSafeTime = currentTime - 1;
+            applyFutureEvents(currentTime, stateSystemBuilder);
+            eventHandle(event);
+        }
+    }
+
 }
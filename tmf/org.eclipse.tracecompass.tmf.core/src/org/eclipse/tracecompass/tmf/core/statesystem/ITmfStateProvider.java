@@ -17,6 +17,7 @@ package org.eclipse.tracecompass.tmf.core.statesystem;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.statesystem.core.StateSystemTimeSlices;
 import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
@@ -130,6 +131,28 @@ public interface ITmfStateProvider {
      */
     ITmfStateProvider getNewInstance();
 
+    /**
+     * Whether this state provider can be restarted at any point of the trace,
+     * in which case the state system can be built in time slices, in
+     * parallel, each slice being read by a {@link #getNewInstance() new
+     * instance} of the provider. See {@link StateSystemTimeSlices} for how the
+     * slices are stitched.
+     *
+     * A restartable provider only depends on the events it reads: it must not
+     * read the state of an attribute it did not modify since it started,
+     * must only modify states at the timestamps of its events and must not
+     * add future events. A new instance thus needs no bootstrap state when it
+     * starts in the middle of the trace: until it modifies them, the
+     * attributes keep the states of the previous slices when they are
+     * stitched.
+     *
+     * @return true if this state provider is restartable
+     * @since 8.1
+     */
+    default boolean isRestartable() {
+        return false;
+    }
+
     /**
      * Indicate to the state history building process that we are done (for now),
      * and that it should close its current history.
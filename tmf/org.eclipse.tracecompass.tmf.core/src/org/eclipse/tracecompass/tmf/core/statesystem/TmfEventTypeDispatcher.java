@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.statesystem;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+
+/**
+ * Dispatches the events to handlers by event type, for state providers. Each
+ * distinct event name gets an integer id, and its handler is resolved only
+ * once, when the name is first seen, so the handler of an event is then found
+ * in an array.
+ *
+ * The names of the events of a same type are usually the same string instance,
+ * for example the name of a CTF event declaration, so the ids of the recent
+ * names are cached by string identity, which avoids hashing and comparing the
+ * names. Other names are looked up by value.
+ *
+ * A dispatcher is not thread-safe, it is meant to be used by the thread
+ * handling the events of a state provider, and should be created with each new
+ * instance of the state provider.
+ *
+ * @param <H>
+ *            The type of handler
+ * @since 8.1
+ */
+public class TmfEventTypeDispatcher<H> {
+
+    /** Number of names cached by identity, must be a power of 2 */
+    private static final int CACHE_SIZE = 256;
+
+    private final Function<String, @Nullable H> fResolver;
+    private final Map<String, Integer> fIds = new HashMap<>();
+    private @Nullable Object[] fHandlers = new Object[16];
+
+    private final @Nullable String[] fCachedNames = new String[CACHE_SIZE];
+    private final int[] fCachedIds = new int[CACHE_SIZE];
+
+    /**
+     * Constructor
+     *
+     * @param resolver
+     *            Function resolving the handler of an event name, it returns
+     *            null if the events of that name are not handled. It is called
+     *            once per event name.
+     */
+    public TmfEventTypeDispatcher(Function<String, @Nullable H> resolver) {
+        fResolver = resolver;
+    }
+
+    /**
+     * Get the id of the type of an event, unique to the name of the event for
+     * this dispatcher
+     *
+     * @param event
+     *            The event
+     * @return The id of the event type, from 0 to the number of event names
+     *         seen minus 1
+     */
+    public int getTypeId(ITmfEvent event) {
+        return getTypeId(event.getName());
+    }
+
+    /**
+     * Get the id of an event name, unique to this name for this dispatcher
+     *
+     * @param name
+     *            The event name
+     * @return The id of the event name, from 0 to the number of event names
+     *         seen minus 1
+     */
+    public int getTypeId(String name) {
+        int slot = System.identityHashCode(name) & (CACHE_SIZE - 1);
+        if (fCachedNames[slot] == name) {
+            return fCachedIds[slot];
+        }
+        Integer id = fIds.get(name);
+        if (id == null) {
+            id = fIds.size();
+            fIds.put(name, id);
+            if (id == fHandlers.length) {
+                fHandlers = Arrays.copyOf(fHandlers, id * 2);
+            }
+            fHandlers[id] = fResolver.apply(name);
+        }
+        fCachedNames[slot] = name;
+        fCachedIds[slot] = id;
+        return id;
+    }
+
+    /**
+     * Get the handler of an event type id
+     *
+     * @param typeId
+     *            The id of the event type, as returned by
+     *            {@link #getTypeId(ITmfEvent)}
+     * @return The handler, or null if the events of this type are not handled
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable H getHandler(int typeId) {
+        return (H) fHandlers[typeId];
+    }
+
+    /**
+     * Get the handler of an event
+     *
+     * @param event
+     *            The event
+     * @return The handler, or null if the event is not handled
+     */
+    public @Nullable H getHandler(ITmfEvent event) {
+        return getHandler(getTypeId(event.getName()));
+    }
+}
@@ -18,12 +18,21 @@ package org.eclipse.tracecompass.tmf.core.statesystem;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,6 +51,7 @@ import org.eclipse.tracecompass.internal.tmf.core.statesystem.backends.partial.P
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
 import org.eclipse.tracecompass.statesystem.core.StateSystemFactory;
+import org.eclipse.tracecompass.statesystem.core.StateSystemTimeSlices;
 import org.eclipse.tracecompass.statesystem.core.backend.ICustomStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.backend.IStateHistoryBackend;
 import org.eclipse.tracecompass.statesystem.core.backend.StateHistoryBackendFactory;
@@ -56,6 +66,9 @@ import org.eclipse.tracecompass.tmf.core.signal.TmfSignalHandler;
 import org.eclipse.tracecompass.tmf.core.signal.TmfTraceRangeUpdatedSignal;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider.FutureEventType;
 import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimeRange;
+import org.eclipse.tracecompass.tmf.core.timestamp.TmfTimestamp;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfConcurrentlyReadable;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfContext;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTraceCompleteness;
 import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
@@ -84,6 +97,17 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
 
     private static final String EXTENSION = ".ht"; //$NON-NLS-1$
 
+    /**
+     * System property with the maximum number of time slices in which to
+     * build a state system, see {@link #getTimeSliceCount(ITmfStateProvider)}.
+     * Defaults to the number of processors, up to 8.
+     */
+    private static final String TIME_SLICES_PROPERTY = "org.eclipse.tracecompass.tmf.core.statesystem.timeSlices"; //$NON-NLS-1$
+    private static final int MAX_TIME_SLICES = Integer.getInteger(TIME_SLICES_PROPERTY, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+
+    /** Minimum number of events of a time slice, smaller ones are not worth it */
+    private static final long MIN_EVENTS_PER_SLICE = 1000000;
+
     private final CountDownLatch fInitialized = new CountDownLatch(1);
     private final Object fRequestSyncObj = new Object();
 
@@ -165,6 +189,35 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         return StateSystemBackendType.FULL;
     }
 
+    /**
+     * Get the number of time slices in which to build a full history. The
+     * slices are read in parallel, each by its own instance of the state
+     * provider, and are then stitched together in the history file, see
+     * {@link StateSystemTimeSlices}. This requires a
+     * {@link ITmfStateProvider#isRestartable() restartable} state provider.
+     *
+     * By default, complete traces that can be read concurrently, see
+     * {@link ITmfConcurrentlyReadable}, and without an initial state snapshot
+     * get one slice per million events, up to the number of processors (or
+     * the value of the
+     * <code>org.eclipse.tracecompass.tmf.core.statesystem.timeSlices</code>
+     * system property). Sub-classes may override.
+     *
+     * @param provider
+     *            The state provider that will build the state system
+     * @return The number of time slices, 1 to build the state system
+     *         sequentially
+     * @since 8.1
+     */
+    protected int getTimeSliceCount(ITmfStateProvider provider) {
+        ITmfTrace trace = provider.getTrace();
+        if (!provider.isRestartable() || !(trace instanceof ITmfConcurrentlyReadable) || !isCompleteTrace(trace) || hasInitialState(provider)) {
+            return 1;
+        }
+        long slices = trace.getNbEvents() / MIN_EVENTS_PER_SLICE;
+        return (int) Math.max(1, Math.min(MAX_TIME_SLICES, slices));
+    }
+
     /**
      * Get the supplementary file name where to save this state system. The default
      * is the ID of the analysis followed by the extension.
@@ -286,7 +339,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
                 if (htFile == null) {
                     return false;
                 }
-                createFullHistory(id, provider, htFile);
+                createFullHistory(id, provider, htFile, mon);
                 break;
             case PARTIAL:
                 htFile = getSsFile();
@@ -351,7 +404,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
      * Load the history file matching the target trace. If the file already exists,
      * it will be opened directly. If not, it will be created from scratch.
      */
-    private void createFullHistory(String id, ITmfStateProvider provider, File htFile) throws TmfTraceException {
+    private void createFullHistory(String id, ITmfStateProvider provider, File htFile, IProgressMonitor monitor) throws TmfTraceException {
 
         /* If the target file already exists, do not rebuild it uselessly */
         // TODO for now we assume it's complete. Might be a good idea to check
@@ -378,6 +431,12 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         /* Size of the blocking queue to use when building a state history */
         final int QUEUE_SIZE = 10000;
 
+        long[] sliceStarts = getSliceStarts(provider, getTimeSliceCount(provider));
+        if (sliceStarts.length > 1) {
+            buildInTimeSlices(id, provider, htFile, sliceStarts, QUEUE_SIZE, monitor);
+            return;
+        }
+
         try {
             IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendNewFile(
                     id, htFile, provider.getVersion(), provider.getStartTime(), QUEUE_SIZE);
@@ -393,6 +452,145 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         }
     }
 
+    /*
+     * Split the trace in time slices of equal duration, or return a single
+     * slice if the trace is too short.
+     */
+    private static long[] getSliceStarts(ITmfStateProvider provider, int sliceCount) {
+        long start = provider.getStartTime();
+        if (sliceCount <= 1) {
+            return new long[] { start };
+        }
+        long duration = provider.getTrace().getEndTime().toNanos() - start;
+        long[] starts = new long[sliceCount];
+        int count = 0;
+        for (int i = 0; i < sliceCount; i++) {
+            long sliceStart = start + (long) ((double) duration * i / sliceCount);
+            if (count == 0 || sliceStart > starts[count - 1]) {
+                starts[count++] = sliceStart;
+            }
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    /*
+     * Build a full history in time slices. Each slice is read in its own
+     * thread and sent to its own instance of the state provider, then the
+     * slices are stitched together in the history file. The state system is
+     * only made available once the history is complete.
+     */
+    private void buildInTimeSlices(String id, ITmfStateProvider provider, File htFile, long[] sliceStarts, int queueSize, IProgressMonitor monitor) throws TmfTraceException {
+        final ITmfTrace trace = provider.getTrace();
+        final int count = sliceStarts.length;
+        File directory = htFile.getAbsoluteFile().getParentFile();
+        /* Stops the other readers when one of them fails */
+        AtomicBoolean failed = new AtomicBoolean(false);
+        BooleanSupplier stopped = () -> failed.get() || monitor.isCanceled();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(count, r -> {
+            Thread thread = new Thread(r, id + " Time Slice Reader " + threadCount.getAndIncrement()); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ScopeLog log = new ScopeLog(LOGGER, Level.FINE, "StateSystemAnalysis:buildInTimeSlices", "id", id, "slices", count); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                StateSystemTimeSlices slices = new StateSystemTimeSlices(id, sliceStarts, directory)) {
+            Throwable failureCause = null;
+            List<ITmfStateProvider> providers = new ArrayList<>();
+            List<Future<?>> readers = new ArrayList<>();
+            try {
+                for (int i = 0; i < count; i++) {
+                    ITmfStateProvider sliceProvider = (i == 0) ? provider : provider.getNewInstance();
+                    providers.add(sliceProvider);
+                    sliceProvider.assignTargetStateSystem(slices.getSlice(i));
+                    long start = sliceStarts[i];
+                    long end = (i == count - 1) ? Long.MAX_VALUE : sliceStarts[i + 1];
+                    readers.add(executor.submit(() -> readTimeSlice(trace, sliceProvider, start, end, stopped)));
+                }
+            } catch (RuntimeException e) {
+                failed.set(true);
+                failureCause = e;
+            }
+            executor.shutdown();
+
+            for (Future<?> reader : readers) {
+                try {
+                    reader.get();
+                } catch (ExecutionException e) {
+                    failed.set(true);
+                    failureCause = (failureCause == null) ? e.getCause() : failureCause;
+                } catch (InterruptedException e) {
+                    failed.set(true);
+                    failureCause = (failureCause == null) ? e : failureCause;
+                    Thread.currentThread().interrupt();
+                }
+            }
+            /* Disposing the providers closes the state systems of the slices */
+            for (ITmfStateProvider sliceProvider : providers) {
+                sliceProvider.dispose();
+                Throwable cause = sliceProvider.getFailureCause();
+                failureCause = (failureCause == null) ? cause : failureCause;
+            }
+            if (failureCause != null || monitor.isCanceled()) {
+                if (failureCause != null) {
+                    fail(failureCause);
+                }
+                completingBuild(true);
+                analysisReady(false);
+                return;
+            }
+
+            IStateHistoryBackend backend = StateHistoryBackendFactory.createHistoryTreeBackendNewFile(
+                    id, htFile, provider.getVersion(), provider.getStartTime(), queueSize);
+            try {
+                fStateSystem = slices.stitch(backend);
+            } catch (IOException | RuntimeException e) {
+                backend.removeFiles();
+                throw e;
+            }
+            completingBuild(false);
+            analysisReady(true);
+        } catch (IOException e) {
+            throw new TmfTraceException(e.toString(), e);
+        } finally {
+            /* Only interrupts the readers if the build did not complete */
+            executor.shutdownNow();
+        }
+    }
+
+    /*
+     * Read the events of a time slice with a context of its own. Traces that
+     * can be read concurrently are read without locking the trace, so the
+     * slices do not wait for each other.
+     */
+    private static void readTimeSlice(ITmfTrace trace, ITmfStateProvider provider, long start, long end, BooleanSupplier stopped) {
+        ITmfContext context = trace.seekEvent(TmfTimestamp.fromNanos(start));
+        Function<ITmfContext, @Nullable ITmfEvent> reader = (trace instanceof ITmfConcurrentlyReadable) ? ((ITmfConcurrentlyReadable) trace)::readNext : trace::getNext;
+        try {
+            ITmfEvent event = reader.apply(context);
+            while (event != null && event.getTimestamp().toNanos() < end && !stopped.getAsBoolean() && !Thread.currentThread().isInterrupted()) {
+                processEvent(provider, event, trace);
+                event = reader.apply(context);
+            }
+        } finally {
+            context.dispose();
+        }
+    }
+
+    private static void processEvent(ITmfStateProvider provider, ITmfEvent event, ITmfTrace trace) {
+        if (event.getTrace() == trace) {
+            provider.processEvent(event);
+        } else if (trace instanceof TmfExperiment) {
+            /*
+             * If the request is for an experiment, check if the event is from one of the
+             * child trace
+             */
+            for (ITmfTrace childTrace : ((TmfExperiment) trace).getTraces()) {
+                processEvent(provider, event, childTrace);
+            }
+        }
+    }
+
     /*
      * Create a new state system backed with a partial history. A partial history is
      * similar to a "full" one (which you get with {@link #newFullHistory}), except
@@ -621,9 +819,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
      * Batch-load the initial state, if there is any.
      */
     private void loadInitialState(ITmfStateProvider provider) {
-        final ITmfTrace trace = provider.getTrace();
-        File path = new File(trace.getPath());
-        path = path.isDirectory() ? path : path.getParentFile();
+        File path = getSnapshotDirectory(provider.getTrace());
         if (path == null) {
             return;
         }
@@ -674,6 +870,20 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         }
     }
 
+    private boolean hasInitialState(ITmfStateProvider provider) {
+        File path = getSnapshotDirectory(provider.getTrace());
+        if (path == null) {
+            return false;
+        }
+        StateSnapshot snapshot = StateSnapshot.read(path.toPath(), getId());
+        return snapshot != null && snapshot.getVersion() == provider.getVersion();
+    }
+
+    private static @Nullable File getSnapshotDirectory(ITmfTrace trace) {
+        File path = new File(trace.getPath());
+        return path.isDirectory() ? path : path.getParentFile();
+    }
+
     /**
      * A request to build a state system from a state provider
      *
@@ -735,21 +945,7 @@ public abstract class TmfStateSystemAnalysisModule extends TmfAbstractAnalysisMo
         @Override
         public void handleData(final ITmfEvent event) {
             super.handleData(event);
-            processEvent(event, trace);
-        }
-
-        private void processEvent(final ITmfEvent event, ITmfTrace tmfTrace) {
-            if (event.getTrace() == tmfTrace) {
-                sci.processEvent(event);
-            } else if (tmfTrace instanceof TmfExperiment) {
-                /*
-                 * If the request is for an experiment, check if the event is from one of the
-                 * child trace
-                 */
-                for (ITmfTrace childTrace : ((TmfExperiment) tmfTrace).getTraces()) {
-                    processEvent(event, childTrace);
-                }
-            }
+            processEvent(sci, event, trace);
         }
 
         @Override
@@ -63,7 +63,11 @@ public class TmfStateStatistics implements ITmfStatistics {
      *            The state system containing the "totals" information
      * @param eventTypes
      *            The state system containing the "event types" information
+     * @deprecated The {@link TmfStatisticsModule} counts the events without a
+     *             state system, use
+     *             {@link TmfStatisticsModule#getStatistics()}
      */
+    @Deprecated
     public TmfStateStatistics(@NonNull ITmfStateSystem totals, @NonNull ITmfStateSystem eventTypes) {
         fTotalsStats = totals;
         fTypesStats = eventTypes;
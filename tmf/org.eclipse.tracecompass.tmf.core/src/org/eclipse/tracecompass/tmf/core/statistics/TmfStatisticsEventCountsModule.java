@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.statistics;
+
+import static org.eclipse.tracecompass.common.core.NonNullUtils.checkNotNull;
+
+import java.io.File;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.internal.tmf.core.Activator;
+import org.eclipse.tracecompass.internal.tmf.core.statistics.TmfEventCountStatistics;
+import org.eclipse.tracecompass.statesystem.core.ITmfStateSystemBuilder;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+import org.eclipse.tracecompass.tmf.core.event.ITmfLostEvent;
+import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
+import org.eclipse.tracecompass.tmf.core.statesystem.AbstractTmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.ITmfStateProvider;
+import org.eclipse.tracecompass.tmf.core.statesystem.TmfStateSystemAnalysisModule;
+import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
+import org.eclipse.tracecompass.tmf.core.trace.TmfTraceManager;
+
+/**
+ * The analysis module counting the events of the trace for the
+ * {@link TmfStatisticsModule}.
+ *
+ * The events are counted in a {@link TmfEventCountStatistics}, saved next to
+ * the state system. The state system only holds the lost events, in the same
+ * attributes as the "event types" state system, and uses its ID so the lost
+ * events can be queried the same way.
+ */
+class TmfStatisticsEventCountsModule extends TmfStateSystemAnalysisModule {
+
+    private static final @NonNull String NAME = "TMF Statistics, event counts"; //$NON-NLS-1$
+
+    private static final String COUNTS_FILE_NAME = "statistics-counts.dat"; //$NON-NLS-1$
+
+    private @Nullable TmfEventCountStatistics fCounts = null;
+
+    /**
+     * Constructor
+     */
+    public TmfStatisticsEventCountsModule() {
+        super();
+        setId(TmfStatisticsEventTypesModule.ID);
+        setName(NAME);
+    }
+
+    /**
+     * Get the event counts
+     *
+     * @return The event counts, or null if the trace was not set
+     */
+    public @Nullable TmfEventCountStatistics getCounts() {
+        return fCounts;
+    }
+
+    @Override
+    public boolean setTrace(ITmfTrace trace) throws TmfAnalysisException {
+        if (!super.setTrace(trace)) {
+            return false;
+        }
+        File file = new File(TmfTraceManager.getSupplementaryFileDir(trace) + COUNTS_FILE_NAME);
+        fCounts = new TmfEventCountStatistics(trace, file);
+        return true;
+    }
+
+    @Override
+    protected boolean executeAnalysis(@Nullable IProgressMonitor monitor) {
+        TmfEventCountStatistics counts = fCounts;
+        File ssFile = getSsFile();
+        if (counts != null && !counts.load() && ssFile != null && ssFile.exists()) {
+            /* The events must be counted again, so must the lost events */
+            if (!ssFile.delete()) {
+                Activator.logWarning("Cannot delete the statistics file " + ssFile); //$NON-NLS-1$
+            }
+        }
+        return super.executeAnalysis(monitor);
+    }
+
+    @Override
+    protected void completingBuild(boolean deleteFiles) {
+        TmfEventCountStatistics counts = fCounts;
+        if (deleteFiles && counts != null) {
+            counts.reset();
+            counts.deleteFile();
+        }
+    }
+
+    @Override
+    protected ITmfStateProvider createStateProvider() {
+        return new StatsProviderEventCounts(checkNotNull(getTrace()), checkNotNull(fCounts));
+    }
+
+    @Override
+    protected String getSsFileName() {
+        return "statistics-lost-events.ht"; //$NON-NLS-1$
+    }
+
+    /**
+     * The state provider counting the events. The lost events are stored in
+     * the state system like the "event types" state provider does.
+     */
+    private static class StatsProviderEventCounts extends AbstractTmfStateProvider {
+
+        /**
+         * Version number of this input handler. Please bump this if you modify
+         * the contents of the generated state history in some way.
+         */
+        private static final int VERSION = 1;
+
+        private final TmfEventCountStatistics fCounts;
+        private boolean fStarted = false;
+
+        public StatsProviderEventCounts(@NonNull ITmfTrace trace, TmfEventCountStatistics counts) {
+            super(trace, "TMF Statistics, event counts"); //$NON-NLS-1$
+            fCounts = counts;
+        }
+
+        @Override
+        public int getVersion() {
+            return VERSION;
+        }
+
+        @Override
+        public StatsProviderEventCounts getNewInstance() {
+            return new StatsProviderEventCounts(getTrace(), fCounts);
+        }
+
+        @Override
+        protected void eventHandle(ITmfEvent event) {
+            if (!fStarted) {
+                /* The counts may have been loaded while the state system was rebuilt */
+                fCounts.reset();
+                fStarted = true;
+            }
+            fCounts.addEvent(event);
+            if (event instanceof ITmfLostEvent) {
+                ITmfStateSystemBuilder ss = checkNotNull(getStateSystemBuilder());
+                TmfStatisticsEventTypesModule.handleLostEvent(ss, (ITmfLostEvent) event, event.getTimestamp().toNanos());
+            }
+        }
+
+        @Override
+        public void done() {
+            fCounts.finish();
+        }
+    }
+}
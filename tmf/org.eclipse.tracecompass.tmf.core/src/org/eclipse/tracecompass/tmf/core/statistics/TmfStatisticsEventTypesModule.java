@@ -36,6 +36,10 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
  * It is not in the extension point (and as such, not registered in the
  * TmfAnalysisManager), as it is being handled by the TmfStatisticsModule.
  *
+ * The {@link TmfStatisticsModule} does not build this state system anymore,
+ * but its state system with this module's {@link #ID} keeps the lost events
+ * in the same attributes.
+ *
  * @author Alexandre Montplaisir
  */
 public class TmfStatisticsEventTypesModule extends TmfStateSystemAnalysisModule {
@@ -49,7 +53,12 @@ public class TmfStatisticsEventTypesModule extends TmfStateSystemAnalysisModule
 
     /**
      * Constructor
+     *
+     * @deprecated The {@link TmfStatisticsModule} counts the events without a
+     *             state system, use
+     *             {@link TmfStatisticsModule#getStatistics()}
      */
+    @Deprecated
     public TmfStatisticsEventTypesModule() {
         super();
         setId(ID);
@@ -126,7 +135,6 @@ public class TmfStatisticsEventTypesModule extends TmfStateSystemAnalysisModule
         @Override
         protected void eventHandle(ITmfEvent event) {
             ITmfStateSystemBuilder ss = checkNotNull(getStateSystemBuilder());
-            int quark;
 
             /* Since this can be used for any trace types, normalize all the
              * timestamp values to nanoseconds. */
@@ -136,31 +144,45 @@ public class TmfStatisticsEventTypesModule extends TmfStateSystemAnalysisModule
 
             /* Special handling for lost events */
             if (event instanceof ITmfLostEvent) {
-                ITmfLostEvent le = (ITmfLostEvent) event;
-                quark = ss.getQuarkAbsoluteAndAdd(Attributes.EVENT_TYPES, eventName);
-
-                int curVal = ss.queryOngoingState(quark).unboxInt();
-                if (curVal == -1) {
-                    curVal = 0;
-                }
-
-                ss.modifyAttribute(ts, (int) (curVal + le.getNbLostEvents()), quark);
-
-                long lostEventsStartTime = le.getTimeRange().getStartTime().toNanos();
-                long lostEventsEndTime = le.getTimeRange().getEndTime().toNanos();
-                int lostEventsQuark = ss.getQuarkAbsoluteAndAdd(Attributes.LOST_EVENTS);
-                ITmfStateValue currentLostEventsEndTime = ss.queryOngoingState(lostEventsQuark);
-                if (currentLostEventsEndTime.isNull() || currentLostEventsEndTime.unboxLong() < lostEventsStartTime) {
-                    ss.modifyAttribute(lostEventsStartTime, lostEventsEndTime, lostEventsQuark);
-                } else if (currentLostEventsEndTime.unboxLong() < lostEventsEndTime) {
-                    ss.updateOngoingState(TmfStateValue.newValueLong(lostEventsEndTime), lostEventsQuark);
-                }
+                handleLostEvent(ss, (ITmfLostEvent) event, ts);
                 return;
             }
 
             /* Number of events of each type, globally */
-            quark = ss.getQuarkAbsoluteAndAdd(Attributes.EVENT_TYPES, eventName);
+            int quark = ss.getQuarkAbsoluteAndAdd(Attributes.EVENT_TYPES, eventName);
             StateSystemBuilderUtils.incrementAttributeInt(ss, ts, quark, 1);
         }
     }
+
+    /**
+     * Count a lost event in its event type, and extend the end time of the
+     * lost events time ranges.
+     *
+     * @param ss
+     *            The state system builder
+     * @param le
+     *            The lost event
+     * @param ts
+     *            The timestamp of the lost event, in nanoseconds
+     */
+    static void handleLostEvent(ITmfStateSystemBuilder ss, ITmfLostEvent le, long ts) {
+        int quark = ss.getQuarkAbsoluteAndAdd(Attributes.EVENT_TYPES, le.getName());
+
+        int curVal = ss.queryOngoingState(quark).unboxInt();
+        if (curVal == -1) {
+            curVal = 0;
+        }
+
+        ss.modifyAttribute(ts, (int) (curVal + le.getNbLostEvents()), quark);
+
+        long lostEventsStartTime = le.getTimeRange().getStartTime().toNanos();
+        long lostEventsEndTime = le.getTimeRange().getEndTime().toNanos();
+        int lostEventsQuark = ss.getQuarkAbsoluteAndAdd(Attributes.LOST_EVENTS);
+        ITmfStateValue currentLostEventsEndTime = ss.queryOngoingState(lostEventsQuark);
+        if (currentLostEventsEndTime.isNull() || currentLostEventsEndTime.unboxLong() < lostEventsStartTime) {
+            ss.modifyAttribute(lostEventsStartTime, lostEventsEndTime, lostEventsQuark);
+        } else if (currentLostEventsEndTime.unboxLong() < lostEventsEndTime) {
+            ss.updateOngoingState(TmfStateValue.newValueLong(lostEventsEndTime), lostEventsQuark);
+        }
+    }
 }
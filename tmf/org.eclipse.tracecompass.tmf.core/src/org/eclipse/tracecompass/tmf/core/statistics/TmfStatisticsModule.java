@@ -26,7 +26,6 @@ import org.eclipse.tracecompass.statesystem.core.ITmfStateSystem;
 import org.eclipse.tracecompass.tmf.core.analysis.TmfAbstractAnalysisModule;
 import org.eclipse.tracecompass.tmf.core.exceptions.TmfAnalysisException;
 import org.eclipse.tracecompass.tmf.core.statesystem.ITmfAnalysisModuleWithStateSystems;
-import org.eclipse.tracecompass.tmf.core.statesystem.TmfStateSystemAnalysisModule;
 import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
 
 /**
@@ -44,8 +43,7 @@ public class TmfStatisticsModule extends TmfAbstractAnalysisModule
     private ITmfStatistics fStatistics = null;
     private boolean fInitializationSucceeded;
 
-    private final TmfStateSystemAnalysisModule totalsModule = new TmfStatisticsTotalsModule();
-    private final TmfStateSystemAnalysisModule eventTypesModule = new TmfStatisticsEventTypesModule();
+    private final TmfStatisticsEventCountsModule countsModule = new TmfStatisticsEventCountsModule();
 
     private final CountDownLatch fInitialized = new CountDownLatch(1);
 
@@ -91,8 +89,7 @@ public class TmfStatisticsModule extends TmfAbstractAnalysisModule
          * to tell them when the trace is disposed.
          */
         super.dispose();
-        totalsModule.dispose();
-        eventTypesModule.dispose();
+        countsModule.dispose();
     }
 
     @Override
@@ -102,14 +99,11 @@ public class TmfStatisticsModule extends TmfAbstractAnalysisModule
         }
 
         /*
-         * Since these sub-analyzes are not built from an extension point, we
+         * Since this sub-analysis is not built from an extension point, we
          * have to assign the trace ourselves. Very important to do so before
          * calling schedule()!
          */
-        if (!totalsModule.setTrace(trace)) {
-            return false;
-        }
-        return eventTypesModule.setTrace(trace);
+        return countsModule.setTrace(trace);
     }
 
     @Override
@@ -121,40 +115,38 @@ public class TmfStatisticsModule extends TmfAbstractAnalysisModule
             return false;
         }
 
-        IStatus status1 = totalsModule.schedule();
-        IStatus status2 = eventTypesModule.schedule();
-        if (!(status1.isOK() && status2.isOK())) {
+        IStatus status = countsModule.schedule();
+        if (!status.isOK()) {
             cancelSubAnalyses();
             analysisReady(false);
             return false;
         }
 
-        /* Wait until the two modules are initialized */
-        if (!totalsModule.waitForInitialization() || !eventTypesModule.waitForInitialization()) {
+        /* Wait until the module is initialized */
+        if (!countsModule.waitForInitialization()) {
             analysisReady(false);
             return false;
         }
 
-        ITmfStateSystem totalsSS = totalsModule.getStateSystem();
-        ITmfStateSystem eventTypesSS = eventTypesModule.getStateSystem();
+        ITmfStateSystem lostEventsSS = countsModule.getStateSystem();
+        ITmfStatistics counts = countsModule.getCounts();
 
-        if (totalsSS == null || eventTypesSS == null) {
+        if (lostEventsSS == null || counts == null) {
             /* This analysis was cancelled in the meantime */
             analysisReady(false);
-            throw new IllegalStateException("TmfStatisticsModule : Sub-modules initialization succeeded but there is a null state system."); //$NON-NLS-1$
+            throw new IllegalStateException("TmfStatisticsModule : Sub-module initialization succeeded but there is a null state system."); //$NON-NLS-1$
         }
 
-        fStatistics = new TmfStateStatistics(totalsSS, eventTypesSS);
+        fStatistics = counts;
 
         /* fStatistics is now set, consider this module initialized */
         analysisReady(true);
 
         /*
-         * The rest of this "execute" will encompass the "execute" of the two
-         * sub-analyzes.
+         * The rest of this "execute" will encompass the "execute" of the
+         * sub-analysis.
          */
-        return totalsModule.waitForCompletion(monitor) &&
-                eventTypesModule.waitForCompletion(monitor);
+        return countsModule.waitForCompletion(monitor);
     }
 
     /**
@@ -185,8 +177,7 @@ public class TmfStatisticsModule extends TmfAbstractAnalysisModule
     }
 
     private void cancelSubAnalyses() {
-        totalsModule.cancel();
-        eventTypesModule.cancel();
+        countsModule.cancel();
     }
 
     // ------------------------------------------------------------------------
@@ -195,26 +186,22 @@ public class TmfStatisticsModule extends TmfAbstractAnalysisModule
 
     @Override
     public ITmfStateSystem getStateSystem(String id) {
-        switch (id) {
-        case TmfStatisticsTotalsModule.ID:
-            return totalsModule.getStateSystem();
-        case TmfStatisticsEventTypesModule.ID:
-            return eventTypesModule.getStateSystem();
-        default:
-            return null;
+        /*
+         * The event counts are not in a state system anymore, only the lost
+         * events are, with the ID of the event types state system.
+         */
+        if (TmfStatisticsEventTypesModule.ID.equals(id)) {
+            return countsModule.getStateSystem();
         }
+        return null;
     }
 
     @Override
     public @NonNull Iterable<@NonNull ITmfStateSystem> getStateSystems() {
         List<@NonNull ITmfStateSystem> list = new LinkedList<>();
-        ITmfStateSystem totalsStateSystem = totalsModule.getStateSystem();
-        if (totalsStateSystem != null) {
-            list.add(totalsStateSystem);
-        }
-        ITmfStateSystem eventTypesStateSystem = eventTypesModule.getStateSystem();
-        if (eventTypesStateSystem != null) {
-            list.add(eventTypesStateSystem);
+        ITmfStateSystem lostEventsStateSystem = countsModule.getStateSystem();
+        if (lostEventsStateSystem != null) {
+            list.add(lostEventsStateSystem);
         }
         return list;
     }
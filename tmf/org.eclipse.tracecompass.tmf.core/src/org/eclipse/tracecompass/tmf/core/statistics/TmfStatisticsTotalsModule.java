@@ -34,7 +34,10 @@ import org.eclipse.tracecompass.tmf.core.trace.ITmfTrace;
  * TmfAnalysisManager), as it is being handled by the TmfStatisticsModule.
  *
  * @author Alexandre Montplaisir
+ * @deprecated The {@link TmfStatisticsModule} counts the events without a
+ *             state system, use {@link TmfStatisticsModule#getStatistics()}
  */
+@Deprecated
 public class TmfStatisticsTotalsModule extends TmfStateSystemAnalysisModule {
 
     /**
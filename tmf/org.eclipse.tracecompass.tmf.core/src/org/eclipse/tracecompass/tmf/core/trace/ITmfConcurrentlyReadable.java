@@ -0,0 +1,39 @@
+/**********************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ **********************************************************************/
+
+package org.eclipse.tracecompass.tmf.core.trace;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.tracecompass.tmf.core.event.ITmfEvent;
+
+/**
+ * An interface for traces that can be read by many threads at the same time,
+ * each with its own context. Unlike {@link ITmfTrace#getNext(ITmfContext)},
+ * reading does not lock the trace and does not update its attributes (time
+ * range, number of events, index), so it is only meant for traces that are
+ * complete and indexed.
+ *
+ * @since 8.1
+ */
+public interface ITmfConcurrentlyReadable {
+
+    /**
+     * Read the event at the location of a context and advance the context to
+     * the next event. The context must not be used by another thread at the
+     * same time.
+     *
+     * @param context
+     *            The context to read, obtained from
+     *            {@link ITmfTrace#seekEvent}
+     * @return The event, or null if there are no more events
+     */
+    @Nullable ITmfEvent readNext(ITmfContext context);
+}
@@ -203,6 +203,12 @@ public class TmfCheckpointIndexer implements ITmfTraceIndexer {
                 }
             }
 
+            @Override
+            public boolean isEventReuseAllowed() {
+                // Only the location and timestamp are kept by the index
+                return true;
+            }
+
             @Override
             public void handleSuccess() {
                 updateTraceStatus();